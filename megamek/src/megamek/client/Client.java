@@ -17,15 +17,18 @@
 package megamek.client;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -99,6 +102,7 @@ import megamek.common.event.GameEntityChangeEvent;
 import megamek.common.event.GamePlayerChatEvent;
 import megamek.common.event.GamePlayerDisconnectedEvent;
 import megamek.common.event.GameReportEvent;
+import megamek.common.event.GameReportPageEvent;
 import megamek.common.event.GameSettingsChangeEvent;
 import megamek.common.event.GameVictoryEvent;
 import megamek.common.net.ConnectionFactory;
@@ -107,9 +111,12 @@ import megamek.common.net.DisconnectedEvent;
 import megamek.common.net.IConnection;
 import megamek.common.net.Packet;
 import megamek.common.net.PacketReceivedEvent;
+import megamek.common.net.compression.PacketCodecFactory;
+import megamek.common.net.marshall.PacketMarshallerFactory;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
 import megamek.common.preference.PreferenceManager;
+import megamek.common.util.ByteDelta;
 import megamek.common.util.SerializationHelper;
 import megamek.common.util.StringUtil;
 import megamek.server.SmokeCloud;
@@ -150,6 +157,11 @@ public class Client implements IClientCommandHandler {
 
     // we might want to keep a game log...
     private GameLog log;
+    /** Whether the game log is written again once all past reports are here */
+    private boolean rebuildGameLog;
+
+    /** Report rounds asked for but not yet received, first round to last */
+    private final Map<Integer, Integer> requestedReports = new HashMap<>();
 
     private Set<BoardDimensions> availableSizes = new TreeSet<BoardDimensions>();
 
@@ -159,6 +171,12 @@ public class Client implements IClientCommandHandler {
 
     private Hashtable<String, Integer> duplicateNameHash = new Hashtable<String, Integer>();
 
+    /**
+     * The serialized entity states the server sent last; the base for the
+     * next delta update of each entity.
+     */
+    private Map<Integer, byte[]> entityStates = new HashMap<Integer, byte[]>();
+
     public Map<String, Client> bots = new TreeMap<String, Client>(StringUtil.stringComparator());
 
     ConnectionHandler packetUpdate;
@@ -218,7 +236,10 @@ public class Client implements IClientCommandHandler {
             // this is a reasonable hack for now
             Runnable handlePacketEvent = new Runnable() {
                 public void run() {
-                    handlePacket(e.getPacket());
+                    Packet packet = resolveEntityStates(e.getPacket());
+                    if (packet != null) {
+                        handlePacket(packet);
+                    }
                 }
             };
             SwingUtilities.invokeLater(handlePacketEvent);
@@ -357,6 +378,89 @@ public class Client implements IClientCommandHandler {
         log.append("<html><body>");
     }
 
+    /**
+     * Asks the server for the reports of past rounds that are not here yet.
+     * The server sends a page of rounds from the first one missing; when
+     * it arrives a <code>GameReportPageEvent</code> is sent.
+     *
+     * @param firstRound the first round wanted
+     * @param lastRound the last round wanted
+     */
+    public synchronized void requestReports(int firstRound, int lastRound) {
+        int first = Math.max(1, firstRound);
+        int last = Math.min(lastRound, game.getAllReports().size());
+        while ((first <= last) && (game.hasReports(first) || isReportRequested(first))) {
+            first++;
+        }
+        while ((last >= first) && (game.hasReports(last) || isReportRequested(last))) {
+            last--;
+        }
+        if (first > last) {
+            return;
+        }
+        requestedReports.put(first, last);
+        send(new Packet(Packet.COMMAND_REQUEST_REPORTS, new Object[] { first, last }));
+    }
+
+    private boolean isReportRequested(int round) {
+        for (Map.Entry<Integer, Integer> request : requestedReports.entrySet()) {
+            if ((round >= request.getKey()) && (round <= request.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void receiveReportsPage(Packet c) {
+        int firstRound = c.getIntValue(0);
+        Vector<Vector<Report>> rounds = (Vector<Vector<Report>>) c.getObject(1);
+        int roundCount = c.getIntValue(2);
+        boolean requested;
+        synchronized (this) {
+            requested = requestedReports.remove(firstRound) != null;
+            game.setReportsPage(firstRound, rounds, roundCount);
+        }
+        int lastRound = (firstRound + rounds.size()) - 1;
+        int round = Math.max(1, game.getRoundCount());
+        if ((round >= firstRound) && (round <= lastRound)) {
+            roundReport = receiveReport(game.getReports(round));
+            if (phaseReport == null) {
+                // We don't really have a copy of the phase report at
+                // this point, so I guess we'll just use the round report
+                // until the next phase actually completes.
+                phaseReport = roundReport;
+            }
+        }
+        if (keepGameLog()) {
+            if (!requested) {
+                // joined a game in progress; gamelog.txt is written again
+                // from scratch once the earlier rounds are here
+                rebuildGameLog = true;
+            }
+            if (rebuildGameLog) {
+                writeGameLog(roundCount);
+            }
+        }
+        game.processGameEvent(new GameReportPageEvent(this, firstRound, lastRound));
+    }
+
+    private void writeGameLog(int roundCount) {
+        for (int round = 1; round <= roundCount; round++) {
+            if (!game.hasReports(round)) {
+                requestReports(round, roundCount);
+                return;
+            }
+        }
+        rebuildGameLog = false;
+        initGameLog();
+        if (log != null) {
+            for (int round = 1; round <= roundCount; round++) {
+                log.append(receiveReport(game.getReports(round)));
+            }
+        }
+    }
+
     /**
      * Called to determine whether the game log should be kept.
      * <p>
@@ -990,6 +1094,61 @@ public class Client implements IClientCommandHandler {
         game.setEntity(eindex, entity, movePath);
     }
 
+    /**
+     * Keeps the entity states used as base for delta updates in sync, and
+     * turns a <code>COMMAND_ENTITY_DELTA_UPDATE</code> back into the
+     * <code>COMMAND_ENTITY_UPDATE</code> it stands for, so that everything
+     * handling packets only ever sees the latter.
+     *
+     * @param packet the received packet
+     * @return the packet to handle, or <code>null</code> if the delta could not
+     *         be applied and a full update has been requested instead
+     */
+    @SuppressWarnings("unchecked")
+    protected Packet resolveEntityStates(Packet packet) {
+        if (packet == null) {
+            return null;
+        }
+        if (packet.getCommand() == Packet.COMMAND_ENTITY_REMOVE) {
+            entityStates.keySet().removeAll((List<Integer>) packet.getObject(0));
+            return packet;
+        } else if (packet.getCommand() != Packet.COMMAND_ENTITY_DELTA_UPDATE) {
+            return packet;
+        }
+        int entityId = packet.getIntValue(0);
+        int baseChecksum = packet.getIntValue(1);
+        byte[] delta = (byte[]) packet.getObject(2);
+        int checksum = packet.getIntValue(3);
+        byte[] base = entityStates.remove(entityId);
+        if (base == null) {
+            base = new byte[0];
+        }
+        Entity entity = null;
+        if (ByteDelta.checksum(base) == baseChecksum) {
+            try {
+                byte[] state = ByteDelta.patch(base, delta);
+                if (ByteDelta.checksum(state) == checksum) {
+                    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state))) {
+                        entity = (Entity) in.readObject();
+                    }
+                    entityStates.put(entityId, state);
+                }
+            } catch (Exception ex) {
+                System.err.println("Unable to apply update for entity #" + entityId + ": " + ex.getMessage());
+            }
+        }
+        if (entity == null) {
+            // Out of sync; the server will send the whole entity
+            send(new Packet(Packet.COMMAND_ENTITY_DELTA_RESYNC, entityId));
+            return null;
+        }
+        Object[] data = new Object[3];
+        data[0] = entityId;
+        data[1] = entity;
+        data[2] = packet.getObject(4);
+        return new Packet(Packet.COMMAND_ENTITY_UPDATE, data);
+    }
+
     protected void receiveEntityAdd(Packet packet) {
         @SuppressWarnings("unchecked")
         List<Integer> entityIds = (List<Integer>) packet.getObject(0);
@@ -1121,7 +1280,7 @@ public class Client implements IClientCommandHandler {
             return "[null report vector]";
         }
 
-        StringBuffer report = new StringBuffer();
+        StringBuilder report = new StringBuilder();
         for (Report r : v) {
             report.append(r.getText());
         }
@@ -1209,9 +1368,13 @@ public class Client implements IClientCommandHandler {
         case Packet.COMMAND_SERVER_GREETING:
             connected = true;
             send(new Packet(Packet.COMMAND_CLIENT_NAME, name));
-            Object[] versionData = new Object[2];
+            Object[] versionData = new Object[5];
             versionData[0] = MegaMek.VERSION;
             versionData[1] = MegaMek.getMegaMekSHA256();
+            versionData[2] = PacketMarshallerFactory.getInstance().getSupportedMarshallingTypes();
+            // We understand COMMAND_ENTITY_DELTA_UPDATE
+            versionData[3] = Boolean.TRUE;
+            versionData[4] = PacketCodecFactory.getInstance().getSupportedCompressionTypes();
             send(new Packet(Packet.COMMAND_CLIENT_VERSIONS, versionData));
             break;
         case Packet.COMMAND_SERVER_CORRECT_NAME:
@@ -1336,6 +1499,9 @@ public class Client implements IClientCommandHandler {
         case Packet.COMMAND_SENDING_REPORTS_SPECIAL:
             game.processGameEvent(new GameReportEvent(this, receiveReport((Vector<Report>) c.getObject(0))));
             break;
+        case Packet.COMMAND_SENDING_REPORTS_PAGE:
+            receiveReportsPage(c);
+            break;
         case Packet.COMMAND_SENDING_REPORTS_ALL:
             Vector<Vector<Report>> allReports = (Vector<Vector<Report>>) c.getObject(0);
             game.setAllReports(allReports);
@@ -111,6 +111,7 @@ public class BehaviorSettings {
     private int herdMentalityIndex = 5; // How close do I want to stick to my teammates?
     private int braveryIndex = 5; // How quickly will I try to escape once damaged?
     private LogLevel verbosity = LogLevel.WARNING; // Verbosity of Princess chat messages.  Separate from the verbosity of the MegaMek log.
+    private boolean parallelPathRanking = false; // Should I rank my move paths on all processor cores?
 
     private MMLogger logger = null;
 
@@ -145,6 +146,7 @@ public class BehaviorSettings {
         copy.setHyperAggressionIndex(getHyperAggressionIndex());
         copy.setSelfPreservationIndex(getSelfPreservationIndex());
         copy.setVerbosity(getVerbosity());
+        copy.setParallelPathRanking(isParallelPathRanking());
         for (final String t : getStrategicBuildingTargets()) {
             copy.addStrategicTarget(t);
         }
@@ -168,6 +170,21 @@ public class BehaviorSettings {
         this.verbosity = verbosity;
     }
 
+    /**
+     * @return TRUE if move paths should be ranked on all processor cores rather than one after another.  The
+     *         ranking comes out the same either way.
+     */
+    public boolean isParallelPathRanking() {
+        return parallelPathRanking;
+    }
+
+    /**
+     * @param parallelPathRanking Set TRUE if move paths should be ranked on all processor cores.
+     */
+    public void setParallelPathRanking(final boolean parallelPathRanking) {
+        this.parallelPathRanking = parallelPathRanking;
+    }
+
     /**
      * @return TRUE if I should immediately proceed to my home board edge.
      */
@@ -692,6 +709,8 @@ public class BehaviorSettings {
                 setBraveryIndex(child.getTextContent());
             } else if ("verbosity".equalsIgnoreCase(child.getNodeName())) {
                 setVerbosity(LogLevel.getLogLevel(child.getTextContent()));
+            } else if ("parallelPathRanking".equalsIgnoreCase(child.getNodeName())) {
+                setParallelPathRanking("true".equalsIgnoreCase(child.getTextContent()));
             } else if ("strategicTargets".equalsIgnoreCase(child.getNodeName())) {
                 final NodeList targets = child.getChildNodes();
                 for (int j = 0; j < targets.getLength(); j++) {
@@ -775,6 +794,10 @@ public class BehaviorSettings {
             verbosityNode.setTextContent(getVerbosity().toString());
             behavior.appendChild(verbosityNode);
 
+            final Element parallelPathRankingNode = doc.createElement("parallelPathRanking");
+            parallelPathRankingNode.setTextContent("" + isParallelPathRanking());
+            behavior.appendChild(parallelPathRankingNode);
+
             final Element targetsNode = doc.createElement("strategicBuildingTargets");
             if (includeTargets) {
                 for (final String t : getStrategicBuildingTargets()) {
@@ -813,6 +836,7 @@ public class BehaviorSettings {
         out.append("\n\tBravery: ").append(getBraveryIndex());
         out.append("\n\tHerd Mentality: ").append(getHerdMentalityIndex());
         out.append("\n\tVerbosity: ").append(getVerbosity());
+        out.append("\n\tParallel Path Ranking: ").append(isParallelPathRanking());
         out.append("\n\tTargets:");
         out.append("\n\t\tCoords: ");
         for (final String t : getStrategicBuildingTargets()) {
@@ -833,6 +857,7 @@ public class BehaviorSettings {
         final BehaviorSettings that = (BehaviorSettings) o;
 
         if (autoFlee != that.autoFlee) return false;
+        if (parallelPathRanking != that.parallelPathRanking) return false;
         if (braveryIndex != that.braveryIndex) return false;
         if (fallShameIndex != that.fallShameIndex) return false;
         if (forcedWithdrawal != that.forcedWithdrawal) return false;
@@ -871,6 +896,7 @@ public class BehaviorSettings {
         result = 31 * result + (null != priorityUnitTargets ? priorityUnitTargets.hashCode() : 0);
         result = 31 * result + herdMentalityIndex;
         result = 31 * result + braveryIndex;
+        result = 31 * result + (parallelPathRanking ? 1 : 0);
         return result;
     }
 }
@@ -33,6 +33,7 @@ public class EntityState {
     private Coords position;
     private int facing;
     private int secondaryFacing; // to account for torso twists
+    private boolean armsFlipped;
     private int heat;
     private int hexesMoved;
     private boolean prone;
@@ -61,6 +62,7 @@ public class EntityState {
             jumping = (entity.moved == EntityMovementType.MOVE_JUMP);
             movementType = entity.moved;
             setSecondaryFacing(entity.getSecondaryFacing());
+            armsFlipped = entity.getArmsFlipped();
             building = false;
             aero = target.isAero();
             airborne = entity.isAirborne() || entity.isAirborneVTOLorWIGE();
@@ -83,6 +85,28 @@ public class EntityState {
         }
     }
 
+    /**
+     * Copy an entity state, to look at variations of it such as torso twists
+     * and flipped arms
+     */
+    EntityState(EntityState other) {
+        position = other.position;
+        facing = other.facing;
+        secondaryFacing = other.secondaryFacing;
+        armsFlipped = other.armsFlipped;
+        heat = other.heat;
+        hexesMoved = other.hexesMoved;
+        prone = other.prone;
+        immobile = other.immobile;
+        jumping = other.jumping;
+        movementType = other.movementType;
+        building = other.building;
+        aero = other.aero;
+        airborne = other.airborne;
+        naturalAptGun = other.naturalAptGun;
+        naturalAptPilot = other.naturalAptPilot;
+    }
+
     /**
      * Initialize an entity state from a movement path
      */
@@ -160,6 +184,14 @@ public class EntityState {
         this.secondaryFacing = secondaryFacing;
     }
 
+    public boolean isArmsFlipped() {
+        return armsFlipped;
+    }
+
+    public void setArmsFlipped(boolean armsFlipped) {
+        this.armsFlipped = armsFlipped;
+    }
+
     public boolean isBuilding() {
         return building;
     }
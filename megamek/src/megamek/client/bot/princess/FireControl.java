@@ -616,6 +616,33 @@ public class FireControl {
         return toHitData;
     }
 
+    /**
+     * Returns the arc a weapon fires into with the arms flipped as in the shooter's state, which may
+     * differ from how the shooter has them now. Flipped arms fire their forward weapons to the rear.
+     *
+     * @param shooter      The unit doing the shooting.
+     * @param shooterState The state of the shooter being looked at.
+     * @param weapon       The weapon being fired.
+     * @return The arc of the weapon.
+     */
+    int getWeaponArc(final Entity shooter, final EntityState shooterState, final Mounted weapon) {
+        final int arc = shooter.getWeaponArc(shooter.getEquipmentNum(weapon));
+        if (shooterState.isArmsFlipped() == shooter.getArmsFlipped()) {
+            return arc;
+        }
+        if (shooterState.isArmsFlipped()) {
+            return ((Compute.ARC_LEFTARM == arc) || (Compute.ARC_RIGHTARM == arc)) ? Compute.ARC_REAR : arc;
+        }
+        if ((Compute.ARC_REAR == arc) && !weapon.isRearMounted()) {
+            if (Mech.LOC_LARM == weapon.getLocation()) {
+                return Compute.ARC_LEFTARM;
+            } else if (Mech.LOC_RARM == weapon.getLocation()) {
+                return Compute.ARC_RIGHTARM;
+            }
+        }
+        return arc;
+    }
+
     /**
      * Returns the value of {@link Compute#isInArc(Coords, int, Targetable, int)}.
      *
@@ -798,7 +825,7 @@ public class FireControl {
             shooterFacing = shooterState.getSecondaryFacing();
         }
         final boolean inArc = isInArc(shooterState.getPosition(), shooterFacing, targetState.getPosition(),
-                                      shooter.getWeaponArc(shooter.getEquipmentNum(weapon)));
+                                      getWeaponArc(shooter, shooterState, weapon));
         if (!inArc) {
             return new ToHitData(TH_WEAPON_NO_ARC);
         }
@@ -2131,15 +2158,16 @@ public class FireControl {
                                                        target, targetState, game);
         
         if(shooter.canFlipArms()) {
-            shooter.setArmsFlipped(true);
-            FiringPlan betaStrike = guessFullFiringPlan(shooter, shooterState,
+            // Guesses only look at the shooter's state, so flip the arms of a copy of that instead.
+            final EntityState flippedState = new EntityState(
+                    (null == shooterState) ? new EntityState(shooter) : shooterState);
+            flippedState.setArmsFlipped(true);
+            FiringPlan betaStrike = guessFullFiringPlan(shooter, flippedState,
                                                         target, targetState, game);
             betaStrike.setFlipArms(true);
             if(betaStrike.getUtility() > alphaStrike.getUtility()) {
                 alphaStrike = betaStrike;
             }
-            
-            shooter.setArmsFlipped(false);
         }
         
         // Infantry and BA may have alternative options, so we need to consider
@@ -2186,6 +2214,19 @@ public class FireControl {
      * @return the 'best' firing plan - uses heat as disutility and includes the possibility of twisting
      */
     FiringPlan determineBestFiringPlan(final FiringPlanCalculationParameters params) {
+        final Entity shooter = params.getShooter();
+
+        // Getting a plan twists the shooter and may flip its arms. Paths may be ranked in parallel,
+        // so keep other threads away from the shooter until it's back to where it started.
+        if (FiringPlanCalculationParameters.FiringPlanCalculationType.GET == params.getCalculationType()) {
+            synchronized (shooter) {
+                return determineBestFiringPlanHelper(params);
+            }
+        }
+        return determineBestFiringPlanHelper(params);
+    }
+
+    private FiringPlan determineBestFiringPlanHelper(final FiringPlanCalculationParameters params) {
         // unpack parameters for easier reference
         final Entity shooter = params.getShooter();
         final Targetable target = params.getTarget();
@@ -2225,16 +2266,20 @@ public class FireControl {
         // than what we currently have as the best plan then use that. Start with "no twist" as default.
         FiringPlan bestFiringPlan = noTwistPlan;
         for (final int currentTwist : validFacingChanges) {
-            shooter.setSecondaryFacing(correctFacing(originalFacing + currentTwist));
-
             FiringPlan twistPlan = null;
             switch (params.getCalculationType()) {
                 case GET:
+                    shooter.setSecondaryFacing(correctFacing(originalFacing + currentTwist));
                     twistPlan = getBestFiringPlan(shooter, target, owner.getGame(), ammoConservation);
                     break;
                 case GUESS:
+                    // Guesses only look at the shooter's state, so twist a copy of that instead.
+                    final EntityState twistedState = new EntityState(
+                            (null == shooterState) ? new EntityState(shooter) : shooterState);
+                    twistedState.setSecondaryFacing(correctFacing(twistedState.getSecondaryFacing()
+                                                                  + currentTwist));
                     twistPlan = guessBestFiringPlanUnderHeat(shooter,
-                                                             shooterState,
+                                                             twistedState,
                                                              target,
                                                              targetState,
                                                              maxHeat,
@@ -2248,7 +2293,9 @@ public class FireControl {
         }
 
         // Back to where we started.
-        shooter.setSecondaryFacing(originalFacing);
+        if (shooter.getSecondaryFacing() != originalFacing) {
+            shooter.setSecondaryFacing(originalFacing);
+        }
 
         return bestFiringPlan;
     }
@@ -12,6 +12,8 @@ import megamek.common.Targetable;
 /**
  * This class is a data structure meant to hold Fire Control related
  * state, to keep the FireControl class relatively stateless.
+ * Threads ranking paths in parallel each work on their own state reading through to the bot's,
+ * and what they add is merged back afterwards.
  */
 public class FireControlState {
     private List<Targetable> additionalTargets;
@@ -27,6 +29,29 @@ public class FireControlState {
         weaponRanges = new HashMap<>();
         airborneTargetWeaponRanges = new HashMap<>();
     }
+
+    /**
+     * Creates a state for a thread ranking paths in parallel, which reads the cached values through
+     * to the given one. The given state must not change while this one is used.
+     */
+    FireControlState(FireControlState other) {
+        additionalTargets = new ArrayList<>(other.additionalTargets);
+        entityIDFStates = new ReadThroughMap<>(other.entityIDFStates);
+        orderedFiringEntities = new LinkedList<>(other.orderedFiringEntities);
+        weaponRanges = new ReadThroughMap<>(other.weaponRanges);
+        airborneTargetWeaponRanges = new ReadThroughMap<>(other.airborneTargetWeaponRanges);
+    }
+
+    /**
+     * Adds the cached values a state reading through to this one found out that this one doesn't
+     * know yet.
+     * @return The number of values merged.
+     */
+    int merge(FireControlState other) {
+        return ReadThroughMap.mergeAdded(other.entityIDFStates, entityIDFStates)
+                + ReadThroughMap.mergeAdded(other.weaponRanges, weaponRanges)
+                + ReadThroughMap.mergeAdded(other.airborneTargetWeaponRanges, airborneTargetWeaponRanges);
+    }
     
     /**
      * The list of "additional targets", such as buildings, bridges and arbitrary hexes
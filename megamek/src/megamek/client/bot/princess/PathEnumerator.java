@@ -14,6 +14,7 @@
 package megamek.client.bot.princess;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -21,7 +22,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import megamek.client.bot.princess.BotGeometry.ConvexBoardArea;
 import megamek.client.bot.princess.BotGeometry.CoordFacingCombo;
@@ -70,6 +75,9 @@ public class PathEnumerator {
     private AtomicBoolean mapHasBridges = null;
     private final Object BRIDGE_LOCK = new Object();
 
+    /** Changes whenever the paths are cleared, which stops any batch calculation in progress */
+    private final AtomicInteger generation = new AtomicInteger();
+
     public PathEnumerator(Princess owningPrincess, IGame game) {
         owner = owningPrincess;
         this.game = game;
@@ -83,6 +91,7 @@ public class PathEnumerator {
         final String METHOD_NAME = "clear()";
         getOwner().methodBegin(getClass(), METHOD_NAME);
         try {
+            generation.incrementAndGet();
             getUnitPaths().clear();
             getUnitPotentialLocations().clear();
             getLastKnownLocations().clear();
@@ -169,165 +178,340 @@ public class PathEnumerator {
         final String METHOD_NAME = "recalculateMovesFor(IGame, Entity)";
         getOwner().methodBegin(getClass(), METHOD_NAME);
         try {
+            if (prepareRecalculation(mover)) {
+                storeMoves(mover, calculateMoves(mover));
+            }
+        } finally {
+            getOwner().methodEnd(getClass(), METHOD_NAME);
+        }
+    }
 
-            // Record it's current position.
-            getLastKnownLocations().put(
-                    mover.getId(),
-                    CoordFacingCombo.createCoordFacingCombo(
-                            mover.getPosition(), mover.getFacing()));
+    /**
+     * Calculates the moves of several units at once. The path finding runs on the executor, one task
+     * per unit with its own path finders; everything else, including the long-range paths, which share
+     * the cluster tracker, happens on the calling thread in the order of the units.
+     *
+     * @param movers    The units to calculate the moves of.
+     * @param executor  Runs the path finding.
+     * @param cancelled Checked as every unit is started and finished; once it's true the units not done
+     *                  yet are left as they are. The calculation also stops when the paths are cleared,
+     *                  as happens when a new movement phase starts. Units whose path finding already
+     *                  started are waited for, so none of it is still running when this returns.
+     * @return The units that got their moves calculated, in the given order.
+     */
+    public List<Entity> recalculateMovesFor(final Collection<Entity> movers, final Executor executor,
+                                            final BooleanSupplier cancelled) {
+        final String METHOD_NAME = "recalculateMovesFor(Collection<Entity>, Executor, BooleanSupplier)";
+        getOwner().methodBegin(getClass(), METHOD_NAME);
 
-            // Clear out any already calculated paths.
-            getUnitPaths().remove(mover.getId());
-            getLongRangePaths().remove(mover.getId());
-            
-            // if the entity does not exist in the game for any reason, let's cut out safely
-            // otherwise, we'll run into problems calculating paths
-            if (getGame().getEntity(mover.getId()) == null) {
-                // clean up orphaned entries in local storage
-                getUnitMovableAreas().remove(mover.getId());
-                getUnitPotentialLocations().remove(mover.getId());
-                getLastKnownLocations().remove(mover.getId());
+        final int startGeneration = generation.get();
+        final BooleanSupplier stopped = () -> (generation.get() != startGeneration) || cancelled.getAsBoolean();
+        final List<Entity> started = new ArrayList<>(movers.size());
+        final List<MovesTask> tasks = new ArrayList<>(movers.size());
+        final List<Entity> finished = new ArrayList<>(movers.size());
+        try {
+            for (Entity mover : movers) {
+                if (stopped.getAsBoolean()) {
+                    break;
+                }
+                if (prepareRecalculation(mover)) {
+                    started.add(mover);
+                    MovesTask task = new MovesTask(mover, stopped);
+                    tasks.add(task);
+                    executor.execute(task);
+                }
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                CalculatedMoves moves = tasks.get(i).join();
+                if ((moves == null) || stopped.getAsBoolean()) {
+                    break;
+                }
+                storeMoves(started.get(i), moves);
+                finished.add(started.get(i));
+            }
+            return finished;
+        } finally {
+            // The tasks read the game, which may change once we return; those not started yet never
+            // will, and those that did are allowed to finish.
+            for (MovesTask task : tasks) {
+                if (!task.cancel()) {
+                    task.awaitQuietly();
+                }
+            }
+            getOwner().methodEnd(getClass(), METHOD_NAME);
+        }
+    }
+
+    /**
+     * The path finding of one unit in a batch. A task either runs to the end or, when it's cancelled
+     * before it starts, not at all.
+     */
+    private final class MovesTask implements Runnable {
+        private final Entity mover;
+        private final BooleanSupplier stopped;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile CalculatedMoves moves;
+        private volatile RuntimeException failure;
+
+        MovesTask(final Entity mover, final BooleanSupplier stopped) {
+            this.mover = mover;
+            this.stopped = stopped;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
                 return;
             }
+            try {
+                if (!stopped.getAsBoolean()) {
+                    moves = calculateMoves(mover);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                done.countDown();
+            }
+        }
 
-            // Start constructing the new list of paths.
-            List<MovePath> paths = new ArrayList<>();
-            
-            // Aero movement on atmospheric ground maps
-            // currently only applies to a) conventional aircraft, b) aerotech units, c) lams in air mode
-            if(mover.isAirborneAeroOnGroundMap() && !((IAero) mover).isSpheroid()) {
-                AeroGroundPathFinder apf = AeroGroundPathFinder.getInstance(getGame());
-                MovePath startPath = new MovePath(getGame(), mover);
-                apf.run(startPath);
-                paths.addAll(apf.getAllComputedPathsUncategorized());
-                
-                // Remove illegal paths.
-                Filter<MovePath> filter = new Filter<MovePath>() {
-                    @Override
-                    public boolean shouldStay(MovePath movePath) {
-                        return isLegalAeroMove(movePath);
-                    }
-                };
-                
-                this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Unfiltered paths: " + paths.size());
-                paths = new ArrayList<>(filter.doFilter(paths));
-                this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Filtered out illegal paths: " + paths.size());
-                AeroGroundOffBoardFilter offBoardFilter = new AeroGroundOffBoardFilter();
-                paths = new ArrayList<>(offBoardFilter.doFilter(paths));
-                
-                MovePath offBoardPath = offBoardFilter.getShortestPath();
-                if(offBoardPath != null) {
-                    paths.add(offBoardFilter.getShortestPath());
+        /**
+         * Keeps the task from starting.
+         *
+         * @return True if it hadn't started, false if it has to be waited for.
+         */
+        boolean cancel() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Waits for the task to finish.
+         *
+         * @return The moves found, or null if the calculation was stopped or this thread interrupted.
+         */
+        CalculatedMoves join() {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return moves;
+        }
+
+        void awaitQuietly() {
+            boolean interrupted = false;
+            while (done.getCount() > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
-                
-                this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Filtered out offboard paths: " + paths.size());
-                
-                // This is code useful for debugging, but puts out a lot of log entries, which slows things down. 
-                HashMap<Integer, Integer> pathLengths = new HashMap<Integer, Integer>();
-                for(MovePath path : paths) {
-                    if(!pathLengths.containsKey(path.length())) {
-                        pathLengths.put(path.length(), 0);
-                    }
-                    Integer lengthCount = pathLengths.get(path.length());
-                    pathLengths.put(path.length(), lengthCount + 1);
-                    
-                    this.owner.log(this.getClass(), "Path ", LogLevel.DEBUG, path.toString());
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Records where the unit is and forgets its old paths.
+     *
+     * @return False if the unit is no longer in the game, so there's nothing to calculate.
+     */
+    private boolean prepareRecalculation(final Entity mover) {
+        // Record it's current position.
+        getLastKnownLocations().put(
+                mover.getId(),
+                CoordFacingCombo.createCoordFacingCombo(
+                        mover.getPosition(), mover.getFacing()));
+
+        // Clear out any already calculated paths.
+        getUnitPaths().remove(mover.getId());
+        getLongRangePaths().remove(mover.getId());
+        
+        // if the entity does not exist in the game for any reason, let's cut out safely
+        // otherwise, we'll run into problems calculating paths
+        if (getGame().getEntity(mover.getId()) == null) {
+            // clean up orphaned entries in local storage
+            getUnitMovableAreas().remove(mover.getId());
+            getUnitPotentialLocations().remove(mover.getId());
+            getLastKnownLocations().remove(mover.getId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the paths the unit can take. This only reads the enumerator's state, so it can run for
+     * several units at once.
+     */
+    private CalculatedMoves calculateMoves(final Entity mover) {
+        final String METHOD_NAME = "calculateMoves(Entity)";
+        boolean longRangePaths = false;
+
+        // Start constructing the new list of paths.
+        List<MovePath> paths = new ArrayList<>();
+        
+        // Aero movement on atmospheric ground maps
+        // currently only applies to a) conventional aircraft, b) aerotech units, c) lams in air mode
+        if(mover.isAirborneAeroOnGroundMap() && !((IAero) mover).isSpheroid()) {
+            AeroGroundPathFinder apf = AeroGroundPathFinder.getInstance(getGame());
+            MovePath startPath = new MovePath(getGame(), mover);
+            apf.run(startPath);
+            paths.addAll(apf.getAllComputedPathsUncategorized());
+            
+            // Remove illegal paths.
+            Filter<MovePath> filter = new Filter<MovePath>() {
+                @Override
+                public boolean shouldStay(MovePath movePath) {
+                    return isLegalAeroMove(movePath);
                 }
-                
-                for(Integer length : pathLengths.keySet()) {
-                    this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Paths of length " + length + ": " + pathLengths.get(length));
+            };
+            
+            this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Unfiltered paths: " + paths.size());
+            paths = new ArrayList<>(filter.doFilter(paths));
+            this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Filtered out illegal paths: " + paths.size());
+            AeroGroundOffBoardFilter offBoardFilter = new AeroGroundOffBoardFilter();
+            paths = new ArrayList<>(offBoardFilter.doFilter(paths));
+            
+            MovePath offBoardPath = offBoardFilter.getShortestPath();
+            if(offBoardPath != null) {
+                paths.add(offBoardFilter.getShortestPath());
+            }
+            
+            this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Filtered out offboard paths: " + paths.size());
+            
+            // This is code useful for debugging, but puts out a lot of log entries, which slows things down. 
+            HashMap<Integer, Integer> pathLengths = new HashMap<Integer, Integer>();
+            for(MovePath path : paths) {
+                if(!pathLengths.containsKey(path.length())) {
+                    pathLengths.put(path.length(), 0);
                 }
-            // this handles the case of the mover being an aerospace unit and "advances space flight" rules being on
-            } else if(mover.isAero() && game.useVectorMove()) {
-                NewtonianAerospacePathFinder npf = NewtonianAerospacePathFinder.getInstance(getGame());
-                npf.run(new MovePath(game, mover));
-                paths.addAll(npf.getAllComputedPathsUncategorized());
-            // this handles the case of the mover being an aerospace unit on a space map
-            } else if(mover.isAero() && game.getBoard().inSpace()) {
-                AeroSpacePathFinder apf = AeroSpacePathFinder.getInstance(getGame());
-                apf.run(new MovePath(game, mover));
-                paths.addAll(apf.getAllComputedPathsUncategorized());
-            // this handles the case of the mover being a winged aerospace unit on a low-atmo map
-            } else if(mover.isAero() && game.getBoard().inAtmosphere() && !Compute.useSpheroidAtmosphere(game, mover)) {
-                AeroLowAltitudePathFinder apf = AeroLowAltitudePathFinder.getInstance(getGame());
-                apf.run(new MovePath(game, mover));
-                paths.addAll(apf.getAllComputedPathsUncategorized());
-            // this handles the case of the mover acting like a spheroid aerospace unit in an atmosphere
-            } else if(Compute.useSpheroidAtmosphere(game, mover)) {
-                SpheroidPathFinder spf = SpheroidPathFinder.getInstance(game);
-                spf.run(new MovePath(game, mover));
-                paths.addAll(spf.getAllComputedPathsUncategorized());
-            // this handles the case of the mover being an infantry unit of some kind, that's not airborne.
-            } else if (mover.hasETypeFlag(Entity.ETYPE_INFANTRY) && !mover.isAirborne()) {
-                InfantryPathFinder ipf = InfantryPathFinder.getInstance(getGame());
-                ipf.run(new MovePath(game, mover));
-                paths.addAll(ipf.getAllComputedPathsUncategorized());
+                Integer lengthCount = pathLengths.get(path.length());
+                pathLengths.put(path.length(), lengthCount + 1);
                 
-                // generate long-range paths appropriate to the bot's current state
-                updateLongRangePaths(mover);
-            // this handles situations where a unit is high up in the air, but is not an aircraft
-            // such as an ejected pilot or a unit hot dropping from a dropship, as these cannot move
-            } else if (!mover.isAero() && mover.isAirborne()) {
-                paths.add(new MovePath(game, mover));
-            } else { // Non-Aero movement
-                // TODO: Will this cause Princess to never use MASC?
-                LongestPathFinder lpf = LongestPathFinder
-                        .newInstanceOfLongestPath(mover.getRunMPwithoutMASC(),
+                this.owner.log(this.getClass(), "Path ", LogLevel.DEBUG, path.toString());
+            }
+            
+            for(Integer length : pathLengths.keySet()) {
+                this.owner.log(this.getClass(), METHOD_NAME, LogLevel.DEBUG, "Paths of length " + length + ": " + pathLengths.get(length));
+            }
+        // this handles the case of the mover being an aerospace unit and "advances space flight" rules being on
+        } else if(mover.isAero() && game.useVectorMove()) {
+            NewtonianAerospacePathFinder npf = NewtonianAerospacePathFinder.getInstance(getGame());
+            npf.run(new MovePath(game, mover));
+            paths.addAll(npf.getAllComputedPathsUncategorized());
+        // this handles the case of the mover being an aerospace unit on a space map
+        } else if(mover.isAero() && game.getBoard().inSpace()) {
+            AeroSpacePathFinder apf = AeroSpacePathFinder.getInstance(getGame());
+            apf.run(new MovePath(game, mover));
+            paths.addAll(apf.getAllComputedPathsUncategorized());
+        // this handles the case of the mover being a winged aerospace unit on a low-atmo map
+        } else if(mover.isAero() && game.getBoard().inAtmosphere() && !Compute.useSpheroidAtmosphere(game, mover)) {
+            AeroLowAltitudePathFinder apf = AeroLowAltitudePathFinder.getInstance(getGame());
+            apf.run(new MovePath(game, mover));
+            paths.addAll(apf.getAllComputedPathsUncategorized());
+        // this handles the case of the mover acting like a spheroid aerospace unit in an atmosphere
+        } else if(Compute.useSpheroidAtmosphere(game, mover)) {
+            SpheroidPathFinder spf = SpheroidPathFinder.getInstance(game);
+            spf.run(new MovePath(game, mover));
+            paths.addAll(spf.getAllComputedPathsUncategorized());
+        // this handles the case of the mover being an infantry unit of some kind, that's not airborne.
+        } else if (mover.hasETypeFlag(Entity.ETYPE_INFANTRY) && !mover.isAirborne()) {
+            InfantryPathFinder ipf = InfantryPathFinder.getInstance(getGame());
+            ipf.run(new MovePath(game, mover));
+            paths.addAll(ipf.getAllComputedPathsUncategorized());
+            
+            // generate long-range paths appropriate to the bot's current state
+            longRangePaths = true;
+        // this handles situations where a unit is high up in the air, but is not an aircraft
+        // such as an ejected pilot or a unit hot dropping from a dropship, as these cannot move
+        } else if (!mover.isAero() && mover.isAirborne()) {
+            paths.add(new MovePath(game, mover));
+        } else { // Non-Aero movement
+            // TODO: Will this cause Princess to never use MASC?
+            LongestPathFinder lpf = LongestPathFinder
+                    .newInstanceOfLongestPath(mover.getRunMPwithoutMASC(),
+                            MoveStepType.FORWARDS, getGame());
+            lpf.run(new MovePath(game, mover));
+            paths.addAll(lpf.getLongestComputedPaths());
+
+            //add walking moves
+            lpf = LongestPathFinder.newInstanceOfLongestPath(
+                    mover.getWalkMP(), MoveStepType.BACKWARDS, getGame());
+            lpf.run(new MovePath(getGame(), mover));
+            paths.addAll(lpf.getLongestComputedPaths());
+
+            //add jumping moves
+            if (mover.getJumpMP() > 0) {
+                ShortestPathFinder spf = ShortestPathFinder
+                        .newInstanceOfOneToAll(mover.getJumpMP(),
                                 MoveStepType.FORWARDS, getGame());
-                lpf.run(new MovePath(game, mover));
-                paths.addAll(lpf.getLongestComputedPaths());
-
-                //add walking moves
-                lpf = LongestPathFinder.newInstanceOfLongestPath(
-                        mover.getWalkMP(), MoveStepType.BACKWARDS, getGame());
-                lpf.run(new MovePath(getGame(), mover));
-                paths.addAll(lpf.getLongestComputedPaths());
-
-                //add jumping moves
-                if (mover.getJumpMP() > 0) {
-                    ShortestPathFinder spf = ShortestPathFinder
-                            .newInstanceOfOneToAll(mover.getJumpMP(),
-                                    MoveStepType.FORWARDS, getGame());
-                    spf.run((new MovePath(game, mover))
-                            .addStep(MoveStepType.START_JUMP));
-                    paths.addAll(spf.getAllComputedPathsUncategorized());
-                }
+                spf.run((new MovePath(game, mover))
+                        .addStep(MoveStepType.START_JUMP));
+                paths.addAll(spf.getAllComputedPathsUncategorized());
+            }
 
-                for(MovePath path : paths) {
-                    this.owner.log(this.getClass(), "Path ", LogLevel.DEBUG, path.toString());
-                }
-                
-                // Try climbing over obstacles and onto bridges
-                adjustPathsForBridges(paths);
-
-                //filter those paths that end in illegal state
-                Filter<MovePath> filter = new Filter<MovePath>() {
-                    @Override
-                    public boolean shouldStay(MovePath movePath) {
-                        boolean isLegal = movePath.isMoveLegal();
-                        return isLegal
-                                && (Compute.stackingViolation(getGame(),
-                                        mover.getId(),
-                                        movePath.getFinalCoords()) == null);
-                    }
-                };
-                paths = new ArrayList<>(filter.doFilter(paths));
-                
-                // generate long-range paths appropriate to the bot's current state
-                updateLongRangePaths(mover);
+            for(MovePath path : paths) {
+                this.owner.log(this.getClass(), "Path ", LogLevel.DEBUG, path.toString());
             }
+            
+            // Try climbing over obstacles and onto bridges
+            adjustPathsForBridges(paths);
+
+            //filter those paths that end in illegal state
+            Filter<MovePath> filter = new Filter<MovePath>() {
+                @Override
+                public boolean shouldStay(MovePath movePath) {
+                    boolean isLegal = movePath.isMoveLegal();
+                    return isLegal
+                            && (Compute.stackingViolation(getGame(),
+                                    mover.getId(),
+                                    movePath.getFinalCoords()) == null);
+                }
+            };
+            paths = new ArrayList<>(filter.doFilter(paths));
+            
+            // generate long-range paths appropriate to the bot's current state
+            longRangePaths = true;
+        }
 
-            // Update our locations and add the computed paths.
-            updateUnitLocations(mover, paths);
-            getUnitPaths().put(mover.getId(), paths);
+        return new CalculatedMoves(paths, longRangePaths);
+    }
 
-            // calculate bounding area for move
-            ConvexBoardArea myArea = new ConvexBoardArea(owner);
-            myArea.addCoordFacingCombos(getUnitPotentialLocations().get(
-                    mover.getId()).iterator());
-            getUnitMovableAreas().put(mover.getId(), myArea);
-        } finally {
-            getOwner().methodEnd(getClass(), METHOD_NAME);
+    /**
+     * Stores the calculated paths of the unit and where they can take it.
+     */
+    private void storeMoves(final Entity mover, final CalculatedMoves moves) {
+        if (moves.longRangePaths) {
+            updateLongRangePaths(mover);
+        }
+
+        // Update our locations and add the computed paths.
+        updateUnitLocations(mover, moves.paths);
+        getUnitPaths().put(mover.getId(), moves.paths);
+
+        // calculate bounding area for move
+        ConvexBoardArea myArea = new ConvexBoardArea(owner);
+        myArea.addCoordFacingCombos(getUnitPotentialLocations().get(
+                mover.getId()).iterator());
+        getUnitMovableAreas().put(mover.getId(), myArea);
+    }
+
+    /**
+     * The paths found for a unit
+     */
+    private static class CalculatedMoves {
+        final List<MovePath> paths;
+        final boolean longRangePaths; // whether long-range paths should be added
+
+        CalculatedMoves(List<MovePath> paths, boolean longRangePaths) {
+            this.paths = paths;
+            this.longRangePaths = longRangePaths;
         }
     }
     
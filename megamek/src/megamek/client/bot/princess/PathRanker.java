@@ -13,14 +13,16 @@
  */
 package megamek.client.bot.princess;
 
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import megamek.client.bot.princess.UnitBehavior.BehaviorType;
 import megamek.client.ui.SharedUtility;
@@ -55,6 +57,14 @@ public abstract class PathRanker implements IPathRanker {
         NewtonianAerospace
     }
     
+    /** Below this many paths, ranking them in parallel isn't worth the overhead */
+    static final int PARALLEL_RANKING_THRESHOLD = 64;
+
+    /** Paths ranked by one task before it stops splitting */
+    private static final int PATHS_PER_TASK = 16;
+
+    private static ForkJoinPool rankingPool;
+
     private Princess owner;
 
     public PathRanker(Princess princess) {
@@ -102,31 +112,48 @@ public abstract class PathRanker implements IPathRanker {
 
             Coords allyCenter = calcAllyCenter(movePaths.get(0).getEntity().getId(), friends, game);
 
-            ArrayList<RankedPath> returnPaths = new ArrayList<>(validPaths.size());
-            final BigDecimal numberPaths = new BigDecimal(validPaths.size());
-            BigDecimal count = BigDecimal.ZERO;
-            BigDecimal interval = new BigDecimal(5);
-            
-            boolean pathsHaveExpectedDamage = false;
+            final int numberPaths = validPaths.size();
+            final RankedPath[] rankedPaths = new RankedPath[numberPaths];
             
-            for (MovePath path : validPaths) {
-                count = count.add(BigDecimal.ONE);
-                
-                RankedPath rankedPath = rankPath(path, game, maxRange, fallTolerance, startingHomeDistance, enemies,
-                        allyCenter);
-                returnPaths.add(rankedPath);
-                
-                // we want to keep track of if any of the paths we've considered have some kind of damage potential
-                pathsHaveExpectedDamage |= (rankedPath.getExpectedDamage() > 0);
+            // Rank the paths in slices of 5% to report the progress.
+            final boolean parallel = getOwner().getBehaviorSettings().isParallelPathRanking()
+                    && (numberPaths >= PARALLEL_RANKING_THRESHOLD);
+            final int sliceSize = parallel ? Math.max(PARALLEL_RANKING_THRESHOLD, (numberPaths + 19) / 20) : 1;
+            if (parallel) {
+                // bring the packed board up to date once, so the ranking threads don't have to
+                game.getBoard().getPackedBoard();
+            }
+            int interval = 5;
+            for (int start = 0; start < numberPaths; start += sliceSize) {
+                final int end = Math.min(numberPaths, start + sliceSize);
+                if (parallel) {
+                    final Queue<RankingTask> tasks = new ConcurrentLinkedQueue<>();
+                    getRankingPool().invoke(new RankingTask(validPaths, rankedPaths, start, end, game, maxRange,
+                            fallTolerance, startingHomeDistance, enemies, allyCenter, tasks));
+                    // keep what the ranking threads worked out for the next paths
+                    for (RankingTask task : tasks) {
+                        getOwner().getFireControlState().merge(task.fireControlState);
+                        getPathRankerState().merge(task.pathRankerState);
+                    }
+                } else {
+                    rankedPaths[start] = rankPath(validPaths.get(start), game, maxRange, fallTolerance,
+                            startingHomeDistance, enemies, allyCenter);
+                }
                 
-                BigDecimal percent = count.divide(numberPaths, 2, RoundingMode.DOWN).multiply(new BigDecimal(100))
-                                          .round(new MathContext(0, RoundingMode.DOWN));
-                if (percent.compareTo(interval) >= 0) {
-                    getOwner().sendChat("... " + percent.intValue() + "% complete.", LogLevel.INFO);
-                    interval = percent.add(new BigDecimal(5));
+                int percent = (end * 100) / numberPaths;
+                if (percent >= interval) {
+                    getOwner().sendChat("... " + percent + "% complete.", LogLevel.INFO);
+                    interval = percent + 5;
                 }
             }
             
+            // we want to keep track of if any of the paths we've considered have some kind of damage potential
+            boolean pathsHaveExpectedDamage = false;
+            for (RankedPath rankedPath : rankedPaths) {
+                pathsHaveExpectedDamage |= (rankedPath.getExpectedDamage() > 0);
+            }
+            ArrayList<RankedPath> returnPaths = new ArrayList<>(Arrays.asList(rankedPaths));
+            
             Entity mover = movePaths.get(0).getEntity();
             UnitBehavior behaviorTracker = getOwner().getUnitBehaviorTracker();
             boolean noDamageButCanDoDamage = !pathsHaveExpectedDamage && (FireControl.getMaxDamageAtRange(mover, 1, false, false) > 0);
@@ -539,6 +566,82 @@ public abstract class PathRanker implements IPathRanker {
         return center;
     }
 
+    /**
+     * Returns the pool paths are ranked in when ranking in parallel, shared by all bots.
+     */
+    private static synchronized ForkJoinPool getRankingPool() {
+        if (rankingPool == null) {
+            rankingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return rankingPool;
+    }
+
+    /**
+     * Ranks a range of paths, splitting it among the threads of the pool. Every path's result goes
+     * to the same index it has in the path list, so the outcome doesn't depend on which thread
+     * ranked which path. Each task that ranks paths works on its own fire control and path ranker
+     * state, which reads through to the bot's; the bot's thread waits for the tasks, so its state
+     * doesn't change meanwhile, and merges back only what the tasks added once they are done.
+     */
+    private class RankingTask extends RecursiveAction {
+        private static final long serialVersionUID = -2465436862493553487L;
+
+        private final List<MovePath> paths;
+        private final RankedPath[] results;
+        private final int start;
+        private final int end;
+        private final IGame game;
+        private final int maxRange;
+        private final double fallTolerance;
+        private final int distanceHome;
+        private final List<Entity> enemies;
+        private final Coords allyCenter;
+        private final Queue<RankingTask> rankingTasks;
+
+        private FireControlState fireControlState;
+        private PathRankerState pathRankerState;
+
+        RankingTask(List<MovePath> paths, RankedPath[] results, int start, int end, IGame game,
+                    int maxRange, double fallTolerance, int distanceHome, List<Entity> enemies,
+                    Coords allyCenter, Queue<RankingTask> rankingTasks) {
+            this.paths = paths;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+            this.game = game;
+            this.maxRange = maxRange;
+            this.fallTolerance = fallTolerance;
+            this.distanceHome = distanceHome;
+            this.enemies = enemies;
+            this.allyCenter = allyCenter;
+            this.rankingTasks = rankingTasks;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) <= PATHS_PER_TASK) {
+                fireControlState = new FireControlState(getOwner().getFireControlState());
+                pathRankerState = new PathRankerState(getPathRankerState());
+                getOwner().setThreadStates(fireControlState, pathRankerState);
+                try {
+                    for (int i = start; i < end; i++) {
+                        results[i] = rankPath(paths.get(i), game, maxRange, fallTolerance, distanceHome,
+                                enemies, allyCenter);
+                    }
+                } finally {
+                    getOwner().setThreadStates(null, null);
+                }
+                rankingTasks.add(this);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new RankingTask(paths, results, start, middle, game, maxRange, fallTolerance,
+                                      distanceHome, enemies, allyCenter, rankingTasks),
+                      new RankingTask(paths, results, middle, end, game, maxRange, fallTolerance,
+                                      distanceHome, enemies, allyCenter, rankingTasks));
+        }
+    }
+
     protected Princess getOwner() {
         return owner;
     }
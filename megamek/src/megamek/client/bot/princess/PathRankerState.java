@@ -9,11 +9,34 @@ import megamek.common.MovePath;
 /**
  * This class handles state information for Princess' path ranking algorithms, as the pathranker and its 
  * subclasses are intended to be basically stateless.
+ * Threads ranking paths in parallel each work on their own state reading through to the bot's,
+ * and what they add is merged back afterwards.
  *
  */
 public class PathRankerState {
     private Map<MovePath.Key, Double> pathSuccessProbabilities = new HashMap<>();
     private Map<Coords, Double> incomingFriendlyArtilleryDamage = new HashMap<>();
+
+    public PathRankerState() {
+    }
+
+    /**
+     * Creates a state for a thread ranking paths in parallel, which reads through to the given one.
+     * The given state must not change while this one is used.
+     */
+    PathRankerState(PathRankerState other) {
+        pathSuccessProbabilities = new ReadThroughMap<>(other.pathSuccessProbabilities);
+        incomingFriendlyArtilleryDamage = new ReadThroughMap<>(other.incomingFriendlyArtilleryDamage);
+    }
+
+    /**
+     * Adds what a state reading through to this one found out that this one doesn't know yet.
+     * @return The number of entries merged.
+     */
+    int merge(PathRankerState other) {
+        return ReadThroughMap.mergeAdded(other.pathSuccessProbabilities, pathSuccessProbabilities)
+                + ReadThroughMap.mergeAdded(other.incomingFriendlyArtilleryDamage, incomingFriendlyArtilleryDamage);
+    }
     
     /**
      * The map of success probabilities for given move paths.
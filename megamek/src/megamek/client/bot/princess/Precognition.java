@@ -26,9 +26,15 @@ import java.util.TreeSet;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
 
 import megamek.client.bot.princess.BotGeometry.CoordFacingCombo;
 import megamek.common.Board;
@@ -112,8 +118,28 @@ public class Precognition implements Runnable {
     private final AtomicBoolean waiting = new AtomicBoolean(false);
     private final AtomicBoolean done = new AtomicBoolean(false);
 
+    /**
+     * Runs the path finding of this bot's units, on at most half the processors, so the path ranking and
+     * the rest of the client keep some for themselves. Idle threads go away after a while.
+     */
+    private final ThreadPoolExecutor pathFinding;
+
     public Precognition(Princess owner) {
+        this(owner, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param pathFindingThreads The most threads the path finding of the units may run on at once.
+     */
+    Precognition(Princess owner, int pathFindingThreads) {
         this.owner = owner;
+        pathFinding = new ThreadPoolExecutor(pathFindingThreads, pathFindingThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "Princess-path-finding (" + owner.getName() + ")");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pathFinding.allowCoreThreadTimeOut(true);
         this.game = new Game();
         getGame().addGameListener(new GameListenerAdapter() {
             @Override
@@ -251,6 +277,10 @@ public class Precognition implements Runnable {
                         .getObject(0);
                 getGame().setAllReports(allReports);
                 break;
+            case Packet.COMMAND_SENDING_REPORTS_PAGE:
+                getGame().setReportsPage(c.getIntValue(0), (Vector<Vector<Report>>) c.getObject(1),
+                        c.getIntValue(2));
+                break;
             case Packet.COMMAND_ENTITY_ATTACK:
                 receiveAttack(c);
                 break;
@@ -403,21 +433,62 @@ public class Precognition implements Runnable {
                 if (getDone().get()) {
                     return;
                 }
-                
-                Integer entityId = getDirtyUnits().pollFirst();
-                Entity entity = getGame().getEntity(entityId);
-                if (entity != null) {
-                    getOwner().log(getClass(), METHOD_NAME, "recalculating paths for " + entity.getDisplayName());
-                    getPathEnumerator().recalculateMovesFor(entity);
-                    getOwner().log(getClass(), METHOD_NAME, "finished recalculating paths for " + entity
-                            .getDisplayName());
-                }
+                // the bot is waiting for these paths, so only stop when shutting down
+                recalculateDirtyUnits(pathFinding, () -> getDone().get());
             }
         } finally {
             getOwner().methodEnd(getClass(), METHOD_NAME);
         }
     }
 
+    /**
+     * @return True if a batch of path calculations run by this thread should stop, because game events
+     *         are waiting to be processed, the bot asked for a pause or the thread is done.
+     */
+    boolean isBatchInterrupted() {
+        return getDone().get() || getWaitWhenDone().get() || !getEventsToProcess().isEmpty();
+    }
+
+    /**
+     * Calculates the paths of all dirty units at once; units the batch didn't get to are dirtied again.
+     * Units not on the map have no paths to calculate and are dropped, rather than kept dirty, which
+     * would keep this thread from ever idling; {@link #ensureUpToDate()} dirties them again once they
+     * are on the map somewhere else than where they were last seen, as happens when they deploy.
+     *
+     * @param executor  Runs the path finding.
+     * @param cancelled Stops the batch once it's true.
+     */
+    void recalculateDirtyUnits(final Executor executor, final BooleanSupplier cancelled) {
+        final String METHOD_NAME = "recalculateDirtyUnits(Executor, BooleanSupplier)";
+        List<Entity> movers = new ArrayList<>();
+        Integer entityId;
+        while ((entityId = getDirtyUnits().pollFirst()) != null) {
+            Entity entity = getGame().getEntity(entityId);
+            // units not on the map are dropped, see above
+            if ((entity != null) && isEntityOnMap(entity)) {
+                movers.add(entity);
+            }
+        }
+        if (movers.isEmpty()) {
+            return;
+        }
+        getOwner().log(getClass(), METHOD_NAME, "recalculating paths for " + movers.size() + " units");
+        List<Entity> finished;
+        try {
+            finished = getPathEnumerator().recalculateMovesFor(movers, executor, cancelled);
+        } catch (RejectedExecutionException e) {
+            // shut down meanwhile
+            finished = Collections.emptyList();
+        }
+        for (Entity entity : movers) {
+            if (!finished.contains(entity)) {
+                dirtifyUnit(entity.getId());
+            }
+        }
+        getOwner().log(getClass(), METHOD_NAME, "finished recalculating paths for " + finished.size()
+                + " units");
+    }
+
     public void run() {
         final String METHOD_NAME = "run()";
         getOwner().methodBegin(getClass(), METHOD_NAME);
@@ -431,14 +502,8 @@ public class Precognition implements Runnable {
                     ecmInfo = ComputeECM.computeAllEntitiesECMInfo(
                             getGame().getEntitiesVector());
                 } else if (!getDirtyUnits().isEmpty()) {
-                    Entity entity = getGame().getEntity(getDirtyUnits().pollFirst());
-                    if ((entity != null) && isEntityOnMap(entity)) {
-                        unPause();
-                        getOwner().log(getClass(), METHOD_NAME, "recalculating paths for " + entity.getDisplayName());
-                        getPathEnumerator().recalculateMovesFor(entity);
-                        getOwner().log(getClass(), METHOD_NAME, "finished recalculating paths for " + entity
-                                .getDisplayName());
-                    }
+                    unPause();
+                    recalculateDirtyUnits(pathFinding, this::isBatchInterrupted);
                 } else if (getWaitWhenDone().get()) {
                     waitForUnpause(); // paused for a reason
                 } else {
@@ -452,6 +517,8 @@ public class Precognition implements Runnable {
 
     void signalDone() {
         getDone().set(true);
+        // path finding already started is allowed to finish, the batch waiting for it stops anyway
+        pathFinding.shutdown();
     }
 
     /**
@@ -567,7 +634,7 @@ public class Precognition implements Runnable {
      * Called when a unit has moved and should be put on the dirty list, as well
      * as any units who's moves contain that unit
      */
-    private void dirtifyUnit(int id) {
+    void dirtifyUnit(int id) {
         final String METHOD_NAME = "dirtifyUnit(int)";
         getOwner().methodBegin(getClass(), METHOD_NAME);
         // Prevent Game from changing while processing
@@ -682,7 +749,7 @@ public class Precognition implements Runnable {
         return Collections.unmodifiableList(ecmInfo);
     }
 
-    private ConcurrentSkipListSet<Integer> getDirtyUnits() {
+    ConcurrentSkipListSet<Integer> getDirtyUnits() {
         return dirtyUnits;
     }
 
@@ -719,7 +786,7 @@ public class Precognition implements Runnable {
         }
     }
 
-    private IGame getGame() {
+    IGame getGame() {
         GAME_LOCK.lock();
         try {
             getOwner().log(getClass(), "getGame()",
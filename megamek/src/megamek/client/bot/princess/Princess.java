@@ -100,6 +100,9 @@ public class Princess extends BotClient {
     private UnitBehavior unitBehaviorTracker;
     private FireControlState fireControlState;
     private PathRankerState pathRankerState;
+    // the states of threads ranking paths in parallel
+    private final ThreadLocal<FireControlState> threadFireControlState = new ThreadLocal<>();
+    private final ThreadLocal<PathRankerState> threadPathRankerState = new ThreadLocal<>();
     private ArtilleryTargetingControl atc;
     
     private Integer spinupThreshold = null;
@@ -282,11 +285,34 @@ public class Princess extends BotClient {
     }
 
     public FireControlState getFireControlState() {
-        return fireControlState;
+        final FireControlState threadState = threadFireControlState.get();
+        return (null == threadState) ? fireControlState : threadState;
     }
     
     public PathRankerState getPathRankerState() {
-        return pathRankerState;
+        final PathRankerState threadState = threadPathRankerState.get();
+        return (null == threadState) ? pathRankerState : threadState;
+    }
+
+    /**
+     * Has the current thread use its own fire control and path ranker state in place of the bot's,
+     * while it ranks paths in parallel with other threads.
+     *
+     * @param fireControlState The fire control state of this thread, or null to use the bot's again.
+     * @param pathRankerState  The path ranker state of this thread, or null to use the bot's again.
+     */
+    void setThreadStates(@Nullable final FireControlState fireControlState,
+                         @Nullable final PathRankerState pathRankerState) {
+        if (null == fireControlState) {
+            threadFireControlState.remove();
+        } else {
+            threadFireControlState.set(fireControlState);
+        }
+        if (null == pathRankerState) {
+            threadPathRankerState.remove();
+        } else {
+            threadPathRankerState.set(pathRankerState);
+        }
     }
     
     Precognition getPrecognition() {
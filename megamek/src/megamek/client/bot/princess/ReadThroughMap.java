@@ -0,0 +1,100 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache map for a thread ranking paths in parallel. It reads through to the bot's map, which
+ * doesn't change while the threads rank, and keeps what the thread adds in a map of its own, so
+ * only those entries have to be merged back. Entries can't be removed.
+ */
+class ReadThroughMap<K, V> extends AbstractMap<K, V> {
+    private final Map<K, V> base;
+    private final Map<K, V> added = new HashMap<>();
+
+    ReadThroughMap(Map<K, V> base) {
+        this.base = base;
+    }
+
+    /**
+     * Puts the entries added to a map reading through to another one into that other map, unless
+     * it already has them. A map that doesn't read through has all of its entries put.
+     *
+     * @return The number of entries put.
+     */
+    static <K, V> int mergeAdded(Map<K, V> from, Map<K, V> to) {
+        Map<K, V> added = (from instanceof ReadThroughMap) ? ((ReadThroughMap<K, V>) from).added : from;
+        int merged = 0;
+        for (Entry<K, V> entry : added.entrySet()) {
+            if (!to.containsKey(entry.getKey())) {
+                to.put(entry.getKey(), entry.getValue());
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = added.get(key);
+        return ((value != null) || added.containsKey(key)) ? value : base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return added.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V previous = added.put(key, value);
+        return ((previous != null) || !base.containsKey(key)) ? previous : base.get(key);
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        int size = base.size();
+        for (K key : added.keySet()) {
+            if (!base.containsKey(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return A copy of the entries, as read right now.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Map<K, V> all = new HashMap<>(base);
+        all.putAll(added);
+        return new HashSet<>(all.entrySet());
+    }
+}
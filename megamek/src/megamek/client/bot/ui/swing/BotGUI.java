@@ -41,6 +41,7 @@ import megamek.common.event.GamePlayerChatEvent;
 import megamek.common.event.GamePlayerConnectedEvent;
 import megamek.common.event.GamePlayerDisconnectedEvent;
 import megamek.common.event.GameReportEvent;
+import megamek.common.event.GameReportPageEvent;
 import megamek.common.event.GameSettingsChangeEvent;
 import megamek.common.event.GameTurnChangeEvent;
 import megamek.common.event.GameVictoryEvent;
@@ -108,6 +109,9 @@ public class BotGUI implements GameListener {
     public void gameReport(GameReportEvent e) {
     }
 
+    public void gameReportPage(GameReportPageEvent e) {
+    }
+
     public void gameEnd(GameEndEvent e) {
     }
 
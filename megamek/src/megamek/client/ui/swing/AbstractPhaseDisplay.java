@@ -50,6 +50,7 @@ import megamek.common.event.GamePlayerChatEvent;
 import megamek.common.event.GamePlayerConnectedEvent;
 import megamek.common.event.GamePlayerDisconnectedEvent;
 import megamek.common.event.GameReportEvent;
+import megamek.common.event.GameReportPageEvent;
 import megamek.common.event.GameSettingsChangeEvent;
 import megamek.common.event.GameTurnChangeEvent;
 import megamek.common.event.GameVictoryEvent;
@@ -271,6 +272,10 @@ public abstract class AbstractPhaseDisplay extends JPanel implements
         //noaction default
     }
 
+    public void gameReportPage(GameReportPageEvent e) {
+        //noaction default
+    }
+
     public void gameEnd(GameEndEvent e) {
         //noaction default
     }
@@ -906,6 +906,7 @@ public class EquipChoicePanel extends JPanel implements Serializable {
                     entity.getEquipment().remove(apWeapon);
                     entity.getWeaponList().remove(apWeapon);
                     entity.getTotalWeaponList().remove(apWeapon);
+                    entity.invalidateEquipmentIndex();
                     // We need to make sure that the weapon has been removed
                     //  from the criticals, otherwise it can cause issues
                     for (int loc = 0; loc < entity.locations(); loc++) {
@@ -1036,6 +1037,7 @@ public class EquipChoicePanel extends JPanel implements Serializable {
                 if (m_Manipmounted != null){
                     entity.getEquipment().remove(m_Manipmounted);
                     entity.getMisc().remove(m_Manipmounted);
+                    entity.invalidateEquipmentIndex();
                 }            
                 
                 // Was no manipulator selected?
@@ -83,6 +83,7 @@ public class GUIPreferences extends PreferenceStoreProxy {
     public static final String ADVANCED_KEY_REPEAT_DELAY = "AdvancedKeyRepeatDelay";
     public static final String ADVANCED_KEY_REPEAT_RATE = "AdvancedKeyRepeatRate";
     public static final String ADVANCED_SHOW_FPS = "AdvancedShowFPS";
+    public static final String ADVANCED_IMAGE_CACHE_SIZE = "AdvancedImageCacheSize";
     public static final String ADVANCED_SHOW_COORDS = "AdvancedShowCoords";
     public static final String ADVANCED_BUTTONS_PER_ROW = "AdvancedButtonsPerRow";
     public static final String ADVANCED_ARMORMINI_UNITS_PER_BLOCK = "AdvancedArmorMiniUnitsPerBlock";
@@ -292,6 +293,7 @@ public class GUIPreferences extends PreferenceStoreProxy {
         store.setDefault(ADVANCED_KEY_REPEAT_DELAY, 0);
         store.setDefault(ADVANCED_KEY_REPEAT_RATE, 20);
         store.setDefault(ADVANCED_SHOW_FPS, "false");
+        store.setDefault(ADVANCED_IMAGE_CACHE_SIZE, 128);
         store.setDefault(ADVANCED_SHOW_COORDS, "true");
         store.setDefault(ADVANCED_BUTTONS_PER_ROW, 5);
 
@@ -424,6 +426,14 @@ public class GUIPreferences extends PreferenceStoreProxy {
         return store.getAdvancedProperties();
     }
 
+    /**
+     * @return the number of bytes each of the board view's image caches may
+     *         take up
+     */
+    public long getImageCacheBudget() {
+        return Math.max(1, store.getInt(ADVANCED_IMAGE_CACHE_SIZE)) * (1L << 20);
+    }
+
     public boolean getAntiAliasing() {
         return store.getBoolean(ANTIALIASING);
     }
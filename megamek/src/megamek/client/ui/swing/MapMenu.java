@@ -18,7 +18,6 @@ import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.InputEvent;
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -43,6 +42,7 @@ import megamek.common.BuildingTarget;
 import megamek.common.Coords;
 import megamek.common.Entity;
 import megamek.common.EntityMovementType;
+import megamek.common.EquipmentBitSet;
 import megamek.common.EquipmentMode;
 import megamek.common.HexTarget;
 import megamek.common.IBoard;
@@ -1418,7 +1418,7 @@ public class MapMenu extends JPopupMenu {
         return false;
     }
 
-    private boolean hasWeaponFlag(BigInteger weaponFlag) {
+    private boolean hasWeaponFlag(EquipmentBitSet weaponFlag) {
 
         if (myEntity.getWeaponList().size() < 1) {
             return false;
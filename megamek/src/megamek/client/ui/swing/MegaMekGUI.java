@@ -90,8 +90,10 @@ import megamek.common.options.IOption;
 import megamek.common.preference.IPreferenceChangeListener;
 import megamek.common.preference.PreferenceChangeEvent;
 import megamek.common.preference.PreferenceManager;
+import megamek.common.util.BinarySaveGame;
 import megamek.common.util.ImageUtil;
 import megamek.common.util.fileUtils.MegaMekFile;
+import megamek.server.SaveJournal;
 import megamek.server.ScenarioLoader;
 import megamek.server.Server;
 
@@ -550,7 +552,9 @@ public class MegaMekGUI  implements IPreferenceChangeListener, IMegaMekGUI {
         fc.setFileFilter(new FileFilter() {
             @Override
             public boolean accept(File dir) {
-                return ((dir.getName().endsWith(".sav") || dir.getName().endsWith(".sav.gz") || dir.isDirectory())); //$NON-NLS-1$
+                return ((dir.getName().endsWith(".sav") || dir.getName().endsWith(".sav.gz") //$NON-NLS-1$
+                        || dir.getName().endsWith(BinarySaveGame.EXTENSION)
+                        || dir.getName().endsWith(SaveJournal.EXTENSION) || dir.isDirectory()));
             }
 
             @Override
@@ -27,11 +27,15 @@ import javax.swing.JFrame;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextPane;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.text.html.HTMLEditorKit;
 
 import megamek.client.Client;
 import megamek.client.ui.Messages;
+import megamek.common.event.GameListener;
+import megamek.common.event.GameListenerAdapter;
+import megamek.common.event.GameReportPageEvent;
 
 /**
  * Shows reports, with an Okay JButton
@@ -42,9 +46,28 @@ public class MiniReportDisplay extends JDialog implements ActionListener {
      */
     private static final long serialVersionUID = -703103629596703945L;
     private JButton butOkay;
+    private Client client;
+    private JTabbedPane tabs;
+
+    /** Fills in the rounds that were not here yet when they arrive */
+    private GameListener reportPageListener = new GameListenerAdapter() {
+        @Override
+        public void gameReportPage(GameReportPageEvent e) {
+            SwingUtilities.invokeLater(() -> {
+                for (int round = e.getFirstRound(); round <= e.getLastRound(); round++) {
+                    int index = tabs.indexOfTab("Round " + round);
+                    if (index != -1) {
+                        ((JTextPane) ((JScrollPane) tabs.getComponentAt(index)).getViewport().getView())
+                                .setText("<pre>" + getRoundText(round) + "</pre>");
+                    }
+                }
+            });
+        }
+    };
 
     public MiniReportDisplay(JFrame parent, Client client) {
         super(parent, Messages.getString("MiniReportDisplay.title"), true); //$NON-NLS-1$
+        this.client = client;
 
         butOkay = new JButton(Messages.getString("Okay")); //$NON-NLS-1$
         butOkay.addActionListener(this);
@@ -54,6 +77,7 @@ public class MiniReportDisplay extends JDialog implements ActionListener {
         getContentPane().add(BorderLayout.SOUTH, butOkay);
         
         setupReportTabs(client);
+        client.getGame().addGameListener(reportPageListener);
                 
         setSize(GUIPreferences.getInstance().getMiniReportSizeWidth(),
                 GUIPreferences.getInstance().getMiniReportSizeHeight());
@@ -80,16 +104,17 @@ public class MiniReportDisplay extends JDialog implements ActionListener {
             GUIPreferences.getInstance().setMiniReportPosX(getLocation().x);
             GUIPreferences.getInstance().setMiniReportPosY(getLocation().y);
 
+            client.getGame().removeGameListener(reportPageListener);
             setVisible(false);
         }
     }
     
     private void setupReportTabs(Client c) {
-        JTabbedPane tabs = new JTabbedPane();
+        tabs = new JTabbedPane();
         
         int numRounds = c.getGame().getRoundCount();
         for (int round = 1; round < numRounds; round++) {
-            String text =  c.receiveReport(c.getGame().getReports(round));
+            String text = getRoundText(round);
             JTextPane ta = new JTextPane();
             setupStylesheet(ta);
             ta.setText("<pre>" + text + "</pre>");
@@ -108,9 +133,30 @@ public class MiniReportDisplay extends JDialog implements ActionListener {
         JScrollPane sp = new JScrollPane(ta);
         tabs.add("Phase", sp);
         tabs.setSelectedComponent(sp);
+        // earlier rounds of a game joined in progress are fetched as they
+        // are looked at
+        tabs.addChangeListener(e -> requestSelectedRound());
         
         getContentPane().add(BorderLayout.CENTER, tabs);
     }
+
+    private String getRoundText(int round) {
+        if (!client.getGame().hasReports(round)) {
+            return Messages.getString("ReportDisplay.LoadingRound"); //$NON-NLS-1$
+        }
+        return client.receiveReport(client.getGame().getReports(round));
+    }
+
+    private void requestSelectedRound() {
+        int index = tabs.getSelectedIndex();
+        if ((index < 0) || !tabs.getTitleAt(index).startsWith("Round ")) {
+            return;
+        }
+        int round = Integer.parseInt(tabs.getTitleAt(index).substring(6));
+        if (!client.getGame().hasReports(round)) {
+            client.requestReports(round - 2, round + 2);
+        }
+    }
     
     public static void setupStylesheet(JTextPane pane) {
         pane.setContentType("text/html");
@@ -44,6 +44,7 @@ import megamek.client.ui.swing.widget.SkinSpecification;
 import megamek.common.Entity;
 import megamek.common.IGame;
 import megamek.common.event.GamePhaseChangeEvent;
+import megamek.common.event.GameReportPageEvent;
 
 public class ReportDisplay extends AbstractPhaseDisplay implements
         ActionListener, HyperlinkListener {
@@ -86,6 +87,9 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
         Font tabPanelFont = new Font("Dialog", Font.BOLD, //$NON-NLS-1$
                 GUIPreferences.getInstance().getInt("AdvancedChatLoungeTabFontSize"));
         tabs.setFont(tabPanelFont);
+        // earlier rounds of a game joined in progress are fetched as they
+        // are looked at
+        tabs.addChangeListener(e -> requestSelectedRound());
 
         resetTabs();
 
@@ -184,20 +188,17 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
 
             // add as many round tabs as necessary to catch us up
             JTextPane ta;
-            // TODO: we should remove the use of client
-            final Client client = clientgui.getClient();
             for (int catchup = phaseTab + 1; catchup <= round; catchup++) {
                 if (tabs.indexOfTab("Round " + catchup) != -1) {
                     ((JTextPane) ((JScrollPane) tabs.getComponentAt(tabs
                             .indexOfTab("Round " + catchup))).getViewport()
                             .getView()).setText("<pre>"
-                            + client.receiveReport(client.getGame().getReports(
-                                    catchup)) + "</pre>");
+                            + getRoundText(catchup) + "</pre>");
                     continue;
                 }
                 String text = roundText;
                 if (catchup != round) {
-                    text = client.receiveReport(client.getGame().getReports(catchup));
+                    text = getRoundText(catchup);
                 }
                 ta = new JTextPane();
                 ta.addHyperlinkListener(this);
@@ -227,6 +228,34 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
         }
     }
 
+    /**
+     * @return the reports of a past round, or a note that they are on their
+     *         way from the server
+     */
+    private String getRoundText(int round) {
+        // TODO: we should remove the use of client
+        final Client client = clientgui.getClient();
+        if (!client.getGame().hasReports(round)) {
+            return Messages.getString("ReportDisplay.LoadingRound"); //$NON-NLS-1$
+        }
+        return client.receiveReport(client.getGame().getReports(round));
+    }
+
+    /**
+     * Asks the server for the rounds around the selected one, if its reports
+     * are not here yet.
+     */
+    private void requestSelectedRound() {
+        int index = tabs.getSelectedIndex();
+        if ((index < 0) || !tabs.getTitleAt(index).startsWith("Round ")) {
+            return;
+        }
+        int round = Integer.parseInt(tabs.getTitleAt(index).substring(6));
+        if (!clientgui.getClient().getGame().hasReports(round)) {
+            clientgui.getClient().requestReports(round - 2, round + 2);
+        }
+    }
+
     public static void setupStylesheet(JTextPane pane) {
         pane.setContentType("text/html");
         Font font = UIManager.getFont("Label.font");
@@ -282,6 +311,19 @@ public class ReportDisplay extends AbstractPhaseDisplay implements
         });
     }
     
+    @Override
+    public void gameReportPage(GameReportPageEvent e) {
+        SwingUtilities.invokeLater(() -> {
+            for (int round = e.getFirstRound(); round <= e.getLastRound(); round++) {
+                int index = tabs.indexOfTab("Round " + round);
+                if (index != -1) {
+                    ((JTextPane) ((JScrollPane) tabs.getComponentAt(index)).getViewport().getView())
+                            .setText("<pre>" + getRoundText(round) + "</pre>");
+                }
+            }
+        });
+    }
+
     public void clear() {
         // move along, move along, nothing to see here
     }
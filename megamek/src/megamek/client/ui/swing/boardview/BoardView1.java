@@ -372,9 +372,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     // Initial scale factor for sprites and map
     float scale = 1.00f;
     private ImageCache<Integer, Image> scaledImageCache =
-            new ImageCache<Integer, Image>();
+            new ImageCache<Integer, Image>(GUIPreferences.getInstance().getImageCacheBudget());
     private ImageCache<Integer, BufferedImage> shadowImageCache =
-            new ImageCache<Integer, BufferedImage>();
+            new ImageCache<Integer, BufferedImage>(GUIPreferences.getInstance().getImageCacheBudget());
 
     private Set<Integer> animatedImages = new HashSet<Integer>();
 
@@ -513,7 +513,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         this.game = game;
         this.clientgui = clientgui;
 
-        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>();
+        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>(
+                GUIPreferences.getInstance().getImageCacheBudget(),
+                entry -> ImageCache.estimateBytes(entry.hexImage));
 
         tileManager = new TilesetManager(this);
         ToolTipManager.sharedInstance().registerComponent(this);
@@ -1096,6 +1098,12 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             clearHexImageCache();
             repaint();
         }
+        if (e.getName().equals(GUIPreferences.ADVANCED_IMAGE_CACHE_SIZE)) {
+            long budget = GUIPreferences.getInstance().getImageCacheBudget();
+            hexImageCache.setBudget(budget);
+            scaledImageCache.setBudget(budget);
+            shadowImageCache.setBudget(budget);
+        }
         if (e.getName().equals(GUIPreferences.INCLINES)) {
             game.getBoard().initializeAllAutomaticTerrain();
             clearHexImageCache();
@@ -1400,6 +1408,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             g.setFont(fpsFont);
             g.setColor(Color.YELLOW);
             g.drawString(s, -getX() + 5, -getY() + 20);
+            drawImageCacheStats(g, "hex", hexImageCache, -getY() + 40);
+            drawImageCacheStats(g, "scaled", scaledImageCache, -getY() + 60);
+            drawImageCacheStats(g, "shadow", shadowImageCache, -getY() + 80);
         }
 
         // debugging method that renders the bounding box of a unit's movement envelope.
@@ -1409,6 +1420,20 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         //renderApproxHexDirection((Graphics2D) g);
     }
 
+    /**
+     * Draws a line of the draw time overlay for an image cache: the MB used
+     * out of its budget, the share of lookups that hit and the number of
+     * images evicted so far.
+     */
+    private void drawImageCacheStats(Graphics g, String name, ImageCache<?, ?> cache, int y) {
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        String s = String.format("%1$s %2$d/%3$d MB, %4$5.1f%% hits, %5$d evicted", name, //$NON-NLS-1$
+                cache.getBytes() >> 20, cache.getBudget() >> 20,
+                (lookups == 0) ? 0d : (100d * hits) / lookups, cache.getEvictions());
+        g.drawString(s, -getX() + 5, y);
+    }
+
     /**
      * Debugging method that renders a hex in the approximate direction 
      * from the selected entity to the selected hex, of both exist.
@@ -6306,7 +6331,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
         hex_size = new Dimension((int) (HEX_W * scale), (int) (HEX_H * scale));
 
-        scaledImageCache = new ImageCache<Integer, Image>();
+        scaledImageCache.clear();
 
         cursorSprite.prepare();
         highlightSprite.prepare();
@@ -6411,9 +6436,10 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 e.printStackTrace();
             }
             tracker.removeImage(scaled);
-            // Cache the image if the flag is set
+            // Cache the image if the flag is set; a scaled instance may not
+            // report its size, so it is weighed by the size it was scaled to
             if (useCache) {
-                scaledImageCache.put(base.hashCode(), scaled);
+                scaledImageCache.put(base.hashCode(), scaled, 4L * width * height);
             }
         }
         return scaled;
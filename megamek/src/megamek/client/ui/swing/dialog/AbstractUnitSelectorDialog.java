@@ -68,6 +68,7 @@ import megamek.common.Entity;
 import megamek.common.EntityWeightClass;
 import megamek.common.MechFileParser;
 import megamek.common.MechSearchFilter;
+import megamek.common.MechSearchIndex;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
 import megamek.common.MechView;
@@ -129,6 +130,8 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
 
     protected static MechSummaryCache mscInstance = MechSummaryCache.getInstance();
     protected MechSummary[] mechs;
+    /** Answers the advanced search for the rows of mechs */
+    private volatile MechSearchIndex searchIndex;
 
     private MechTableModel unitModel = new MechTableModel();
     protected MechSearchFilter searchFilter;
@@ -558,6 +561,10 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
         final int nUnit = comboUnitType.getSelectedIndex() - 1;
         final boolean checkSupportVee = Messages.getString("MechSelectorDialog.SupportVee")
                 .equals(comboUnitType.getSelectedItem());
+        // the index is only of use if its positions are those of the units shown
+        final MechSearchIndex index = searchIndex;
+        final BitSet advancedMatches = ((searchFilter == null) || (index == null) || !index.isIndexOf(mechs))
+                ? null : index.search(searchFilter);
         //If current expression doesn't parse, don't update.
         try {
             unitTypeFilter = new RowFilter<MechTableModel, Integer>() {
@@ -587,7 +594,8 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
                                     || (!checkSupportVee && mech.getUnitType().equals(UnitType.getTypeName(nUnit)))
                                     || (checkSupportVee && mech.isSupport()))
                             /* Advanced Search */
-                            && ((searchFilter == null) || MechSearchFilter.isMatch(mech, searchFilter))
+                            && ((advancedMatches != null) ? advancedMatches.get(entry.getIdentifier())
+                                    : ((searchFilter == null) || MechSearchFilter.isMatch(mech, searchFilter)))
                     ) {
                         if (textFilter.getText().length() > 0) {
                             String text = textFilter.getText();
@@ -673,6 +681,7 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
         if (mechs == null) {
             logger.error(getClass(), "run", "No mechs were loaded");
         } else {
+            searchIndex = mscInstance.getSearchIndex(mechs);
             unitModel.setData(mechs);
         }
     }
@@ -31,7 +31,12 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StreamTokenizer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.Vector;
@@ -72,6 +77,12 @@ public class HexTileset implements BoardListener {
     public static final int HEX_H = 72;
 
     public static final String TRANSPARENT_THEME = "transparent";
+
+    /**
+     * The number of hex signatures whose matches are kept. A board rarely has
+     * more than a few hundred.
+     */
+    private static final int MATCH_CACHE_SIZE = 10000;
     
     private IGame game;
 
@@ -79,9 +90,16 @@ public class HexTileset implements BoardListener {
     private ArrayList<HexEntry> supers = new ArrayList<HexEntry>();
     private ArrayList<HexEntry> orthos = new ArrayList<HexEntry>();
     private Set<String> themes = new TreeSet<String>();
-    private ImageCache<IHex, Image> basesCache = new ImageCache<IHex, Image>();
-    private ImageCache<IHex, List<Image>> supersCache = new ImageCache<IHex, List<Image>>();
-    private ImageCache<IHex, List<Image>> orthosCache = new ImageCache<IHex, List<Image>>();
+    private ImageCache<IHex, Image> basesCache = createCache();
+    private ImageCache<IHex, List<Image>> supersCache = createCache();
+    private ImageCache<IHex, List<Image>> orthosCache = createCache();
+
+    /** Matched entries by hex signature, shared by all hexes that look alike */
+    private Map<String, HexMatch> matchCache = new HashMap<String, HexMatch>();
+    /** Entry positions by terrain type; built on first match after loading */
+    private EntryIndex baseIndex;
+    private EntryIndex superIndex;
+    private EntryIndex orthoIndex;
 
     /**
      * Creates new HexTileset
@@ -101,9 +119,18 @@ public class HexTileset implements BoardListener {
 
     /** Clears the image cache for all hexes. */
     public synchronized void clearAllHexes() {
-        basesCache = new ImageCache<IHex, Image>();
-        supersCache = new ImageCache<IHex, List<Image>>();
-        orthosCache = new ImageCache<IHex, List<Image>>();
+        basesCache = createCache();
+        supersCache = createCache();
+        orthosCache = createCache();
+    }
+
+    /**
+     * @return a cache of the images picked for each hex; the images belong to
+     *         the tileset entries and are shared by many hexes, so they are
+     *         not counted against a budget
+     */
+    private static <V> ImageCache<IHex, V> createCache() {
+        return new ImageCache<IHex, V>(Long.MAX_VALUE, images -> 0);
     }
     
     /**
@@ -118,10 +145,11 @@ public class HexTileset implements BoardListener {
      * match can be any value, and the first, best image is used.
      */
     public synchronized Object[] assignMatch(IHex hex, Component comp) {
-        IHex hexCopy = hex.duplicate();
-        List<Image> ortho = orthoFor(hexCopy, comp);
-        List<Image> supers = supersFor(hexCopy, comp);
-        Image base = baseFor(hexCopy, comp);
+        HexMatch match = matchFor(hex);
+        int seed = hex.getCoords().hashCode();
+        List<Image> ortho = imagesFor(match.orthos, comp, seed);
+        List<Image> supers = imagesFor(match.supers, comp, seed);
+        Image base = imageFor(match.base, comp, seed);
         Object[] pair = new Object[] { base, supers, ortho };
         basesCache.put(hex, base);
         supersCache.put(hex, supers);
@@ -159,28 +187,87 @@ public class HexTileset implements BoardListener {
     }
 
     /**
-     * Returns a list of orthographic images to be tiled above the hex. As noted
+     * Returns the tileset entries matching the hex. Matching only depends on the
+     * terrain, level and theme of the hex, so the result is kept by the
+     * {@link #signature(IHex) signature} of the hex and shared by all hexes that
+     * look alike, and survives the image caches being cleared.
+     */
+    synchronized HexMatch matchFor(IHex hex) {
+        String signature = signature(hex);
+        HexMatch match = matchCache.get(signature);
+        if (match == null) {
+            if (baseIndex == null) {
+                baseIndex = new EntryIndex(bases);
+                superIndex = new EntryIndex(supers);
+                orthoIndex = new EntryIndex(orthos);
+            }
+            IHex hexCopy = hex.duplicate();
+            List<HexEntry> orthoMatches = orthoFor(hexCopy);
+            List<HexEntry> superMatches = supersFor(hexCopy);
+            match = new HexMatch(baseFor(hexCopy), superMatches, orthoMatches);
+            if (matchCache.size() >= MATCH_CACHE_SIZE) {
+                matchCache.clear();
+            }
+            matchCache.put(signature, match);
+        }
+        return match;
+    }
+
+    /**
+     * Returns a key that is equal for two hexes exactly when they have the same
+     * level, theme (ignoring case) and terrains with the same levels and exits,
+     * i.e. when they match the same tileset entries.
+     */
+    static String signature(IHex hex) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(hex.getLevel());
+        if (hex.getTheme() != null) {
+            sb.append('\'').append(hex.getTheme().toLowerCase(Locale.ROOT));
+        }
+        int[] types = hex.getTerrainTypes();
+        Arrays.sort(types);
+        for (int type : types) {
+            ITerrain terrain = hex.getTerrain(type);
+            sb.append(';').append(type).append(':').append(terrain.getLevel()).append(':')
+                    .append(terrain.getExits());
+        }
+        return sb.toString();
+    }
+
+    private List<Image> imagesFor(List<HexEntry> entries, Component comp, int seed) {
+        ArrayList<Image> images = new ArrayList<Image>(entries.size());
+        for (HexEntry entry : entries) {
+            images.add(imageFor(entry, comp, seed));
+        }
+        return images;
+    }
+
+    private Image imageFor(HexEntry entry, Component comp, int seed) {
+        Image img = entry.getImage(comp, seed);
+        if (img == null) {
+            img = ImageUtil.createAcceleratedImage(HEX_W, HEX_H);
+        }
+        return img;
+    }
+
+    /**
+     * Returns the orthographic entries to be tiled above the hex. As noted
      * above, all matches must be 1.0, and if such a match is achieved, all terrain
      * elements from the tileset hex are removed from the hex. Thus you want to pass
      * a copy of the original to this function.
      */
-    private List<Image> orthoFor(IHex hex, Component comp) {
-        ArrayList<Image> matches = new ArrayList<Image>();
+    private List<HexEntry> orthoFor(IHex hex) {
+        ArrayList<HexEntry> matches = new ArrayList<HexEntry>();
 
         // find orthographic image matches
-        for (HexEntry entry : orthos) {
+        BitSet candidates = orthoIndex.candidates(hex);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            HexEntry entry = orthos.get(i);
             if (orthoMatch(hex, entry.getHex()) >= 1.0) {
-                Image img = entry.getImage(comp, hex.getCoords().hashCode());
-                if (img != null) {
-                    matches.add(img);
-                } else {
-                    matches.add(ImageUtil.createAcceleratedImage(HEX_W, HEX_H));
-                }
+                matches.add(entry);
                 // remove involved terrain from consideration
                 for (int terr : entry.getHex().getTerrainTypes()) {
-                    if (entry.getHex().containsTerrain(terr)) {
-                        hex.removeTerrain(terr);
-                    }
+                    hex.removeTerrain(terr);
                 }
             }
         }
@@ -188,28 +275,23 @@ public class HexTileset implements BoardListener {
     }
 
     /**
-     * Returns a list of images to be superimposed on the hex. As noted above, all
+     * Returns the entries to be superimposed on the hex. As noted above, all
      * matches must be 1.0, and if such a match is achieved, all terrain elements
      * from the tileset hex are removed from the hex. Thus you want to pass a copy
      * of the original to this function.
      */
-    private List<Image> supersFor(IHex hex, Component comp) {
-        ArrayList<Image> matches = new ArrayList<Image>();
+    private List<HexEntry> supersFor(IHex hex) {
+        ArrayList<HexEntry> matches = new ArrayList<HexEntry>();
 
         // find superimposed image matches
-        for (HexEntry entry : supers) {
+        BitSet candidates = superIndex.candidates(hex);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            HexEntry entry = supers.get(i);
             if (superMatch(hex, entry.getHex()) >= 1.0) {
-                Image img = entry.getImage(comp, hex.getCoords().hashCode());
-                if (img != null) {
-                    matches.add(img);
-                } else {
-                    matches.add(ImageUtil.createAcceleratedImage(HEX_W, HEX_H));
-                }
+                matches.add(entry);
                 // remove involved terrain from consideration
                 for (int terr : entry.getHex().getTerrainTypes()) {
-                    if (entry.getHex().containsTerrain(terr)) {
-                        hex.removeTerrain(terr);
-                    }
+                    hex.removeTerrain(terr);
                 }
             }
         }
@@ -217,21 +299,26 @@ public class HexTileset implements BoardListener {
     }
 
     /**
-     * Returns the best matching base image for this hex. This works best if any
+     * Returns the best matching base entry for this hex. This works best if any
      * terrain with a "super" image is removed.
+     * <p/>
+     * Only entries sharing a terrain with the hex (or, for a hex without
+     * terrain, entries without terrain) can score above 0, so only those are
+     * compared. When none does, the first entry wins, as every entry scores 0.
      */
-    private Image baseFor(IHex hex, Component comp) {
+    private HexEntry baseFor(IHex hex) {
         HexEntry bestMatch = null;
         double match = -1;
 
-        // match a base image to the hex
-        for (HexEntry entry : bases) {
-
-            // Metal deposits don't count for visual
-            if (entry.getHex().containsTerrain(Terrains.METAL_CONTENT)) {
-                hex.removeTerrain(Terrains.METAL_CONTENT);
-            }
+        // Metal deposits don't count for visual
+        if (baseIndex.hasTerrain(Terrains.METAL_CONTENT)) {
+            hex.removeTerrain(Terrains.METAL_CONTENT);
+        }
 
+        // match a base image to the hex
+        BitSet candidates = (hex.terrainsPresent() == 0) ? baseIndex.candidates(hex) : baseIndex.sharing(hex);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            HexEntry entry = bases.get(i);
             double thisMatch = baseMatch(hex, entry.getHex());
             // stop if perfect match
             if (thisMatch == 1.0) {
@@ -245,11 +332,10 @@ public class HexTileset implements BoardListener {
             }
         }
 
-        Image img = bestMatch.getImage(comp, hex.getCoords().hashCode());
-        if (img == null) {
-            img = ImageUtil.createAcceleratedImage(HEX_W, HEX_H);
+        if (bestMatch == null) {
+            bestMatch = bases.get(0);
         }
-        return img;
+        return bestMatch;
     }
 
     // perfect match
@@ -318,6 +404,7 @@ public class HexTileset implements BoardListener {
         }
         r.close();
         themes.add(TRANSPARENT_THEME);
+        clearMatches();
         long endTime = System.currentTimeMillis();
         
         System.out.println("hexTileset: loaded " + bases.size() + " base images"); //$NON-NLS-2$ //$NON-NLS-2$
@@ -353,6 +440,14 @@ public class HexTileset implements BoardListener {
         }
     }
 
+    /** Drops the matches and indexes when entries are added. */
+    private synchronized void clearMatches() {
+        matchCache.clear();
+        baseIndex = null;
+        superIndex = null;
+        orthoIndex = null;
+    }
+
     public Set<String> getThemes() {
         return new TreeSet<String>(themes);
     }
@@ -528,7 +623,73 @@ public class HexTileset implements BoardListener {
         return elevation * terrain * theme;
     }
 
-    private class HexEntry {
+    /** The tileset entries matched to a hex */
+    static final class HexMatch {
+        final HexEntry base;
+        final List<HexEntry> supers;
+        final List<HexEntry> orthos;
+
+        HexMatch(HexEntry base, List<HexEntry> supers, List<HexEntry> orthos) {
+            this.base = base;
+            this.supers = supers;
+            this.orthos = orthos;
+        }
+    }
+
+    /**
+     * The positions of a list of entries by the terrain types of their hexes,
+     * so that matching only looks at entries that share a terrain with the hex.
+     * An entry must have all its terrain in the hex to be a "super" or "ortho"
+     * match, and shares none with it when its "base" match is 0.
+     */
+    private static final class EntryIndex {
+        private final BitSet[] byType = new BitSet[Terrains.SIZE];
+        private final BitSet noTerrain = new BitSet();
+
+        EntryIndex(List<HexEntry> entries) {
+            for (int i = 0; i < entries.size(); i++) {
+                int[] types = entries.get(i).getHex().getTerrainTypes();
+                if (types.length == 0) {
+                    noTerrain.set(i);
+                }
+                for (int type : types) {
+                    if (byType[type] == null) {
+                        byType[type] = new BitSet();
+                    }
+                    byType[type].set(i);
+                }
+            }
+        }
+
+        boolean hasTerrain(int type) {
+            return byType[type] != null;
+        }
+
+        /**
+         * @return the positions of the entries that share a terrain with the hex
+         */
+        BitSet sharing(IHex hex) {
+            BitSet sharing = new BitSet();
+            for (int type : hex.getTerrainTypes()) {
+                if (byType[type] != null) {
+                    sharing.or(byType[type]);
+                }
+            }
+            return sharing;
+        }
+
+        /**
+         * @return the positions of the entries that share a terrain with the hex
+         *         or have none
+         */
+        BitSet candidates(IHex hex) {
+            BitSet candidates = sharing(hex);
+            candidates.or(noTerrain);
+            return candidates;
+        }
+    }
+
+    class HexEntry {
         private IHex hex;
         private Image image;
         private Vector<Image> images;
@@ -15,70 +15,251 @@
 
 package megamek.client.ui.swing.util;
 
-import java.util.Hashtable;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
 
 /**
- * An ImageCache that keeps a Hashtable of mapped keys and values.
- * 
+ * An ImageCache that keeps mapped keys and values up to a budget of estimated
+ * bytes. When a put goes over the budget, entries are evicted in clock order:
+ * the oldest entry goes first unless it was read since the clock last passed
+ * it. Reads do not lock.
+ *
  * @author Arlith
  */
 public class ImageCache<K, V> {
-    
+
     /**
      * Default maximum size
      */
     public static int MAX_SIZE = 30000;
-    
+
+    /**
+     * Default budget, in bytes
+     */
+    public static final long DEFAULT_BUDGET = 64L << 20;
+
+    /**
+     * What an entry is counted as besides its images, in bytes
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    private static final class Entry<K, V> {
+        final K key;
+        volatile V value;
+        final long bytes;
+        volatile boolean referenced;
+        boolean removed;
+
+        Entry(K key, V value, long bytes) {
+            this.key = key;
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
 
     /**
      * The cache of Key/Value pairs.
      */
-    private Hashtable<K, V> cache;
-        
+    private final ConcurrentHashMap<K, Entry<K, V>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The entries in the order the clock visits them; guarded by this.
+     */
+    private final ArrayDeque<Entry<K, V>> clock = new ArrayDeque<>();
+
+    private final ToLongFunction<? super V> weigher;
+    private volatile long budget;
+    private volatile long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
     /**
-     * Create a cache with the default maximum size.
+     * Create a cache with the default budget.
      */
     public ImageCache() {
-        cache = new Hashtable<K, V>(MAX_SIZE * 5 / 4, .75f);
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * Create a cache for images or collections of images.
+     *
+     * @param budget the number of bytes the images may take up
+     */
+    public ImageCache(long budget) {
+        this(budget, ImageCache::estimateBytes);
     }
 
-    
-    public ImageCache(int max) {
-        cache = new Hashtable<K, V>(max * 5 / 4, .75f);
+    /**
+     * @param budget the number of bytes the values may take up
+     * @param weigher estimates the bytes a value takes up
+     */
+    public ImageCache(long budget, ToLongFunction<? super V> weigher) {
+        this.budget = budget;
+        this.weigher = weigher;
     }
 
     /**
      * Adds a new key/value pair into the cache.
-     * 
+     *
      * @param key
      * @param value
      * @return
      */
-    public synchronized V put(K key, V value) {
+    public V put(K key, V value) {
         if ((key == null) || (value == null))
             return null;
-      
-        cache.put(key, value);
-        return value;
+
+        return put(key, value, weigher.applyAsLong(value));
     }
 
-    public synchronized V get(K key) {
-        if (!cache.containsKey(key))
+    /**
+     * Adds a new key/value pair into the cache, for values whose size the
+     * weigher can't tell, such as scaled images that report no size.
+     *
+     * @param valueBytes the number of bytes the value takes up
+     */
+    public V put(K key, V value, long valueBytes) {
+        if ((key == null) || (value == null))
             return null;
 
-        return cache.get(key);
+        Entry<K, V> entry = new Entry<>(key, value, valueBytes + ENTRY_OVERHEAD);
+        synchronized (this) {
+            Entry<K, V> old = cache.put(key, entry);
+            if (old != null) {
+                drop(old);
+            }
+            clock.add(entry);
+            bytes += entry.bytes;
+            evict();
+        }
+        return value;
+    }
+
+    public V get(K key) {
+        Entry<K, V> entry = (key == null) ? null : cache.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        // the entry may have been dropped since it was looked up
+        V value = entry.value;
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        entry.referenced = true;
+        hits.increment();
+        return value;
     }
 
-    public void remove(Object key) {
-        cache.remove(key);
+    public synchronized void remove(Object key) {
+        Entry<K, V> entry = cache.remove(key);
+        if (entry != null) {
+            drop(entry);
+        }
     }
-    
+
     public int size(){
         return cache.size();
     }
-    
-    public void clear() {
+
+    public synchronized void clear() {
         cache.clear();
+        for (Entry<K, V> entry : clock) {
+            entry.removed = true;
+            entry.value = null;
+        }
+        clock.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Changes the number of bytes the values may take up, evicting entries if
+     * they take up more.
+     */
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+        evict();
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return the estimated bytes taken up by the cached values
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // must hold the lock
+    private void drop(Entry<K, V> entry) {
+        entry.removed = true;
+        entry.value = null;
+        bytes -= entry.bytes;
+        // dropped entries stay in the clock until it passes them
+        if (clock.size() > (2 * cache.size()) + 16) {
+            clock.removeIf(e -> e.removed);
+        }
+    }
+
+    // must hold the lock
+    private void evict() {
+        while ((bytes > budget) && !clock.isEmpty()) {
+            Entry<K, V> entry = clock.poll();
+            if (entry.removed) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.add(entry);
+                continue;
+            }
+            cache.remove(entry.key, entry);
+            drop(entry);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Estimates the bytes taken up by the pixels of an image, or of the images
+     * in a collection. Other values, and images that don't know their size
+     * yet, count as nothing.
+     */
+    public static long estimateBytes(Object value) {
+        if (value instanceof BufferedImage) {
+            BufferedImage image = (BufferedImage) value;
+            int bitsPerPixel = image.getColorModel().getPixelSize();
+            return (long) image.getWidth() * image.getHeight() * Math.max(1, (bitsPerPixel + 7) / 8);
+        } else if (value instanceof Image) {
+            Image image = (Image) value;
+            return 4L * Math.max(0, image.getWidth(null)) * Math.max(0, image.getHeight(null));
+        } else if (value instanceof Iterable<?>) {
+            long total = 0;
+            for (Object element : (Iterable<?>) value) {
+                total += estimateBytes(element);
+            }
+            return total;
+        }
+        return 0;
     }
-    
 }
@@ -15,7 +15,6 @@
 
 package megamek.common;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -142,66 +141,51 @@ public class AmmoType extends EquipmentType {
     public static final int NUM_TYPES = 113;  //Should always be at the end with the highest number
 
     // ammo flags
-    public static final BigInteger F_MG = BigInteger.valueOf(1).shiftLeft(0);
-    public static final BigInteger F_BATTLEARMOR = BigInteger.valueOf(1)
-            .shiftLeft(1); // only
+    public static final EquipmentBitSet F_MG = EquipmentBitSet.of(0);
+    public static final EquipmentBitSet F_BATTLEARMOR = EquipmentBitSet.of(1); // only
     // used
     // by
     // BA
     // squads
-    public static final BigInteger F_PROTOMECH = BigInteger.valueOf(1)
-            .shiftLeft(2); // only
+    public static final EquipmentBitSet F_PROTOMECH = EquipmentBitSet.of(2); // only
     // used
     // by
     // Protomechs
-    public static final BigInteger F_HOTLOAD = BigInteger.valueOf(1).shiftLeft(
-            3); // Ammo
+    public static final EquipmentBitSet F_HOTLOAD = EquipmentBitSet.of(3); // Ammo
     // Can
     // be
     // hotloaded
-    public static final BigInteger F_ENCUMBERING = BigInteger.valueOf(1)
-            .shiftLeft(4); // BA
+    public static final EquipmentBitSet F_ENCUMBERING = EquipmentBitSet.of(4); // BA
     // can't
     // jump
     // or
     // make
     // antimech until dumped
-    public static final BigInteger F_MML_LRM = BigInteger.valueOf(1).shiftLeft(
-            5); // LRM
+    public static final EquipmentBitSet F_MML_LRM = EquipmentBitSet.of(5); // LRM
     // type
-    public static final BigInteger F_AR10_WHITE_SHARK = BigInteger.valueOf(1)
-            .shiftLeft(6); // White
+    public static final EquipmentBitSet F_AR10_WHITE_SHARK = EquipmentBitSet.of(6); // White
     // shark
     // type
-    public static final BigInteger F_AR10_KILLER_WHALE = BigInteger.valueOf(1)
-            .shiftLeft(7); // Killer
+    public static final EquipmentBitSet F_AR10_KILLER_WHALE = EquipmentBitSet.of(7); // Killer
     // Whale
     // type
-    public static final BigInteger F_AR10_BARRACUDA = BigInteger.valueOf(1)
-            .shiftLeft(8); // barracuda
+    public static final EquipmentBitSet F_AR10_BARRACUDA = EquipmentBitSet.of(8); // barracuda
     // type
-    public static final BigInteger F_NUCLEAR = BigInteger.valueOf(1).shiftLeft(
-            9); // Nuclear
+    public static final EquipmentBitSet F_NUCLEAR = EquipmentBitSet.of(9); // Nuclear
     // missile
-    public static final BigInteger F_SANTA_ANNA = BigInteger.valueOf(1).shiftLeft(
-            14); // Santa Anna Missile
+    public static final EquipmentBitSet F_SANTA_ANNA = EquipmentBitSet.of(14); // Santa Anna Missile
     
-    public static final BigInteger F_PEACEMAKER = BigInteger.valueOf(1).shiftLeft(
-            15); // Peacemaker Missile
-
-    public static final BigInteger F_TELE_MISSILE = BigInteger.valueOf(1)
-            .shiftLeft(10); // Tele-Missile
-    public static final BigInteger F_CAP_MISSILE = BigInteger.valueOf(1)
-            .shiftLeft(11); // Other Capital-Missile
-    public static final BigInteger F_SPACE_BOMB = BigInteger.valueOf(1)
-            .shiftLeft(12); // can
+    public static final EquipmentBitSet F_PEACEMAKER = EquipmentBitSet.of(15); // Peacemaker Missile
+
+    public static final EquipmentBitSet F_TELE_MISSILE = EquipmentBitSet.of(10); // Tele-Missile
+    public static final EquipmentBitSet F_CAP_MISSILE = EquipmentBitSet.of(11); // Other Capital-Missile
+    public static final EquipmentBitSet F_SPACE_BOMB = EquipmentBitSet.of(12); // can
     // be
     // used
     // to
     // space
     // bomb
-    public static final BigInteger F_GROUND_BOMB = BigInteger.valueOf(1)
-            .shiftLeft(13); // can
+    public static final EquipmentBitSet F_GROUND_BOMB = EquipmentBitSet.of(13); // can
     // be
     // used
     // to
@@ -211,16 +195,13 @@ public class AmmoType extends EquipmentType {
     // Numbers 14-15 out of order. See nuclear missiles, above
     
     //For tag, rl pods, missiles and the like
-    public static final BigInteger F_OTHER_BOMB = BigInteger.valueOf(1)
-            .shiftLeft(16);
+    public static final EquipmentBitSet F_OTHER_BOMB = EquipmentBitSet.of(16);
     
     //Used by MHQ for loading ammo bins
-    public static final BigInteger F_CRUISE_MISSILE = BigInteger.valueOf(1)
-            .shiftLeft(17);
+    public static final EquipmentBitSet F_CRUISE_MISSILE = EquipmentBitSet.of(17);
     
     //Used by MHQ for loading ammo bins
-    public static final BigInteger F_SCREEN = BigInteger.valueOf(1)
-            .shiftLeft(18);
+    public static final EquipmentBitSet F_SCREEN = EquipmentBitSet.of(18);
 
     // ammo munitions, used for custom loadouts
     // N.B. we play bit-shifting games to allow "incendiary"
@@ -134,6 +134,9 @@ public class Board implements Serializable, IBoard {
 
     protected transient Vector<BoardListener> boardListeners = new Vector<BoardListener>();
 
+    /** The packed copy of the hexes, created when first asked for */
+    private transient volatile PackedBoard packed;
+
     /**
      * Record the infernos placed on the board.
      */
@@ -262,6 +265,7 @@ public class Board implements Serializable, IBoard {
         this.width = width;
         this.height = height;
         this.data = data;
+        packed = null;
 
         initializeAll(errBuff);
         processBoardEvent(new BoardEvent(this, null, BoardEvent.BOARD_NEW_BOARD));
@@ -320,6 +324,29 @@ public class Board implements Serializable, IBoard {
         return null;
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see megamek.common.IBoard#getPackedBoard()
+     */
+    public PackedBoard getPackedBoard() {
+        // threads ranking paths ask for the view over and over, so an up to
+        // date view is returned without taking the lock
+        PackedBoard view = packed;
+        if ((view != null) && (view.getWidth() == width) && (view.getHeight() == height)
+                && view.isSynchronized()) {
+            return view;
+        }
+        synchronized (this) {
+            if ((packed == null) || (packed.getWidth() != width)
+                    || (packed.getHeight() != height)) {
+                packed = new PackedBoard(this);
+            }
+            packed.sync();
+            return packed;
+        }
+    }
+
     /**
      * Gets the hex in the specified direction from the specified starting
      * coordinates.
@@ -456,6 +483,7 @@ public class Board implements Serializable, IBoard {
         processBoardEvent(new BoardEvent(this, null, BoardEvent.BOARD_CHANGED_ALL_HEXES));
         // good time to ensure hex cache
         IdealHex.ensureCacheSize(width + 1, height + 1);
+        HexLineCache.ensureCacheSize(width, height);
 
     } // End private void initializeAll()
 
@@ -677,6 +705,9 @@ public class Board implements Serializable, IBoard {
      */
     public void setHex(int x, int y, IHex hex) {
         data[(y * width) + x] = hex;
+        if (packed != null) {
+            packed.update(x, y);
+        }
         initializeHex(x, y);
         // If this hex has exitable terrain, we may need to update the exits in
         // adjacent hexes
@@ -722,6 +753,9 @@ public class Board implements Serializable, IBoard {
             int x = currCoord.getX();
             int y = currCoord.getY();
             data[(y * width) + x] = currHex;
+            if (packed != null) {
+                packed.update(x, y);
+            }
             initializeHex(x, y);
 
             // Add any adjacent hexes that may need to have exits updated
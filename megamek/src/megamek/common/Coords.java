@@ -305,20 +305,27 @@ public class Coords implements Serializable {
      * Returns the distance to another coordinate.
      */
     public final int distance(Coords c) {
+        return distance(getX(), getY(), c.getX(), c.getY());
+    }
+
+    /**
+     * Returns the distance between two positions, without creating coordinates.
+     */
+    public static int distance(int x1, int y1, int x2, int y2) {
         // based off of
         // http://www.rossmack.com/ab/RPG/traveller/AstroHexDistance.asp
         // since I'm too dumb to make my own
         int xd, ym, ymin, ymax, yo;
-        xd = Math.abs(this.getX() - c.getX());
-        yo = (xd / 2) + (!isXOdd() && c.isXOdd() ? 1 : 0);
-        ymin = this.getY() - yo;
+        xd = Math.abs(x1 - x2);
+        yo = (xd / 2) + (((x1 & 1) != 1) && ((x2 & 1) == 1) ? 1 : 0);
+        ymin = y1 - yo;
         ymax = ymin + xd;
         ym = 0;
-        if (c.getY() < ymin) {
-            ym = ymin - c.getY();
+        if (y2 < ymin) {
+            ym = ymin - y2;
         }
-        if (c.getY() > ymax) {
-            ym = c.getY() - ymax;
+        if (y2 > ymax) {
+            ym = y2 - ymax;
         }
         return xd + ym;
     }
@@ -409,6 +416,7 @@ public class Coords implements Serializable {
      * site. (http://www-cs-students.stanford.edu/~amitp/gameprog.html)
      *
      * Note: this function can return Coordinates that are not on the board.
+     * The lines are cached, see {@link HexLineCache}.
      *
      * @param src Starting point.
      * @param dest Ending Point.
@@ -416,29 +424,16 @@ public class Coords implements Serializable {
      * @return The list of intervening coordinates.
      */
     public static ArrayList<Coords> intervening(Coords src, Coords dest, boolean split) {
-        IdealHex iSrc = IdealHex.get(src);
-        IdealHex iDest = IdealHex.get(dest);
-
-        int[] directions = new int[3];
-        int centerDirection = src.direction(dest);
-        if (split) {
-            // HACK to make left appear before right in the sequence reliably
-            centerDirection = (int) Math.round(src.radian(dest) + 0.0001
-                    / HEXSIDE) % 6;
+        int[] line = HexLineCache.getOffsets(src, dest, split);
+        int length = HexLineCache.length(line);
+        ArrayList<Coords> hexes = new ArrayList<>(length);
+        hexes.add(src);
+        for (int i = 1; i < length - 1; i++) {
+            hexes.add(new Coords(src.getX() + line[2 * i], src.getY() + line[(2 * i) + 1]));
         }
-        directions[2] = centerDirection; // center last
-        directions[1] = (centerDirection + 5) % 6;
-        directions[0] = (centerDirection + 1) % 6;
-
-        ArrayList<Coords> hexes = new ArrayList<>();
-        Coords current = src;
-
-        hexes.add(current);
-        while (!dest.equals(current)) {
-            current = Coords.nextHex(current, iSrc, iDest, directions);
-            hexes.add(current);
+        if (length > 1) {
+            hexes.add(dest);
         }
-
         return hexes;
     }
 
@@ -16,7 +16,6 @@
 
 package megamek.common;
 
-import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -148,6 +147,12 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public static final int NONE = -1;
 
+    // flags looked up together in the equipment index
+    private static final EquipmentBitSet ECM_OR_COMMUNICATIONS = MiscType.F_ECM
+            .or(MiscType.F_COMMUNICATIONS);
+    private static final EquipmentBitSet C3_SLAVE = MiscType.F_C3S.or(MiscType.F_C3SBS);
+    private static final EquipmentBitSet C3_MASTER = WeaponType.F_C3M.or(WeaponType.F_C3MBS);
+
     public static final int LOC_NONE = -1;
     public static final int LOC_DESTROYED = -2;
 
@@ -503,6 +508,13 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     protected CriticalSlot[][] crits; // [loc][slot]
 
+    /**
+     * The equipment grouped by flag, built on first use.
+     *
+     * @see #invalidateEquipmentIndex()
+     */
+    private transient volatile EquipmentIndex equipmentIndex;
+
     /**
      * Stores the current movement mode.
      */
@@ -867,6 +879,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         exposure = new int[locations()];
         armorType = new int[locations()];
         armorTechLevel = new int[locations()];
+        invalidateEquipmentIndex();
         for (int i = 0; i < locations(); i++) {
             crits[i] = new CriticalSlot[getNumberOfCriticals(i)];
             armorType[i] = EquipmentType.T_ARMOR_UNKNOWN;
@@ -3157,6 +3170,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         orig_internal = new int[locations()];
         crits = new CriticalSlot[locations()][];
         exposure = new int[locations()];
+        invalidateEquipmentIndex();
         for (int i = 0; i < locations(); i++) {
             crits[i] = new CriticalSlot[getNumberOfCriticals(i)];
         }
@@ -3585,6 +3599,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             throws LocationFullException {
         mounted.setLocation(loc, rearMounted);
         equipmentList.add(mounted);
+        invalidateEquipmentIndex();
 
         compositeTechLevel.addComponent(mounted.getType());
         if (mounted.isArmored()) {
@@ -4042,7 +4057,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return bombList;
     }
 
-    public Vector<Mounted> getBombs(BigInteger flag) {
+    public Vector<Mounted> getBombs(EquipmentBitSet flag) {
         Vector<Mounted> bombs = new Vector<Mounted>();
         for (Mounted bomb : getBombs()) {
             BombType btype = (BombType) bomb.getType();
@@ -4070,6 +4085,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         }
         equipmentList.removeAll(bombAttacksToRemove);
         weaponList.removeAll(bombAttacksToRemove);
+        invalidateEquipmentIndex();
         totalWeaponList.removeAll(bombAttacksToRemove);
         weaponGroupList.removeAll(bombAttacksToRemove);
         weaponBayList.removeAll(bombAttacksToRemove);
@@ -4135,6 +4151,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             if (mounted.getName().equals(toRemove)) {
                 miscList.remove(mounted);
                 equipmentList.remove(mounted);
+                invalidateEquipmentIndex();
                 break;
             }
         }
@@ -4145,6 +4162,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             if (mounted.getName().equals(toRemove)) {
                 weaponList.remove(mounted);
                 equipmentList.remove(mounted);
+                invalidateEquipmentIndex();
                 break;
             }
         }
@@ -4218,13 +4236,32 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return rv;
     }
 
+    EquipmentIndex getEquipmentIndex() {
+        EquipmentIndex index = equipmentIndex;
+        if ((index == null) || !index.isCurrent()) {
+            index = new EquipmentIndex(this);
+            equipmentIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Drops the equipment looked up by flag, so that it is looked up again on
+     * the next query. Needs to be called after changing critical slots or the
+     * equipment lists other than through the methods of this class; only the
+     * sizes of the lists are checked otherwise.
+     */
+    public void invalidateEquipmentIndex() {
+        equipmentIndex = null;
+    }
+
     /**
      * Check if the entity has an arbitrary type of misc equipment
      *
      * @param flag A MiscType.F_XXX
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingMisc(BigInteger flag) {
+    public boolean hasWorkingMisc(EquipmentBitSet flag) {
         return hasWorkingMisc(flag, -1);
     }
 
@@ -4235,8 +4272,8 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param secondary A MiscType.S_XXX or -1 for don't care
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingMisc(BigInteger flag, long secondary) {
-        for (Mounted m : miscList) {
+    public boolean hasWorkingMisc(EquipmentBitSet flag, long secondary) {
+        for (Mounted m : getEquipmentIndex().getMisc(flag)) {
             if ((m.getType() instanceof MiscType) && m.isReady()) {
                 MiscType type = (MiscType) m.getType();
                 if (type.hasFlag(flag)
@@ -4248,8 +4285,8 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return false;
     }
 
-    public boolean hasMisc(BigInteger flag) {
-        for (Mounted m : miscList) {
+    public boolean hasMisc(EquipmentBitSet flag) {
+        for (Mounted m : getEquipmentIndex().getMisc(flag)) {
             if ((m.getType() instanceof MiscType)) {
                 MiscType type = (MiscType) m.getType();
                 if (type.hasFlag(flag)) {
@@ -4266,13 +4303,13 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param flag
      * @return
      */
-    public int countWorkingMisc(BigInteger flag) {
+    public int countWorkingMisc(EquipmentBitSet flag) {
         return countWorkingMisc(flag, -1);
     }
 
-    public int countWorkingMisc(BigInteger flag, int location) {
+    public int countWorkingMisc(EquipmentBitSet flag, int location) {
         int count = 0;
-        OUTER: for (Mounted m : getMisc()) {
+        OUTER: for (Mounted m : getEquipmentIndex().getMisc(flag)) {
             if (!m.isInoperable() && m.getType().hasFlag(flag)
                     && ((location == -1) || (m.getLocation() == location))) {
                 if (m.getType().hasModes()) {
@@ -4314,23 +4351,14 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param location  The location to check e.g. Mech.LOC_LARM
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingMisc(BigInteger flag, long secondary, int location) {
-        // go through the location slot by slot, because of misc equipment that
-        // is spreadable
-        for (int slot = 0; slot < getNumberOfCriticals(location); slot++) {
-            CriticalSlot crit = getCritical(location, slot);
-            if ((null != crit)
-                && (crit.getType() == CriticalSlot.TYPE_EQUIPMENT)) {
-                Mounted mount = crit.getMount();
-                if (mount == null) {
-                    continue;
-                }
-                if ((mount.getType() instanceof MiscType) && mount.isReady()) {
-                    MiscType type = (MiscType) mount.getType();
-                    if (type.hasFlag(flag)
-                        && ((secondary == -1) || type.hasSubType(secondary))) {
-                        return true;
-                    }
+    public boolean hasWorkingMisc(EquipmentBitSet flag, long secondary, int location) {
+        // go through the mounts in the location's slots, because of misc
+        // equipment that is spreadable
+        for (Mounted mount : getEquipmentIndex().getMountsInLocation(flag, location)) {
+            if ((mount.getType() instanceof MiscType) && mount.isReady()) {
+                MiscType type = (MiscType) mount.getType();
+                if ((secondary == -1) || type.hasSubType(secondary)) {
+                    return true;
                 }
             }
         }
@@ -4342,7 +4370,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      *
      * @param flag A WeaponType.F_XXX
      */
-    public boolean hasWorkingWeapon(BigInteger flag) {
+    public boolean hasWorkingWeapon(EquipmentBitSet flag) {
         return hasWorkingWeapon(flag, -1);
     }
 
@@ -4353,8 +4381,8 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param secondary A WeaponType.S_XXX or -1 for don't care
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingWeapon(BigInteger flag, long secondary) {
-        for (Mounted m : weaponList) {
+    public boolean hasWorkingWeapon(EquipmentBitSet flag, long secondary) {
+        for (Mounted m : getEquipmentIndex().getWeapons(flag)) {
             if ((m.getType() instanceof WeaponType) && m.isReady()) {
                 WeaponType type = (WeaponType) m.getType();
                 if (type.hasFlag(flag)
@@ -4392,23 +4420,14 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param location  The location to check e.g. Mech.LOC_LARM
      * @return true if at least one ready item.
      */
-    public boolean hasWorkingWeapon(BigInteger flag, int secondary, int location) {
-        // go through the location slot by slot, because of misc equipment that
-        // is spreadable
-        for (int slot = 0; slot < getNumberOfCriticals(location); slot++) {
-            CriticalSlot crit = getCritical(location, slot);
-            if ((null != crit)
-                && (crit.getType() == CriticalSlot.TYPE_EQUIPMENT)) {
-                Mounted mount = crit.getMount();
-                if (mount == null) {
-                    continue;
-                }
-                if ((mount.getType() instanceof WeaponType) && mount.isReady()) {
-                    WeaponType type = (WeaponType) mount.getType();
-                    if (type.hasFlag(flag)
-                        && ((secondary == -1) || type.hasSubType(secondary))) {
-                        return true;
-                    }
+    public boolean hasWorkingWeapon(EquipmentBitSet flag, int secondary, int location) {
+        // go through the mounts in the location's slots, because of misc
+        // equipment that is spreadable
+        for (Mounted mount : getEquipmentIndex().getMountsInLocation(flag, location)) {
+            if ((mount.getType() instanceof WeaponType) && mount.isReady()) {
+                WeaponType type = (WeaponType) mount.getType();
+                if ((secondary == -1) || type.hasSubType(secondary)) {
+                    return true;
                 }
             }
         }
@@ -4447,6 +4466,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public void setCritical(int loc, int slot, CriticalSlot cs) {
         crits[loc][slot] = cs;
+        invalidateEquipmentIndex();
     }
 
     /**
@@ -4458,6 +4478,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         for (int i = 0; i < getNumberOfCriticals(loc); i++) {
             if (getCritical(loc, i) == null) {
                 crits[loc][i] = cs;
+                invalidateEquipmentIndex();
                 return true;
             }
         }
@@ -4474,6 +4495,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         for (int i = 0; i < getNumberOfCriticals(loc); i++) {
             if (getCritical(loc, slotNumber) == null) {
                 crits[loc][slotNumber] = cs;
+                invalidateEquipmentIndex();
                 return true;
             }
             slotNumber = (slotNumber + 1) % getNumberOfCriticals(loc);
@@ -5020,7 +5042,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             return false;
         }
         if (!isShutDown()) {
-            for (Mounted m : getMisc()) {
+            for (Mounted m : getEquipmentIndex().getMisc(MiscType.F_ECM)) {
                 EquipmentType type = m.getType();
                 // EQ equipment does not count for stealth armor
                 if (stealth && type.hasFlag(MiscType.F_EW_EQUIPMENT)) {
@@ -5051,7 +5073,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         }
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ANGEL_ECM)
             && !isShutDown()) {
-            for (Mounted m : getMisc()) {
+            for (Mounted m : getEquipmentIndex().getMisc(MiscType.F_ANGEL_ECM)) {
                 EquipmentType type = m.getType();
                 if ((type instanceof MiscType)
                     && type.hasFlag(MiscType.F_ANGEL_ECM)
@@ -5075,7 +5097,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             return false;
         }
         if (!isShutDown()) {
-            for (Mounted m : getMisc()) {
+            for (Mounted m : getEquipmentIndex().getMisc(MiscType.F_NOVA)) {
                 EquipmentType type = m.getType();
                 if ((type instanceof MiscType) && type.hasFlag(MiscType.F_NOVA)
                     && m.curMode().equals("ECM")) {
@@ -5106,7 +5128,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             return false;
         }
         boolean hasGhost = false;
-        for (Mounted m : getMisc()) {
+        for (Mounted m : getEquipmentIndex().getMisc(ECM_OR_COMMUNICATIONS)) {
             EquipmentType type = m.getType();
             // TacOps p. 100 Angle ECM can have ECM/ECCM and Ghost Targets at
             // the same time
@@ -5145,7 +5167,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         }
         if ((game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM) || game
                 .getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) && !isShutDown()) {
-            for (Mounted m : getMisc()) {
+            for (Mounted m : getEquipmentIndex().getMisc(ECM_OR_COMMUNICATIONS)) {
                 EquipmentType type = m.getType();
                 // TacOps p. 100 Angle ECM can have 1 ECM and 1 ECCM at the same
                 // time
@@ -5175,7 +5197,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ANGEL_ECM)
             && game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM)
             && !isShutDown()) {
-            for (Mounted m : getMisc()) {
+            for (Mounted m : getEquipmentIndex().getMisc(MiscType.F_ANGEL_ECM)) {
                 EquipmentType type = m.getType();
                 if ((type instanceof MiscType)
                     && type.hasFlag(MiscType.F_ANGEL_ECM)
@@ -5208,7 +5230,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         }
 
         if (!isShutDown()) {
-            for (Mounted m : getMisc()) {
+            for (Mounted m : getEquipmentIndex().getMisc(MiscType.F_ECM)) {
                 EquipmentType type = m.getType();
                 if ((type instanceof MiscType) && type.hasFlag(MiscType.F_ECM)
                     && !m.isInoperable()) {
@@ -5447,7 +5469,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (isShutDown() || isOffBoard()) {
             return false;
         }
-        for (Mounted m : getEquipment()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(C3_SLAVE)) {
             if ((m.getType() instanceof MiscType)
                 && (m.getType().hasFlag(MiscType.F_C3S) || m.getType()
                                                             .hasFlag(MiscType.F_C3SBS)) && !m.isInoperable()) {
@@ -5486,7 +5508,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @return a <code>boolean</code> value indicating a present HarJel system
      */
     public boolean hasHarJelIn(int location) {
-        for (Mounted mounted : getMisc()) {
+        for (Mounted mounted : getEquipmentIndex().getMisc(MiscType.F_HARJEL)) {
             if ((mounted.getLocation() == location)
                 && mounted.isReady()
                 && (mounted.getType().hasFlag(MiscType.F_HARJEL))) {
@@ -5500,10 +5522,13 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (isShutDown() || isOffBoard()) {
             return false;
         }
-        for (Mounted m : getEquipment()) {
-            if ((m.getType().hasFlag(MiscType.F_C3SBS) || m.getType().hasFlag(
-                    WeaponType.F_C3MBS))
-                && !m.isInoperable()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(MiscType.F_C3SBS)) {
+            if (!m.isInoperable()) {
+                return true;
+            }
+        }
+        for (Mounted m : getEquipmentIndex().getEquipment(WeaponType.F_C3MBS)) {
+            if (!m.isInoperable()) {
                 return true;
             }
         }
@@ -5519,7 +5544,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (isShutDown() || isOffBoard()) {
             return false;
         }
-        for (Mounted m : getEquipment()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(C3_MASTER)) {
             if ((m.getType() instanceof WeaponType)
                 && (m.getType().hasFlag(WeaponType.F_C3M) || m.getType()
                                                               .hasFlag(WeaponType.F_C3MBS)) && !m.isInoperable()) {
@@ -5601,7 +5626,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (isShutDown() || isOffBoard()) {
             return false;
         }
-        for (Mounted m : getEquipment()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(MiscType.F_NOVA)) {
             if ((m.getType() instanceof MiscType)
                 && m.getType().hasFlag(MiscType.F_NOVA)
                 && !m.isInoperable() && !m.curMode().equals("Off")) {
@@ -5612,7 +5637,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     }
 
     public boolean hasNovaCEWS() {
-        for (Mounted m : getEquipment()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(MiscType.F_NOVA)) {
             if ((m.getType() instanceof MiscType)
                 && m.getType().hasFlag(MiscType.F_NOVA)
                 && !m.isInoperable()) {
@@ -5626,7 +5651,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (isShutDown() || isOffBoard()) {
             return false;
         }
-        for (Mounted m : getEquipment()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(MiscType.F_NAVAL_C3)) {
             if ((m.getType() instanceof MiscType)
                 && m.getType().hasFlag(MiscType.F_NAVAL_C3) && !m.isInoperable()) {
                 return true;
@@ -5639,7 +5664,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         if (isShutDown() || isOffBoard()) {
             return false;
         }
-        for (Mounted m : getEquipment()) {
+        for (Mounted m : getEquipmentIndex().getEquipment(MiscType.F_C3I)) {
             if ((m.getType() instanceof MiscType)
                 && m.getType().hasFlag(MiscType.F_C3I) && !m.isInoperable()) {
                 return true;
@@ -0,0 +1,170 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An immutable set of equipment flags, such as <code>MiscType.F_CASE</code>
+ * or <code>WeaponType.F_ENERGY</code>. A single flag is a set with one bit,
+ * and flags are combined with {@link #or(EquipmentBitSet)}, the way the
+ * BigInteger flags it replaces were. The tests do not allocate, as they run
+ * for every mounted piece of equipment whenever an entity is asked whether it
+ * has a working one.
+ */
+public final class EquipmentBitSet implements Serializable {
+
+    private static final long serialVersionUID = -6532473961432576227L;
+
+    public static final EquipmentBitSet EMPTY = new EquipmentBitSet(new long[0]);
+
+    /** Never ends with a zero word, so that equal sets have equal arrays */
+    private final long[] words;
+
+    // used as a map key by the equipment index, so the hash is kept once known
+    private transient int hash;
+
+    private EquipmentBitSet(long[] words) {
+        int length = words.length;
+        while ((length > 0) && (words[length - 1] == 0)) {
+            length--;
+        }
+        this.words = (length == words.length) ? words : Arrays.copyOf(words, length);
+    }
+
+    /**
+     * @return the set with only the given bit
+     */
+    public static EquipmentBitSet of(int bit) {
+        if (bit < 0) {
+            throw new IllegalArgumentException("Negative flag bit: " + bit);
+        }
+        long[] words = new long[(bit >> 6) + 1];
+        words[bit >> 6] = 1L << bit;
+        return new EquipmentBitSet(words);
+    }
+
+    /**
+     * Converts flags stored as a BigInteger by older code.
+     */
+    public static EquipmentBitSet valueOf(BigInteger flags) {
+        if (flags.signum() < 0) {
+            throw new IllegalArgumentException("Negative flags: " + flags);
+        }
+        long[] words = new long[(flags.bitLength() + 63) >> 6];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = flags.shiftRight(i << 6).longValue();
+        }
+        return new EquipmentBitSet(words);
+    }
+
+    /**
+     * @return these flags as the BigInteger older code stored them as
+     */
+    public BigInteger toBigInteger() {
+        BigInteger value = BigInteger.ZERO;
+        for (int i = words.length - 1; i >= 0; i--) {
+            value = value.shiftLeft(64).or(new BigInteger(Long.toUnsignedString(words[i])));
+        }
+        return value;
+    }
+
+    public EquipmentBitSet or(EquipmentBitSet other) {
+        if (other.words.length > words.length) {
+            return other.or(this);
+        }
+        long[] result = words.clone();
+        for (int i = 0; i < other.words.length; i++) {
+            result[i] |= other.words[i];
+        }
+        return new EquipmentBitSet(result);
+    }
+
+    public EquipmentBitSet and(EquipmentBitSet other) {
+        long[] result = new long[Math.min(words.length, other.words.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new EquipmentBitSet(result);
+    }
+
+    /**
+     * @return these flags without the other ones
+     */
+    public EquipmentBitSet andNot(EquipmentBitSet other) {
+        long[] result = words.clone();
+        for (int i = 0; i < Math.min(result.length, other.words.length); i++) {
+            result[i] &= ~other.words[i];
+        }
+        return new EquipmentBitSet(result);
+    }
+
+    /**
+     * @return true if any of the other flags is set
+     */
+    public boolean hasAny(EquipmentBitSet other) {
+        for (int i = Math.min(words.length, other.words.length) - 1; i >= 0; i--) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if all of the other flags are set
+     */
+    public boolean hasAll(EquipmentBitSet other) {
+        if (other.words.length > words.length) {
+            return false;
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            if ((words[i] & other.words[i]) != other.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean get(int bit) {
+        return ((bit >> 6) < words.length) && ((words[bit >> 6] & (1L << bit)) != 0);
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (this == obj)
+                || ((obj instanceof EquipmentBitSet) && Arrays.equals(words, ((EquipmentBitSet) obj).words));
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Arrays.hashCode(words);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString(2);
+    }
+}
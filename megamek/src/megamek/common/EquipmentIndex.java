@@ -0,0 +1,147 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The equipment of an entity grouped by flag, so that questions like "does it
+ * have a working ECM?" only look at the mounts that could answer them instead
+ * of the whole equipment list or every critical slot of a location. Each flag
+ * is looked up on first use and kept, in the order of the entity's lists, so
+ * the first matching mount is the same one a scan would find.
+ * <p>
+ * Only the mounts are indexed: whether they are ready, destroyed or in the
+ * right mode is still checked by the caller. The index is dropped whenever
+ * equipment or critical slots are added or removed, see
+ * {@link Entity#invalidateEquipmentIndex()}. A lookup that met a mount whose
+ * type is not known yet, e.g. before the equipment types are loaded, is not
+ * kept.
+ */
+final class EquipmentIndex {
+
+    private static final Mounted[] NONE = new Mounted[0];
+
+    private final Entity entity;
+
+    // sizes of the lists at creation, to notice lists changed from outside
+    private final int equipmentCount;
+    private final int miscCount;
+    private final int weaponCount;
+
+    private final Map<EquipmentBitSet, Mounted[]> equipment = new ConcurrentHashMap<>();
+    private final Map<EquipmentBitSet, Mounted[]> misc = new ConcurrentHashMap<>();
+    private final Map<EquipmentBitSet, Mounted[]> weapons = new ConcurrentHashMap<>();
+    private final Map<EquipmentBitSet, AtomicReferenceArray<Mounted[]>> slots = new ConcurrentHashMap<>();
+
+    EquipmentIndex(Entity entity) {
+        this.entity = entity;
+        equipmentCount = entity.equipmentList.size();
+        miscCount = entity.miscList.size();
+        weaponCount = entity.weaponList.size();
+    }
+
+    /**
+     * @return false if equipment was added to or removed from the lists of
+     *         the entity since the index was created
+     */
+    boolean isCurrent() {
+        return (equipmentCount == entity.equipmentList.size())
+                && (miscCount == entity.miscList.size())
+                && (weaponCount == entity.weaponList.size());
+    }
+
+    /**
+     * @return the equipment with any of the flags
+     */
+    Mounted[] getEquipment(EquipmentBitSet flag) {
+        return lookup(equipment, entity.equipmentList, flag);
+    }
+
+    /**
+     * @return the misc equipment with any of the flags
+     */
+    Mounted[] getMisc(EquipmentBitSet flag) {
+        return lookup(misc, entity.miscList, flag);
+    }
+
+    /**
+     * @return the weapons with any of the flags
+     */
+    Mounted[] getWeapons(EquipmentBitSet flag) {
+        return lookup(weapons, entity.weaponList, flag);
+    }
+
+    /**
+     * @return the mounts with any of the flags that take up a critical slot in
+     *         the location, in slot order
+     */
+    Mounted[] getMountsInLocation(EquipmentBitSet flag, int location) {
+        AtomicReferenceArray<Mounted[]> byLocation = slots.computeIfAbsent(flag,
+                f -> new AtomicReferenceArray<>(entity.locations()));
+        Mounted[] mounts = byLocation.get(location);
+        if (mounts == null) {
+            boolean complete = true;
+            List<Mounted> selected = new ArrayList<>();
+            for (int slot = 0; slot < entity.getNumberOfCriticals(location); slot++) {
+                CriticalSlot crit = entity.getCritical(location, slot);
+                if ((crit != null) && (crit.getType() == CriticalSlot.TYPE_EQUIPMENT)
+                        && (crit.getMount() != null)) {
+                    Mounted mount = crit.getMount();
+                    EquipmentType type = mount.getType();
+                    if (type == null) {
+                        complete = false;
+                    } else if (type.hasFlag(flag) && !selected.contains(mount)) {
+                        selected.add(mount);
+                    }
+                }
+            }
+            mounts = selected.isEmpty() ? NONE : selected.toArray(NONE);
+            if (complete) {
+                byLocation.set(location, mounts);
+            }
+        }
+        return mounts;
+    }
+
+    /**
+     * Selects the mounts with any of the flags from the list, keeping the
+     * result unless a mount's type could not be looked up yet.
+     */
+    private static Mounted[] lookup(Map<EquipmentBitSet, Mounted[]> cache, List<Mounted> mounts,
+            EquipmentBitSet flag) {
+        Mounted[] selected = cache.get(flag);
+        if (selected == null) {
+            boolean complete = true;
+            List<Mounted> found = new ArrayList<>();
+            for (Mounted m : mounts) {
+                EquipmentType type = m.getType();
+                if (type == null) {
+                    complete = false;
+                } else if (type.hasFlag(flag)) {
+                    found.add(m);
+                }
+            }
+            selected = found.isEmpty() ? NONE : found.toArray(NONE);
+            if (complete) {
+                cache.put(flag, selected);
+            }
+        }
+        return selected;
+    }
+}
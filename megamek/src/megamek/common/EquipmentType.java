@@ -20,7 +20,6 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Hashtable;
@@ -176,7 +175,7 @@ public class EquipmentType implements ITechnology {
     
     protected TechAdvancement techAdvancement = new TechAdvancement();
 
-    protected BigInteger flags = BigInteger.valueOf(0);
+    protected EquipmentBitSet flags = EquipmentBitSet.EMPTY;
 
     protected long subType = 0;
 
@@ -216,7 +215,7 @@ public class EquipmentType implements ITechnology {
         // default constructor
     }
 
-    public void setFlags(BigInteger inF) {
+    public void setFlags(EquipmentBitSet inF) {
         flags = inF;
     }
 
@@ -515,12 +514,12 @@ public class EquipmentType implements ITechnology {
         return toHitModifier;
     }
 
-    public BigInteger getFlags() {
+    public EquipmentBitSet getFlags() {
         return flags;
     }
 
-    public boolean hasFlag(BigInteger flag) {
-        return !(flags.and(flag)).equals(BigInteger.valueOf(0));
+    public boolean hasFlag(EquipmentBitSet flag) {
+        return flags.hasAny(flag);
     }
 
     public double getBV(Entity entity) {
@@ -615,6 +615,7 @@ public class FighterSquadron extends Aero implements IAero {
             equipmentList.remove(bomb);
         }
         bombList.clear();
+        invalidateEquipmentIndex();
 
         // Find out what bombs everyone has
         for (int btype = 0; btype < BombType.B_NUM; btype++) {
@@ -2755,6 +2755,14 @@ public class Game implements Serializable, IGame {
         gameReports.set(v);
     }
 
+    public void setReportsPage(int firstRound, Vector<Vector<Report>> rounds, int roundCount) {
+        gameReports.setPage(firstRound, rounds, roundCount);
+    }
+
+    public boolean hasReports(int round) {
+        return gameReports.isLoaded(round);
+    }
+
     public void clearAllReports() {
         gameReports.clear();
     }
@@ -22,7 +22,8 @@ import java.util.Vector;
 
 /**
  * This class is a container for the various reports created by the server
- * during a game.
+ * during a game. On a client that joined a game in progress, the rounds it has
+ * not asked the server for yet are <code>null</code>.
  */
 public class GameReports implements Serializable {
 
@@ -44,6 +45,8 @@ public class GameReports implements Serializable {
         if (round > reports.size()) {
             // First reports for the round.
             reports.addElement(new Vector<Report>(v));
+        } else if (reports.elementAt(round - 1) == null) {
+            reports.setElementAt(new Vector<Report>(v), round - 1);
         } else {
             // Already have some reports for this round, so we'll append these
             // new ones.
@@ -68,6 +71,35 @@ public class GameReports implements Serializable {
         return null;
     }
 
+    /**
+     * Whether the reports of a round are here, rather than still on the
+     * server.
+     */
+    public boolean isLoaded(int round) {
+        if (round == 0) {
+            round = 1;
+        }
+        return (round >= 1) && (round <= reports.size()) && (reports.elementAt(round - 1) != null);
+    }
+
+    /**
+     * Set the reports of some of the rounds, as sent by the server. Rounds
+     * that were not sent before are left out.
+     *
+     * @param firstRound the round of the first reports given
+     * @param rounds the reports of each round from <code>firstRound</code> on
+     * @param roundCount the number of rounds the server has reports for
+     */
+    public void setPage(int firstRound, Vector<Vector<Report>> rounds, int roundCount) {
+        reports.setSize(roundCount);
+        for (int i = 0; i < rounds.size(); i++) {
+            int round = firstRound + i;
+            if ((round >= 1) && (round <= roundCount)) {
+                reports.setElementAt(rounds.elementAt(i), round - 1);
+            }
+        }
+    }
+
     /**
      *  Get all the reports.
      */
@@ -15,7 +15,9 @@
 package megamek.common;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.StringTokenizer;
 
 import megamek.common.Building.BasementType;
@@ -44,6 +46,9 @@ public class Hex implements IHex, Serializable {
     private int fireTurn;
     private Coords coords;
 
+    /** The packed views this hex is copied into; replaced, never changed */
+    private transient volatile PackedView[] views;
+
     /** Constructs clear, plain hex at level 0. */
     public Hex() {
         this(0);
@@ -112,6 +117,7 @@ public class Hex implements IHex, Serializable {
      */
     public void setLevel(int level) {
         this.level = level;
+        modified();
     }
 
     /*
@@ -137,6 +143,11 @@ public class Hex implements IHex, Serializable {
         setTheme(originalTheme);
     }
 
+    /** Returns the theme that was specified in the board file. */
+    public String getOriginalTheme() {
+        return originalTheme;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -399,6 +410,7 @@ public class Hex implements IHex, Serializable {
      */
     public void addTerrain(ITerrain terrain) {
         terrains.put(terrain.getType(), terrain);
+        modified();
     }
 
     /*
@@ -408,6 +420,7 @@ public class Hex implements IHex, Serializable {
      */
     public void removeTerrain(int type) {
         terrains.remove(type);
+        modified();
     }
 
     /*
@@ -417,6 +430,50 @@ public class Hex implements IHex, Serializable {
      */
     public void removeAllTerrains() {
         terrains.clear();
+        modified();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.IHex#addPackedView(PackedBoard, int)
+     */
+    public synchronized void addPackedView(PackedBoard view, int index) {
+        PackedView[] current = views;
+        List<PackedView> kept = new ArrayList<>();
+        if (current != null) {
+            for (PackedView v : current) {
+                if ((v.view == view) && (v.index == index)) {
+                    return;
+                }
+                // drop the views this hex has since been replaced in
+                if (v.view.isPackedFrom(v.index, this)) {
+                    kept.add(v);
+                }
+            }
+        }
+        kept.add(new PackedView(view, index));
+        views = kept.toArray(new PackedView[0]);
+    }
+
+    private void modified() {
+        PackedView[] current = views;
+        if (current != null) {
+            for (PackedView v : current) {
+                v.view.hexChanged(v.index, this);
+            }
+        }
+    }
+
+    /** A packed view of a board, and the index of this hex in it */
+    private static final class PackedView {
+        final PackedBoard view;
+        final int index;
+
+        PackedView(PackedBoard view, int index) {
+            this.view = view;
+            this.index = index;
+        }
     }
 
     /*
@@ -567,6 +624,10 @@ public class Hex implements IHex, Serializable {
         fireTurn = 0;
     }
 
+    public void setFireTurn(int fireTurn) {
+        this.fireTurn = fireTurn;
+    }
+
     /**
      * get any modifiers to a bog-down roll in this hex. Takes the worst
      * modifier. If there is no bog-down chance in this hex, then it returns
@@ -0,0 +1,184 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cache of the hexes crossed by straight lines, as returned by
+ * {@link Coords#intervening(Coords, Coords, boolean)}.
+ * <p>
+ * Moving a line by an even number of columns, or by any number of rows,
+ * doesn't change its shape, so a line is fully described by the offset
+ * between its ends, the parity of its starting column and the direction it
+ * is traced in. The direction is still computed from the actual ends on
+ * every call: for lines running exactly along a hex side it depends on
+ * rounding, and the order of the hexes on either side of the line depends on
+ * it. The hexes of a line are kept as offsets from its start, packed as
+ * <code>{dx0, dy0, dx1, dy1, ...}</code>; they are computed once and shared by
+ * all callers, which must not modify them.
+ * <p>
+ * The cache covers the offsets possible on the current board (up to
+ * {@link #MAX_CACHED_OFFSET}); longer lines are computed on every call.
+ */
+public final class HexLineCache {
+
+    /** Lines longer than this in either direction aren't cached */
+    public static final int MAX_CACHED_OFFSET = 128;
+
+    private static volatile Cache cache = new Cache(0, 0);
+
+    private HexLineCache() {
+    }
+
+    /**
+     * Ensures that lines between any two hexes of a board of the given size
+     * are cached.
+     */
+    public static synchronized void ensureCacheSize(int width, int height) {
+        int maxDx = Math.min(width, MAX_CACHED_OFFSET);
+        int maxDy = Math.min(height, MAX_CACHED_OFFSET);
+        if ((cache.maxDx < maxDx) || (cache.maxDy < maxDy)) {
+            cache = new Cache(Math.max(maxDx, cache.maxDx), Math.max(maxDy, cache.maxDy));
+        }
+    }
+
+    /**
+     * Returns the hexes crossed by the line from the center of src to the
+     * center of dest, as offsets from src.
+     *
+     * @param src Starting point.
+     * @param dest Ending Point.
+     * @param split Set TRUE to make left appear before right in the sequence reliably
+     * @return the shared offsets <code>{dx0, dy0, dx1, dy1, ...}</code>; the
+     *         first pair is always <code>{0, 0}</code>, the last one the
+     *         offset of dest
+     */
+    public static int[] getOffsets(Coords src, Coords dest, boolean split) {
+        int dx = dest.getX() - src.getX();
+        int dy = dest.getY() - src.getY();
+        int parity = src.getX() & 1;
+        int centerDirection = src.direction(dest);
+        if (split) {
+            // HACK to make left appear before right in the sequence reliably
+            centerDirection = (int) Math.round(src.radian(dest) + 0.0001
+                    / Coords.HEXSIDE) % 6;
+        }
+        Cache current = cache;
+        int index = current.index(dx, dy, parity, centerDirection);
+        if (index < 0) {
+            return compute(dx, dy, parity, centerDirection);
+        }
+        int[] line = current.lines.get(index);
+        if (line == null) {
+            line = compute(dx, dy, parity, centerDirection);
+            current.lines.set(index, line);
+        }
+        return line;
+    }
+
+    /**
+     * Returns the number of hexes in a line returned by
+     * {@link #getOffsets(Coords, Coords, boolean)}.
+     */
+    public static int length(int[] line) {
+        return line.length / 2;
+    }
+
+    /**
+     * Returns the i-th hex of a line starting at src, using the board's own
+     * <code>Coords</code> when possible instead of creating new ones.
+     *
+     * @param board the board, may be <code>null</code>
+     * @param src the start of the line
+     * @param line the line, see {@link #getOffsets(Coords, Coords, boolean)}
+     * @param i the index of the hex
+     * @return the coordinates of the hex
+     */
+    public static Coords getCoords(IBoard board, Coords src, int[] line, int i) {
+        int x = src.getX() + line[2 * i];
+        int y = src.getY() + line[(2 * i) + 1];
+        if ((x == src.getX()) && (y == src.getY())) {
+            return src;
+        }
+        if ((board != null) && board.contains(x, y)) {
+            // hexes only know where they are once the board placed them
+            IHex hex = board.getHex(x, y);
+            Coords c = (hex != null) ? hex.getCoords() : null;
+            if ((c != null) && (c.getX() == x) && (c.getY() == y)) {
+                return c;
+            }
+        }
+        return new Coords(x, y);
+    }
+
+    /**
+     * Traces a line starting in a column of the given parity.
+     */
+    private static int[] compute(int dx, int dy, int parity, int centerDirection) {
+        Coords src = new Coords(parity, 0);
+        Coords dest = new Coords(parity + dx, dy);
+        IdealHex iSrc = IdealHex.get(src);
+        IdealHex iDest = IdealHex.get(dest);
+
+        int[] directions = new int[3];
+        directions[2] = centerDirection; // center last
+        directions[1] = (centerDirection + 5) % 6;
+        directions[0] = (centerDirection + 1) % 6;
+
+        int[] line = new int[2 * (Math.abs(dx) + Math.abs(dy) + 1)];
+        int count = 1;
+        Coords current = src;
+        while (!dest.equals(current)) {
+            current = Coords.nextHex(current, iSrc, iDest, directions);
+            if ((2 * count) == line.length) {
+                int[] grown = new int[line.length * 2];
+                System.arraycopy(line, 0, grown, 0, line.length);
+                line = grown;
+            }
+            line[2 * count] = current.getX() - parity;
+            line[(2 * count) + 1] = current.getY();
+            count++;
+        }
+        if ((2 * count) != line.length) {
+            int[] trimmed = new int[2 * count];
+            System.arraycopy(line, 0, trimmed, 0, trimmed.length);
+            line = trimmed;
+        }
+        return line;
+    }
+
+    private static class Cache {
+        final int maxDx;
+        final int maxDy;
+        final AtomicReferenceArray<int[]> lines;
+
+        Cache(int maxDx, int maxDy) {
+            this.maxDx = maxDx;
+            this.maxDy = maxDy;
+            lines = new AtomicReferenceArray<>((2 * maxDx + 1) * (2 * maxDy + 1) * 12);
+        }
+
+        /**
+         * Returns the slot of a line, or -1 if it's too long to be cached
+         */
+        int index(int dx, int dy, int parity, int centerDirection) {
+            if ((Math.abs(dx) > maxDx) || (Math.abs(dy) > maxDy)) {
+                return -1;
+            }
+            int offset = ((dx + maxDx) * ((2 * maxDy) + 1)) + dy + maxDy;
+            return (offset * 12) + (parity * 6) + centerDirection;
+        }
+    }
+}
@@ -593,4 +593,10 @@ public interface IBoard {
     
     /** Rebuilds automatic terrains for the whole board. */
     public void initializeAllAutomaticTerrain();
-}
\ No newline at end of file
+
+    /**
+     * Returns a compact view of the levels and terrains of all hexes, brought
+     * up to date with any hex changes, for code that queries many hexes.
+     */
+    public PackedBoard getPackedBoard();
+}
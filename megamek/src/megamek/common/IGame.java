@@ -1250,6 +1250,21 @@ public interface IGame {
      */
     void setAllReports(Vector<Vector<Report>> v);
 
+    /**
+     * Used to populate some of the previous game reports, as a client that
+     * connected to an existing game asks for them.
+     *
+     * @param firstRound the round of the first reports given
+     * @param rounds the reports of each round from <code>firstRound</code> on
+     * @param roundCount the number of rounds the server has reports for
+     */
+    void setReportsPage(int firstRound, Vector<Vector<Report>> rounds, int roundCount);
+
+    /**
+     * Returns true if the reports of the given round are known here.
+     */
+    boolean hasReports(int round);
+
     /**
      * Clears out all the current reports, paving the way for a new game.
      */
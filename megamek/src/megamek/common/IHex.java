@@ -138,6 +138,15 @@ public interface IHex extends Cloneable {
      */
     public abstract int ceiling();
 
+    /**
+     * Registers a packed view this hex was copied into, so that the view is
+     * told whenever the level or the terrains of this hex change.
+     *
+     * @param view  the view
+     * @param index the index of this hex in the view
+     */
+    public abstract void addPackedView(PackedBoard view, int index);
+
     /**
      * 
      * @param inAtmosphere
@@ -1950,6 +1950,7 @@ public class Infantry extends Entity {
     			.collect(Collectors.toList());
     	getEquipment().removeAll(toRemove);
     	getMisc().removeAll(toRemove);
+    	invalidateEquipmentIndex();
     	if (armorKit != null && armorKit.hasFlag(MiscType.F_ARMOR_KIT)) {
     		try {
     			addEquipment(armorKit, LOC_INFANTRY);
@@ -2049,6 +2050,7 @@ public class Infantry extends Entity {
             }
             getEquipment().removeAll(eqToRemove);
             getMisc().removeAll(eqToRemove);
+            invalidateEquipmentIndex();
         }
         // Equipment for Demolition Engineers
         if ((spec & DEMO_ENGINEERS) > 0 && (infSpecs & DEMO_ENGINEERS) == 0) {
@@ -2072,6 +2074,7 @@ public class Infantry extends Entity {
             }
             getEquipment().removeAll(eqToRemove);
             getMisc().removeAll(eqToRemove);
+            invalidateEquipmentIndex();
         }
         infSpecs = spec;
     }
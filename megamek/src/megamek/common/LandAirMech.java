@@ -2049,6 +2049,7 @@ public class LandAirMech extends BipedMech implements IAero, IBomber {
             miscList.add(mounted);
         }
         equipmentList.add(mounted);
+        invalidateEquipmentIndex();
     }
 
     @Override
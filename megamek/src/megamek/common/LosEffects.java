@@ -76,6 +76,8 @@ public class LosEffects {
         public int attackerId;
         public int targetId;
         int minimumWaterDepth = -1;
+        /** The packed board the line is traced over, fetched once per query */
+        PackedBoard board;
     }
 
     // MAXTECH BMR
@@ -546,6 +548,7 @@ public class LosEffects {
         boolean diagramLos = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1);
         boolean partialCover = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER);
         double degree = ai.attackPos.degree(ai.targetPos);
+        ai.board = game.getBoard().getPackedBoard();
         LosEffects finalLoS;
         if (degree % 60 == 30) {
             finalLoS = LosEffects.losDivided(game, ai, diagramLos, partialCover);
@@ -713,7 +716,8 @@ public class LosEffects {
      */
     private static LosEffects losStraight(IGame game, AttackInfo ai, 
             boolean diagramLoS, boolean partialCover) {
-        ArrayList<Coords> in = Coords.intervening(ai.attackPos, ai.targetPos);
+        final IBoard board = game.getBoard();
+        final int[] in = HexLineCache.getOffsets(ai.attackPos, ai.targetPos, false);
         LosEffects los = new LosEffects();
         boolean targetInBuilding = false;
         if (ai.targetEntity) {
@@ -728,12 +732,13 @@ public class LosEffects {
                 && Compute.isInBuilding(game, ai.attackAbsHeight
                         - game.getBoard().getHex(ai.attackPos).surface(),
                         ai.attackPos)) {
-            los.setThruBldg(game.getBoard().getBuildingAt(in.get(0)));
+            los.setThruBldg(board.getBuildingAt(ai.attackPos));
             //elevation differences count as building hexes passed through
             los.buildingLevelsOrHexes += (Math.abs((ai.attackAbsHeight-ai.attackHeight) - (ai.targetAbsHeight-ai.targetHeight)));
         }
 
-        for (Coords c : in) {
+        for (int i = 0; i < HexLineCache.length(in); i++) {
+            Coords c = HexLineCache.getCoords(board, ai.attackPos, in, i);
             los.add(LosEffects.losForCoords(game, ai, c, los.getThruBldg(),
                     diagramLoS, partialCover));
         }      
@@ -778,8 +783,9 @@ public class LosEffects {
      */
     private static LosEffects losDivided(IGame game, AttackInfo ai,
             boolean diagramLoS, boolean partialCover) {
-        ArrayList<Coords> in = Coords.intervening(ai.attackPos, ai.targetPos,
-                true);
+        final IBoard board = game.getBoard();
+        final int[] in = HexLineCache.getOffsets(ai.attackPos, ai.targetPos, true);
+        final int inSize = HexLineCache.length(in);
         LosEffects los = new LosEffects();
         boolean targetInBuilding = false;
         if (ai.targetEntity) {
@@ -794,7 +800,7 @@ public class LosEffects {
                 && Compute.isInBuilding(game, ai.attackAbsHeight
                         - game.getBoard().getHex(ai.attackPos).surface(),
                         ai.attackPos)) {
-            los.setThruBldg(game.getBoard().getBuildingAt(in.get(0)));
+            los.setThruBldg(board.getBuildingAt(ai.attackPos));
             //elevation differences count as building hexes passed through
             los.buildingLevelsOrHexes += (Math
                     .abs((ai.attackAbsHeight - ai.attackHeight)
@@ -802,9 +808,9 @@ public class LosEffects {
         }
 
         // add non-divided line segments
-        for (int i = 3; i < in.size() - 2; i += 3) {
-            los.add(losForCoords(game, ai, in.get(i), los.getThruBldg(),
-                    diagramLoS, partialCover));
+        for (int i = 3; i < inSize - 2; i += 3) {
+            los.add(losForCoords(game, ai, HexLineCache.getCoords(board, ai.attackPos, in, i),
+                    los.getThruBldg(), diagramLoS, partialCover));
         }
 
         if ((ai.minimumWaterDepth < 1) && ai.underWaterCombat) {
@@ -817,18 +823,20 @@ public class LosEffects {
         }
 
         // If there src & dst hexes are the same, nothing to do
-        if (in.size() < 2) {
+        if (inSize < 2) {
             return los;
         }
 
         // go through divided line segments
         LosEffects totalLeftLos = new LosEffects();
         LosEffects totalRightLos = new LosEffects();
-        for (int i = 1; i < in.size() - 2; i += 3) {
-            LosEffects leftLos = losForCoords(game, ai, in.get(i), los
-                    .getThruBldg(), diagramLoS, partialCover);
-            LosEffects rightLos = losForCoords(game, ai, in.get(i + 1), los
-                    .getThruBldg(), diagramLoS, partialCover);
+        for (int i = 1; i < inSize - 2; i += 3) {
+            LosEffects leftLos = losForCoords(game, ai,
+                    HexLineCache.getCoords(board, ai.attackPos, in, i), los.getThruBldg(),
+                    diagramLoS, partialCover);
+            LosEffects rightLos = losForCoords(game, ai,
+                    HexLineCache.getCoords(board, ai.attackPos, in, i + 1), los.getThruBldg(),
+                    diagramLoS, partialCover);
 
             // Infantry inside a building can only be
             // targeted by units in the same building.
@@ -1055,17 +1063,18 @@ public class LosEffects {
             los.buildingLevelsOrHexes += 1;
         }
 
-        IHex hex = game.getBoard().getHex(coords);
-        int hexEl = ai.underWaterCombat ? hex.floor() : hex.surface();
+        PackedBoard board = (ai.board != null) ? ai.board : game.getBoard().getPackedBoard();
+        int hex = board.index(coords);
+        int hexEl = ai.underWaterCombat ? board.floor(hex) : board.getLevel(hex);
 
         // Handle minimum water depth.
         // Applies to Torpedos.
-        if (!(hex.containsTerrain(Terrains.WATER))) {
+        if (!(board.containsTerrain(hex, Terrains.WATER))) {
             ai.minimumWaterDepth = 0;
-        } else if ((hex.terrainLevel(Terrains.WATER) >= 0)
-                && ((ai.minimumWaterDepth == -1) || (hex
-                        .terrainLevel(Terrains.WATER) < ai.minimumWaterDepth))) {
-            ai.minimumWaterDepth = hex.terrainLevel(Terrains.WATER);
+        } else if ((board.terrainLevel(hex, Terrains.WATER) >= 0)
+                && ((ai.minimumWaterDepth == -1) || (board
+                        .terrainLevel(hex, Terrains.WATER) < ai.minimumWaterDepth))) {
+            ai.minimumWaterDepth = board.terrainLevel(hex, Terrains.WATER);
         }
 
         // Handle building elevation.
@@ -1073,14 +1082,14 @@ public class LosEffects {
         // ASSUMPTION: bridges don't block LOS.
         int bldgEl = 0;
         if ((null == los.getThruBldg())
-                && hex.containsTerrain(Terrains.BLDG_ELEV)) {
-            bldgEl = hex.terrainLevel(Terrains.BLDG_ELEV);
+                && board.containsTerrain(hex, Terrains.BLDG_ELEV)) {
+            bldgEl = board.terrainLevel(hex, Terrains.BLDG_ELEV);
         }
         
         if ((null == los.getThruBldg())
-                && hex.containsTerrain(Terrains.FUEL_TANK_ELEV)
-                && hex.terrainLevel(Terrains.FUEL_TANK_ELEV) > bldgEl) {
-            bldgEl = hex.terrainLevel(Terrains.FUEL_TANK_ELEV);
+                && board.containsTerrain(hex, Terrains.FUEL_TANK_ELEV)
+                && board.terrainLevel(hex, Terrains.FUEL_TANK_ELEV) > bldgEl) {
+            bldgEl = board.terrainLevel(hex, Terrains.FUEL_TANK_ELEV);
         }
 
         boolean coveredByDropship = false;
@@ -1113,7 +1122,7 @@ public class LosEffects {
                     / (ai.targetPos.distance(coords) + ai.attackPos
                             .distance(coords))) {
                 los.blocked = true;
-                if(hex.terrainLevel(Terrains.BLDG_CF) > 90) {
+                if(board.terrainLevel(hex, Terrains.BLDG_CF) > 90) {
                     los.hardBuildings++;
                 } else if(bldgEl > 0) {
                     los.softBuildings++;
@@ -1129,7 +1138,7 @@ public class LosEffects {
                 || ((totalEl > ai.targetAbsHeight) && 
                         (ai.targetPos.distance(coords) == 1))) {
             los.blocked = true;
-            if (hex.terrainLevel(Terrains.BLDG_CF) > 90) {
+            if (board.terrainLevel(hex, Terrains.BLDG_CF) > 90) {
                 los.hardBuildings++;
             } else if (bldgEl > 0) {
                 los.softBuildings++;
@@ -1141,20 +1150,20 @@ public class LosEffects {
         // check if there's a clear hex between the targets that's higher than
         // one of them, if we're in underwater combat
         if (ai.underWaterCombat
-                && (hex.terrainLevel(Terrains.WATER) == ITerrain.LEVEL_NONE)
+                && (board.terrainLevel(hex, Terrains.WATER) == ITerrain.LEVEL_NONE)
                 && ((totalEl > ai.attackAbsHeight) || (totalEl > ai.targetAbsHeight))) {
             los.blocked = true;
         }
 
         // check for woods or smoke only if not under water
         if (!ai.underWaterCombat) {
-            if(hex.containsTerrain(Terrains.SCREEN)) {
+            if(board.containsTerrain(hex, Terrains.SCREEN)) {
                 //number of screens doesn't matter. One is enough to block
                 los.screen++;
             }
             //heavy industrial zones can vary in height up to 10 levels, so lets
             //put all of this into a for loop
-            int industrialLevel = hex.terrainLevel(Terrains.INDUSTRIAL);
+            int industrialLevel = board.terrainLevel(hex, Terrains.INDUSTRIAL);
             if (industrialLevel != ITerrain.LEVEL_NONE) {
                 for (int level = 1; level < 11; level++) {
                     if (((hexEl + level > ai.attackAbsHeight) && (hexEl + level > ai.targetAbsHeight))
@@ -1170,7 +1179,7 @@ public class LosEffects {
                 }
             }
             //planted fields only rise one level above the terrain
-            if (hex.containsTerrain(Terrains.FIELDS)) {
+            if (board.containsTerrain(hex, Terrains.FIELDS)) {
                 if (((hexEl + 1 > ai.attackAbsHeight) && (hexEl + 2 > ai.targetAbsHeight))
                         || ((hexEl + 1 > ai.attackAbsHeight) && (ai.attackPos
                                 .distance(coords) == 1))
@@ -1180,9 +1189,9 @@ public class LosEffects {
 
                 }
             }
-            int smokeLevel = hex.terrainLevel(Terrains.SMOKE);
-            int woodsLevel = hex.terrainLevel(Terrains.WOODS);
-            int jungleLevel = hex.terrainLevel(Terrains.JUNGLE);
+            int smokeLevel = board.terrainLevel(hex, Terrains.SMOKE);
+            int woodsLevel = board.terrainLevel(hex, Terrains.WOODS);
+            int jungleLevel = board.terrainLevel(hex, Terrains.JUNGLE);
             // Check smoke, woods and jungle
             if ((smokeLevel != ITerrain.LEVEL_NONE) 
                     || (woodsLevel != ITerrain.LEVEL_NONE)
@@ -2401,6 +2401,7 @@ public class MULParser {
         if (mountedManip != null){
             entity.getEquipment().remove(mountedManip);
             entity.getMisc().remove(mountedManip);
+            entity.invalidateEquipmentIndex();
         }
 
         // Was no manipulator selected?
@@ -2457,6 +2458,7 @@ public class MULParser {
             entity.getEquipment().remove(apWeapon);
             entity.getWeaponList().remove(apWeapon);
             entity.getTotalWeaponList().remove(apWeapon);
+            entity.invalidateEquipmentIndex();
             // We need to make sure that the weapon has been removed
             //  from the criticals, otherwise it can cause issues
             for (int loc = 0; loc < entity.locations(); loc++) {
@@ -53,8 +53,8 @@ public class ManeuverType {
                                      IGame game, MovePath mp) {
 
         // We can only perform one maneuver in a turn (important for side-slip)
-        for (final MoveStep step : mp.getStepVector()){
-            if (step.getType() == MoveStepType.MANEUVER){
+        for (int i = 0; i < mp.length(); i++) {
+            if (mp.getStep(i).getType() == MoveStepType.MANEUVER){
                 return false;
             }
         }
@@ -17,7 +17,6 @@
 package megamek.common;
 
 import java.io.PrintWriter;
-import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -1549,7 +1548,7 @@ public abstract class Mech extends Entity {
      * Adds heat sinks to the engine. Uses clan/normal depending on the
      * currently set techLevel
      */
-    public void addEngineSinks(int totalSinks, BigInteger heatSinkFlag) {
+    public void addEngineSinks(int totalSinks, EquipmentBitSet heatSinkFlag) {
         addEngineSinks(totalSinks, heatSinkFlag, isClan());
     }
 
@@ -1557,7 +1556,7 @@ public abstract class Mech extends Entity {
      * Adds heat sinks to the engine. Adds either the engine capacity, or the
      * entire number of heat sinks, whichever is less
      */
-    public void addEngineSinks(int totalSinks, BigInteger heatSinkFlag,
+    public void addEngineSinks(int totalSinks, EquipmentBitSet heatSinkFlag,
             boolean clan) {
         if (heatSinkFlag == MiscType.F_DOUBLE_HEAT_SINK) {
             addEngineSinks(totalSinks, clan ? EquipmentTypeLookup.CLAN_DOUBLE_HS
@@ -896,28 +896,7 @@ public class MechFileParser {
         
         // Check if it's canon; if it is, mark it as such.
         ent.setCanon(false);// Guilty until proven innocent
-        try {
-            if (canonUnitNames == null) {
-                canonUnitNames = new Vector<String>();
-                // init the list.
-                try(BufferedReader br = new BufferedReader(new FileReader(new MegaMekFile(
-                            Configuration.docsDir(), FILENAME_OFFICIAL_UNITS).getFile()))) {
-                    String s;
-                    String name;
-                    while ((s = br.readLine()) != null) {
-                        int nIndex1 = s.indexOf('|');
-                        if (nIndex1 > -1) {
-                            name = s.substring(0, nIndex1);
-                            canonUnitNames.addElement(name);
-                        }
-                    }
-                    Collections.sort(canonUnitNames);
-                } catch (FileNotFoundException e) {
-                }
-            }
-        } catch (IOException e) {
-        }
-        int index = Collections.binarySearch(canonUnitNames,
+        int index = Collections.binarySearch(getCanonUnitNames(),
                 ent.getShortNameRaw()); 
         if (index >= 0) {
             ent.setCanon(true);
@@ -926,6 +905,34 @@ public class MechFileParser {
 
     } // End private void postLoadInit(Entity) throws EntityLoadingException
 
+    /**
+     * Returns the sorted names of the official units. The list is only
+     * published once complete, as units may be parsed on several threads.
+     */
+    private static synchronized Vector<String> getCanonUnitNames() {
+        if (canonUnitNames == null) {
+            Vector<String> names = new Vector<String>();
+            // init the list.
+            try(BufferedReader br = new BufferedReader(new FileReader(new MegaMekFile(
+                        Configuration.docsDir(), FILENAME_OFFICIAL_UNITS).getFile()))) {
+                String s;
+                String name;
+                while ((s = br.readLine()) != null) {
+                    int nIndex1 = s.indexOf('|');
+                    if (nIndex1 > -1) {
+                        name = s.substring(0, nIndex1);
+                        names.addElement(name);
+                    }
+                }
+                Collections.sort(names);
+            } catch (FileNotFoundException e) {
+            } catch (IOException e) {
+            }
+            canonUnitNames = names;
+        }
+        return canonUnitNames;
+    }
+
     public static void main(String[] args) {
         if (args.length == 0) {
             System.out
@@ -1010,7 +1017,7 @@ public class MechFileParser {
         return entity;
     }
 
-    public static void dispose() {
+    public static synchronized void dispose() {
         canonUnitNames = null;
     }
 }
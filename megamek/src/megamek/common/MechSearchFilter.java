@@ -306,26 +306,12 @@ public class MechSearchFilter {
         }
 
         //Check armor criteria
-        int sel = f.iArmor;
-        if (sel > 0) {
+        double share = armorShare(f.iArmor);
+        if (share > 0) {
             int armor = mech.getTotalArmor();
             int maxArmor = mech.getTotalInternal() * 2 + 3;
-            if (sel == 1) {
-                if (armor < (maxArmor * .25)) {
-                    return false;
-                }
-            } else if (sel == 2) {
-                if (armor < (maxArmor * .5)) {
-                    return false;
-                }
-            } else if (sel == 3) {
-                if (armor < (maxArmor * .75)) {
-                    return false;
-                }
-            } else if (sel == 4) {
-                if (armor < (maxArmor * .9)) {
-                    return false;
-                }
+            if (armor < (maxArmor * share)) {
+                return false;
             }
         }
 
@@ -357,6 +343,26 @@ public class MechSearchFilter {
         return true;
     }
 
+    /**
+     * @param sel  The armor selection, as in <code>iArmor</code>
+     * @return     The least share of the maximum armor a unit must have, or 0
+     *             if any amount will do
+     */
+    static double armorShare(int sel) {
+        switch (sel) {
+            case 1:
+                return .25;
+            case 2:
+                return .5;
+            case 3:
+                return .75;
+            case 4:
+                return .9;
+            default:
+                return 0;
+        }
+    }
+
     /**
      * Evalutes the given list of equipment names and quantities against the
      * expression tree in this filter.
@@ -463,6 +469,10 @@ public class MechSearchFilter {
             root = new ExpNode(n, q);
         }
 
+        ExpNode getRoot() {
+            return root;
+        }
+
         public String toString() {
             if (root.children.size() == 0)
                 return "";
@@ -0,0 +1,317 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index over a fixed array of unit summaries that answers
+ * <code>MechSearchFilter</code> queries with bitmaps instead of testing every
+ * unit. Equipment names map to the units carrying them, and the numeric
+ * criteria are kept as sorted columns, so a filter becomes a few range lookups
+ * and set operations. Bit <i>n</i> of a result stands for the unit at index
+ * <i>n</i> of the array the index was built from.
+ * <p>
+ * The index is built once and is not changed afterwards, so it may be shared
+ * between threads. It has no UI dependencies and can be used by tools that
+ * run without a GUI.
+ */
+public class MechSearchIndex {
+
+    /** The numeric values a range of units can be looked up by */
+    public enum Column {
+        TONNAGE, BV, YEAR, WALK, JUMP, INTERNALS_TYPE, COCKPIT_TYPE
+    }
+
+    private final MechSummary[] units;
+    private final BitSet all;
+    private final SortedColumn[] columns = new SortedColumn[Column.values().length];
+    private final Map<String, Postings> equipment = new HashMap<>();
+    private final Map<Integer, BitSet> armorTypes = new HashMap<>();
+
+    public MechSearchIndex(MechSummary[] units) {
+        this.units = units;
+        all = new BitSet(units.length);
+        all.set(0, units.length);
+
+        for (Column column : Column.values()) {
+            double[] values = new double[units.length];
+            for (int i = 0; i < units.length; i++) {
+                values[i] = valueOf(units[i], column);
+            }
+            columns[column.ordinal()] = new SortedColumn(values);
+        }
+
+        for (int i = 0; i < units.length; i++) {
+            List<String> names = units[i].getEquipmentNames();
+            List<Integer> quantities = units[i].getEquipmentQuantities();
+            if ((names != null) && (quantities != null)) {
+                for (int j = 0; j < Math.min(names.size(), quantities.size()); j++) {
+                    if (names.get(j) != null) {
+                        equipment.computeIfAbsent(names.get(j), k -> new Postings()).add(i, quantities.get(j));
+                    }
+                }
+            }
+            for (Integer armorType : units[i].getArmorType()) {
+                armorTypes.computeIfAbsent(armorType, k -> new BitSet(units.length)).set(i);
+            }
+        }
+        for (Postings postings : equipment.values()) {
+            postings.trim();
+        }
+    }
+
+    private static double valueOf(MechSummary unit, Column column) {
+        switch (column) {
+            case TONNAGE:
+                return unit.getTons();
+            case BV:
+                return unit.getBV();
+            case YEAR:
+                return unit.getYear();
+            case WALK:
+                return unit.getWalkMp();
+            case JUMP:
+                return unit.getJumpMp();
+            case INTERNALS_TYPE:
+                return unit.getInternalsType();
+            case COCKPIT_TYPE:
+                return unit.getCockpitType();
+            default:
+                return 0;
+        }
+    }
+
+    public int size() {
+        return units.length;
+    }
+
+    /**
+     * @return true if the positions of this index are those of the given array
+     */
+    public boolean isIndexOf(MechSummary[] units) {
+        return this.units == units;
+    }
+
+    public MechSummary get(int index) {
+        return units[index];
+    }
+
+    /**
+     * @return a new set of all the units
+     */
+    public BitSet all() {
+        return (BitSet) all.clone();
+    }
+
+    /**
+     * @return a new set of the units whose value in the column is between the
+     *         minimum and maximum, both inclusive
+     */
+    public BitSet range(Column column, double min, double max) {
+        return columns[column.ordinal()].range(min, max);
+    }
+
+    /**
+     * @return a new set of the units that have at least the given quantity of
+     *         the equipment in one entry, as <code>MechSearchFilter</code>
+     *         counts it
+     */
+    public BitSet equipment(String name, int quantity) {
+        BitSet result = new BitSet(units.length);
+        Postings postings = (name == null) ? null : equipment.get(name);
+        if (postings != null) {
+            for (int i = 0; i < postings.size; i++) {
+                if (postings.quantities[i] >= quantity) {
+                    result.set(postings.units[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set of the units that have the armor type in any location
+     */
+    public BitSet armorType(int armorType) {
+        BitSet result = armorTypes.get(armorType);
+        return (result == null) ? new BitSet(units.length) : (BitSet) result.clone();
+    }
+
+    /**
+     * Finds the units that <code>MechSearchFilter.isMatch</code> accepts.
+     *
+     * @param f the filter, which may be null
+     * @return a new set of the matching units
+     */
+    public BitSet search(MechSearchFilter f) {
+        BitSet result = all();
+        if ((f == null) || f.isDisabled) {
+            return result;
+        }
+
+        narrow(result, Column.WALK, f.sWalk, f.iWalk);
+        narrow(result, Column.JUMP, f.sJump, f.iJump);
+        if (f.checkInternalsType) {
+            result.and(range(Column.INTERNALS_TYPE, f.internalsType, f.internalsType));
+        }
+        if (f.checkArmorType) {
+            result.and(armorTypes.getOrDefault(f.armorType, new BitSet()));
+        }
+        if (f.checkCockpitType) {
+            result.and(range(Column.COCKPIT_TYPE, f.cockpitType, f.cockpitType));
+        }
+        double startYear = parse(f.sStartYear, Double.NEGATIVE_INFINITY);
+        double endYear = parse(f.sEndYear, Double.POSITIVE_INFINITY);
+        if ((startYear != Double.NEGATIVE_INFINITY) || (endYear != Double.POSITIVE_INFINITY)) {
+            result.and(range(Column.YEAR, startYear, endYear));
+        }
+        if (f.checkEquipment && !result.isEmpty()) {
+            result.and(evaluate(f.equipmentCriteria.getRoot()));
+        }
+
+        // the armor share depends on two values, so it is tested on the units left
+        double share = MechSearchFilter.armorShare(f.iArmor);
+        if (share > 0) {
+            for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                int maxArmor = (units[i].getTotalInternal() * 2) + 3;
+                if (units[i].getTotalArmor() < (maxArmor * share)) {
+                    result.clear(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void narrow(BitSet result, Column column, String text, int comparison) {
+        int value = (int) parse(text, -1);
+        if (value > -1) {
+            if (comparison == 0) { // at least
+                result.and(range(column, value, Double.POSITIVE_INFINITY));
+            } else if (comparison == 1) { // equal to
+                result.and(range(column, value, value));
+            } else if (comparison == 2) { // not more than
+                result.and(range(column, Double.NEGATIVE_INFINITY, value));
+            }
+        }
+    }
+
+    private static double parse(String text, double defaultValue) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException ne) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Evaluates an equipment expression the way
+     * <code>MechSearchFilter.evaluate</code> does, for all units at once.
+     */
+    private BitSet evaluate(MechSearchFilter.ExpNode n) {
+        if (n.children.isEmpty()) {
+            return equipment(n.name, n.qty);
+        }
+        BitSet result = null;
+        for (MechSearchFilter.ExpNode child : n.children) {
+            BitSet childResult = evaluate(child);
+            if (result == null) {
+                result = childResult;
+            } else if (n.operation == MechSearchFilter.BoolOp.AND) {
+                result.and(childResult);
+            } else {
+                result.or(childResult);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The units carrying one kind of equipment, in index order, with the
+     * largest quantity listed for each.
+     */
+    private static final class Postings {
+        int[] units = new int[4];
+        int[] quantities = new int[4];
+        int size;
+
+        void add(int unit, int quantity) {
+            if ((size > 0) && (units[size - 1] == unit)) {
+                quantities[size - 1] = Math.max(quantities[size - 1], quantity);
+                return;
+            }
+            if (size == units.length) {
+                units = Arrays.copyOf(units, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            units[size] = unit;
+            quantities[size] = quantity;
+            size++;
+        }
+
+        void trim() {
+            units = Arrays.copyOf(units, size);
+            quantities = Arrays.copyOf(quantities, size);
+        }
+    }
+
+    /**
+     * The values of one column in ascending order, with the unit each belongs
+     * to.
+     */
+    private static final class SortedColumn {
+        final double[] values;
+        final int[] units;
+
+        SortedColumn(double[] byUnit) {
+            Integer[] order = new Integer[byUnit.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(byUnit[a], byUnit[b]));
+            values = new double[order.length];
+            units = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                units[i] = order[i];
+                values[i] = byUnit[order[i]];
+            }
+        }
+
+        BitSet range(double min, double max) {
+            BitSet result = new BitSet(units.length);
+            for (int i = firstAtLeast(min); (i < values.length) && (values[i] <= max); i++) {
+                result.set(units[i]);
+            }
+            return result;
+        }
+
+        private int firstAtLeast(double min) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < min) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class MechSummary implements Serializable {
     private String m_sUnitSubType;
     private File m_sSourceFile;
     private String m_sEntryName; // for files in zips
+    private String sourceHash; // of the file contents, to tell whether it changed
     private int m_nYear;
     private int m_nType;
     private int[] altTypes = new int[] { TechConstants.T_IS_TW_NON_BOX, TechConstants.T_IS_ADVANCED,
@@ -186,6 +187,14 @@ public class MechSummary implements Serializable {
         return (m_sEntryName);
     }
 
+    /**
+     * @return a hash of the contents of the file or zip entry the unit was
+     *         loaded from, or null if unknown
+     */
+    public String getSourceHash() {
+        return sourceHash;
+    }
+
     public int getYear() {
         return (m_nYear);
     }
@@ -293,6 +302,10 @@ public class MechSummary implements Serializable {
         this.m_sEntryName = m_sEntryName;
     }
 
+    public void setSourceHash(String sourceHash) {
+        this.sourceHash = sourceHash;
+    }
+
     public void setYear(int m_nYear) {
         this.m_nYear = m_nYear;
     }
@@ -425,6 +438,15 @@ public class MechSummary implements Serializable {
         }
     }
     
+    /**
+     * Sets the equipment names and counts as made by
+     * {@link #setEquipment(List)}, such as when read from the unit cache.
+     */
+    void setEquipment(Vector<String> names, Vector<Integer> quantities) {
+        equipmentNames = names;
+        equipmentQuantities = quantities;
+    }
+
     public Vector<String> getEquipmentNames()
     {
         return equipmentNames;
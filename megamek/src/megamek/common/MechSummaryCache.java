@@ -15,21 +15,23 @@
 
 package megamek.common;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -41,6 +43,15 @@ import megamek.common.verifier.*;
 /**
  * Cache of the Mech summary information. Implemented as Singleton so a client
  * and server running in the same process can share it
+ * <p>
+ * Unit files that changed since the cache was saved are parsed in parallel.
+ * Each summary keeps a hash of its file, so files that were only touched are
+ * not parsed again. The cache is dropped when the MegaMek version or the unit
+ * verifier options change.
+ * <p>
+ * When no unit changed, the summaries stay in the memory mapped
+ * {@link UnitCacheFile} and are only read when asked for: looking up units by
+ * name does not read the rest of their summaries.
  *
  * @author arlith
  * @author Others...
@@ -128,24 +139,60 @@ public class MechSummaryCache {
         }
     }
 
+    /** The summaries; those still in the cache file are null until read */
     private MechSummary[] m_data;
-    private Map<String, MechSummary> m_nameMap;
-    private Map<String, MechSummary> m_fileNameMap;
+    /** The cache file the summaries are read from, if it was up to date */
+    private UnitCacheFile m_cacheFile;
+    /** The search index over m_data, built when first asked for */
+    private MechSearchIndex m_searchIndex;
+    /** Positions in m_data by unit and lookup name */
+    private Map<String, Integer> m_nameMap;
+    /** Positions in m_data by file name */
+    private Map<String, Integer> m_fileNameMap;
     private Map<String, String> hFailedFiles;
     private int cacheCount;
     private int fileCount;
     private int zipCount;
 
-    private MechSummaryCache() {
+    MechSummaryCache() {
         m_nameMap = new HashMap<>();
         m_fileNameMap = new HashMap<>();
     }
 
     public MechSummary[] getAllMechs() {
         block();
+        synchronized (this) {
+            for (int i = 0; i < m_data.length; i++) {
+                getMechAt(i);
+            }
+        }
         return m_data;
     }
 
+    /**
+     * @param units the units returned by a call to {@link #getAllMechs()}
+     * @return an index for searching the given units, whose positions are
+     *         those in the given array; the cached one when they are still the
+     *         units of this cache
+     */
+    public synchronized MechSearchIndex getSearchIndex(MechSummary[] units) {
+        if (units != m_data) {
+            // reloaded meanwhile
+            return new MechSearchIndex(units);
+        }
+        if (m_searchIndex == null) {
+            m_searchIndex = new MechSearchIndex(units);
+        }
+        return m_searchIndex;
+    }
+
+    private synchronized MechSummary getMechAt(int index) {
+        if (m_data[index] == null) {
+            m_data[index] = m_cacheFile.get(index);
+        }
+        return m_data[index];
+    }
+
     private void block() {
         if (!initialized) {
             synchronized (lock) {
@@ -160,10 +207,11 @@ public class MechSummaryCache {
 
     public MechSummary getMech(String sRef) {
         block();
-        if (m_nameMap.containsKey(sRef)) {
-            return m_nameMap.get(sRef);
+        Integer index = m_nameMap.get(sRef);
+        if (index == null) {
+            index = m_fileNameMap.get(sRef);
         }
-        return m_fileNameMap.get(sRef);
+        return (index == null) ? null : getMechAt(index);
     }
 
     public Map<String, String> getFailedFiles() {
@@ -177,11 +225,11 @@ public class MechSummaryCache {
 
     public void loadMechData(boolean ignoreUnofficial) {
         final String METHOD_NAME = "loadMechData(boolean)"; // $NON-NLS-1$
-        Vector<MechSummary> vMechs = new Vector<>();
-        Set<String> sKnownFiles = new HashSet<>();
+        Map<String, Integer> cachedRows = new HashMap<>();
         long lLastCheck = 0;
-        entityVerifier = EntityVerifier.getInstance(new MegaMekFile(getUnitCacheDir(),
-                EntityVerifier.CONFIG_FILENAME).getFile());
+        File verifierConfig = new MegaMekFile(getUnitCacheDir(), EntityVerifier.CONFIG_FILENAME).getFile();
+        entityVerifier = EntityVerifier.getInstance(verifierConfig);
+        String cacheKey = getCacheKey(verifierConfig);
         hFailedFiles = new HashMap<>();
 
         EquipmentType.initializeTypes(); // load master equipment lists
@@ -189,73 +237,137 @@ public class MechSummaryCache {
         loadReport.append("\n");
         loadReport.append("Reading unit files:\n");
 
+        File unit_cache_path = UnitCacheFile.getCurrent(new MegaMekFile(getUnitCacheDir(),
+                FILENAME_UNITS_CACHE).getFile());
         if (!ignoreUnofficial) {
-            File unit_cache_path = new MegaMekFile(getUnitCacheDir(),
-                    FILENAME_UNITS_CACHE).getFile();
             // check the cache
             try {
                 if (unit_cache_path.exists()
                         && (unit_cache_path.lastModified() >= megamek.MegaMek.TIMESTAMP)) {
                     loadReport.append("  Reading from unit cache file...\n");
-                    lLastCheck = unit_cache_path.lastModified();
-                    InputStream istream = new BufferedInputStream(
-                            new FileInputStream(unit_cache_path));
-                    ObjectInputStream fin = new ObjectInputStream(istream);
-                    Integer num_units = (Integer) fin.readObject();
-                    for (int i = 0; i < num_units; i++) {
-                        if (interrupted) {
-                            done();
-                            fin.close();
-                            istream.close();
-                            return;
-                        }
-                        MechSummary ms = (MechSummary) fin.readObject();
-                        // Verify that this file still exists and is older than
-                        // the cache.
-                        File fSource = ms.getSourceFile();
-                        if (fSource.exists()) {
-                            vMechs.addElement(ms);
-                            if (null == ms.getEntryName()) {
-                                sKnownFiles.add(fSource.toString());
-                            } else {
-                                sKnownFiles.add(ms.getEntryName());
+                    UnitCacheFile cacheFile = UnitCacheFile.open(unit_cache_path);
+                    // caches of other formats, versions or verifier options
+                    // are rebuilt
+                    if ((cacheFile != null) && cacheKey.equals(cacheFile.getKey())) {
+                        for (int i = 0; i < cacheFile.size(); i++) {
+                            if (interrupted) {
+                                done();
+                                return;
                             }
-                            cacheCount++;
+                            cachedRows.put(getSourceKey(cacheFile.getSourceFile(i), cacheFile.getEntryName(i)), i);
                         }
+                        lLastCheck = unit_cache_path.lastModified();
+                        m_cacheFile = cacheFile;
+                    } else {
+                        loadReport.append("  Unit cache is out of date.\n");
                     }
-                    fin.close();
-                    istream.close();
                 }
             } catch (Exception e) {
+                cachedRows.clear();
                 loadReport.append("  Unable to load unit cache: ")
                         .append(e.getMessage()).append("\n");
                 DefaultMmLogger.getInstance().error(getClass(), METHOD_NAME, e);
             }
         }
 
-        // load any changes since the last check time
-        boolean bNeedsUpdate = loadMechsFromDirectory(vMechs, sKnownFiles,
-                lLastCheck, Configuration.unitsDir(), ignoreUnofficial);
+        // find the unit files, taking those unchanged since the last check
+        // from the cache
+        List<UnitSource> sources = new ArrayList<>();
+        List<ZipFile> zipFiles = new ArrayList<>();
+        findMechsInDirectory(sources, zipFiles, cachedRows, lLastCheck,
+                Configuration.unitsDir(), ignoreUnofficial);
 
         File userDataUnits = new File(Configuration.userdataDir(), Configuration.unitsDir().toString());
         if (userDataUnits.isDirectory()) {
-            bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles, lLastCheck, userDataUnits, ignoreUnofficial);
+            findMechsInDirectory(sources, zipFiles, cachedRows, lLastCheck, userDataUnits, ignoreUnofficial);
         }
 
-        // convert to array
-        m_data = new MechSummary[vMechs.size()];
-        vMechs.copyInto(m_data);
+        // load any changes since the last check time
+        loadMechs(sources);
+
+        for (ZipFile zipFile : zipFiles) {
+            try {
+                zipFile.close();
+            } catch (IOException ex) {
+                DefaultMmLogger.getInstance().error(getClass(), METHOD_NAME, ex);
+            }
+        }
+        if (interrupted) {
+            done();
+            return;
+        }
+
+        // merge in the order the files were found, whichever thread loaded them
+        List<UnitSource> loaded = new ArrayList<>();
+        boolean bNeedsUpdate = false;
+        boolean bCacheCurrent = (m_cacheFile != null);
+        // the number of files loaded from each directory or zip file being
+        // merged, innermost first
+        Deque<int[]> groupCounts = new ArrayDeque<>();
+        for (UnitSource source : sources) {
+            loadReport.append(source.report);
+            if (source.file == null) {
+                if (source.group > 0) {
+                    groupCounts.push(new int[1]);
+                } else if (source.group < 0) {
+                    loadReport.append("  ...loaded ").append(groupCounts.pop()[0])
+                            .append(" files.\n");
+                }
+            } else if (source.fromCache) {
+                bCacheCurrent &= (source.cachedRow == loaded.size());
+                loaded.add(source);
+                cacheCount++;
+            } else if (source.summary != null) {
+                bCacheCurrent = false;
+                loaded.add(source);
+                if (!groupCounts.isEmpty()) {
+                    groupCounts.peek()[0]++;
+                }
+                if (source.entryName == null) {
+                    fileCount++;
+                } else {
+                    zipCount++;
+                }
+            } else if (source.failure != null) {
+                hFailedFiles.put(source.getName(), source.failure);
+            }
+            bNeedsUpdate |= source.checked;
+        }
+        bCacheCurrent &= (m_cacheFile != null) && (loaded.size() == m_cacheFile.size());
+
+        m_data = new MechSummary[loaded.size()];
+        m_searchIndex = null;
+        if (!bCacheCurrent) {
+            // the cache file no longer lists these units, so read what is
+            // kept from it now
+            for (int i = 0; i < m_data.length; i++) {
+                UnitSource source = loaded.get(i);
+                m_data[i] = source.fromCache ? m_cacheFile.get(source.cachedRow) : source.summary;
+            }
+            m_cacheFile = null;
+        }
 
         // store map references
-        for (MechSummary element : m_data) {
+        for (int i = 0; i < m_data.length; i++) {
             if (interrupted) {
                 done();
                 return;
             }
-            m_nameMap.put(element.getName(), element);
-            String entryName = element.getEntryName();
+            String name;
+            String entryName;
+            File sourceFile;
+            if (m_data[i] == null) {
+                name = m_cacheFile.getName(i);
+                entryName = m_cacheFile.getEntryName(i);
+                sourceFile = m_cacheFile.getSourceFile(i);
+            } else {
+                name = m_data[i].getName();
+                entryName = m_data[i].getEntryName();
+                sourceFile = m_data[i].getSourceFile();
+            }
+            m_nameMap.put(name, i);
             if (entryName == null) {
-                m_fileNameMap.put(element.getSourceFile().getName(), element);
+                m_fileNameMap.put(sourceFile.getName(), i);
             } else {
                 String unitName = entryName;
 
@@ -269,22 +381,25 @@ public class MechSummaryCache {
                             .substring(unitName.lastIndexOf("/") + 1);
                 }
 
-                m_fileNameMap.put(unitName, element);
+                m_fileNameMap.put(unitName, i);
             }
         }
 
-        bNeedsUpdate |= addLookupNames();
+        addLookupNames();
 
         // save updated cache back to disk
-        if (bNeedsUpdate) {
+        if (m_cacheFile == null) {
             try {
                 saveCache();
             } catch (Exception e) {
                 loadReport.append("  Unable to save mech cache\n");
                 DefaultMmLogger.getInstance().error(getClass(), METHOD_NAME, e);
             }
+        } else if (bNeedsUpdate) {
+            // only files with unchanged contents were checked, so the cache
+            // is still right, and need not be checked against them again
+            unit_cache_path.setLastModified(System.currentTimeMillis());
         }
-
         loadReport.append(m_data.length).append(" units loaded.\n");
 
         if (hFailedFiles.size() > 0) {
@@ -325,14 +440,8 @@ public class MechSummaryCache {
     private void saveCache() throws Exception {
         loadReport.append("Saving unit cache.\n");
         File unit_cache_path = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
-        ObjectOutputStream wr = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(unit_cache_path)));
-        wr.writeObject(m_data.length);
-        for (MechSummary element : m_data) {
-            wr.writeObject(element);
-        }
-        wr.flush();
-        wr.close();
+        UnitCacheFile.write(unit_cache_path,
+                getCacheKey(new MegaMekFile(getUnitCacheDir(), EntityVerifier.CONFIG_FILENAME).getFile()), m_data);
     }
 
     private MechSummary getSummary(Entity e, File f, String entry) {
@@ -475,33 +584,218 @@ public class MechSummaryCache {
         return ms;
     }
 
+    /**
+     * @return the key a cache is valid for; summaries depend on the code that
+     *         made them and on the verifier options
+     */
+    private static String getCacheKey(File verifierConfig) {
+        String key = megamek.MegaMek.VERSION;
+        if (verifierConfig.exists()) {
+            try {
+                key += ":" + hash(Files.readAllBytes(verifierConfig.toPath()));
+            } catch (IOException ex) {
+                key += ":" + verifierConfig.lastModified();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * @return the key of a unit file or zip entry in the cache
+     */
+    private static String getSourceKey(File file, String entryName) {
+        return (entryName == null) ? file.toString() : file + "!" + entryName;
+    }
+
+    /**
+     * @return the hex SHA-256 hash of the data
+     */
+    static String hash(byte[] data) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte d : md.digest(data)) {
+            sb.append(String.format("%02x", d));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A unit file or zip entry, and what loading it gave. Sources without a
+     * file only carry a line of the load report, or mark where the units of a
+     * directory or zip file start or end, so the report can be put together
+     * in order after loading.
+     */
+    private static final class UnitSource {
+        final File file;
+        final ZipFile zipFile;
+        final ZipEntry entry;
+        final String entryName;
+        // the position of the unit in the cache file, or -1
+        final int cachedRow;
+
+        // whether the summary in the cache file is still right
+        boolean fromCache;
+        MechSummary summary;
+        // whether the contents were read, rather than trusting the cache
+        boolean checked;
+        String failure;
+        final StringBuilder report = new StringBuilder();
+        // 1 where the units of a directory or zip file start, -1 where they
+        // end, otherwise 0
+        final int group;
+
+        UnitSource(File file, ZipFile zipFile, ZipEntry entry, Integer cachedRow) {
+            this.file = file;
+            this.zipFile = zipFile;
+            this.entry = entry;
+            this.entryName = (entry == null) ? null : entry.getName();
+            this.cachedRow = (cachedRow == null) ? -1 : cachedRow;
+            this.group = 0;
+        }
+
+        UnitSource(String report, int group) {
+            this.file = null;
+            this.zipFile = null;
+            this.entry = null;
+            this.entryName = null;
+            this.cachedRow = -1;
+            this.group = group;
+            this.report.append(report);
+        }
+
+        /**
+         * @return the name failures are reported by
+         */
+        String getName() {
+            return (entryName == null) ? file.toString() : entryName;
+        }
+
+        byte[] read() throws IOException {
+            if (entry == null) {
+                return Files.readAllBytes(file.toPath());
+            }
+            try (InputStream is = zipFile.getInputStream(entry)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.max(entry.getSize(), 1024));
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = is.read(buffer)) > 0) {
+                    bytes.write(buffer, 0, n);
+                }
+                return bytes.toByteArray();
+            }
+        }
+    }
+
+    /**
+     * Loads the summaries of the sources not taken from the cache on a
+     * work-stealing pool. Each source only keeps its own result, so the
+     * summaries can be merged in order afterwards.
+     */
+    private void loadMechs(List<UnitSource> sources) {
+        final String METHOD_NAME = "loadMechs(List<UnitSource>)"; //$NON-NLS-1$
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (UnitSource source : sources) {
+            if ((source.file != null) && !source.fromCache) {
+                tasks.add(() -> {
+                    loadMech(source);
+                    return null;
+                });
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invokeAll(tasks);
+        } catch (Exception ex) {
+            DefaultMmLogger.getInstance().error(getClass(), METHOD_NAME, ex);
+        } finally {
+            pool.shutdown();
+        }
+        sources.add(new UnitSource("  Checked " + tasks.size() + " files on " + pool.getParallelism()
+                + " threads in " + (System.currentTimeMillis() - start) + " ms.\n", 0));
+    }
+
     /**
      * Loading a complete {@link Entity} object for each summary is a bear and should be
-     * changed, but it lets me use the existing parsers
+     * changed, but it lets me use the existing parsers. A file whose contents
+     * hash the same as when it was cached is not parsed again.
+     */
+    private void loadMech(UnitSource source) {
+        if (interrupted) {
+            return;
+        }
+        String location = (source.entryName == null) ? source.file.toString()
+                : "zip file >> " + source.entryName;
+        try {
+            byte[] data = source.read();
+            String hash = hash(data);
+            source.checked = true;
+            if ((source.cachedRow >= 0) && hash.equals(m_cacheFile.getSourceHash(source.cachedRow))) {
+                source.fromCache = true;
+                return;
+            }
+            MechFileParser mfp = new MechFileParser(new ByteArrayInputStream(data),
+                    (source.entryName == null) ? source.file.getName() : source.entryName);
+            Entity e = mfp.getEntity();
+            MechSummary ms = getSummary(e, source.file, source.entryName);
+            ms.setSourceHash(hash);
+            source.summary = ms;
+            Iterator<String> failedEquipment = e.getFailedEquipment();
+            if (failedEquipment.hasNext()) {
+                source.report.append("    Loading from ").append(location)
+                        .append("\n");
+                while (failedEquipment.hasNext()) {
+                    source.report
+                            .append("      Failed to load equipment: ")
+                            .append(failedEquipment.next())
+                            .append("\n");
+                }
+            }
+        } catch (Exception ex) {
+            source.report.append("    Loading from ").append(location)
+                    .append("\n");
+            source.report.append("***   Unable to load file: ");
+            StringWriter stringWriter = new StringWriter();
+            PrintWriter printWriter = new PrintWriter(stringWriter);
+            ex.printStackTrace(printWriter);
+            source.report.append(stringWriter.getBuffer()).append("\n");
+            source.failure = (ex.getMessage() == null) ? ex.toString() : ex.getMessage();
+        }
+    }
+
+    /**
+     * Finds the unit files in a directory and its subdirectories. Files that
+     * have not been modified since the last check are taken from the cache.
      *
-     * @param vMechs      List to add units to as they are loaded
-     * @param sKnownFiles Files that have been processed so far and can be skipped
+     * @param sources     List to add the unit files to, in the order they are found
+     * @param zipFiles    List to add the opened zip files to, to be closed when done
+     * @param cachedRows  The positions of the units in the cache file by {@link #getSourceKey(File, String)}
      * @param lLastCheck  The timestamp of the last time the cache was updated
      * @param fDir        The directory to load units from
-     * @return            Whether the list of units has changed, requiring rewriting the cache
      */
-    private boolean loadMechsFromDirectory(Vector<MechSummary> vMechs,
-            Set<String> sKnownFiles, long lLastCheck, File fDir,
+    private void findMechsInDirectory(List<UnitSource> sources, List<ZipFile> zipFiles,
+            Map<String, Integer> cachedRows, long lLastCheck, File fDir,
             boolean ignoreUnofficial) {
-        boolean bNeedsUpdate = false;
-        loadReport.append("  Looking in ").append(fDir.getPath())
-                .append("...\n");
-        int thisDirectoriesFileCount = 0;
+        sources.add(new UnitSource("  Looking in " + fDir.getPath() + "...\n", 1));
         String[] sa = fDir.list();
 
         if (sa != null) {
             for (String element : sa) {
                 if (interrupted) {
-                    done();
-                    return false;
+                    return;
                 }
                 File f = new MegaMekFile(fDir, element).getFile();
-                if (f.equals(new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile())) {
+                File cacheFile = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
+                if (f.equals(cacheFile) || f.equals(UnitCacheFile.getAlternate(cacheFile))) {
                     continue;
                 }
                 if (f.isDirectory()) {
@@ -521,7 +815,7 @@ public class MechSummaryCache {
                         continue;
                     }
                     // recursion is fun
-                    bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles,
+                    findMechsInDirectory(sources, zipFiles, cachedRows,
                             lLastCheck, f, ignoreUnofficial);
                     continue;
                 }
@@ -553,94 +847,48 @@ public class MechSummaryCache {
                     continue;
                 }
                 if (f.getName().toLowerCase().endsWith(".zip")) {
-                    bNeedsUpdate |= loadMechsFromZipFile(vMechs, sKnownFiles,
-                            lLastCheck, f);
-                    continue;
-                }
-                if ((f.lastModified() < lLastCheck)
-                        && sKnownFiles.contains(f.toString())) {
+                    findMechsInZipFile(sources, zipFiles, cachedRows, lLastCheck, f);
                     continue;
                 }
-                try {
-                    MechFileParser mfp = new MechFileParser(f);
-                    Entity e = mfp.getEntity();
-                    MechSummary ms = getSummary(e, f, null);
-                    // if this is unit's MechSummary is already known,
-                    // remove it first, so we don't get duplicates
-                    if (sKnownFiles.contains(f.toString())) {
-                        vMechs.removeElement(ms);
-                    }
-                    vMechs.addElement(ms);
-                    sKnownFiles.add(f.toString());
-                    bNeedsUpdate = true;
-                    thisDirectoriesFileCount++;
-                    fileCount++;
-                    Iterator<String> failedEquipment = e.getFailedEquipment();
-                    if (failedEquipment.hasNext()) {
-                        loadReport.append("    Loading from ").append(f)
-                                .append("\n");
-                        while (failedEquipment.hasNext()) {
-                            loadReport
-                                    .append("      Failed to load equipment: ")
-                                    .append(failedEquipment.next())
-                                    .append("\n");
-                        }
-                    }
-                } catch (EntityLoadingException ex) {
-                    loadReport.append("    Loading from ").append(f)
-                            .append("\n");
-                    loadReport.append("***   Unable to load file: ");
-                    StringWriter stringWriter = new StringWriter();
-                    PrintWriter printWriter = new PrintWriter(stringWriter);
-                    ex.printStackTrace(printWriter);
-                    loadReport.append(stringWriter.getBuffer()).append("\n");
-                    hFailedFiles.put(f.toString(), ex.getMessage());
+                Integer cachedRow = cachedRows.get(getSourceKey(f, null));
+                UnitSource source = new UnitSource(f, null, null, cachedRow);
+                if ((cachedRow != null) && (f.lastModified() < lLastCheck)) {
+                    source.fromCache = true;
                 }
+                sources.add(source);
             }
         }
-
-        loadReport.append("  ...loaded ").append(thisDirectoriesFileCount)
-                .append(" files.\n");
-
-        return bNeedsUpdate;
+        sources.add(new UnitSource("", -1));
     }
 
-    private boolean loadMechsFromZipFile(Vector<MechSummary> vMechs,
-            Set<String> sKnownFiles, long lLastCheck, File fZipFile) {
-        final String METHOD_NAME = "loadMechsFromZipFile(Vector<MechSummary>, Set<String>, long, File)"; //$NON-NLS-1$
-        boolean bNeedsUpdate = false;
+    private void findMechsInZipFile(List<UnitSource> sources, List<ZipFile> zipFiles,
+            Map<String, Integer> cachedRows, long lLastCheck, File fZipFile) {
         ZipFile zFile;
-        int thisZipFileCount = 0;
         try {
             zFile = new ZipFile(fZipFile);
         } catch (Exception ex) {
-            loadReport.append("  Unable to load file ")
-                    .append(fZipFile.getName()).append(": ");
             StringWriter stringWriter = new StringWriter();
             PrintWriter printWriter = new PrintWriter(stringWriter);
             ex.printStackTrace(printWriter);
-            loadReport.append(stringWriter.getBuffer()).append("\n");
-            return false;
+            sources.add(new UnitSource("  Unable to load file " + fZipFile.getName() + ": "
+                    + stringWriter.getBuffer() + "\n", 0));
+            return;
         }
-        loadReport.append("  Looking in zip file ").append(fZipFile.getPath())
-                .append("...\n");
+        // entries are read while loading, so the file is closed afterwards
+        zipFiles.add(zFile);
+        sources.add(new UnitSource("  Looking in zip file " + fZipFile.getPath() + "...\n", 1));
 
         for (Enumeration<?> i = zFile.entries(); i.hasMoreElements();) {
             if (interrupted) {
-                done();
-                try {
-                    zFile.close();
-                    return false;
-                } catch (IOException e) {
-                    DefaultMmLogger.getInstance().error(getClass(), METHOD_NAME, e);
-                }
+                return;
             }
             ZipEntry zEntry = (ZipEntry) i.nextElement();
 
             if (zEntry.isDirectory()) {
                 if (zEntry.getName().toLowerCase().equals("unsupported")) {
-                    loadReport
-                            .append("  Do not place special 'unsupported' type folders in zip files, they must\n    be uncompressed directories to work properly.  Note that you may place\n    zip files inside of 'unsupported' type folders, though.\n");
+                    sources.add(new UnitSource(
+                            "  Do not place special 'unsupported' type folders in zip files, they must\n    be uncompressed directories to work properly.  Note that you may place\n    zip files inside of 'unsupported' type folders, though.\n",
+                            0));
                 }
                 continue;
             }
@@ -650,62 +898,24 @@ public class MechSummaryCache {
             if (zEntry.getName().toLowerCase().endsWith(".yml")) {
                 continue;
             }
-            if ((Math.max(fZipFile.lastModified(), zEntry.getTime()) < lLastCheck)
-                    && sKnownFiles.contains(zEntry.getName())) {
-                continue;
+            Integer cachedRow = cachedRows.get(getSourceKey(fZipFile, zEntry.getName()));
+            UnitSource source = new UnitSource(fZipFile, zFile, zEntry, cachedRow);
+            if ((cachedRow != null) && (Math.max(fZipFile.lastModified(), zEntry.getTime()) < lLastCheck)) {
+                source.fromCache = true;
             }
-
-            try {
-                MechFileParser mfp = new MechFileParser(
-                        zFile.getInputStream(zEntry), zEntry.getName());
-                Entity e = mfp.getEntity();
-                MechSummary ms = getSummary(e, fZipFile, zEntry.getName());
-                vMechs.addElement(ms);
-                sKnownFiles.add(zEntry.getName());
-                bNeedsUpdate = true;
-                thisZipFileCount++;
-                zipCount++;
-                Iterator<String> failedEquipment = e.getFailedEquipment();
-                if (failedEquipment.hasNext()) {
-                    loadReport.append("    Loading from zip file")
-                            .append(" >> ").append(zEntry.getName())
-                            .append("\n");
-                    while (failedEquipment.hasNext()) {
-                        loadReport.append("      Failed to load equipment: ")
-                                .append(failedEquipment.next()).append("\n");
-                    }
-                }
-            } catch (Exception ex) {
-                loadReport.append("    Loading from zip file").append(" >> ")
-                        .append(zEntry.getName()).append("\n");
-                loadReport.append("      Unable to load file: ");
-                StringWriter stringWriter = new StringWriter();
-                PrintWriter printWriter = new PrintWriter(stringWriter);
-                ex.printStackTrace(printWriter);
-                loadReport.append(stringWriter.getBuffer()).append("\n");
-                if (!(ex.getMessage() == null)) {
-                    hFailedFiles.put(zEntry.getName(), ex.getMessage());
-                }
-            }
-        }
-
-        try {
-            zFile.close();
-        } catch (Exception ex) {
-            DefaultMmLogger.getInstance().error(getClass(), METHOD_NAME, ex);
+            sources.add(source);
         }
-
-        loadReport.append("  ...loaded ").append(thisZipFileCount)
-                .append(" files.\n");
-
-        return bNeedsUpdate;
+        sources.add(new UnitSource("", -1));
     }
 
-    private boolean addLookupNames() {
-        final String METHOD_NAME = "addLookupNames(long)"; //$NON-NLS-1$
+    /**
+     * Adds the previous names of renamed units to the name map. They are not
+     * stored in the unit cache, so adding them does not change it.
+     */
+    private void addLookupNames() {
+        final String METHOD_NAME = "addLookupNames()"; //$NON-NLS-1$
         File lookupNames = new MegaMekFile(getUnitCacheDir(),
                 FILENAME_LOOKUP).getFile();
-        boolean needsUpdate = false;
         if (lookupNames.exists()) {
             try {
                 InputStream is = new FileInputStream(lookupNames);
@@ -722,10 +932,9 @@ public class MechSummaryCache {
                         lookupName = line.substring(0, index);
                         entryName = line.substring(index + 1);
                         if (!m_nameMap.containsKey(lookupName)) {
-                            MechSummary ms = m_nameMap.get(entryName);
+                            Integer ms = m_nameMap.get(entryName);
                             if (null != ms) {
                                 m_nameMap.put(lookupName, ms);
-                                needsUpdate = true;
                             }
                         }
                     }
@@ -735,7 +944,6 @@ public class MechSummaryCache {
                 DefaultMmLogger.getInstance().error(MechSummaryCache.class, METHOD_NAME, ex);
             }
         }
-        return needsUpdate;
     }
 
 
@@ -751,4 +959,11 @@ public class MechSummaryCache {
         return zipCount;
     }
 
+    /**
+     * @return what loading the units reported, for testing
+     */
+    String getLoadReport() {
+        return loadReport.toString();
+    }
+
 }
@@ -21,7 +21,6 @@
 
 package megamek.common;
 
-import java.math.BigInteger;
 import java.text.NumberFormat;
 
 import megamek.common.weapons.ppc.CLERPPC;
@@ -38,251 +37,251 @@ import megamek.common.weapons.ppc.ISSnubNosePPC;
 public class MiscType extends EquipmentType {
   
     // equipment flags (okay, like every type of equipment has its own flag)
-    public static final BigInteger F_HEAT_SINK = BigInteger.valueOf(1).shiftLeft(0);
-    public static final BigInteger F_DOUBLE_HEAT_SINK = BigInteger.valueOf(1).shiftLeft(1);
-    public static final BigInteger F_JUMP_JET = BigInteger.valueOf(1).shiftLeft(2);
-    public static final BigInteger F_CASE = BigInteger.valueOf(1).shiftLeft(3);
-    public static final BigInteger F_MASC = BigInteger.valueOf(1).shiftLeft(4);
-    public static final BigInteger F_TSM = BigInteger.valueOf(1).shiftLeft(5);
-    public static final BigInteger F_LASER_HEAT_SINK = BigInteger.valueOf(1).shiftLeft(6);
-    public static final BigInteger F_C3S = BigInteger.valueOf(1).shiftLeft(7);
-    public static final BigInteger F_C3I = BigInteger.valueOf(1).shiftLeft(8);
-    public static final BigInteger F_ARTEMIS = BigInteger.valueOf(1).shiftLeft(9);
-    public static final BigInteger F_TARGCOMP = BigInteger.valueOf(1).shiftLeft(10);
-    public static final BigInteger F_ANGEL_ECM = BigInteger.valueOf(1).shiftLeft(11);
-    public static final BigInteger F_BOARDING_CLAW = BigInteger.valueOf(1).shiftLeft(12);
-    public static final BigInteger F_VACUUM_PROTECTION = BigInteger.valueOf(1).shiftLeft(13);
-    public static final BigInteger F_MAGNET_CLAW = BigInteger.valueOf(1).shiftLeft(14);
-    public static final BigInteger F_FIRE_RESISTANT = BigInteger.valueOf(1).shiftLeft(15);
-    public static final BigInteger F_STEALTH = BigInteger.valueOf(1).shiftLeft(16);
-    public static final BigInteger F_MINE = BigInteger.valueOf(1).shiftLeft(17);
-    public static final BigInteger F_TOOLS = BigInteger.valueOf(1).shiftLeft(18);
-    public static final BigInteger F_MAGNETIC_CLAMP = BigInteger.valueOf(1).shiftLeft(19);
-    public static final BigInteger F_PARAFOIL = BigInteger.valueOf(1).shiftLeft(20);
-    public static final BigInteger F_FERRO_FIBROUS = BigInteger.valueOf(1).shiftLeft(21);
-    public static final BigInteger F_ENDO_STEEL = BigInteger.valueOf(1).shiftLeft(22);
-    public static final BigInteger F_AP_POD = BigInteger.valueOf(1).shiftLeft(23);
-    public static final BigInteger F_SEARCHLIGHT = BigInteger.valueOf(1).shiftLeft(24);
-    public static final BigInteger F_CLUB = BigInteger.valueOf(1).shiftLeft(25);
-    public static final BigInteger F_HAND_WEAPON = BigInteger.valueOf(1).shiftLeft(26);
-    public static final BigInteger F_COWL = BigInteger.valueOf(1).shiftLeft(27);
-    public static final BigInteger F_JUMP_BOOSTER = BigInteger.valueOf(1).shiftLeft(28);
-    public static final BigInteger F_HARJEL = BigInteger.valueOf(1).shiftLeft(29);
-    public static final BigInteger F_UMU = BigInteger.valueOf(1).shiftLeft(30);
-    public static final BigInteger F_BA_VTOL = BigInteger.valueOf(1).shiftLeft(31);
-    public static final BigInteger F_SPIKES = BigInteger.valueOf(1).shiftLeft(32);
-    public static final BigInteger F_COMMUNICATIONS = BigInteger.valueOf(1).shiftLeft(33);
-    public static final BigInteger F_PPC_CAPACITOR = BigInteger.valueOf(1).shiftLeft(34);
-    public static final BigInteger F_REFLECTIVE = BigInteger.valueOf(1).shiftLeft(35);
-    public static final BigInteger F_REACTIVE = BigInteger.valueOf(1).shiftLeft(36);
-    public static final BigInteger F_CASEII = BigInteger.valueOf(1).shiftLeft(37);
-    public static final BigInteger F_LIFTHOIST = BigInteger.valueOf(1).shiftLeft(38);
-    public static final BigInteger F_ENVIRONMENTAL_SEALING = BigInteger.valueOf(1).shiftLeft(39);
-    public static final BigInteger F_ARMORED_CHASSIS = BigInteger.valueOf(1).shiftLeft(40);
-    public static final BigInteger F_TRACTOR_MODIFICATION = BigInteger.valueOf(1).shiftLeft(41);
-    public static final BigInteger F_ACTUATOR_ENHANCEMENT_SYSTEM = BigInteger.valueOf(1).shiftLeft(42);
-    public static final BigInteger F_ECM = BigInteger.valueOf(1).shiftLeft(43);
-    public static final BigInteger F_BAP = BigInteger.valueOf(1).shiftLeft(44);
-    public static final BigInteger F_MODULAR_ARMOR = BigInteger.valueOf(1).shiftLeft(45);
-    public static final BigInteger F_TALON = BigInteger.valueOf(1).shiftLeft(46);
-    public static final BigInteger F_VISUAL_CAMO = BigInteger.valueOf(1).shiftLeft(47);
-    public static final BigInteger F_APOLLO = BigInteger.valueOf(1).shiftLeft(48);
-    public static final BigInteger F_INDUSTRIAL_TSM = BigInteger.valueOf(1).shiftLeft(49);
-    public static final BigInteger F_NULLSIG = BigInteger.valueOf(1).shiftLeft(50);
-    public static final BigInteger F_VOIDSIG = BigInteger.valueOf(1).shiftLeft(51);
-    public static final BigInteger F_CHAMELEON_SHIELD = BigInteger.valueOf(1).shiftLeft(52);
-    public static final BigInteger F_VIBROCLAW = BigInteger.valueOf(1).shiftLeft(53);
-    public static final BigInteger F_SINGLE_HEX_ECM = BigInteger.valueOf(1).shiftLeft(54);
-    public static final BigInteger F_EJECTION_SEAT = BigInteger.valueOf(1).shiftLeft(55);
-    public static final BigInteger F_SALVAGE_ARM = BigInteger.valueOf(1).shiftLeft(56);
-    public static final BigInteger F_PARTIAL_WING = BigInteger.valueOf(1).shiftLeft(57);
-    public static final BigInteger F_FERRO_LAMELLOR = BigInteger.valueOf(1).shiftLeft(58);
-    public static final BigInteger F_ARTEMIS_V = BigInteger.valueOf(1).shiftLeft(59);
+    public static final EquipmentBitSet F_HEAT_SINK = EquipmentBitSet.of(0);
+    public static final EquipmentBitSet F_DOUBLE_HEAT_SINK = EquipmentBitSet.of(1);
+    public static final EquipmentBitSet F_JUMP_JET = EquipmentBitSet.of(2);
+    public static final EquipmentBitSet F_CASE = EquipmentBitSet.of(3);
+    public static final EquipmentBitSet F_MASC = EquipmentBitSet.of(4);
+    public static final EquipmentBitSet F_TSM = EquipmentBitSet.of(5);
+    public static final EquipmentBitSet F_LASER_HEAT_SINK = EquipmentBitSet.of(6);
+    public static final EquipmentBitSet F_C3S = EquipmentBitSet.of(7);
+    public static final EquipmentBitSet F_C3I = EquipmentBitSet.of(8);
+    public static final EquipmentBitSet F_ARTEMIS = EquipmentBitSet.of(9);
+    public static final EquipmentBitSet F_TARGCOMP = EquipmentBitSet.of(10);
+    public static final EquipmentBitSet F_ANGEL_ECM = EquipmentBitSet.of(11);
+    public static final EquipmentBitSet F_BOARDING_CLAW = EquipmentBitSet.of(12);
+    public static final EquipmentBitSet F_VACUUM_PROTECTION = EquipmentBitSet.of(13);
+    public static final EquipmentBitSet F_MAGNET_CLAW = EquipmentBitSet.of(14);
+    public static final EquipmentBitSet F_FIRE_RESISTANT = EquipmentBitSet.of(15);
+    public static final EquipmentBitSet F_STEALTH = EquipmentBitSet.of(16);
+    public static final EquipmentBitSet F_MINE = EquipmentBitSet.of(17);
+    public static final EquipmentBitSet F_TOOLS = EquipmentBitSet.of(18);
+    public static final EquipmentBitSet F_MAGNETIC_CLAMP = EquipmentBitSet.of(19);
+    public static final EquipmentBitSet F_PARAFOIL = EquipmentBitSet.of(20);
+    public static final EquipmentBitSet F_FERRO_FIBROUS = EquipmentBitSet.of(21);
+    public static final EquipmentBitSet F_ENDO_STEEL = EquipmentBitSet.of(22);
+    public static final EquipmentBitSet F_AP_POD = EquipmentBitSet.of(23);
+    public static final EquipmentBitSet F_SEARCHLIGHT = EquipmentBitSet.of(24);
+    public static final EquipmentBitSet F_CLUB = EquipmentBitSet.of(25);
+    public static final EquipmentBitSet F_HAND_WEAPON = EquipmentBitSet.of(26);
+    public static final EquipmentBitSet F_COWL = EquipmentBitSet.of(27);
+    public static final EquipmentBitSet F_JUMP_BOOSTER = EquipmentBitSet.of(28);
+    public static final EquipmentBitSet F_HARJEL = EquipmentBitSet.of(29);
+    public static final EquipmentBitSet F_UMU = EquipmentBitSet.of(30);
+    public static final EquipmentBitSet F_BA_VTOL = EquipmentBitSet.of(31);
+    public static final EquipmentBitSet F_SPIKES = EquipmentBitSet.of(32);
+    public static final EquipmentBitSet F_COMMUNICATIONS = EquipmentBitSet.of(33);
+    public static final EquipmentBitSet F_PPC_CAPACITOR = EquipmentBitSet.of(34);
+    public static final EquipmentBitSet F_REFLECTIVE = EquipmentBitSet.of(35);
+    public static final EquipmentBitSet F_REACTIVE = EquipmentBitSet.of(36);
+    public static final EquipmentBitSet F_CASEII = EquipmentBitSet.of(37);
+    public static final EquipmentBitSet F_LIFTHOIST = EquipmentBitSet.of(38);
+    public static final EquipmentBitSet F_ENVIRONMENTAL_SEALING = EquipmentBitSet.of(39);
+    public static final EquipmentBitSet F_ARMORED_CHASSIS = EquipmentBitSet.of(40);
+    public static final EquipmentBitSet F_TRACTOR_MODIFICATION = EquipmentBitSet.of(41);
+    public static final EquipmentBitSet F_ACTUATOR_ENHANCEMENT_SYSTEM = EquipmentBitSet.of(42);
+    public static final EquipmentBitSet F_ECM = EquipmentBitSet.of(43);
+    public static final EquipmentBitSet F_BAP = EquipmentBitSet.of(44);
+    public static final EquipmentBitSet F_MODULAR_ARMOR = EquipmentBitSet.of(45);
+    public static final EquipmentBitSet F_TALON = EquipmentBitSet.of(46);
+    public static final EquipmentBitSet F_VISUAL_CAMO = EquipmentBitSet.of(47);
+    public static final EquipmentBitSet F_APOLLO = EquipmentBitSet.of(48);
+    public static final EquipmentBitSet F_INDUSTRIAL_TSM = EquipmentBitSet.of(49);
+    public static final EquipmentBitSet F_NULLSIG = EquipmentBitSet.of(50);
+    public static final EquipmentBitSet F_VOIDSIG = EquipmentBitSet.of(51);
+    public static final EquipmentBitSet F_CHAMELEON_SHIELD = EquipmentBitSet.of(52);
+    public static final EquipmentBitSet F_VIBROCLAW = EquipmentBitSet.of(53);
+    public static final EquipmentBitSet F_SINGLE_HEX_ECM = EquipmentBitSet.of(54);
+    public static final EquipmentBitSet F_EJECTION_SEAT = EquipmentBitSet.of(55);
+    public static final EquipmentBitSet F_SALVAGE_ARM = EquipmentBitSet.of(56);
+    public static final EquipmentBitSet F_PARTIAL_WING = EquipmentBitSet.of(57);
+    public static final EquipmentBitSet F_FERRO_LAMELLOR = EquipmentBitSet.of(58);
+    public static final EquipmentBitSet F_ARTEMIS_V = EquipmentBitSet.of(59);
     // TODO: Implement me, so far only construction data
-    public static final BigInteger F_TRACKS = BigInteger.valueOf(1).shiftLeft(60);
+    public static final EquipmentBitSet F_TRACKS = EquipmentBitSet.of(60);
     // TODO: Implement me, so far only construction data
-    public static final BigInteger F_MASS = BigInteger.valueOf(1).shiftLeft(61);
+    public static final EquipmentBitSet F_MASS = EquipmentBitSet.of(61);
     // TODO: Implement me, so far only construction data
-    public static final BigInteger F_CARGO = BigInteger.valueOf(1).shiftLeft(62);
+    public static final EquipmentBitSet F_CARGO = EquipmentBitSet.of(62);
     // TODO: Implement me, so far only construction data
-    public static final BigInteger F_DUMPER = BigInteger.valueOf(1).shiftLeft(63);
+    public static final EquipmentBitSet F_DUMPER = EquipmentBitSet.of(63);
     // TODO: Implement me, so far only construction data
-    public static final BigInteger F_MASH = BigInteger.valueOf(1).shiftLeft(64);
-    public static final BigInteger F_BA_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(65);
-    public static final BigInteger F_MECH_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(66);
-    public static final BigInteger F_TANK_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(67);
-    public static final BigInteger F_FIGHTER_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(68);
-    public static final BigInteger F_SUPPORT_TANK_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(69);
-    public static final BigInteger F_PROTOMECH_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(70);
+    public static final EquipmentBitSet F_MASH = EquipmentBitSet.of(64);
+    public static final EquipmentBitSet F_BA_EQUIPMENT = EquipmentBitSet.of(65);
+    public static final EquipmentBitSet F_MECH_EQUIPMENT = EquipmentBitSet.of(66);
+    public static final EquipmentBitSet F_TANK_EQUIPMENT = EquipmentBitSet.of(67);
+    public static final EquipmentBitSet F_FIGHTER_EQUIPMENT = EquipmentBitSet.of(68);
+    public static final EquipmentBitSet F_SUPPORT_TANK_EQUIPMENT = EquipmentBitSet.of(69);
+    public static final EquipmentBitSet F_PROTOMECH_EQUIPMENT = EquipmentBitSet.of(70);
 
     //Moved the unit types to the top of the list.
-    public static final BigInteger F_ARMORED_GLOVE = BigInteger.valueOf(1).shiftLeft(71);
-    public static final BigInteger F_BASIC_MANIPULATOR = BigInteger.valueOf(1).shiftLeft(72);
-    public static final BigInteger F_BATTLE_CLAW = BigInteger.valueOf(1).shiftLeft(73);
-    public static final BigInteger F_AP_MOUNT = BigInteger.valueOf(1).shiftLeft(74);
-    public static final BigInteger F_MAST_MOUNT = BigInteger.valueOf(1).shiftLeft(75);
-    public static final BigInteger F_FUEL = BigInteger.valueOf(1).shiftLeft(76);
-    public static final BigInteger F_BLUE_SHIELD = BigInteger.valueOf(1).shiftLeft(77);
-    public static final BigInteger F_BASIC_FIRECONTROL = BigInteger.valueOf(1).shiftLeft(78);
-    public static final BigInteger F_ADVANCED_FIRECONTROL = BigInteger.valueOf(1).shiftLeft(79);
-    public static final BigInteger F_ENDO_COMPOSITE = BigInteger.valueOf(1).shiftLeft(80);
-    public static final BigInteger F_LASER_INSULATOR = BigInteger.valueOf(1).shiftLeft(81);
-    public static final BigInteger F_LIQUID_CARGO = BigInteger.valueOf(1).shiftLeft(82);
-    public static final BigInteger F_WATCHDOG = BigInteger.valueOf(1).shiftLeft(83);
-    public static final BigInteger F_EW_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(84);
-    public static final BigInteger F_CCM = BigInteger.valueOf(1).shiftLeft(85);
-    public static final BigInteger F_HITCH = BigInteger.valueOf(1).shiftLeft(86);
-    public static final BigInteger F_FLOTATION_HULL = BigInteger.valueOf(1).shiftLeft(87);
-    public static final BigInteger F_LIMITED_AMPHIBIOUS = BigInteger.valueOf(1).shiftLeft(88);
-    public static final BigInteger F_FULLY_AMPHIBIOUS = BigInteger.valueOf(1).shiftLeft(89);
-    public static final BigInteger F_DUNE_BUGGY = BigInteger.valueOf(1).shiftLeft(90);
-    public static final BigInteger F_SHOULDER_TURRET = BigInteger.valueOf(1).shiftLeft(91);
-    public static final BigInteger F_HEAD_TURRET = BigInteger.valueOf(1).shiftLeft(92);
-    public static final BigInteger F_QUAD_TURRET = BigInteger.valueOf(1).shiftLeft(93);
-    public static final BigInteger F_SPACE_ADAPTATION = BigInteger.valueOf(1).shiftLeft(94);
-    public static final BigInteger F_CUTTING_TORCH = BigInteger.valueOf(1).shiftLeft(95);
-    public static final BigInteger F_OFF_ROAD = BigInteger.valueOf(1).shiftLeft(96);
-    public static final BigInteger F_C3SBS = BigInteger.valueOf(1).shiftLeft(97);
-    public static final BigInteger F_VTOL_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(98);
-    public static final BigInteger F_NAVAL_C3 = BigInteger.valueOf(1).shiftLeft(99);
-    public static final BigInteger F_MINESWEEPER = BigInteger.valueOf(1).shiftLeft(100);
-    public static final BigInteger F_MOBILE_HPG = BigInteger.valueOf(1).shiftLeft(101);
-    public static final BigInteger F_FIELD_KITCHEN = BigInteger.valueOf(1).shiftLeft(102);
-    public static final BigInteger F_MOBILE_FIELD_BASE = BigInteger.valueOf(1).shiftLeft(103);
+    public static final EquipmentBitSet F_ARMORED_GLOVE = EquipmentBitSet.of(71);
+    public static final EquipmentBitSet F_BASIC_MANIPULATOR = EquipmentBitSet.of(72);
+    public static final EquipmentBitSet F_BATTLE_CLAW = EquipmentBitSet.of(73);
+    public static final EquipmentBitSet F_AP_MOUNT = EquipmentBitSet.of(74);
+    public static final EquipmentBitSet F_MAST_MOUNT = EquipmentBitSet.of(75);
+    public static final EquipmentBitSet F_FUEL = EquipmentBitSet.of(76);
+    public static final EquipmentBitSet F_BLUE_SHIELD = EquipmentBitSet.of(77);
+    public static final EquipmentBitSet F_BASIC_FIRECONTROL = EquipmentBitSet.of(78);
+    public static final EquipmentBitSet F_ADVANCED_FIRECONTROL = EquipmentBitSet.of(79);
+    public static final EquipmentBitSet F_ENDO_COMPOSITE = EquipmentBitSet.of(80);
+    public static final EquipmentBitSet F_LASER_INSULATOR = EquipmentBitSet.of(81);
+    public static final EquipmentBitSet F_LIQUID_CARGO = EquipmentBitSet.of(82);
+    public static final EquipmentBitSet F_WATCHDOG = EquipmentBitSet.of(83);
+    public static final EquipmentBitSet F_EW_EQUIPMENT = EquipmentBitSet.of(84);
+    public static final EquipmentBitSet F_CCM = EquipmentBitSet.of(85);
+    public static final EquipmentBitSet F_HITCH = EquipmentBitSet.of(86);
+    public static final EquipmentBitSet F_FLOTATION_HULL = EquipmentBitSet.of(87);
+    public static final EquipmentBitSet F_LIMITED_AMPHIBIOUS = EquipmentBitSet.of(88);
+    public static final EquipmentBitSet F_FULLY_AMPHIBIOUS = EquipmentBitSet.of(89);
+    public static final EquipmentBitSet F_DUNE_BUGGY = EquipmentBitSet.of(90);
+    public static final EquipmentBitSet F_SHOULDER_TURRET = EquipmentBitSet.of(91);
+    public static final EquipmentBitSet F_HEAD_TURRET = EquipmentBitSet.of(92);
+    public static final EquipmentBitSet F_QUAD_TURRET = EquipmentBitSet.of(93);
+    public static final EquipmentBitSet F_SPACE_ADAPTATION = EquipmentBitSet.of(94);
+    public static final EquipmentBitSet F_CUTTING_TORCH = EquipmentBitSet.of(95);
+    public static final EquipmentBitSet F_OFF_ROAD = EquipmentBitSet.of(96);
+    public static final EquipmentBitSet F_C3SBS = EquipmentBitSet.of(97);
+    public static final EquipmentBitSet F_VTOL_EQUIPMENT = EquipmentBitSet.of(98);
+    public static final EquipmentBitSet F_NAVAL_C3 = EquipmentBitSet.of(99);
+    public static final EquipmentBitSet F_MINESWEEPER = EquipmentBitSet.of(100);
+    public static final EquipmentBitSet F_MOBILE_HPG = EquipmentBitSet.of(101);
+    public static final EquipmentBitSet F_FIELD_KITCHEN = EquipmentBitSet.of(102);
+    public static final EquipmentBitSet F_MOBILE_FIELD_BASE = EquipmentBitSet.of(103);
     // TODO: add game rules for the following imagers/radars, construction data
     // only
-    public static final BigInteger F_HIRES_IMAGER = BigInteger.valueOf(1).shiftLeft(104);
-    public static final BigInteger F_HYPERSPECTRAL_IMAGER = BigInteger.valueOf(1).shiftLeft(105);
-    public static final BigInteger F_INFRARED_IMAGER = BigInteger.valueOf(1).shiftLeft(106);
-    public static final BigInteger F_LOOKDOWN_RADAR = BigInteger.valueOf(1).shiftLeft(107);
-
-    public static final BigInteger F_COMMAND_CONSOLE = BigInteger.valueOf(1).shiftLeft(108);
-    public static final BigInteger F_VSTOL_CHASSIS = BigInteger.valueOf(1).shiftLeft(109);
-    public static final BigInteger F_STOL_CHASSIS = BigInteger.valueOf(1).shiftLeft(110);
-    public static final BigInteger F_SPONSON_TURRET = BigInteger.valueOf(1).shiftLeft(111);
-    public static final BigInteger F_ARMORED_MOTIVE_SYSTEM = BigInteger.valueOf(1).shiftLeft(112);
-    public static final BigInteger F_CHASSIS_MODIFICATION = BigInteger.valueOf(1).shiftLeft(113);
-    public static final BigInteger F_CHAFF_POD = BigInteger.valueOf(1).shiftLeft(114);
-    public static final BigInteger F_DRONE_CARRIER_CONTROL = BigInteger.valueOf(1).shiftLeft(115);
-    public static final BigInteger F_VARIABLE_SIZE = BigInteger.valueOf(1).shiftLeft(116);
-    public static final BigInteger F_BA_MISSION_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(117);
-    public static final BigInteger F_JET_BOOSTER = BigInteger.valueOf(1).shiftLeft(118);
-    public static final BigInteger F_SENSOR_DISPENSER = BigInteger.valueOf(1).shiftLeft(119);
-    public static final BigInteger F_DRONE_OPERATING_SYSTEM = BigInteger.valueOf(1).shiftLeft(120);
-    public static final BigInteger F_RECON_CAMERA = BigInteger.valueOf(1).shiftLeft(121);
-    public static final BigInteger F_COMBAT_VEHICLE_ESCAPE_POD = BigInteger.valueOf(1).shiftLeft(122);
-    public static final BigInteger F_DETACHABLE_WEAPON_PACK = BigInteger.valueOf(1).shiftLeft(123);
-    public static final BigInteger F_HEAT_SENSOR = BigInteger.valueOf(1).shiftLeft(124);
-    public static final BigInteger F_EXTENDED_LIFESUPPORT = BigInteger.valueOf(1).shiftLeft(125);
-    public static final BigInteger F_SPRAYER = BigInteger.valueOf(1).shiftLeft(126);
-    public static final BigInteger F_ELECTRIC_DISCHARGE_ARMOR = BigInteger.valueOf(1).shiftLeft(127);
-    public static final BigInteger F_MECHANICAL_JUMP_BOOSTER = BigInteger.valueOf(1).shiftLeft(128);
-    public static final BigInteger F_TRAILER_MODIFICATION = BigInteger.valueOf(1).shiftLeft(129);
-    public static final BigInteger F_LARGE_COMM_SCANNER_SUITE = BigInteger.valueOf(1).shiftLeft(130);
-    public static final BigInteger F_SMALL_COMM_SCANNER_SUITE = BigInteger.valueOf(1).shiftLeft(131);
-    public static final BigInteger F_LIGHT_BRIDGE_LAYER = BigInteger.valueOf(1).shiftLeft(132);
-    public static final BigInteger F_MEDIUM_BRIDGE_LAYER = BigInteger.valueOf(1).shiftLeft(133);
-    public static final BigInteger F_HEAVY_BRIDGE_LAYER = BigInteger.valueOf(1).shiftLeft(134);
-    public static final BigInteger F_BA_SEARCHLIGHT = BigInteger.valueOf(1).shiftLeft(135);
-    public static final BigInteger F_BOOBY_TRAP = BigInteger.valueOf(1).shiftLeft(136);
-    public static final BigInteger F_SPLITABLE = BigInteger.valueOf(1).shiftLeft(137);
-    public static final BigInteger F_REFUELING_DROGUE = BigInteger.valueOf(1).shiftLeft(138);
-    public static final BigInteger F_BULLDOZER = BigInteger.valueOf(1).shiftLeft(139);
-    public static final BigInteger F_EXTERNAL_STORES_HARDPOINT = BigInteger.valueOf(1).shiftLeft(140);
-    public static final BigInteger F_COMPACT_HEAT_SINK = BigInteger.valueOf(1).shiftLeft(141);
-    public static final BigInteger F_MANIPULATOR = BigInteger.valueOf(1).shiftLeft(142);
-    public static final BigInteger F_CARGOLIFTER = BigInteger.valueOf(1).shiftLeft(143);
-    public static final BigInteger F_PINTLE_TURRET = BigInteger.valueOf(1).shiftLeft(144);
-    public static final BigInteger F_IS_DOUBLE_HEAT_SINK_PROTOTYPE = BigInteger.valueOf(1).shiftLeft(145);
-    public static final BigInteger F_NAVAL_TUG_ADAPTOR = BigInteger.valueOf(1).shiftLeft(146);
-    public static final BigInteger F_AMPHIBIOUS = BigInteger.valueOf(1).shiftLeft(147);
-    public static final BigInteger F_PROP = BigInteger.valueOf(1).shiftLeft(148);
-    public static final BigInteger F_ULTRA_LIGHT = BigInteger.valueOf(1).shiftLeft(149);
-    public static final BigInteger F_SPACE_MINE_DISPENSER = BigInteger.valueOf(1).shiftLeft(150);
-    public static final BigInteger F_VEHICLE_MINE_DISPENSER = BigInteger.valueOf(1).shiftLeft(151);
-    public static final BigInteger F_LIGHT_FERRO = BigInteger.valueOf(1).shiftLeft(152);
-    public static final BigInteger F_HEAVY_FERRO = BigInteger.valueOf(1).shiftLeft(153);
-    public static final BigInteger F_FERRO_FIBROUS_PROTO = BigInteger.valueOf(1).shiftLeft(154);
-    public static final BigInteger F_REINFORCED = BigInteger.valueOf(1).shiftLeft(155);
-    public static final BigInteger F_COMPOSITE = BigInteger.valueOf(1).shiftLeft(156);
-    public static final BigInteger F_INDUSTRIAL_STRUCTURE = BigInteger.valueOf(1).shiftLeft(157);
-    public static final BigInteger F_ENDO_STEEL_PROTO = BigInteger.valueOf(1).shiftLeft(158);
-    public static final BigInteger F_INDUSTRIAL_ARMOR = BigInteger.valueOf(1).shiftLeft(159);
-    public static final BigInteger F_HEAVY_INDUSTRIAL_ARMOR = BigInteger.valueOf(1).shiftLeft(160);
-    public static final BigInteger F_PRIMITIVE_ARMOR = BigInteger.valueOf(1).shiftLeft(161);
-    public static final BigInteger F_HARDENED_ARMOR = BigInteger.valueOf(1).shiftLeft(162);
-    public static final BigInteger F_COMMERCIAL_ARMOR = BigInteger.valueOf(1).shiftLeft(163);
-    public static final BigInteger F_C3EM = BigInteger.valueOf(1).shiftLeft(164);
-    public static final BigInteger F_ANTI_PENETRATIVE_ABLATIVE = BigInteger.valueOf(1).shiftLeft(165);
-    public static final BigInteger F_HEAT_DISSIPATING = BigInteger.valueOf(1).shiftLeft(166);
-    public static final BigInteger F_IMPACT_RESISTANT = BigInteger.valueOf(1).shiftLeft(167);
-    public static final BigInteger F_BALLISTIC_REINFORCED = BigInteger.valueOf(1).shiftLeft(168);
-    public static final BigInteger F_HARJEL_II = BigInteger.valueOf(1).shiftLeft(169);
-    public static final BigInteger F_HARJEL_III = BigInteger.valueOf(1).shiftLeft(170);
-    public static final BigInteger F_RADICAL_HEATSINK = BigInteger.valueOf(1).shiftLeft(171);
-    public static final BigInteger F_BA_MANIPULATOR = BigInteger.valueOf(1).shiftLeft(172);
-    public static final BigInteger F_NOVA = BigInteger.valueOf(1).shiftLeft(173);
-    public static final BigInteger F_BOMB_BAY = BigInteger.valueOf(1).shiftLeft(174);
-    public static final BigInteger F_LIGHT_FLUID_SUCTION_SYSTEM = BigInteger.valueOf(1).shiftLeft(175);
-    public static final BigInteger F_MONOCYCLE = BigInteger.valueOf(1).shiftLeft(176);
-    public static final BigInteger F_BICYCLE = BigInteger.valueOf(1).shiftLeft(177);
-    public static final BigInteger F_CONVERTIBLE = BigInteger.valueOf(1).shiftLeft(178);
-    public static final BigInteger F_BATTLEMECH_NIU = BigInteger.valueOf(1).shiftLeft(179);
-    public static final BigInteger F_SNOWMOBILE = BigInteger.valueOf(1).shiftLeft(180);
-    public static final BigInteger F_LADDER = BigInteger.valueOf(1).shiftLeft(181);
-    public static final BigInteger F_LIFEBOAT = BigInteger.valueOf(1).shiftLeft(182);
-    public static final BigInteger F_FLUID_SUCTION_SYSTEM = BigInteger.valueOf(1).shiftLeft(183);
-    public static final BigInteger F_HYDROFOIL = BigInteger.valueOf(1).shiftLeft(184);
-    public static final BigInteger F_SUBMERSIBLE = BigInteger.valueOf(1).shiftLeft(185);
+    public static final EquipmentBitSet F_HIRES_IMAGER = EquipmentBitSet.of(104);
+    public static final EquipmentBitSet F_HYPERSPECTRAL_IMAGER = EquipmentBitSet.of(105);
+    public static final EquipmentBitSet F_INFRARED_IMAGER = EquipmentBitSet.of(106);
+    public static final EquipmentBitSet F_LOOKDOWN_RADAR = EquipmentBitSet.of(107);
+
+    public static final EquipmentBitSet F_COMMAND_CONSOLE = EquipmentBitSet.of(108);
+    public static final EquipmentBitSet F_VSTOL_CHASSIS = EquipmentBitSet.of(109);
+    public static final EquipmentBitSet F_STOL_CHASSIS = EquipmentBitSet.of(110);
+    public static final EquipmentBitSet F_SPONSON_TURRET = EquipmentBitSet.of(111);
+    public static final EquipmentBitSet F_ARMORED_MOTIVE_SYSTEM = EquipmentBitSet.of(112);
+    public static final EquipmentBitSet F_CHASSIS_MODIFICATION = EquipmentBitSet.of(113);
+    public static final EquipmentBitSet F_CHAFF_POD = EquipmentBitSet.of(114);
+    public static final EquipmentBitSet F_DRONE_CARRIER_CONTROL = EquipmentBitSet.of(115);
+    public static final EquipmentBitSet F_VARIABLE_SIZE = EquipmentBitSet.of(116);
+    public static final EquipmentBitSet F_BA_MISSION_EQUIPMENT = EquipmentBitSet.of(117);
+    public static final EquipmentBitSet F_JET_BOOSTER = EquipmentBitSet.of(118);
+    public static final EquipmentBitSet F_SENSOR_DISPENSER = EquipmentBitSet.of(119);
+    public static final EquipmentBitSet F_DRONE_OPERATING_SYSTEM = EquipmentBitSet.of(120);
+    public static final EquipmentBitSet F_RECON_CAMERA = EquipmentBitSet.of(121);
+    public static final EquipmentBitSet F_COMBAT_VEHICLE_ESCAPE_POD = EquipmentBitSet.of(122);
+    public static final EquipmentBitSet F_DETACHABLE_WEAPON_PACK = EquipmentBitSet.of(123);
+    public static final EquipmentBitSet F_HEAT_SENSOR = EquipmentBitSet.of(124);
+    public static final EquipmentBitSet F_EXTENDED_LIFESUPPORT = EquipmentBitSet.of(125);
+    public static final EquipmentBitSet F_SPRAYER = EquipmentBitSet.of(126);
+    public static final EquipmentBitSet F_ELECTRIC_DISCHARGE_ARMOR = EquipmentBitSet.of(127);
+    public static final EquipmentBitSet F_MECHANICAL_JUMP_BOOSTER = EquipmentBitSet.of(128);
+    public static final EquipmentBitSet F_TRAILER_MODIFICATION = EquipmentBitSet.of(129);
+    public static final EquipmentBitSet F_LARGE_COMM_SCANNER_SUITE = EquipmentBitSet.of(130);
+    public static final EquipmentBitSet F_SMALL_COMM_SCANNER_SUITE = EquipmentBitSet.of(131);
+    public static final EquipmentBitSet F_LIGHT_BRIDGE_LAYER = EquipmentBitSet.of(132);
+    public static final EquipmentBitSet F_MEDIUM_BRIDGE_LAYER = EquipmentBitSet.of(133);
+    public static final EquipmentBitSet F_HEAVY_BRIDGE_LAYER = EquipmentBitSet.of(134);
+    public static final EquipmentBitSet F_BA_SEARCHLIGHT = EquipmentBitSet.of(135);
+    public static final EquipmentBitSet F_BOOBY_TRAP = EquipmentBitSet.of(136);
+    public static final EquipmentBitSet F_SPLITABLE = EquipmentBitSet.of(137);
+    public static final EquipmentBitSet F_REFUELING_DROGUE = EquipmentBitSet.of(138);
+    public static final EquipmentBitSet F_BULLDOZER = EquipmentBitSet.of(139);
+    public static final EquipmentBitSet F_EXTERNAL_STORES_HARDPOINT = EquipmentBitSet.of(140);
+    public static final EquipmentBitSet F_COMPACT_HEAT_SINK = EquipmentBitSet.of(141);
+    public static final EquipmentBitSet F_MANIPULATOR = EquipmentBitSet.of(142);
+    public static final EquipmentBitSet F_CARGOLIFTER = EquipmentBitSet.of(143);
+    public static final EquipmentBitSet F_PINTLE_TURRET = EquipmentBitSet.of(144);
+    public static final EquipmentBitSet F_IS_DOUBLE_HEAT_SINK_PROTOTYPE = EquipmentBitSet.of(145);
+    public static final EquipmentBitSet F_NAVAL_TUG_ADAPTOR = EquipmentBitSet.of(146);
+    public static final EquipmentBitSet F_AMPHIBIOUS = EquipmentBitSet.of(147);
+    public static final EquipmentBitSet F_PROP = EquipmentBitSet.of(148);
+    public static final EquipmentBitSet F_ULTRA_LIGHT = EquipmentBitSet.of(149);
+    public static final EquipmentBitSet F_SPACE_MINE_DISPENSER = EquipmentBitSet.of(150);
+    public static final EquipmentBitSet F_VEHICLE_MINE_DISPENSER = EquipmentBitSet.of(151);
+    public static final EquipmentBitSet F_LIGHT_FERRO = EquipmentBitSet.of(152);
+    public static final EquipmentBitSet F_HEAVY_FERRO = EquipmentBitSet.of(153);
+    public static final EquipmentBitSet F_FERRO_FIBROUS_PROTO = EquipmentBitSet.of(154);
+    public static final EquipmentBitSet F_REINFORCED = EquipmentBitSet.of(155);
+    public static final EquipmentBitSet F_COMPOSITE = EquipmentBitSet.of(156);
+    public static final EquipmentBitSet F_INDUSTRIAL_STRUCTURE = EquipmentBitSet.of(157);
+    public static final EquipmentBitSet F_ENDO_STEEL_PROTO = EquipmentBitSet.of(158);
+    public static final EquipmentBitSet F_INDUSTRIAL_ARMOR = EquipmentBitSet.of(159);
+    public static final EquipmentBitSet F_HEAVY_INDUSTRIAL_ARMOR = EquipmentBitSet.of(160);
+    public static final EquipmentBitSet F_PRIMITIVE_ARMOR = EquipmentBitSet.of(161);
+    public static final EquipmentBitSet F_HARDENED_ARMOR = EquipmentBitSet.of(162);
+    public static final EquipmentBitSet F_COMMERCIAL_ARMOR = EquipmentBitSet.of(163);
+    public static final EquipmentBitSet F_C3EM = EquipmentBitSet.of(164);
+    public static final EquipmentBitSet F_ANTI_PENETRATIVE_ABLATIVE = EquipmentBitSet.of(165);
+    public static final EquipmentBitSet F_HEAT_DISSIPATING = EquipmentBitSet.of(166);
+    public static final EquipmentBitSet F_IMPACT_RESISTANT = EquipmentBitSet.of(167);
+    public static final EquipmentBitSet F_BALLISTIC_REINFORCED = EquipmentBitSet.of(168);
+    public static final EquipmentBitSet F_HARJEL_II = EquipmentBitSet.of(169);
+    public static final EquipmentBitSet F_HARJEL_III = EquipmentBitSet.of(170);
+    public static final EquipmentBitSet F_RADICAL_HEATSINK = EquipmentBitSet.of(171);
+    public static final EquipmentBitSet F_BA_MANIPULATOR = EquipmentBitSet.of(172);
+    public static final EquipmentBitSet F_NOVA = EquipmentBitSet.of(173);
+    public static final EquipmentBitSet F_BOMB_BAY = EquipmentBitSet.of(174);
+    public static final EquipmentBitSet F_LIGHT_FLUID_SUCTION_SYSTEM = EquipmentBitSet.of(175);
+    public static final EquipmentBitSet F_MONOCYCLE = EquipmentBitSet.of(176);
+    public static final EquipmentBitSet F_BICYCLE = EquipmentBitSet.of(177);
+    public static final EquipmentBitSet F_CONVERTIBLE = EquipmentBitSet.of(178);
+    public static final EquipmentBitSet F_BATTLEMECH_NIU = EquipmentBitSet.of(179);
+    public static final EquipmentBitSet F_SNOWMOBILE = EquipmentBitSet.of(180);
+    public static final EquipmentBitSet F_LADDER = EquipmentBitSet.of(181);
+    public static final EquipmentBitSet F_LIFEBOAT = EquipmentBitSet.of(182);
+    public static final EquipmentBitSet F_FLUID_SUCTION_SYSTEM = EquipmentBitSet.of(183);
+    public static final EquipmentBitSet F_HYDROFOIL = EquipmentBitSet.of(184);
+    public static final EquipmentBitSet F_SUBMERSIBLE = EquipmentBitSet.of(185);
 
     // Flag for BattleArmor Modular Equipment Adaptor
-    public static final BigInteger F_BA_MEA = BigInteger.valueOf(1).shiftLeft(186);
+    public static final EquipmentBitSet F_BA_MEA = EquipmentBitSet.of(186);
 
     // Flag for Infantry Equipment
-    public static final BigInteger F_INF_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(187);
-    public static final BigInteger F_SCM = BigInteger.valueOf(1).shiftLeft(188);
-    public static final BigInteger F_VIRAL_JAMMER_HOMING = BigInteger.valueOf(1).shiftLeft(189);
-    public static final BigInteger F_VIRAL_JAMMER_DECOY = BigInteger.valueOf(1).shiftLeft(190);
-    public static final BigInteger F_DRONE_CONTROL_CONSOLE = BigInteger.valueOf(1).shiftLeft(191);
-    public static final BigInteger F_RISC_LASER_PULSE_MODULE = BigInteger.valueOf(1).shiftLeft(192);
-    public static final BigInteger F_REMOTE_DRONE_COMMAND_CONSOLE = BigInteger.valueOf(1).shiftLeft(193);
-    public static final BigInteger F_EMERGENCY_COOLANT_SYSTEM = BigInteger.valueOf(1).shiftLeft(194);
-    public static final BigInteger F_BADC = BigInteger.valueOf(1).shiftLeft(195);
-    public static final BigInteger F_REUSABLE = BigInteger.valueOf(1).shiftLeft(196);
-
-    public static final BigInteger F_BLOODHOUND = BigInteger.valueOf(1).shiftLeft(197);
-    public static final BigInteger F_ARMOR_KIT = BigInteger.valueOf(1).shiftLeft(198);
+    public static final EquipmentBitSet F_INF_EQUIPMENT = EquipmentBitSet.of(187);
+    public static final EquipmentBitSet F_SCM = EquipmentBitSet.of(188);
+    public static final EquipmentBitSet F_VIRAL_JAMMER_HOMING = EquipmentBitSet.of(189);
+    public static final EquipmentBitSet F_VIRAL_JAMMER_DECOY = EquipmentBitSet.of(190);
+    public static final EquipmentBitSet F_DRONE_CONTROL_CONSOLE = EquipmentBitSet.of(191);
+    public static final EquipmentBitSet F_RISC_LASER_PULSE_MODULE = EquipmentBitSet.of(192);
+    public static final EquipmentBitSet F_REMOTE_DRONE_COMMAND_CONSOLE = EquipmentBitSet.of(193);
+    public static final EquipmentBitSet F_EMERGENCY_COOLANT_SYSTEM = EquipmentBitSet.of(194);
+    public static final EquipmentBitSet F_BADC = EquipmentBitSet.of(195);
+    public static final EquipmentBitSet F_REUSABLE = EquipmentBitSet.of(196);
+
+    public static final EquipmentBitSet F_BLOODHOUND = EquipmentBitSet.of(197);
+    public static final EquipmentBitSet F_ARMOR_KIT = EquipmentBitSet.of(198);
 
     // Flags for Large Craft Systems
-    public static final BigInteger F_STORAGE_BATTERY = BigInteger.valueOf(1).shiftLeft(199);
-    public static final BigInteger F_LIGHT_SAIL = BigInteger.valueOf(1).shiftLeft(200);
+    public static final EquipmentBitSet F_STORAGE_BATTERY = EquipmentBitSet.of(199);
+    public static final EquipmentBitSet F_LIGHT_SAIL = EquipmentBitSet.of(200);
 
     // Prototype Stuff
-    public static final BigInteger F_ARTEMIS_PROTO = BigInteger.valueOf(1).shiftLeft(201);
-    public static final BigInteger F_CASEP = BigInteger.valueOf(1).shiftLeft(202);
+    public static final EquipmentBitSet F_ARTEMIS_PROTO = EquipmentBitSet.of(201);
+    public static final EquipmentBitSet F_CASEP = EquipmentBitSet.of(202);
     
-    public static final BigInteger F_VEEDC = BigInteger.valueOf(1).shiftLeft(203);
-    public static final BigInteger F_SC_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(204);
-    public static final BigInteger F_DS_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(205);
-    public static final BigInteger F_JS_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(206);
-    public static final BigInteger F_WS_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(207);
-    public static final BigInteger F_SS_EQUIPMENT = BigInteger.valueOf(1).shiftLeft(208);
-    public static final BigInteger F_CAPITAL_ARMOR = BigInteger.valueOf(1).shiftLeft(209);
-    public static final BigInteger F_FERRO_CARBIDE = BigInteger.valueOf(1).shiftLeft(210);
-    public static final BigInteger F_IMP_FERRO = BigInteger.valueOf(1).shiftLeft(211);
+    public static final EquipmentBitSet F_VEEDC = EquipmentBitSet.of(203);
+    public static final EquipmentBitSet F_SC_EQUIPMENT = EquipmentBitSet.of(204);
+    public static final EquipmentBitSet F_DS_EQUIPMENT = EquipmentBitSet.of(205);
+    public static final EquipmentBitSet F_JS_EQUIPMENT = EquipmentBitSet.of(206);
+    public static final EquipmentBitSet F_WS_EQUIPMENT = EquipmentBitSet.of(207);
+    public static final EquipmentBitSet F_SS_EQUIPMENT = EquipmentBitSet.of(208);
+    public static final EquipmentBitSet F_CAPITAL_ARMOR = EquipmentBitSet.of(209);
+    public static final EquipmentBitSet F_FERRO_CARBIDE = EquipmentBitSet.of(210);
+    public static final EquipmentBitSet F_IMP_FERRO = EquipmentBitSet.of(211);
     // Drone Equipment for Large Craft
-    public static final BigInteger F_SRCS = BigInteger.valueOf(1).shiftLeft(212);
-    public static final BigInteger F_SASRCS = BigInteger.valueOf(1).shiftLeft(213);
-    public static final BigInteger F_CASPAR = BigInteger.valueOf(1).shiftLeft(214);
-    public static final BigInteger F_CASPARII = BigInteger.valueOf(1).shiftLeft(215);
-    public static final BigInteger F_ATAC = BigInteger.valueOf(1).shiftLeft(216);
+    public static final EquipmentBitSet F_SRCS = EquipmentBitSet.of(212);
+    public static final EquipmentBitSet F_SASRCS = EquipmentBitSet.of(213);
+    public static final EquipmentBitSet F_CASPAR = EquipmentBitSet.of(214);
+    public static final EquipmentBitSet F_CASPARII = EquipmentBitSet.of(215);
+    public static final EquipmentBitSet F_ATAC = EquipmentBitSet.of(216);
     // Empty place left by removal of F_ARTS
-    public static final BigInteger F_DTAC = BigInteger.valueOf(1).shiftLeft(218);
-    public static final BigInteger F_SDS_DESTRUCT = BigInteger.valueOf(1).shiftLeft(219);
-    public static final BigInteger F_SDS_JAMMER = BigInteger.valueOf(1).shiftLeft(220);
-    public static final BigInteger F_LF_STORAGE_BATTERY = BigInteger.valueOf(1).shiftLeft(221);
-    public static final BigInteger F_PROTOMECH_MELEE = BigInteger.valueOf(1).shiftLeft(222);
-    public static final BigInteger F_EXTERNAL_POWER_PICKUP = BigInteger.valueOf(1).shiftLeft(223);
+    public static final EquipmentBitSet F_DTAC = EquipmentBitSet.of(218);
+    public static final EquipmentBitSet F_SDS_DESTRUCT = EquipmentBitSet.of(219);
+    public static final EquipmentBitSet F_SDS_JAMMER = EquipmentBitSet.of(220);
+    public static final EquipmentBitSet F_LF_STORAGE_BATTERY = EquipmentBitSet.of(221);
+    public static final EquipmentBitSet F_PROTOMECH_MELEE = EquipmentBitSet.of(222);
+    public static final EquipmentBitSet F_EXTERNAL_POWER_PICKUP = EquipmentBitSet.of(223);
 
     // Secondary Flags for Physical Weapons
     public static final long S_CLUB = 1L << 0; // BMR
@@ -15,19 +15,27 @@
 
 package megamek.common;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import megamek.client.bot.princess.CardinalEdge;
 import megamek.client.bot.princess.Princess;
@@ -38,14 +46,29 @@ import megamek.common.pathfinder.AbstractPathFinder;
 import megamek.common.pathfinder.CachedEntityState;
 import megamek.common.pathfinder.DestructionAwareDestinationPathfinder;
 import megamek.common.pathfinder.ShortestPathFinder;
+import megamek.common.pathfinder.StepState;
 import megamek.common.preference.PreferenceManager;
 
 /**
  * Holds movement path for an entity.
+ * <p>
+ * Cloning a path is cheap: the clone shares the steps with the original, and
+ * whichever of them adds a step first puts it into the shared buffer while the
+ * other copies its steps when it adds one. The pathfinders rely on this, as
+ * they clone a path for every step they try. Note that the steps themselves
+ * were always shared between clones.
  */
 public class MovePath implements Cloneable, Serializable {
     private static final long serialVersionUID = -4258296679177532986L;
 
+    /** The steps are written as a Vector, as they were before they were shared */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("coordsSet", Set.class),
+            new ObjectStreamField("steps", Vector.class),
+            new ObjectStreamField("containedStepTypes", Set.class),
+            new ObjectStreamField("fliesOverEnemy", Boolean.TYPE),
+            new ObjectStreamField("careful", Boolean.TYPE) };
+
     private Set<Coords> coordsSet = null;
     private final transient Object COORD_SET_LOCK = new Object();
     private transient CachedEntityState cachedEntityState;
@@ -99,13 +122,42 @@ public class MovePath implements Cloneable, Serializable {
         }
     }
 
-    private Vector<MoveStep> steps = new Vector<>();
+    /**
+     * The array holding the steps of one or more paths. The paths sharing it
+     * have steps in common up to the shorter one's length; a path may only put
+     * a step into the buffer when no other path has used that slot yet.
+     */
+    private static class StepBuffer {
+        private static final int INITIAL_SIZE = 8;
+
+        final MoveStep[] steps;
+        /** The number of slots used by any path */
+        final AtomicInteger used;
+
+        StepBuffer(MoveStep[] steps, int used) {
+            this.steps = steps;
+            this.used = new AtomicInteger(used);
+        }
+    }
+
+    // the path's steps are the first stepCount ones in the buffer
+    private transient StepBuffer stepBuffer;
+    private transient int stepCount;
 
     private transient IGame game;
     private transient Entity entity;
     
-    // holds the types of steps present in this movement 
-    private Set<MoveStepType> containedStepTypes = new HashSet<>();
+    // holds the types of steps present in this movement; shared between clones until one adds a type
+    private transient Set<MoveStepType> containedStepTypes = EnumSet.noneOf(MoveStepType.class);
+    private transient boolean sharedStepTypes;
+
+    // the packed final state, see getFinalState()
+    private transient long finalState;
+    private transient boolean finalStateKnown;
+
+    // the steps checked for pavement danger, and the movement type they were checked for
+    private transient int dangerCheckedSteps;
+    private transient EntityMovementType dangerCheckedType;
     
     // whether this movePath take us directly over an enemy unit
     // useful for aircraft
@@ -124,6 +176,16 @@ public class MovePath implements Cloneable, Serializable {
         this.setGame(game);
     }
 
+    /**
+     * Creates a path with the entity, game and entity state of the given one,
+     * but no steps.
+     */
+    protected MovePath(final MovePath other) {
+        entity = other.entity;
+        game = other.game;
+        cachedEntityState = other.cachedEntityState;
+    }
+
     public Entity getEntity() {
         return entity;
     }
@@ -146,7 +208,7 @@ public class MovePath implements Cloneable, Serializable {
         sb.append("Final Coords: " + this.getFinalCoords());
         sb.append(System.lineSeparator());
         
-        for (final Enumeration<MoveStep> i = steps.elements(); i.hasMoreElements(); ) {
+        for (final Enumeration<MoveStep> i = getSteps(); i.hasMoreElements(); ) {
             sb.append(i.nextElement().toString());
             sb.append(' ');
         }
@@ -166,7 +228,7 @@ public class MovePath implements Cloneable, Serializable {
      * Returns the number of steps in this movement
      */
     public int length() {
-        return steps.size();
+        return stepCount;
     }
 
     /**
@@ -255,7 +317,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public boolean containsVTOLBomb() {
-        for (MoveStep step : steps) {
+        for (MoveStep step : stepList()) {
             if (step.isVTOLBombingStep()) {
                 return true;
             }
@@ -278,7 +340,7 @@ public class MovePath implements Cloneable, Serializable {
             }
 
             coordsSet = new HashSet<>();
-            for (MoveStep step : getStepVector()) {
+            for (MoveStep step : stepList()) {
                 if (step.getPosition() == null) {
                     continue;
                 }
@@ -300,10 +362,11 @@ public class MovePath implements Cloneable, Serializable {
             return this;
         }
 
-        steps.addElement(step);
-        containedStepTypes.add(step.getType());
+        appendStep(step);
+        addStepType(step.getType());
+        finalStateKnown = false;
         
-        final MoveStep prev = getStep(steps.size() - 2);
+        final MoveStep prev = getStep(stepCount - 2);
 
         if (compile) {
             try {
@@ -355,8 +418,8 @@ public class MovePath implements Cloneable, Serializable {
         // Ensure we only lay one mine
         if ((step.getType() == MoveStepType.LAY_MINE)) {
             boolean containsOtherLayMineStep = false;
-            for (int i = 0; i < steps.size() - 1; i++) {
-                if (steps.get(i).getType() == MoveStepType.LAY_MINE) {
+            for (int i = 0; i < stepCount - 1; i++) {
+                if (getStep(i).getType() == MoveStepType.LAY_MINE) {
                     containsOtherLayMineStep = true;
                 }
             }
@@ -368,8 +431,8 @@ public class MovePath implements Cloneable, Serializable {
         // Ensure we only bomb one hex
         if (step.isVTOLBombingStep()) {
             boolean containsOtherBombStep = false;
-            for (int i = 0; i < steps.size() - 1; i++) {
-                if (steps.get(i).isVTOLBombingStep()) {
+            for (int i = 0; i < stepCount - 1; i++) {
+                if (getStep(i).isVTOLBombingStep()) {
                     containsOtherBombStep = true;
                 }
             }
@@ -380,22 +443,22 @@ public class MovePath implements Cloneable, Serializable {
         
         // Make sure we are not turning or changing elevation while strafing, and that we are not
         // starting a second group of hexes during the same round
-        if (step.isStrafingStep() && steps.size() > 1) {
-            MoveStep last = steps.get(steps.size() - 2);
+        if (step.isStrafingStep() && stepCount > 1) {
+            MoveStep last = getStep(stepCount - 2);
             // If the previous step is a strafing step, make sure we have the same facing and elevation
             // and we are not exceeding the maximum five hexes.
             if (last.isStrafingStep()) {
                 if (step.getFacing() != last.getFacing()
                         || (step.getElevation() + getGame().getBoard().getHex(step.getPosition()).floor()
                             != last.getElevation() + getGame().getBoard().getHex(last.getPosition()).floor())
-                        || steps.stream().filter(s -> s.isStrafingStep()).count() > 5) {
+                        || stepList().stream().filter(s -> s.isStrafingStep()).count() > 5) {
                     step.setMovementType(EntityMovementType.MOVE_ILLEGAL);
                 }
             } else {
                 // If the previous step is not a strafing step, make sure that the new step is the only strafing
                 // step we have in the path.
-                for (int i = 0; i < steps.size() - 2; i++) {
-                    if (steps.get(i).isStrafingStep()) {
+                for (int i = 0; i < stepCount - 2; i++) {
+                    if (getStep(i).isStrafingStep()) {
                         step.setMovementType(EntityMovementType.MOVE_ILLEGAL);
                     }
                 }
@@ -440,7 +503,7 @@ public class MovePath implements Cloneable, Serializable {
 
             // Loop through the steps from back to front.
             // Stop looping when the step says to, or we run out of steps.
-            int index = steps.size() - 2;
+            int index = stepCount - 2;
             while ((index >= 0) && getStep(index).setEndPos(false)) {
                 index--;
             }
@@ -455,7 +518,8 @@ public class MovePath implements Cloneable, Serializable {
                                 && entity.getConversionMode() == QuadVee.CONV_MODE_VEHICLE))) {
             boolean fwd = false;
             boolean rev = false;
-            for (MoveStep s : steps) {
+            for (int i = 0; i < stepCount; i++) {
+                MoveStep s = getStep(i);
                 fwd |=  s.getType() == MoveStepType.FORWARDS
                         || s.getType() == MoveStepType.LATERAL_LEFT
                         || s.getType() == MoveStepType.LATERAL_RIGHT;
@@ -475,8 +539,9 @@ public class MovePath implements Cloneable, Serializable {
         if (entity.usesTurnMode() && getMpUsed() > 5) {
             int turnMode = getMpUsed() / 5;
             int nStraight = 0;
-            MoveStep prevStep = steps.get(0);
-            for (MoveStep s : steps) {
+            MoveStep prevStep = getStep(0);
+            for (int i = 0; i < stepCount; i++) {
+                MoveStep s = getStep(i);
                 if (s.isTurning() && nStraight < turnMode) {
                     prevStep.setDanger(true);
                 }
@@ -486,21 +551,27 @@ public class MovePath implements Cloneable, Serializable {
         }
         
         // If running on pavement we don't know to mark the danger steps if we turn before expending
-        // enough MP to require running movement.
-        if (steps.size() > 1) {
-            MoveStep lastStep = steps.get(steps.size() - 1);
-            MoveStep prevStep = steps.get(0);
-            for (MoveStep s : steps) {
+        // enough MP to require running movement. Danger sticks, so the steps already checked for the
+        // same movement type don't need to be checked again.
+        if (stepCount > 1) {
+            MoveStep lastStep = getStep(stepCount - 1);
+            EntityMovementType lastMoveType = lastStep.getMovementType(true);
+            int i = (lastMoveType == dangerCheckedType) ? Math.min(dangerCheckedSteps, stepCount - 1) : 0;
+            MoveStep prevStep = getStep(Math.max(i - 1, 0));
+            for (; i < stepCount; i++) {
+                MoveStep s = getStep(i);
                 if (s.getMovementType(false) == EntityMovementType.MOVE_ILLEGAL) {
                     break;
                 }
                 s.setDanger(s.isDanger() || Compute.isPilotingSkillNeeded(game, entity.getId(),
-                        prevStep.getPosition(), s.getPosition(), lastStep.getMovementType(true),
+                        prevStep.getPosition(), s.getPosition(), lastMoveType,
                         prevStep.isTurning(), prevStep.isPavementStep(), prevStep.getElevation(),
                                 s.getElevation(), s));
                 s.setPastDanger(s.isPastDanger() || s.isDanger());
                 prevStep = s;
             }
+            dangerCheckedSteps = i;
+            dangerCheckedType = lastMoveType;
         }
         
         if(step.useAeroAtmosphere(game, entity) 
@@ -520,10 +591,11 @@ public class MovePath implements Cloneable, Serializable {
     public void compile(final IGame g, final Entity en, boolean clip) {
         setGame(g);
         setEntity(en);
-        final Vector<MoveStep> temp = new Vector<MoveStep>(steps);
-        steps.removeAllElements();
+        dangerCheckedSteps = 0;
+        final List<MoveStep> temp = new ArrayList<>(stepList());
+        clear();
         for (int i = 0; i < temp.size(); i++) {
-            MoveStep step = temp.elementAt(i);
+            MoveStep step = temp.get(i);
             if ((step.getTargetPosition() != null) && (step.getTarget(getGame()) != null)) {
                 step = new MoveStep(this, step.getType(), step.getTarget(getGame()), step.getTargetPosition());
             } else if (step.getTarget(getGame()) != null) {
@@ -557,7 +629,7 @@ public class MovePath implements Cloneable, Serializable {
             // There is an enemy, can't go out and back in, and go out again
             boolean left = false;
             boolean returned = false;
-            for (MoveStep step : steps) {
+            for (MoveStep step : stepList()) {
                 if (!left) {
                     if (!step.getPosition().equals(getEntity().getPosition())
                         || !(step.getElevation() == getEntity().getElevation())) {
@@ -591,7 +663,7 @@ public class MovePath implements Cloneable, Serializable {
         
         if (getEntity() instanceof LandAirMech
                 && !((LandAirMech)getEntity()).canConvertTo(getFinalConversionMode())) {
-            steps.forEach(s -> {
+            stepList().forEach(s -> {
                 if (s.getType() == MoveStepType.CONVERT_MODE) {
                     s.setMovementType(EntityMovementType.MOVE_ILLEGAL);
                 }
@@ -604,14 +676,14 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void removeLastStep() {
-        if (steps.size() > 0) {
-            final MoveStep step1 = getStep(steps.size() - 1);
+        if (stepCount > 0) {
+            final MoveStep step1 = getStep(stepCount - 1);
 
             if (step1.getType() == MovePath.MoveStepType.START_JUMP) {
                 getEntity().setIsJumpingNow(false);
             }
             
-            steps.removeElementAt(steps.size() - 1);
+            stepCount--;
             
             if (getEntity().isConvertingNow() && !this.contains(MovePath.MoveStepType.CONVERT_MODE)) {
                 getEntity().setConvertingNow(false);
@@ -624,27 +696,28 @@ public class MovePath implements Cloneable, Serializable {
             
             //Treat multiple convert steps as a single command
             if (step1.getType() == MovePath.MoveStepType.CONVERT_MODE)
-                while (steps.size() > 0
-                    && steps.get(steps.size() - 1).getType() == MovePath.MoveStepType.CONVERT_MODE) {
-                steps.removeElementAt(steps.size() - 1);
+                while (stepCount > 0
+                    && getStep(stepCount - 1).getType() == MovePath.MoveStepType.CONVERT_MODE) {
+                stepCount--;
             }
             
             // if this step is part of a manuever, undo the whole manuever, all the way to the beginning.
             if(step1.isManeuver()) {
-                int stepIndex = steps.size() - 1;
-                
-                while (steps.size() > 0 && steps.get(stepIndex).isManeuver()) {
-                    steps.removeElementAt(stepIndex);
-                    stepIndex--;
+                while (stepCount > 0 && getStep(stepCount - 1).isManeuver()) {
+                    stepCount--;
                 }
                 
                 // a maneuver begins with a "maneuver" step, so get rid of that as well
-                steps.removeElementAt(stepIndex);
+                if (stepCount > 0) {
+                    stepCount--;
+                }
             }
         }
 
+        stepsRemoved();
+
         // Find the new last step in the path.
-        int index = steps.size() - 1;
+        int index = stepCount - 1;
         while ((index >= 0) && getStep(index).setEndPos(true)
                 && !getStep(index).isLegal(this)) {
             index--;
@@ -655,18 +728,76 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void clear() {
-        steps.removeAllElements();
+        stepCount = 0;
+        stepsRemoved();
     }
 
     public Enumeration<MoveStep> getSteps() {
-        return steps.elements();
+        final MoveStep[] steps = (stepBuffer == null) ? null : stepBuffer.steps;
+        final int count = stepCount;
+        return new Enumeration<MoveStep>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < count;
+            }
+
+            @Override
+            public MoveStep nextElement() {
+                if (next >= count) {
+                    throw new NoSuchElementException();
+                }
+                return steps[next++];
+            }
+        };
     }
 
     public MoveStep getStep(final int index) {
-        if ((index < 0) || (index >= steps.size())) {
+        if ((index < 0) || (index >= stepCount)) {
             return null;
         }
-        return steps.elementAt(index);
+        return stepBuffer.steps[index];
+    }
+
+    /**
+     * Returns a view of the steps, which must not be kept beyond changes to
+     * the path.
+     */
+    private List<MoveStep> stepList() {
+        if (stepCount == 0) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(stepBuffer.steps).subList(0, stepCount);
+    }
+
+    /**
+     * Adds the step to the end of the path, in the shared buffer if no other
+     * path has added a step there yet.
+     */
+    private void appendStep(final MoveStep step) {
+        final StepBuffer buffer = stepBuffer;
+        if ((buffer != null) && (stepCount < buffer.steps.length)
+                && buffer.used.compareAndSet(stepCount, stepCount + 1)) {
+            buffer.steps[stepCount++] = step;
+            return;
+        }
+        final MoveStep[] steps = new MoveStep[Math.max(StepBuffer.INITIAL_SIZE, stepCount * 2)];
+        if (stepCount > 0) {
+            System.arraycopy(buffer.steps, 0, steps, 0, stepCount);
+        }
+        steps[stepCount++] = step;
+        stepBuffer = new StepBuffer(steps, stepCount);
+    }
+
+    private void addStepType(final MoveStepType type) {
+        if (!containedStepTypes.contains(type)) {
+            if (sharedStepTypes) {
+                containedStepTypes = EnumSet.copyOf(containedStepTypes);
+                sharedStepTypes = false;
+            }
+            containedStepTypes.add(type);
+        }
     }
 
     /**
@@ -674,9 +805,10 @@ public class MovePath implements Cloneable, Serializable {
      * Loops over all the steps in the path, so should only be used when removing or replacing steps.
      */
     private void regenerateStepTypes() {
-        containedStepTypes.clear();
-        for(MoveStep step : steps) {
-            containedStepTypes.add(step.getType());
+        containedStepTypes = EnumSet.noneOf(MoveStepType.class);
+        sharedStepTypes = false;
+        for (int i = 0; i < stepCount; i++) {
+            containedStepTypes.add(getStep(i).getType());
         }
     }
     
@@ -873,7 +1005,7 @@ public class MovePath implements Cloneable, Serializable {
      */
     public int getMaxElevation() {
         int maxElev = 0;
-        for (MoveStep step : steps) {
+        for (MoveStep step : stepList()) {
             maxElev = Math.max(maxElev,
                     getGame().getBoard().getHex(step.getPosition()).getLevel());
         }
@@ -948,13 +1080,18 @@ public class MovePath implements Cloneable, Serializable {
         return getLastStep().getMovementType(true);
     }
 
+    /**
+     * Returns a copy of the steps, for sending the path or displaying it. Use
+     * {@link #getSteps()}, {@link #getStep(int)} and {@link #length()} to
+     * look at the steps without copying them.
+     */
     public Vector<MoveStep> getStepVector() {
-        return steps;
+        return new Vector<>(stepList());
     }
 
     public MoveStep getLastStep() {
-        for (int i = getStepVector().size() - 1; i >= 0; i--) {
-            MoveStep last = getStepVector().get(i);
+        for (int i = length() - 1; i >= 0; i--) {
+            MoveStep last = getStep(i);
             if (last != null) {
                 return last;
             }
@@ -963,8 +1100,8 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public MoveStep getSecondLastStep() {
-        if (steps.size() > 1) {
-            return getStep(steps.size() - 2);
+        if (stepCount > 1) {
+            return getStep(stepCount - 2);
         }
         return getLastStep();
     }
@@ -972,8 +1109,8 @@ public class MovePath implements Cloneable, Serializable {
     /* Debug method */
     public void printAllSteps() {
         System.out.println("*Steps*");
-        for (int i = 0; i < steps.size(); i++) {
-            System.out.println("  " + i + ": " + getStep(i) + ", " + getStep(i).getMovementType(i == (steps.size() - 1)));
+        for (int i = 0; i < stepCount; i++) {
+            System.out.println("  " + i + ": " + getStep(i) + ", " + getStep(i).getMovementType(i == (stepCount - 1)));
         }
     }
 
@@ -981,24 +1118,25 @@ public class MovePath implements Cloneable, Serializable {
      * Removes impossible steps.
      */
     public void clipToPossible() {
-        if (steps.size() == 0) {
+        if (stepCount == 0) {
             // nothing to clip
             return;
         }
         // Do final check for bad moves, and clip movement after first bad one
         // also clear and re-constitute "contained steps" cache
-        containedStepTypes = new HashSet<>();
-        final Vector<MoveStep> goodSteps = new Vector<>();
-        for (MoveStep step : steps) {
+        int goodSteps = 0;
+        for (int i = 0; i < stepCount; i++) {
+            MoveStep step = getStep(i);
             if (step.getMovementType(isEndStep(step)) != EntityMovementType.MOVE_ILLEGAL) {
-                containedStepTypes.add(step.getType());
-                goodSteps.addElement(step);
+                goodSteps++;
             } else {
                 break;
             }
 
         }
-        steps = goodSteps;
+        stepCount = goodSteps;
+        stepsRemoved();
+        regenerateStepTypes();
     }
 
     /**
@@ -1009,10 +1147,10 @@ public class MovePath implements Cloneable, Serializable {
      */
     @SuppressWarnings("unused")
     private void transformLateralShift() {
-        if (steps.size() < 3) {
+        if (stepCount < 3) {
             return;
         }
-        final int index = steps.size() - 3;
+        final int index = stepCount - 3;
         final MoveStep step1 = getStep(index);
         final MoveStep step2 = getStep(index + 1);
         final MoveStep step3 = getStep(index + 2);
@@ -1021,10 +1159,9 @@ public class MovePath implements Cloneable, Serializable {
                 && ((step2.getType() == MovePath.MoveStepType.BACKWARDS) || (step2.getType() == MovePath.MoveStepType.FORWARDS))) {
             final MoveStepType stepType = step1.getType();
             final MoveStepType direction = step2.getType();
-            // remove all old steps
-            steps.removeElementAt(index);
-            steps.removeElementAt(index);
-            steps.removeElementAt(index);
+            // remove all old steps, which are the last ones
+            stepCount = index;
+            stepsRemoved();
             // add new step
             final MoveStep shift = new MoveStep(this, lateralShiftForTurn(stepType, direction));
             addStep(shift);
@@ -1219,7 +1356,7 @@ public class MovePath implements Cloneable, Serializable {
         }
         if (finPath != null) {
             finPath.compile(game, entity, false);
-            this.steps = finPath.steps;
+            shareSteps(finPath);
         } else {
             System.out.println("Error: " +
                     "Unable to find a path to the destination hex!");
@@ -1377,7 +1514,7 @@ public class MovePath implements Cloneable, Serializable {
         //System.out.println("iteration count: " + loopcount);
         if (getFinalCoords().distance(dest) > bestPath.getFinalCoords().distance(dest)) {
             // Make the path we found, this path.
-            steps = bestPath.steps;
+            shareSteps(bestPath);
         }
         if (!getFinalCoords().equals(dest)) {
             lazyPathfinder(dest, type);
@@ -1521,19 +1658,55 @@ public class MovePath implements Cloneable, Serializable {
      */
     @Override
     public MovePath clone() {
-        final MovePath copy = new MovePath(getGame(), getEntity());
+        final MovePath copy = new MovePath(this);
         copyFields(copy);
         return copy;
     }
     
     protected void copyFields(MovePath copy) {
-        copy.steps = new Vector<MoveStep>(steps);
+        copy.shareSteps(this);
         copy.careful = careful;
-        copy.containedStepTypes = new HashSet<>(containedStepTypes);
+        copy.containedStepTypes = containedStepTypes;
+        copy.sharedStepTypes = true;
+        sharedStepTypes = true;
         copy.fliesOverEnemy = fliesOverEnemy;
         copy.cachedEntityState = cachedEntityState; // intentional pointer copy
     }
 
+    /**
+     * Makes the steps of this path the same as those of the other one.
+     */
+    private void shareSteps(MovePath other) {
+        stepBuffer = other.stepBuffer;
+        stepCount = other.stepCount;
+        finalState = other.finalState;
+        finalStateKnown = other.finalStateKnown;
+        dangerCheckedSteps = other.dangerCheckedSteps;
+        dangerCheckedType = other.dangerCheckedType;
+    }
+
+    /**
+     * Forgets what was known about the removed steps.
+     */
+    private void stepsRemoved() {
+        finalStateKnown = false;
+        dangerCheckedSteps = Math.min(dangerCheckedSteps, stepCount);
+    }
+
+    /**
+     * Returns the state at the end of the path packed by {@link StepState},
+     * for path finders to compare paths by. It is packed once per path, so
+     * the danger and legality are those of when the path was first asked
+     * for it after its last step was added.
+     */
+    public long getFinalState() {
+        if (!finalStateKnown) {
+            finalState = StepState.of(this);
+            finalStateKnown = true;
+        }
+        return finalState;
+    }
+
     /**
      * Rotate from the current facing to the destination facing.
      */
@@ -1568,7 +1741,7 @@ public class MovePath implements Cloneable, Serializable {
     public Coords getJumpPathHighestPoint() {
         Coords highestCoords = null;
         int highestElevation = 0;
-        for (MoveStep step : steps) {
+        for (MoveStep step : stepList()) {
             if (getGame().getBoard().getHex(step.getPosition()).getLevel() > highestElevation) {
                 highestElevation = step.getElevation();
                 highestCoords = step.getPosition();
@@ -1591,7 +1764,7 @@ public class MovePath implements Cloneable, Serializable {
      * @return TRUE if there are any buildings in a dropship's landing zone.
      */
     public boolean willCrushBuildings() {
-        for (MoveStep step : steps) {
+        for (MoveStep step : stepList()) {
             if (!step.getCrushedBuildingLocs().isEmpty()) {
                 return true;
             }
@@ -1636,7 +1809,7 @@ public class MovePath implements Cloneable, Serializable {
                         && moved == 4)) {
             return false;
         }
-        if (getEntity().wigeLiftoffHover() || steps.stream().map(s -> s.getType())
+        if (getEntity().wigeLiftoffHover() || stepList().stream().map(s -> s.getType())
                 .anyMatch(st -> st == MoveStepType.UP
                         || st == MoveStepType.HOVER)) {
             return false;
@@ -1720,7 +1893,7 @@ public class MovePath implements Cloneable, Serializable {
 
     public int countMp(boolean jumping) {
         int mp = 0;
-        for (MoveStep step : steps) {
+        for (MoveStep step : stepList()) {
             if (jumping && (step.getType() != MoveStepType.TURN_LEFT) &&
                     (step.getType() != MoveStepType.TURN_RIGHT)) {
                 mp += step.getMp();
@@ -1738,7 +1911,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void replaceSteps(Vector<MoveStep> path) {
-        steps.clear();
+        clear();
         addSteps(path, true);
     }
     
@@ -1767,7 +1940,7 @@ public class MovePath implements Cloneable, Serializable {
     public boolean setVTOLBombStep(Coords pos) {
         boolean foundPos = false;
         MoveStep prevBombing = null;
-        for (MoveStep step : steps) {
+        for (MoveStep step : stepList()) {
             if (step.getPosition().equals(pos)) {
                 if (step.isVTOLBombingStep()) {
                     return true;
@@ -1798,9 +1971,9 @@ public class MovePath implements Cloneable, Serializable {
      */
     public boolean setStrafingStep(Coords pos) {
         MoveStep found = null;
-        for (int i = steps.size() - 1; i >= 0; i--) {
-            if (steps.get(i).getPosition().equals(pos)) {
-                found = steps.get(i);
+        for (int i = stepCount - 1; i >= 0; i--) {
+            if (getStep(i).getPosition().equals(pos)) {
+                found = getStep(i);
             } else if (found != null) {
                 found.setStrafing(true);
                 return true;
@@ -1818,7 +1991,7 @@ public class MovePath implements Cloneable, Serializable {
      */
     public Set<Integer> getDroppedUnits() {
         Set<Integer> dropped = new HashSet<>();
-        for (MoveStep s : steps) {
+        for (MoveStep s : stepList()) {
             for (Vector<Integer> ids : s.getLaunched().values()) {
                 dropped.addAll(ids);
             }
@@ -1857,4 +2030,33 @@ public class MovePath implements Cloneable, Serializable {
         
         return finPath;
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("coordsSet", coordsSet);
+        fields.put("steps", getStepVector());
+        fields.put("containedStepTypes", containedStepTypes);
+        fields.put("fliesOverEnemy", fliesOverEnemy);
+        fields.put("careful", careful);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        coordsSet = (Set<Coords>) fields.get("coordsSet", null);
+        Vector<MoveStep> steps = (Vector<MoveStep>) fields.get("steps", null);
+        if (steps != null) {
+            for (MoveStep step : steps) {
+                appendStep(step);
+            }
+        }
+        containedStepTypes = EnumSet.noneOf(MoveStepType.class);
+        Set<MoveStepType> types = (Set<MoveStepType>) fields.get("containedStepTypes", null);
+        if (types != null) {
+            containedStepTypes.addAll(types);
+        }
+        fliesOverEnemy = fields.get("fliesOverEnemy", false);
+        careful = fields.get("careful", true);
+    }
 }
@@ -1062,7 +1062,7 @@ public class MoveStep implements Serializable {
                 setMp(0);
                 break;
             case THRUST:
-                setVectors(Compute.changeVectors(getVectors(), getFacing()));
+                setVectors(Compute.changeVectors(getVectors().clone(), getFacing()));
                 setMp(1);
                 break;
             case YAW:
@@ -1207,7 +1207,8 @@ public class MoveStep implements Serializable {
         isSelfDestructing = prev.isSelfDestructing;
         nRolls = prev.nRolls;
         isRolled = prev.isRolled;
-        mv = prev.mv.clone();
+        // shared until this step changes its vectors
+        mv = prev.mv;
         freeTurn = prev.freeTurn;
         nStraight = prev.nStraight;
         nDown = prev.nDown;
@@ -1601,12 +1602,11 @@ public class MoveStep implements Serializable {
         }
         
         // A step is an end position if it is the last legal step.
-        Vector<MoveStep> steps = path.getStepVector();
         // Starting from the end, each step is considered the last step until
         // we find a legal last step
         boolean lastStep = true;
-        for (int i = steps.size() - 1; i >= 0; i--) {
-            MoveStep step = steps.get(i);
+        for (int i = path.length() - 1; i >= 0; i--) {
+            MoveStep step = path.getStep(i);
             boolean stepMatch = this.equals(step);
             if (lastStep) {
                 lastStep &= step.getMovementType(true) == EntityMovementType.MOVE_ILLEGAL;
@@ -2913,6 +2913,11 @@ public class MoveStep implements Serializable {
         final int prevEl = prevStep.getElevation();
         final EntityMovementMode moveMode = getEntity()
                 .getMovementMode();
+        // the terrain is read from the packed board; the hexes are only needed
+        // for the terrain objects themselves
+        final PackedBoard board = game.getBoard().getPackedBoard();
+        final int src = board.index(prev);
+        final int dest = board.index(getPosition());
         final IHex srcHex = game.getBoard().getHex(prev);
         final IHex destHex = game.getBoard().getHex(getPosition());
         final boolean isInfantry = getEntity() instanceof Infantry;
@@ -2924,8 +2929,8 @@ public class MoveStep implements Serializable {
         final boolean isMech = getEntity() instanceof Mech;
         final boolean isAmphibious = cachedEntityState.hasWorkingMisc(MiscType.F_FULLY_AMPHIBIOUS) || 
                 cachedEntityState.hasWorkingMisc(MiscType.F_LIMITED_AMPHIBIOUS);
-        int nSrcEl = srcHex.getLevel() + prevEl;
-        int nDestEl = destHex.getLevel() + elevation;
+        int nSrcEl = board.getLevel(src) + prevEl;
+        int nDestEl = board.getLevel(dest) + elevation;
 
         mp = 1;
 
@@ -2994,7 +2999,7 @@ public class MoveStep implements Serializable {
             }
 
             // if this is an amphibious unit crossing water, increment movement cost by 1
-            if(isAmphibious && !destHex.containsTerrain(Terrains.ICE) && (destHex.terrainLevel(Terrains.WATER) > 0)) {
+            if(isAmphibious && !board.containsTerrain(dest, Terrains.ICE) && (board.terrainLevel(dest, Terrains.WATER) > 0)) {
                 mp++;
             }
             
@@ -3010,11 +3015,11 @@ public class MoveStep implements Serializable {
                     && (moveMode != EntityMovementMode.QUAD_SWIM)
                     && (moveMode != EntityMovementMode.WIGE)) {
                 // no additional cost when moving on surface of ice.
-                if (!destHex.containsTerrain(Terrains.ICE)
-                        || (nDestEl < destHex.surface())) {
-                    if ((destHex.terrainLevel(Terrains.WATER) == 1) && !isAmphibious) {
+                if (!board.containsTerrain(dest, Terrains.ICE)
+                        || (nDestEl < board.getLevel(dest))) {
+                    if ((board.terrainLevel(dest, Terrains.WATER) == 1) && !isAmphibious) {
                         mp++;
-                    } else if ((destHex.terrainLevel(Terrains.WATER) > 1) && !isAmphibious) {
+                    } else if ((board.terrainLevel(dest, Terrains.WATER) > 1) && !isAmphibious) {
                         if (getEntity().hasAbility(OptionsConstants.PILOT_TM_FROGMAN)
                                 && ((entity instanceof Mech) || (entity instanceof Protomech))) {
                             mp += 2;
@@ -3024,9 +3029,9 @@ public class MoveStep implements Serializable {
                     }
                 }
                 // if using non-careful movement on ice then reduce cost
-                if (destHex.containsTerrain(Terrains.ICE)
+                if (board.containsTerrain(dest, Terrains.ICE)
                         && !isCareful()
-                        && (nDestEl == destHex.surface())) {
+                        && (nDestEl == board.getLevel(dest))) {
                     mp--;
                 }
 
@@ -3065,8 +3070,8 @@ public class MoveStep implements Serializable {
         // more than one elevation above its top or if climbing a level to get above it.
         // See http://bg.battletech.com/forums/index.php?topic=51081.msg1297747#msg1297747
         if (entity.getMovementMode() == EntityMovementMode.WIGE && distance > 0 && (getClearance() > 1
-                || (destHex.containsTerrain(Terrains.BLDG_ELEV)
-                        && destHex.ceiling() > srcHex.ceiling()))) {
+                || (board.containsTerrain(dest, Terrains.BLDG_ELEV)
+                        && board.ceiling(dest) > board.ceiling(src)))) {
             mp += 2;
         }
         
@@ -3079,14 +3084,14 @@ public class MoveStep implements Serializable {
         }
 
         // If we entering a building, all non-infantry pay additional MP.
-        if (nDestEl < destHex.terrainLevel(Terrains.BLDG_ELEV)) {
+        if (nDestEl < board.terrainLevel(dest, Terrains.BLDG_ELEV)) {
             Building bldg = game.getBoard().getBuildingAt(getPosition());
             // check for inside hangar movement
             if ((null != prev)
                     && (null != bldg)
                     && bldg.isIn(prev)
                     && (bldg.getBldgClass() == Building.HANGAR)
-                    && (destHex.terrainLevel(Terrains.BLDG_ELEV) > getEntity()
+                    && (board.terrainLevel(dest, Terrains.BLDG_ELEV) > getEntity()
                             .height())) {
                 mp += 0;
             } else if (!isInfantry && !isSuperHeavyMech) {
@@ -3111,7 +3116,7 @@ public class MoveStep implements Serializable {
 
         // Infantry (except mechanized) pay 1 less MP to enter woods and Jungle
         if (isInfantry && !isMechanizedInfantry
-                && destHex.containsTerrain(Terrains.WOODS)
+                && board.containsTerrain(dest, Terrains.WOODS)
                 && !isPavementStep) {
             mp--;
 
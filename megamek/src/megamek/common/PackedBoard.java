@@ -0,0 +1,235 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.BitSet;
+
+/**
+ * A columnar copy of the levels and terrains of a board, for code that asks
+ * many hexes the same few questions, like line of sight and movement. The
+ * hexes are addressed by their index <code>y * width + x</code>; every hex
+ * has its level, floor and ceiling in plain arrays, the terrain types it
+ * contains as the bits of a <code>long</code> and the levels of those
+ * terrains in a small array ordered by terrain type.
+ * <p>
+ * The board updates the view when hexes are replaced. Hexes changed in place
+ * tell the views they are packed into, which mark them dirty and repack them
+ * when synchronized; <code>IBoard.getPackedBoard()</code> does that before
+ * returning the view.
+ */
+public class PackedBoard {
+
+    static {
+        if (Terrains.SIZE > Long.SIZE) {
+            throw new IllegalStateException("Too many terrain types to pack");
+        }
+    }
+
+    private static final int[] NO_LEVELS = new int[0];
+
+    private final IBoard board;
+    private final int width;
+    private final int height;
+
+    private final int[] level;
+    private final int[] floor;
+    private final int[] ceiling;
+    private final long[] terrains;
+    private final int[][] terrainLevels;
+
+    /** The hex each index was packed from */
+    private final IHex[] source;
+
+    /** The indexes of the hexes changed in place since the last sync */
+    private final BitSet dirty = new BitSet();
+    private volatile boolean synchronizedView = true;
+
+    /**
+     * Packs all hexes of the board.
+     *
+     * @param board the board to view
+     */
+    public PackedBoard(IBoard board) {
+        this.board = board;
+        width = board.getWidth();
+        height = board.getHeight();
+        int size = width * height;
+        level = new int[size];
+        floor = new int[size];
+        ceiling = new int[size];
+        terrains = new long[size];
+        terrainLevels = new int[size][];
+        source = new IHex[size];
+        for (int i = 0; i < size; i++) {
+            pack(i);
+        }
+    }
+
+    /**
+     * Brings the view up to date with hexes that changed in place since the
+     * last call.
+     */
+    public synchronized void sync() {
+        if (synchronizedView) {
+            return;
+        }
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            pack(i);
+        }
+        dirty.clear();
+        synchronizedView = true;
+    }
+
+    /**
+     * Returns true if no hex changed in place since the last call to
+     * {@link #sync()}.
+     */
+    public boolean isSynchronized() {
+        return synchronizedView;
+    }
+
+    /**
+     * Marks a hex as changed in place; called by the hex.
+     *
+     * @param index the index of the hex
+     * @param hex the hex that changed
+     */
+    synchronized void hexChanged(int index, IHex hex) {
+        if (source[index] == hex) {
+            dirty.set(index);
+            synchronizedView = false;
+        }
+    }
+
+    /**
+     * Returns true if the hex at the index was packed from the given hex. This
+     * does not take the lock, as hexes ask while holding their own; a view
+     * registers with a hex only after packing it, so the hex always sees the
+     * views it still belongs to.
+     */
+    boolean isPackedFrom(int index, IHex hex) {
+        return source[index] == hex;
+    }
+
+    /**
+     * Repacks the hex at the given position, after the board replaced it.
+     */
+    public synchronized void update(int x, int y) {
+        if (contains(x, y)) {
+            pack((y * width) + x);
+        }
+    }
+
+    private void pack(int i) {
+        IHex hex = board.getHex(i % width, i / width);
+        source[i] = hex;
+        if (hex == null) {
+            level[i] = 0;
+            floor[i] = 0;
+            ceiling[i] = 0;
+            terrains[i] = 0;
+            terrainLevels[i] = NO_LEVELS;
+            return;
+        }
+        hex.addPackedView(this, i);
+        level[i] = hex.getLevel();
+        floor[i] = hex.floor();
+        ceiling[i] = hex.ceiling();
+        long bits = 0;
+        for (int type : hex.getTerrainTypes()) {
+            bits |= 1L << type;
+        }
+        int[] levels = new int[Long.bitCount(bits)];
+        int n = 0;
+        for (long rest = bits; rest != 0; rest &= rest - 1) {
+            levels[n++] = hex.terrainLevel(Long.numberOfTrailingZeros(rest));
+        }
+        terrains[i] = bits;
+        terrainLevels[i] = levels;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean contains(int x, int y) {
+        return (x >= 0) && (y >= 0) && (x < width) && (y < height);
+    }
+
+    /**
+     * Returns the index of the hex at the given position, or -1 if it is not
+     * on the board.
+     */
+    public int index(int x, int y) {
+        return contains(x, y) ? (y * width) + x : -1;
+    }
+
+    /**
+     * Returns the index of the hex at the given position, or -1 if it is not
+     * on the board.
+     */
+    public int index(Coords c) {
+        return (c == null) ? -1 : index(c.getX(), c.getY());
+    }
+
+    /**
+     * Returns the level of the hex, like <code>IHex.getLevel()</code>
+     */
+    public int getLevel(int index) {
+        return level[index];
+    }
+
+    /**
+     * Returns the level of the hex bottom, like <code>IHex.floor()</code>
+     */
+    public int floor(int index) {
+        return floor[index];
+    }
+
+    /**
+     * Returns the level the features of the hex extend to, like
+     * <code>IHex.ceiling()</code>
+     */
+    public int ceiling(int index) {
+        return ceiling[index];
+    }
+
+    /**
+     * Returns the terrain types the hex contains, as bits
+     * <code>1L << type</code>
+     */
+    public long getTerrainBits(int index) {
+        return terrains[index];
+    }
+
+    public boolean containsTerrain(int index, int type) {
+        return ((terrains[index] >>> type) & 1L) != 0;
+    }
+
+    /**
+     * Returns the level of the terrain, or <code>ITerrain.LEVEL_NONE</code>
+     * if the hex does not contain it, like <code>IHex.terrainLevel()</code>
+     */
+    public int terrainLevel(int index, int type) {
+        long bits = terrains[index];
+        if (((bits >>> type) & 1L) == 0) {
+            return ITerrain.LEVEL_NONE;
+        }
+        return terrainLevels[index][Long.bitCount(bits & ((1L << type) - 1))];
+    }
+}
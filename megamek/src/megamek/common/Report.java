@@ -16,8 +16,10 @@
 package megamek.common;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Vector;
 
 import megamek.client.ui.swing.util.PlayerColors;
@@ -157,8 +159,14 @@ public class Report implements Serializable {
      */
     private Vector<String> obscuredRecipients = new Vector<String>();
 
-    /** Keep track of what data we have already substituted for tags. */
-    private transient int tagCounter = 0;
+    /**
+     * The text from the last call to <code>getText</code>, and the public
+     * fields it was made with; reset by the methods that change the report.
+     */
+    private transient String cachedText;
+    private transient int cachedMessageId;
+    private transient int cachedNewlines;
+    private transient int cachedType;
 
     /**
      * Default constructor, note that using this means the
@@ -208,7 +216,6 @@ public class Report implements Serializable {
         obscuredIndexes = (Hashtable<Integer, Boolean>) r.obscuredIndexes
                 .clone();
         obscuredRecipients = (Vector<String>) r.obscuredRecipients.clone();
-        tagCounter = r.tagCounter;
     }
 
     /**
@@ -238,6 +245,7 @@ public class Report implements Serializable {
                     Boolean.valueOf(true));
         }
         tagData.addElement(String.valueOf(data));
+        cachedText = null;
     }
 
     /**
@@ -250,6 +258,7 @@ public class Report implements Serializable {
     public void add(String data) {
         add(data, true);
         tagTranslate = null;
+        cachedText = null;
     }
 
     /**
@@ -264,6 +273,7 @@ public class Report implements Serializable {
     public void add(String data, String translate) {
         add(data, true);
         tagTranslate = translate;
+        cachedText = null;
     }
 
     /**
@@ -282,6 +292,7 @@ public class Report implements Serializable {
                     Boolean.valueOf(true));
         }
         tagData.addElement(data);
+        cachedText = null;
     }
 
     /**
@@ -296,6 +307,7 @@ public class Report implements Serializable {
      */
     public void choose(boolean choice) {
         tagData.addElement(String.valueOf(choice));
+        cachedText = null;
     }
 
     /**
@@ -343,6 +355,7 @@ public class Report implements Serializable {
      */
     public void hideData(int index) {
         tagData.setElementAt(null, index);
+        cachedText = null;
     }
 
     /**
@@ -359,6 +372,7 @@ public class Report implements Serializable {
      */
     public void indent(int n) {
         indentation += (n * Report.DEFAULT_INDENTATION);
+        cachedText = null;
     }
 
     /**
@@ -374,11 +388,71 @@ public class Report implements Serializable {
         return tagData.size();
     }
 
-    private String getTag() {
-        return getTag(tagCounter);
+    /**
+     * Internal method. Not for typical use.
+     * <p>
+     * Get the raw data value at the given index, without translation. Hidden
+     * values are returned as <code>null</code>.
+     *
+     * @param index position of data value (indexes are chronological and start
+     *            at zero)
+     * @return the raw data value
+     */
+    public String getTagData(int index) {
+        return tagData.elementAt(index);
+    }
+
+    /**
+     * Internal method. Not for typical use.
+     *
+     * @return the name of the resource bundle used to translate the data
+     *         values, or <code>null</code> if they are not translated
+     */
+    public String getTagTranslate() {
+        return tagTranslate;
+    }
+
+    /**
+     * Internal method. Not for typical use.
+     *
+     * @param translate the name of the resource bundle used to translate the
+     *            data values, or <code>null</code>
+     */
+    public void setTagTranslate(String translate) {
+        tagTranslate = translate;
+        cachedText = null;
     }
 
-    private String getTag(int index) {
+    /**
+     * Internal method. Not for typical use.
+     *
+     * @return the number of spaces this report is indented
+     */
+    public int getIndentation() {
+        return indentation;
+    }
+
+    /**
+     * Internal method. Not for typical use.
+     *
+     * @param indentation the number of spaces this report is indented
+     */
+    public void setIndentation(int indentation) {
+        this.indentation = indentation;
+        cachedText = null;
+    }
+
+    /**
+     * Internal method. Not for typical use.
+     *
+     * @return the names of the players who received an obscured version of
+     *         this report
+     */
+    public List<String> getObscuredRecipients() {
+        return Collections.unmodifiableList(obscuredRecipients);
+    }
+
+    String getTag(int index) {
         try {
             String value = tagData.elementAt(index);
             if (value == null) {
@@ -403,77 +477,52 @@ public class Report implements Serializable {
 
     /**
      * Get the report in its final form, with all the necessary substitutions
-     * made.
+     * made. The text is kept until the report changes, so asking again is
+     * cheap.
      *
      * @return a String with the final report
      */
     public String getText() {
-        // The raw text of the message, with tags.
-        String raw = ReportMessages.getString(String.valueOf(messageId));
+        String text = cachedText;
+        if ((text != null) && (cachedMessageId == messageId)
+                && (cachedNewlines == newlines) && (cachedType == type)) {
+            return text;
+        }
+        cachedMessageId = messageId;
+        cachedNewlines = newlines;
+        cachedType = type;
+        text = render();
+        cachedText = text;
+        return text;
+    }
+
+    private String render() {
+        // The message, parsed once for all reports with this id
+        ReportTemplate template = ReportTemplate.forMessage(messageId);
 
         // This will be the finished product, with data substituted for tags.
-        StringBuffer text = new StringBuffer();
+        StringBuilder text = new StringBuilder();
 
-        if (raw == null) {
+        if (template == null) {
             // Should we handle this better? Check alternate language files?
             System.out.println("Error: No message found for ID "
                     + messageId);
             text.append("[Reporting Error for message ID ").append(
                     messageId).append("]");
         } else {
-            int i = 0;
-            int mark = 0;
-            while (i < raw.length()) {
-                if (raw.charAt(i) == '<') {
-                    // find end of tag
-                    int endTagIdx = raw.indexOf('>', i);
-                    if ((raw.indexOf('<', i + 1) != -1)
-                            && (raw.indexOf('<', i + 1) < endTagIdx)) {
-                        // hmm...this must be a literal '<' character
-                        i++;
-                        continue;
-                    }
-                    // copy the preceeding characters into the buffer
-                    text.append(raw.substring(mark, i));
-                    if (raw.substring(i + 1, endTagIdx).equals("data")) {
-                        text.append(getTag());
-                        // System.out.println("Report-->getText(): " +
-                        // this.tagData.elementAt(this.tagCounter));
-                        tagCounter++;
-                    } else if (raw.substring(i + 1, endTagIdx).equals("list")) {
-                        for (int j = tagCounter; j < tagData.size(); j++) {
-                            text.append(getTag(j)).append(", ");
-                        }
-                        text.setLength(text.length() - 2); // trim last comma
-                    } else if (raw.substring(i + 1, endTagIdx).startsWith(
-                            "msg:")) {
-                        boolean selector = Boolean.valueOf(getTag())
-                                .booleanValue();
-                        if (selector) {
-                            text.append(ReportMessages.getString(raw.substring(
-                                    i + 5, raw.indexOf(',', i))));
-                        } else {
-                            text.append(ReportMessages.getString(raw.substring(
-                                    raw.indexOf(',', i) + 1, endTagIdx)));
-                        }
-                        tagCounter++;
-                    } else if (raw.substring(i + 1, endTagIdx)
-                            .equals("newline")) {
-                        text.append("\n");
-                    } else {
-                        // not a special tag, so treat as literal text
-                        text.append(raw.substring(i, endTagIdx + 1));
-                    }
-                    mark = endTagIdx + 1;
-                    i = endTagIdx;
-                }
-                i++;
+            for (int i = 0; i < indentation; i++) {
+                text.append("&nbsp;");
+            }
+            int start = text.length();
+            template.render(this, text);
+            if (text.length() == start) {
+                // nothing to indent
+                text.setLength(0);
+            }
+            for (int i = 0; i < newlines; i++) {
+                text.append('\n');
             }
-            text.append(raw.substring(mark));
-            handleIndentation(text);
-            text.append(getNewlines());
         }
-        tagCounter = 0;
         // debugReport
         if (type == Report.TESTING) {
             Report.mark(text);
@@ -481,36 +530,6 @@ public class Report implements Serializable {
         return text.toString();
     }
 
-    private void handleIndentation(StringBuffer sb) {
-        if ((indentation == 0) || (sb.length() == 0)) {
-            return;
-        }
-        int i = 0;
-        while (sb.substring(i, i+4).equals("\n")) {
-            i+=4;
-            if (i == sb.length()) {
-                continue;
-            }
-        }
-        sb.insert(i, getSpaces());
-    }
-
-    private String getSpaces() {
-        StringBuffer spaces = new StringBuffer();
-        for (int i = 0; i < indentation; i++) {
-            spaces.append("&nbsp;");
-        }
-        return spaces.toString();
-    }
-
-    private String getNewlines() {
-        StringBuffer sbNewlines = new StringBuffer();
-        for (int i = 0; i < newlines; i++) {
-            sbNewlines.append("\n");
-        }
-        return sbNewlines.toString();
-    }
-
     /**
      * Adds a newline to the last report in the given Vector.
      *
@@ -582,7 +601,7 @@ public class Report implements Serializable {
     }
 
     // debugReport method
-    private static StringBuffer mark(StringBuffer sb) {
+    private static StringBuilder mark(StringBuilder sb) {
         sb.insert(0, "<hidden>");
         int i = sb.length() - 1;
         while (sb.charAt(i) == '\n') {
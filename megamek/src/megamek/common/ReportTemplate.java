@@ -0,0 +1,169 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The text of a report message from <i>report-messages.properties</i>, parsed
+ * once into the literal text between its tags and the tags themselves. The
+ * &lt;msg:<i>n</i>,<i>m</i>&gt; tags have both messages looked up already, and
+ * &lt;newline&gt; tags are part of the literal text.
+ * <p>
+ * Tags that are not understood, and '&lt;' characters that do not start a
+ * tag, are kept as literal text.
+ */
+final class ReportTemplate {
+
+    /** Token kinds */
+    static final int TEXT = 0;
+    static final int DATA = 1;
+    static final int LIST = 2;
+    static final int MSG = 3;
+
+    private static final Map<Integer, ReportTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    /** Stands in for message ids without a message, so they are looked up once */
+    private static final ReportTemplate MISSING = new ReportTemplate(new int[0], new String[0], 0);
+
+    private final int[] kinds;
+    /** The literal text of TEXT tokens; for MSG tokens the true and false message, in turn */
+    private final String[] texts;
+    private final int length;
+
+    private ReportTemplate(int[] kinds, String[] texts, int length) {
+        this.kinds = kinds;
+        this.texts = texts;
+        this.length = length;
+    }
+
+    /**
+     * @return the compiled message with the given id, or <code>null</code>
+     *         if there is no such message
+     */
+    static ReportTemplate forMessage(int messageId) {
+        ReportTemplate template = TEMPLATES.computeIfAbsent(messageId, id -> {
+            String raw = ReportMessages.getString(String.valueOf(id));
+            return (raw == null) ? MISSING : compile(raw);
+        });
+        return (template == MISSING) ? null : template;
+    }
+
+    /**
+     * Parses a message text.
+     */
+    static ReportTemplate compile(String raw) {
+        List<Integer> kinds = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            int endTagIdx = (c == '<') ? raw.indexOf('>', i) : -1;
+            int nextTagIdx = (endTagIdx != -1) ? raw.indexOf('<', i + 1) : -1;
+            if ((endTagIdx == -1) || ((nextTagIdx != -1) && (nextTagIdx < endTagIdx))) {
+                // plain text, or a literal '<' character
+                literal.append(c);
+                i++;
+                continue;
+            }
+            String tag = raw.substring(i + 1, endTagIdx);
+            if (tag.equals("newline")) {
+                literal.append('\n');
+            } else if (tag.equals("data") || tag.equals("list") || tag.startsWith("msg:")) {
+                if (literal.length() > 0) {
+                    kinds.add(TEXT);
+                    texts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                if (tag.equals("data")) {
+                    kinds.add(DATA);
+                } else if (tag.equals("list")) {
+                    kinds.add(LIST);
+                } else {
+                    int comma = tag.indexOf(',');
+                    String trueKey = (comma == -1) ? tag.substring(4) : tag.substring(4, comma);
+                    String falseKey = (comma == -1) ? trueKey : tag.substring(comma + 1);
+                    kinds.add(MSG);
+                    texts.add(ReportMessages.getString(trueKey));
+                    texts.add(ReportMessages.getString(falseKey));
+                }
+            } else {
+                // not a special tag, so treat as literal text
+                literal.append(raw, i, endTagIdx + 1);
+            }
+            i = endTagIdx + 1;
+        }
+        if (literal.length() > 0) {
+            kinds.add(TEXT);
+            texts.add(literal.toString());
+        }
+        int[] kindArray = new int[kinds.size()];
+        int length = 0;
+        for (int k = 0; k < kindArray.length; k++) {
+            kindArray[k] = kinds.get(k);
+        }
+        for (String text : texts) {
+            length += (text == null) ? 4 : text.length();
+        }
+        return new ReportTemplate(kindArray, texts.toArray(new String[0]), length);
+    }
+
+    /**
+     * Appends the message to the given builder, filling in the data values of
+     * the report.
+     */
+    void render(Report report, StringBuilder text) {
+        text.ensureCapacity(text.length() + length + (16 * report.dataCount()));
+        int tagCounter = 0;
+        int textIndex = 0;
+        for (int kind : kinds) {
+            switch (kind) {
+                case TEXT:
+                    text.append(texts[textIndex++]);
+                    break;
+                case DATA:
+                    text.append(report.getTag(tagCounter++));
+                    break;
+                case LIST:
+                    int start = text.length();
+                    for (int j = tagCounter; j < report.dataCount(); j++) {
+                        text.append(report.getTag(j)).append(", ");
+                    }
+                    if (text.length() > start) {
+                        // trim last comma
+                        text.setLength(text.length() - 2);
+                    }
+                    break;
+                case MSG:
+                    boolean selector = Boolean.parseBoolean(report.getTag(tagCounter++));
+                    text.append(selector ? texts[textIndex] : texts[textIndex + 1]);
+                    textIndex += 2;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return the token kinds, for testing
+     */
+    int[] getKinds() {
+        return kinds.clone();
+    }
+}
@@ -0,0 +1,647 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import megamek.common.logging.DefaultMmLogger;
+
+/**
+ * The unit cache file, stored by column so that it can be memory mapped and
+ * single values read without deserializing every {@link MechSummary}. A
+ * dedicated server only ever needs the names and source files of the units,
+ * and the unit selector materializes the summaries when it first lists them.
+ * <p>
+ * The file is laid out as:
+ * <ul>
+ * <li>a header: magic, format version, unit count, the string id of the cache
+ * key, and the offsets of the string table, the int pool and every column;</li>
+ * <li>the string table: the string count, the end offset of every string and
+ * the UTF-8 bytes of the strings, each distinct string stored once;</li>
+ * <li>one column per summary field, each value of a fixed width: string ids,
+ * ints, longs and doubles, and int arrays as an offset and length into the
+ * pool;</li>
+ * <li>the int pool holding the contents of the int arrays.</li>
+ * </ul>
+ * All numbers are big-endian. Any change to the layout or columns must change
+ * {@link #FORMAT_VERSION}, so that older files are rebuilt rather than read.
+ */
+final class UnitCacheFile {
+
+    private static final int MAGIC = 0x4D4D5543; // "MMUC"
+    static final int FORMAT_VERSION = 1;
+
+    private enum Kind {
+        STRING(4), INT(4), LONG(8), DOUBLE(8), BOOLEAN(1), ARRAY(8);
+
+        final int width;
+
+        Kind(int width) {
+            this.width = width;
+        }
+    }
+
+    /** The columns, in file order */
+    private enum Column {
+        NAME(Kind.STRING),
+        CHASSIS(Kind.STRING),
+        MODEL(Kind.STRING),
+        UNIT_TYPE(Kind.STRING),
+        UNIT_SUB_TYPE(Kind.STRING),
+        SOURCE_FILE(Kind.STRING),
+        ENTRY_NAME(Kind.STRING),
+        SOURCE_HASH(Kind.STRING),
+        LEVEL(Kind.STRING),
+        ENGINE_NAME(Kind.STRING),
+        MYOMER_NAME(Kind.STRING),
+        YEAR(Kind.INT),
+        TYPE(Kind.INT),
+        BV(Kind.INT),
+        GM_BV(Kind.INT),
+        RH_BV(Kind.INT),
+        RH_GM_BV(Kind.INT),
+        ADVANCED_YEAR(Kind.INT),
+        STANDARD_YEAR(Kind.INT),
+        WALK_MP(Kind.INT),
+        RUN_MP(Kind.INT),
+        JUMP_MP(Kind.INT),
+        TOTAL_ARMOR(Kind.INT),
+        TOTAL_INTERNAL(Kind.INT),
+        INTERNALS_TYPE(Kind.INT),
+        COCKPIT_TYPE(Kind.INT),
+        GYRO_TYPE(Kind.INT),
+        COST(Kind.LONG),
+        UNLOADED_COST(Kind.LONG),
+        ALTERNATE_COST(Kind.LONG),
+        MODIFIED(Kind.LONG),
+        TONS(Kind.DOUBLE),
+        TW_WEIGHT(Kind.DOUBLE),
+        TO_WEIGHT(Kind.DOUBLE),
+        SUIT_WEIGHT(Kind.DOUBLE),
+        CANON(Kind.BOOLEAN),
+        CLAN(Kind.BOOLEAN),
+        SUPPORT(Kind.BOOLEAN),
+        ALT_TYPES(Kind.ARRAY),
+        ARMOR_TYPES(Kind.ARRAY),
+        ARMOR_TECH_TYPES(Kind.ARRAY),
+        EQUIPMENT_NAMES(Kind.ARRAY),
+        EQUIPMENT_QUANTITIES(Kind.ARRAY);
+
+        final Kind kind;
+
+        Column(Kind kind) {
+            this.kind = kind;
+        }
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+    private static final int NULL_STRING = -1;
+    private static final int NULL_ARRAY = -1;
+    private static final int HEADER_SIZE = 4 * (6 + COLUMNS.length);
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int[] columnOffsets = new int[COLUMNS.length];
+    private final int stringCount;
+    private final int stringsOffset;
+    private final int poolOffset;
+    // decoded on first use; a race only decodes a string twice
+    private final String[] strings;
+
+    private UnitCacheFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        size = buffer.getInt(8);
+        stringsOffset = buffer.getInt(16);
+        poolOffset = buffer.getInt(20);
+        for (int c = 0; c < COLUMNS.length; c++) {
+            columnOffsets[c] = buffer.getInt(24 + (4 * c));
+        }
+        stringCount = buffer.getInt(stringsOffset);
+        strings = new String[stringCount];
+        if ((size < 0) || (poolOffset > buffer.limit())
+                || (columnOffsets[COLUMNS.length - 1] + ((long) size * Kind.ARRAY.width) > poolOffset)) {
+            throw new IOException("Corrupt unit cache");
+        }
+    }
+
+    /**
+     * Maps a unit cache file.
+     *
+     * @return the cache, or null if the file is of another format or version
+     */
+    static UnitCacheFile open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ((buffer.getInt(0) != MAGIC) || (buffer.getInt(4) != FORMAT_VERSION)) {
+                return null;
+            }
+            return new UnitCacheFile(buffer);
+        }
+    }
+
+    /**
+     * @return the other name the cache is written under, so that a new cache
+     *         never has to replace the mapped one
+     */
+    static File getAlternate(File file) {
+        return new File(file.getPath() + ".1");
+    }
+
+    /**
+     * @return whichever of the cache file and its alternate was written last,
+     *         or the cache file if neither exists
+     */
+    static File getCurrent(File file) {
+        File alternate = getAlternate(file);
+        return (alternate.lastModified() > file.lastModified()) ? alternate : file;
+    }
+
+    /**
+     * Writes the units to a temporary file that is then moved to whichever of
+     * the cache file and its alternate is not the current cache, and removes
+     * the old one if it can. Some systems, such as Windows, can neither
+     * replace nor remove a file that is mapped, so the old cache is never
+     * written over while it might still be read.
+     *
+     * @return the file the cache was written to
+     */
+    static File write(File file, String key, MechSummary[] units) throws IOException {
+        // intern the strings and fill the pool
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> stringList = new ArrayList<>();
+        PoolBuilder pool = new PoolBuilder();
+        int[][] values = new int[COLUMNS.length][];
+        long[][] wideValues = new long[COLUMNS.length][];
+        for (Column column : COLUMNS) {
+            if ((column.kind == Kind.LONG) || (column.kind == Kind.DOUBLE) || (column.kind == Kind.ARRAY)) {
+                wideValues[column.ordinal()] = new long[units.length];
+            } else {
+                values[column.ordinal()] = new int[units.length];
+            }
+        }
+        for (int row = 0; row < units.length; row++) {
+            MechSummary ms = units[row];
+            for (Column column : COLUMNS) {
+                switch (column.kind) {
+                    case STRING:
+                        values[column.ordinal()][row] = intern(getString(column, ms), ids, stringList);
+                        break;
+                    case INT:
+                    case BOOLEAN:
+                        values[column.ordinal()][row] = getInt(column, ms);
+                        break;
+                    case LONG:
+                        wideValues[column.ordinal()][row] = getLong(column, ms);
+                        break;
+                    case DOUBLE:
+                        wideValues[column.ordinal()][row] = Double.doubleToLongBits(getDouble(column, ms));
+                        break;
+                    case ARRAY:
+                        int[] array;
+                        if (column == Column.EQUIPMENT_NAMES) {
+                            array = internAll(ms.getEquipmentNames(), ids, stringList);
+                        } else {
+                            array = getArray(column, ms);
+                        }
+                        wideValues[column.ordinal()][row] = pool.add(array);
+                        break;
+                }
+            }
+        }
+        int keyId = intern(key, ids, stringList);
+
+        // encode the strings and work out the offsets
+        byte[][] encoded = new byte[stringList.size()][];
+        int stringBytes = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = stringList.get(i).getBytes(StandardCharsets.UTF_8);
+            stringBytes += encoded[i].length;
+        }
+        int stringsOffset = HEADER_SIZE;
+        int offset = stringsOffset + (4 * (2 + encoded.length)) + stringBytes;
+        int[] columnOffsets = new int[COLUMNS.length];
+        for (Column column : COLUMNS) {
+            columnOffsets[column.ordinal()] = offset;
+            offset += units.length * column.kind.width;
+        }
+        int poolOffset = offset;
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(units.length);
+            out.writeInt(keyId);
+            out.writeInt(stringsOffset);
+            out.writeInt(poolOffset);
+            for (int columnOffset : columnOffsets) {
+                out.writeInt(columnOffset);
+            }
+
+            out.writeInt(encoded.length);
+            int end = 0;
+            for (byte[] string : encoded) {
+                out.writeInt(end);
+                end += string.length;
+            }
+            out.writeInt(end);
+            for (byte[] string : encoded) {
+                out.write(string);
+            }
+
+            for (Column column : COLUMNS) {
+                for (int row = 0; row < units.length; row++) {
+                    switch (column.kind) {
+                        case STRING:
+                        case INT:
+                            out.writeInt(values[column.ordinal()][row]);
+                            break;
+                        case BOOLEAN:
+                            out.writeByte(values[column.ordinal()][row]);
+                            break;
+                        default:
+                            out.writeLong(wideValues[column.ordinal()][row]);
+                    }
+                }
+            }
+
+            out.writeInt(pool.size);
+            for (int i = 0; i < pool.size; i++) {
+                out.writeInt(pool.values[i]);
+            }
+        }
+
+        File current = getCurrent(file);
+        File target = (current.exists() && current.equals(file)) ? getAlternate(file) : file;
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // a cache of an earlier load may still be mapped under that name
+            target = current;
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        File old = target.equals(file) ? getAlternate(file) : file;
+        if (old.exists() && !old.delete()) {
+            // still mapped; it is older than the new cache, so is not read
+            DefaultMmLogger.getInstance().debug(UnitCacheFile.class, "write(File, String, MechSummary[])",
+                    "Unable to delete old unit cache " + old);
+        }
+        return target;
+    }
+
+    /**
+     * @return the number of units in the cache
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the key the cache was written with
+     */
+    String getKey() {
+        return string(buffer.getInt(12));
+    }
+
+    String getName(int row) {
+        return getString(Column.NAME, row);
+    }
+
+    File getSourceFile(int row) {
+        String path = getString(Column.SOURCE_FILE, row);
+        return (path == null) ? null : new File(path);
+    }
+
+    String getEntryName(int row) {
+        return getString(Column.ENTRY_NAME, row);
+    }
+
+    String getSourceHash(int row) {
+        return getString(Column.SOURCE_HASH, row);
+    }
+
+    /**
+     * Reads all columns of a unit into a new summary.
+     */
+    MechSummary get(int row) {
+        MechSummary ms = new MechSummary();
+        ms.setName(getString(Column.NAME, row));
+        ms.setChassis(getString(Column.CHASSIS, row));
+        ms.setModel(getString(Column.MODEL, row));
+        ms.setUnitType(getString(Column.UNIT_TYPE, row));
+        ms.setUnitSubType(getString(Column.UNIT_SUB_TYPE, row));
+        ms.setSourceFile(getSourceFile(row));
+        ms.setEntryName(getString(Column.ENTRY_NAME, row));
+        ms.setSourceHash(getString(Column.SOURCE_HASH, row));
+        ms.setLevel(getString(Column.LEVEL, row));
+        ms.setEngineName(getString(Column.ENGINE_NAME, row));
+        ms.setMyomerName(getString(Column.MYOMER_NAME, row));
+        ms.setYear(getInt(Column.YEAR, row));
+        ms.setType(getInt(Column.TYPE, row));
+        ms.setBV(getInt(Column.BV, row));
+        ms.setGMBV(getInt(Column.GM_BV, row));
+        ms.setRHBV(getInt(Column.RH_BV, row));
+        ms.setRHGMBV(getInt(Column.RH_GM_BV, row));
+        ms.setAdvancedYear(getInt(Column.ADVANCED_YEAR, row));
+        ms.setStandardYear(getInt(Column.STANDARD_YEAR, row));
+        ms.setWalkMp(getInt(Column.WALK_MP, row));
+        ms.setRunMp(getInt(Column.RUN_MP, row));
+        ms.setJumpMp(getInt(Column.JUMP_MP, row));
+        ms.setTotalArmor(getInt(Column.TOTAL_ARMOR, row));
+        ms.setTotalInternal(getInt(Column.TOTAL_INTERNAL, row));
+        ms.setInternalsType(getInt(Column.INTERNALS_TYPE, row));
+        ms.setCockpitType(getInt(Column.COCKPIT_TYPE, row));
+        ms.setGyroType(getInt(Column.GYRO_TYPE, row));
+        ms.setCost(getLong(Column.COST, row));
+        ms.setUnloadedCost(getLong(Column.UNLOADED_COST, row));
+        ms.setAlternateCost(getLong(Column.ALTERNATE_COST, row));
+        ms.setModified(getLong(Column.MODIFIED, row));
+        ms.setTons(getDouble(Column.TONS, row));
+        ms.setTWweight(getDouble(Column.TW_WEIGHT, row));
+        ms.setTOweight(getDouble(Column.TO_WEIGHT, row));
+        ms.setSuitWeight(getDouble(Column.SUIT_WEIGHT, row));
+        ms.setCanon(getBoolean(Column.CANON, row));
+        ms.setClan(getBoolean(Column.CLAN, row));
+        ms.setSupport(getBoolean(Column.SUPPORT, row));
+        int[] altTypes = getArray(Column.ALT_TYPES, row);
+        if (altTypes != null) {
+            ms.setAltTypes(altTypes);
+        }
+        int[] armorTypes = getArray(Column.ARMOR_TYPES, row);
+        if (armorTypes != null) {
+            ms.setArmorType(armorTypes);
+        }
+        ms.setArmorTypes(armorTypes);
+        ms.setArmorTechTypes(getArray(Column.ARMOR_TECH_TYPES, row));
+        int[] names = getArray(Column.EQUIPMENT_NAMES, row);
+        int[] quantities = getArray(Column.EQUIPMENT_QUANTITIES, row);
+        if ((names != null) && (quantities != null)) {
+            Vector<String> equipmentNames = new Vector<>(names.length);
+            Vector<Integer> equipmentQuantities = new Vector<>(quantities.length);
+            for (int i = 0; i < names.length; i++) {
+                equipmentNames.add(string(names[i]));
+                equipmentQuantities.add(quantities[i]);
+            }
+            ms.setEquipment(equipmentNames, equipmentQuantities);
+        }
+        return ms;
+    }
+
+    private int offset(Column column, int row) {
+        if ((row < 0) || (row >= size)) {
+            throw new IndexOutOfBoundsException("Unit " + row + " of " + size);
+        }
+        return columnOffsets[column.ordinal()] + (row * column.kind.width);
+    }
+
+    private String getString(Column column, int row) {
+        return string(buffer.getInt(offset(column, row)));
+    }
+
+    private int getInt(Column column, int row) {
+        return buffer.getInt(offset(column, row));
+    }
+
+    private long getLong(Column column, int row) {
+        return buffer.getLong(offset(column, row));
+    }
+
+    private double getDouble(Column column, int row) {
+        return Double.longBitsToDouble(buffer.getLong(offset(column, row)));
+    }
+
+    private boolean getBoolean(Column column, int row) {
+        return buffer.get(offset(column, row)) != 0;
+    }
+
+    private int[] getArray(Column column, int row) {
+        long value = buffer.getLong(offset(column, row));
+        int length = (int) value;
+        if (length == NULL_ARRAY) {
+            return null;
+        }
+        int start = poolOffset + 4 + (4 * (int) (value >>> 32));
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = buffer.getInt(start + (4 * i));
+        }
+        return array;
+    }
+
+    private String string(int id) {
+        if (id == NULL_STRING) {
+            return null;
+        }
+        String string = strings[id];
+        if (string == null) {
+            int start = buffer.getInt(stringsOffset + 4 + (4 * id));
+            int end = buffer.getInt(stringsOffset + 8 + (4 * id));
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringsOffset + (4 * (2 + stringCount)) + start);
+            view.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = string;
+        }
+        return string;
+    }
+
+    private static int intern(String string, Map<String, Integer> ids, List<String> strings) {
+        if (string == null) {
+            return NULL_STRING;
+        }
+        Integer id = ids.get(string);
+        if (id == null) {
+            id = strings.size();
+            ids.put(string, id);
+            strings.add(string);
+        }
+        return id;
+    }
+
+    private static int[] internAll(List<String> list, Map<String, Integer> ids, List<String> strings) {
+        if (list == null) {
+            return null;
+        }
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = intern(list.get(i), ids, strings);
+        }
+        return array;
+    }
+
+    private static String getString(Column column, MechSummary ms) {
+        switch (column) {
+            case NAME:
+                return ms.getName();
+            case CHASSIS:
+                return ms.getChassis();
+            case MODEL:
+                return ms.getModel();
+            case UNIT_TYPE:
+                return ms.getUnitType();
+            case UNIT_SUB_TYPE:
+                return ms.getUnitSubType();
+            case SOURCE_FILE:
+                return (ms.getSourceFile() == null) ? null : ms.getSourceFile().getPath();
+            case ENTRY_NAME:
+                return ms.getEntryName();
+            case SOURCE_HASH:
+                return ms.getSourceHash();
+            case LEVEL:
+                return ms.getLevel();
+            case ENGINE_NAME:
+                return ms.getEngineName();
+            case MYOMER_NAME:
+                return ms.getMyomerName();
+            default:
+                throw new IllegalArgumentException(column.name());
+        }
+    }
+
+    private static int getInt(Column column, MechSummary ms) {
+        switch (column) {
+            case YEAR:
+                return ms.getYear();
+            case TYPE:
+                return ms.getType();
+            case BV:
+                return ms.getBV();
+            case GM_BV:
+                return ms.getGMBV();
+            case RH_BV:
+                return ms.getRHBV();
+            case RH_GM_BV:
+                return ms.getRHGMBV();
+            case ADVANCED_YEAR:
+                return ms.getAdvancedTechYear();
+            case STANDARD_YEAR:
+                return ms.getStandardTechYear();
+            case WALK_MP:
+                return ms.getWalkMp();
+            case RUN_MP:
+                return ms.getRunMp();
+            case JUMP_MP:
+                return ms.getJumpMp();
+            case TOTAL_ARMOR:
+                return ms.getTotalArmor();
+            case TOTAL_INTERNAL:
+                return ms.getTotalInternal();
+            case INTERNALS_TYPE:
+                return ms.getInternalsType();
+            case COCKPIT_TYPE:
+                return ms.getCockpitType();
+            case GYRO_TYPE:
+                return ms.getGyroType();
+            case CANON:
+                return ms.isCanon() ? 1 : 0;
+            case CLAN:
+                return ms.isClan() ? 1 : 0;
+            case SUPPORT:
+                return ms.isSupport() ? 1 : 0;
+            default:
+                throw new IllegalArgumentException(column.name());
+        }
+    }
+
+    private static long getLong(Column column, MechSummary ms) {
+        switch (column) {
+            case COST:
+                return ms.getCost();
+            case UNLOADED_COST:
+                return ms.getUnloadedCost();
+            case ALTERNATE_COST:
+                return ms.getAlternateCost();
+            case MODIFIED:
+                return ms.getModified();
+            default:
+                throw new IllegalArgumentException(column.name());
+        }
+    }
+
+    private static double getDouble(Column column, MechSummary ms) {
+        switch (column) {
+            case TONS:
+                return ms.getTons();
+            case TW_WEIGHT:
+                return ms.getTWweight();
+            case TO_WEIGHT:
+                return ms.getTOweight();
+            case SUIT_WEIGHT:
+                return ms.getSuitWeight();
+            default:
+                throw new IllegalArgumentException(column.name());
+        }
+    }
+
+    private static int[] getArray(Column column, MechSummary ms) {
+        switch (column) {
+            case ALT_TYPES:
+                return ms.getAltTypes();
+            case ARMOR_TYPES:
+                return ms.getArmorTypes();
+            case ARMOR_TECH_TYPES:
+                return ms.getArmorTechTypes();
+            case EQUIPMENT_QUANTITIES:
+                if (ms.getEquipmentQuantities() == null) {
+                    return null;
+                }
+                return ms.getEquipmentQuantities().stream().mapToInt(Integer::intValue).toArray();
+            default:
+                throw new IllegalArgumentException(column.name());
+        }
+    }
+
+    /** The int arrays of all units, back to back */
+    private static final class PoolBuilder {
+        int[] values = new int[1024];
+        int size;
+
+        /**
+         * @return the offset of the array in the pool in the high half and
+         *         its length in the low half
+         */
+        long add(int[] array) {
+            if (array == null) {
+                return NULL_ARRAY & 0xFFFFFFFFL;
+            }
+            while (size + array.length > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            System.arraycopy(array, 0, values, size, array.length);
+            long value = ((long) size << 32) | array.length;
+            size += array.length;
+            return value;
+        }
+    }
+}
@@ -42,6 +42,8 @@ public interface GameListener extends java.util.EventListener {
 
     void gameReport(GameReportEvent e);
 
+    void gameReportPage(GameReportPageEvent e);
+
     void gameEnd(GameEndEvent e);
 
     void gameBoardNew(GameBoardNewEvent e);
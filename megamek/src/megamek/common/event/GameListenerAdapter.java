@@ -48,6 +48,9 @@ public class GameListenerAdapter implements GameListener {
     public void gameReport(GameReportEvent e) {
     }
 
+    public void gameReportPage(GameReportPageEvent e) {
+    }
+
     public void gameEnd(GameEndEvent e) {
     }
 
@@ -0,0 +1,55 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.event;
+
+/**
+ * Sent when the reports of earlier rounds arrive from the server, after a
+ * client that joined a game in progress asked for them.
+ */
+public class GameReportPageEvent extends GameEvent {
+
+    private static final long serialVersionUID = 3570224829407766451L;
+    private final int firstRound;
+    private final int lastRound;
+
+    /**
+     * @param source the Object that generated this event
+     * @param firstRound the first round whose reports arrived
+     * @param lastRound the last round whose reports arrived
+     */
+    public GameReportPageEvent(Object source, int firstRound, int lastRound) {
+        super(source);
+        this.firstRound = firstRound;
+        this.lastRound = lastRound;
+    }
+
+    public int getFirstRound() {
+        return firstRound;
+    }
+
+    public int getLastRound() {
+        return lastRound;
+    }
+
+    @Override
+    public void fireEvent(GameListener gl) {
+        gl.gameReportPage(this);
+    }
+
+    @Override
+    public String getEventName() {
+        return "Game Report Page";
+    }
+}
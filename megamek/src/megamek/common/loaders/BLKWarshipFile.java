@@ -406,6 +406,7 @@ public class BLKWarshipFile extends BLKFile implements IMechLoader {
                             // equipment rather than trying to guess.
                             a.getEquipment().remove(newmount);
                             a.getAmmo().remove(newmount);
+                            a.invalidateEquipmentIndex();
                             a.addFailedEquipment(equipName);
                         }
                     }
@@ -25,7 +25,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
-import java.math.BigInteger;
 import java.util.Hashtable;
 import java.util.Objects;
 import java.util.Vector;
@@ -36,6 +35,7 @@ import megamek.common.CriticalSlot;
 import megamek.common.Engine;
 import megamek.common.Entity;
 import megamek.common.EntityMovementMode;
+import megamek.common.EquipmentBitSet;
 import megamek.common.EquipmentType;
 import megamek.common.LocationFullException;
 import megamek.common.Mech;
@@ -550,7 +550,7 @@ implements IMechLoader
             mech.setArmorTonnage(mech.getArmorWeight());
 
             // add any heat sinks not allocated
-            BigInteger heatSinkFlag;
+            EquipmentBitSet heatSinkFlag;
             if (heatSinkType ==  HeatSinkType.DOUBLE) {
                 heatSinkFlag = MiscType.F_DOUBLE_HEAT_SINK;
             } else if (heatSinkType ==  HeatSinkType.LASER) {
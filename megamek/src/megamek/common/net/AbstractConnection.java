@@ -17,7 +17,6 @@
 package megamek.common.net;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,9 +26,9 @@ import java.net.SocketException;
 import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.Vector;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
+import megamek.common.net.compression.PacketCodec;
+import megamek.common.net.compression.PacketCodecFactory;
 import megamek.common.net.marshall.PacketMarshaller;
 import megamek.common.net.marshall.PacketMarshallerFactory;
 import megamek.common.util.CircularIntegerBuffer;
@@ -79,6 +78,16 @@ public abstract class AbstractConnection implements IConnection {
      */
     private long bytesReceived;
 
+    /**
+     * Bytes sent, before compression
+     */
+    private long uncompressedBytesSent;
+
+    /**
+     * Bytes received, after decompression
+     */
+    private long uncompressedBytesReceived;
+
     /**
      * Queue of <code>Packets</code> to send
      */
@@ -116,6 +125,22 @@ public abstract class AbstractConnection implements IConnection {
      */
     private boolean zipData = true;
 
+    /**
+     * Codec used to compress sent packets
+     */
+    private PacketCodec sendCodec = PacketCodecFactory.getInstance().getCodec(PacketCodec.GZIP);
+
+    /**
+     * Codecs used to decompress received packets, by type; created when the
+     * peer first uses them
+     */
+    private PacketCodec[] receiveCodecs = new PacketCodec[0];
+
+    /**
+     * Packets smaller than this are sent uncompressed
+     */
+    private int compressionThreshold = PacketCodecFactory.DEFAULT_THRESHOLD;
+
     /**
      * Creates new client (connection from client to server) connection
      *
@@ -156,16 +181,17 @@ public abstract class AbstractConnection implements IConnection {
      *
      * @return the type of the marshalling used to send packets
      */
-    protected int getMarshallingType() {
+    public synchronized int getMarshallingType() {
         return marshallingType;
     }
 
     /**
-     * Sets the type of the marshalling used to send packets
+     * Sets the type of the marshalling used to send packets. Packets already
+     * queued keep the marshalling they were encoded with.
      *
      * @param marshallingType new marhalling type
      */
-    protected void setMarshallingType(int marshallingType) {
+    public synchronized void setMarshallingType(int marshallingType) {
         PacketMarshaller pm = marshallerFactory.getMarshaller(marshallingType);
         assert (pm != null) : "Unknown marshalling type";
         this.marshallingType = marshallingType;
@@ -213,6 +239,14 @@ public abstract class AbstractConnection implements IConnection {
                 // e.printStackTrace();
             }
             socket = null;
+            if (sendCodec != null) {
+                sendCodec.close();
+            }
+            for (PacketCodec codec : receiveCodecs) {
+                if (codec != null) {
+                    codec.close();
+                }
+            }
         }
         processConnectionEvent(new DisconnectedEvent(this));
     }
@@ -264,10 +298,53 @@ public abstract class AbstractConnection implements IConnection {
         zipData = compress;
     }
 
+    /**
+     * Returns the type of the codec used to compress sent packets
+     *
+     * @return the type of the codec used to compress sent packets
+     */
+    public synchronized int getCompressionType() {
+        return (sendCodec == null) ? PacketCodec.NONE : sendCodec.getType();
+    }
+
+    /**
+     * Sets the type of the codec used to compress sent packets. Every packet
+     * carries the type it was compressed with, so this can be changed at any
+     * time, as long as the peer supports the new type.
+     *
+     * @param compressionType new codec type
+     */
+    public synchronized void setCompressionType(int compressionType) {
+        if ((sendCodec != null) && (sendCodec.getType() == compressionType)) {
+            return;
+        }
+        if (sendCodec != null) {
+            sendCodec.close();
+        }
+        sendCodec = PacketCodecFactory.getInstance().getCodec(compressionType);
+    }
+
+    /**
+     * Sets the size below which packets are sent uncompressed
+     *
+     * @param threshold size in bytes
+     */
+    public synchronized void setCompressionThreshold(int threshold) {
+        compressionThreshold = threshold;
+    }
+
     /**
      * Adds a packet to the send queue to be send on a seperate thread.
      */
     public synchronized void send(Packet packet) {
+        send(new EncodedPacket(packet));
+    }
+
+    /**
+     * Adds a packet that may be shared with other connections to the send
+     * queue. Connections using the same encoding send the same bytes.
+     */
+    public synchronized void send(EncodedPacket packet) {
         sendQueue.addPacket(new SendPacket(packet));
         // Send right now
         flush();
@@ -278,7 +355,8 @@ public abstract class AbstractConnection implements IConnection {
      */
     public void sendNow(SendPacket packet) {
         try {
-            sendNetworkPacket(packet.getData(), packet.isCompressed());
+            sendNetworkPacket(packet.getData(), packet.getCompression(),
+                    packet.getMarshallingType());
             debugLastFewCommandsSent.push(packet.getCommand());
         } catch (Exception e) {
             e.printStackTrace();
@@ -312,6 +390,26 @@ public abstract class AbstractConnection implements IConnection {
         return bytesReceived;
     }
 
+    /**
+     * Returns how many bytes were sent before compression. The difference to
+     * {@link #bytesSent()} is what compression saved.
+     *
+     * @return the uncompressed size of the data sent
+     */
+    public synchronized long uncompressedBytesSent() {
+        return uncompressedBytesSent;
+    }
+
+    /**
+     * Returns how many bytes were received after decompression. The
+     * difference to {@link #bytesReceived()} is what compression saved.
+     *
+     * @return the uncompressed size of the data received
+     */
+    public synchronized long uncompressedBytesReceived() {
+        return uncompressedBytesReceived;
+    }
+
     /**
      * Adds the specified connection listener to receive connection events from
      * connection.
@@ -494,15 +592,17 @@ public abstract class AbstractConnection implements IConnection {
         assert (pm != null) : "Unknown marshalling type";
         Packet packet = null;
         byte[] data = np.getData();
-        bytesReceived += data.length;
-        ByteArrayInputStream bis = new ByteArrayInputStream(data);
-        InputStream in;
-        if (np.isCompressed()) {
-            in = new GZIPInputStream(bis);
-        } else {
-            in = bis;
+        int compression = np.getCompression();
+        synchronized (this) {
+            bytesReceived += data.length;
+        }
+        if (compression != PacketCodec.NONE) {
+            data = getReceiveCodec(compression).decode(data);
+        }
+        synchronized (this) {
+            uncompressedBytesReceived += data.length;
         }
-        packet = pm.unmarshall(in);
+        packet = pm.unmarshall(new ByteArrayInputStream(data));
         if (packet != null) {
             debugLastFewCommandsReceived.push(packet.getCommand());
             processConnectionEvent(new PacketReceivedEvent(
@@ -510,6 +610,26 @@ public abstract class AbstractConnection implements IConnection {
         }
     }
 
+    /**
+     * Returns the codec decompressing received packets of the given type
+     */
+    private synchronized PacketCodec getReceiveCodec(int compressionType) throws IOException {
+        if ((compressionType < receiveCodecs.length) && (receiveCodecs[compressionType] != null)) {
+            return receiveCodecs[compressionType];
+        }
+        PacketCodec codec = PacketCodecFactory.getInstance().getCodec(compressionType);
+        if (codec == null) {
+            throw new IOException("Unknown compression type " + compressionType);
+        }
+        if (compressionType >= receiveCodecs.length) {
+            PacketCodec[] grown = new PacketCodec[compressionType + 1];
+            System.arraycopy(receiveCodecs, 0, grown, 0, receiveCodecs.length);
+            receiveCodecs = grown;
+        }
+        receiveCodecs[compressionType] = codec;
+        return codec;
+    }
+
     /**
      * process a packet to be sent
      */
@@ -529,11 +649,12 @@ public abstract class AbstractConnection implements IConnection {
      * Sends the data must not block for too long
      *
      * @param data data to send
-     * @param zipped should the data be compressed
+     * @param compression the type of the codec the data was compressed with
+     * @param marshallingType the marshalling the data was encoded with
      * @throws Exception
      */
-    protected abstract void sendNetworkPacket(byte[] data, boolean zipped)
-            throws Exception;
+    protected abstract void sendNetworkPacket(byte[] data, int compression,
+            int marshallingType) throws Exception;
 
     /**
      * Wrapper around a <code>LinkedList</code> for keeping a queue of packets
@@ -608,23 +729,25 @@ public abstract class AbstractConnection implements IConnection {
 
     private class SendPacket implements INetworkPacket {
         byte[] data;
-        boolean zipped = false;
+        int compression = PacketCodec.NONE;
         int command;
+        int type;
 
-        public SendPacket(Packet packet) {
+        public SendPacket(EncodedPacket packet) {
             command = packet.getCommand();
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            OutputStream out;
+            type = marshallingType;
             try {
-                if (zipData && packet.getData() != null) {
-                    out = new GZIPOutputStream(bos);
-                    zipped = true;
-                } else {
-                    out = bos;
+                EncodedPacket.Frame frame = packet.getFrame(type, PacketCodec.NONE);
+                data = frame.getData();
+                uncompressedBytesSent += data.length;
+                if (zipData && (sendCodec != null) && (data.length >= compressionThreshold)) {
+                    if (sendCodec.isStateless()) {
+                        data = packet.getFrame(type, sendCodec.getType()).getData();
+                    } else {
+                        data = sendCodec.encode(data);
+                    }
+                    compression = sendCodec.getType();
                 }
-                marshaller.marshall(packet, out);
-                out.close();
-                data = bos.toByteArray();
                 bytesSent += data.length;
             } catch (Exception e) {
                 e.printStackTrace();
@@ -632,15 +755,15 @@ public abstract class AbstractConnection implements IConnection {
         }
 
         public int getMarshallingType() {
-            return marshallingType;
+            return type;
         }
 
         public byte[] getData() {
             return data;
         }
 
-        public boolean isCompressed() {
-            return zipped;
+        public int getCompression() {
+            return compression;
         }
 
         public int getCommand() {
@@ -668,10 +791,10 @@ public abstract class AbstractConnection implements IConnection {
         public abstract byte[] getData();
 
         /**
-         * Returns <code>true</code> if data is compressed
+         * Returns the type of the codec the data is compressed with
          *
-         * @return <code>true</code> if data is compressed
+         * @return the type of the codec the data is compressed with
          */
-        public abstract boolean isCompressed();
+        public abstract int getCompression();
     }
 }
@@ -13,7 +13,11 @@
  */
 package megamek.common.net;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
 
 /**
  * Connections factory. Creates the Client/Server connections
@@ -22,6 +26,21 @@ public class ConnectionFactory {
 
     private static ConnectionFactory instance = new ConnectionFactory();
 
+    /**
+     * Whether server connections use non-blocking channels
+     */
+    private boolean nonBlocking = false;
+
+    /**
+     * Number of I/O threads serving the non-blocking server connections
+     */
+    private int ioThreads = 1;
+
+    /**
+     * Pool serving the non-blocking server connections; created on first use
+     */
+    private SelectorConnectionPool selectorPool;
+
     private ConnectionFactory() {
     }
 
@@ -54,6 +73,62 @@ public class ConnectionFactory {
      * @return new Server coinnection
      */
     public IConnection createServerConnection(Socket socket, int id) {
+        if (socket.getChannel() != null) {
+            try {
+                return new NioConnection(socket.getChannel(), id, getSelectorPool());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         return new DataStreamConnection(socket, id);
     }
+
+    /**
+     * Sets whether servers created from now on accept non-blocking
+     * connections. Non-blocking connections are served by a small pool of I/O
+     * threads instead of a thread per connection.
+     *
+     * @param nonBlocking <code>true</code> to use non-blocking connections
+     * @param ioThreads the number of I/O threads, at least one
+     */
+    public synchronized void setNonBlockingServer(boolean nonBlocking, int ioThreads) {
+        this.nonBlocking = nonBlocking;
+        this.ioThreads = Math.max(1, ioThreads);
+    }
+
+    /**
+     * Creates the socket a server listens on. Sockets accepted by it can be
+     * passed to {@link #createServerConnection(Socket, int)}.
+     *
+     * @param port the port to listen on
+     * @return the new server socket
+     * @throws IOException if the socket can't be bound
+     */
+    public synchronized ServerSocket createServerSocket(int port) throws IOException {
+        if (nonBlocking) {
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.socket().bind(new InetSocketAddress(port));
+            return channel.socket();
+        }
+        return new ServerSocket(port);
+    }
+
+    /**
+     * Returns <code>true</code> if the given connection must be polled by a
+     * thread of its own, calling <code>flush()</code> and
+     * <code>update()</code> in a loop.
+     *
+     * @param connection the connection
+     * @return <code>true</code> if the connection needs a polling thread
+     */
+    public boolean needsPollingThread(IConnection connection) {
+        return !(connection instanceof NioConnection);
+    }
+
+    private synchronized SelectorConnectionPool getSelectorPool() throws IOException {
+        if (selectorPool == null) {
+            selectorPool = new SelectorConnectionPool(ioThreads);
+        }
+        return selectorPool;
+    }
 }
@@ -63,7 +63,7 @@ class DataStreamConnection extends AbstractConnection {
     /**
      * store data for packet reception statemachine
      */
-    protected boolean zipped = false;
+    protected int compression = 0;
     protected int encoding = -1;
     protected int len = 0;
     protected PacketReadState state = PacketReadState.Header;
@@ -80,7 +80,7 @@ class DataStreamConnection extends AbstractConnection {
             synchronized (in){
                 switch (state) {
                     case Header:
-                        zipped = in.readBoolean();
+                        compression = in.readUnsignedByte();
                         encoding = in.readInt();
                         len = in.readInt();
                         state = PacketReadState.Data;
@@ -88,7 +88,7 @@ class DataStreamConnection extends AbstractConnection {
                     case Data:
                         byte[] data = new byte[len];
                         in.readFully(data);
-                        packet = new NetworkPacket(zipped, encoding, data);
+                        packet = new NetworkPacket(compression, encoding, data);
                         state = PacketReadState.Header;
                         return packet;
                     default:
@@ -100,16 +100,16 @@ class DataStreamConnection extends AbstractConnection {
     }
 
     @Override
-    protected void sendNetworkPacket(byte[] data, boolean iszipped)
-            throws Exception {
+    protected void sendNetworkPacket(byte[] data, int compression,
+            int type) throws Exception {
         
         if (out == null) {
             out = new DataOutputStream(new BufferedOutputStream(
                     getOutputStream(),getSendBufferSize()));
         }
         synchronized (out){
-            out.writeBoolean(iszipped);
-            out.writeInt(marshallingType);
+            out.writeByte(compression);
+            out.writeInt(type);
             out.writeInt(data.length);
             out.write(data);
         }
@@ -150,9 +150,9 @@ class DataStreamConnection extends AbstractConnection {
     private static class NetworkPacket implements INetworkPacket {
 
         /**
-         * Is data compressed
+         * Type of the codec the data is compressed with
          */
-        private boolean compressed;
+        private int compression;
 
         /**
          * Data marshalling type
@@ -167,12 +167,12 @@ class DataStreamConnection extends AbstractConnection {
         /**
          * Creates new packet
          * 
-         * @param compressed
+         * @param compression
          * @param marshallingType
          * @param data
          */
-        NetworkPacket(boolean compressed, int marshallingType, byte[] data) {
-            this.compressed = compressed;
+        NetworkPacket(int compression, int marshallingType, byte[] data) {
+            this.compression = compression;
             this.marshallingType = marshallingType;
             this.data = data;
         }
@@ -185,8 +185,8 @@ class DataStreamConnection extends AbstractConnection {
             return data;
         }
 
-        public boolean isCompressed() {
-            return compressed;
+        public int getCompression() {
+            return compression;
         }
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net;
+
+import java.io.ByteArrayOutputStream;
+
+import megamek.common.net.compression.PacketCodec;
+import megamek.common.net.compression.PacketCodecFactory;
+import megamek.common.net.marshall.PacketMarshaller;
+import megamek.common.net.marshall.PacketMarshallerFactory;
+
+/**
+ * A <code>Packet</code> that is to be sent to several connections. The packet
+ * is marshalled (and compressed, with stateless codecs) once for every
+ * distinct encoding the connections ask for, and all connections using the
+ * same encoding share the resulting bytes; sending a packet to every player
+ * thus costs one serialization instead of one per player.
+ * <p>
+ * The packet must not be modified after the first connection sent it.
+ */
+public class EncodedPacket {
+
+    private final Packet packet;
+
+    /** Encoded frames; marshalling type -> compression type -> frame */
+    private Frame[][] frames = new Frame[0][];
+
+    /**
+     * Creates a new shared packet
+     *
+     * @param packet the packet to send
+     */
+    public EncodedPacket(Packet packet) {
+        this.packet = packet;
+    }
+
+    /**
+     * Returns the packet
+     *
+     * @return the packet
+     */
+    public Packet getPacket() {
+        return packet;
+    }
+
+    /**
+     * Returns the command of the packet
+     *
+     * @return the command of the packet
+     */
+    public int getCommand() {
+        return packet.getCommand();
+    }
+
+    /**
+     * Returns the packet encoded the given way, encoding it on the first
+     * request.
+     *
+     * @param marshallingType the marshalling to use
+     * @param compressionType the compression to use; must be
+     *            <code>PacketCodec.NONE</code> or a stateless codec
+     * @return the encoded packet, shared by all callers
+     * @throws Exception if the packet can't be marshalled
+     */
+    synchronized Frame getFrame(int marshallingType, int compressionType) throws Exception {
+        if (marshallingType >= frames.length) {
+            Frame[][] grown = new Frame[marshallingType + 1][];
+            System.arraycopy(frames, 0, grown, 0, frames.length);
+            frames = grown;
+        }
+        Frame[] byCompression = frames[marshallingType];
+        if ((byCompression == null) || (compressionType >= byCompression.length)) {
+            Frame[] grown = new Frame[compressionType + 1];
+            if (byCompression != null) {
+                System.arraycopy(byCompression, 0, grown, 0, byCompression.length);
+            }
+            byCompression = grown;
+            frames[marshallingType] = grown;
+        }
+        Frame frame = byCompression[compressionType];
+        if (frame == null) {
+            frame = encode(marshallingType, compressionType);
+            byCompression[compressionType] = frame;
+        }
+        return frame;
+    }
+
+    private Frame encode(int marshallingType, int compressionType) throws Exception {
+        if (compressionType != PacketCodec.NONE) {
+            PacketCodec codec = PacketCodecFactory.getInstance().getCodec(compressionType);
+            if ((codec == null) || !codec.isStateless()) {
+                throw new IllegalArgumentException("Can't share compression type "
+                        + compressionType);
+            }
+            byte[] data = getFrame(marshallingType, PacketCodec.NONE).getData();
+            return new Frame(codec.encode(data), compressionType, marshallingType);
+        }
+        PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+                .getMarshaller(marshallingType);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        marshaller.marshall(packet, bos);
+        return new Frame(bos.toByteArray(), PacketCodec.NONE, marshallingType);
+    }
+
+    /**
+     * An encoded packet, ready to be written to any connection using the same
+     * encoding. Its data must not be modified.
+     */
+    static class Frame {
+
+        private final byte[] data;
+
+        private final int compression;
+
+        private final int marshallingType;
+
+        Frame(byte[] data, int compression, int marshallingType) {
+            this.data = data;
+            this.compression = compression;
+            this.marshallingType = marshallingType;
+        }
+
+        byte[] getData() {
+            return data;
+        }
+
+        int getCompression() {
+            return compression;
+        }
+
+        int getMarshallingType() {
+            return marshallingType;
+        }
+    }
+}
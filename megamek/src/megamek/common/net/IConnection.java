@@ -70,11 +70,48 @@ public interface IConnection {
      */
     public void flush();
 
+    /**
+     * Returns the type of the marshalling used to send packets
+     *
+     * @return the type of the marshalling used to send packets
+     */
+    public int getMarshallingType();
+
+    /**
+     * Sets the type of the marshalling used to send packets; one of the
+     * constants in <code>PacketMarshaller</code>. Received packets are always
+     * unmarshalled according to the type they were sent with.
+     *
+     * @param marshallingType new marshalling type
+     */
+    public void setMarshallingType(int marshallingType);
+
+    /**
+     * Returns the type of the codec used to compress sent packets
+     *
+     * @return the type of the codec used to compress sent packets
+     */
+    public int getCompressionType();
+
+    /**
+     * Sets the type of the codec used to compress sent packets
+     *
+     * @param compressionType new codec type, see <code>PacketCodec</code>
+     */
+    public void setCompressionType(int compressionType);
+
     /**
      * Adds a packet to the send queue to be send on a seperate thread.
      */
     public void send(Packet packet);
 
+    /**
+     * Adds a packet that may be shared with other connections to the send
+     * queue; it is only encoded once for all connections using the same
+     * encoding.
+     */
+    public void send(EncodedPacket packet);
+
     /**
      * Returns <code>true</code> if there are (send)pending packets
      * 
@@ -96,6 +133,20 @@ public interface IConnection {
      */
     public long bytesReceived();
 
+    /**
+     * Returns how many bytes were sent before compression
+     *
+     * @return the uncompressed size of the data sent
+     */
+    public long uncompressedBytesSent();
+
+    /**
+     * Returns how many bytes were received after decompression
+     *
+     * @return the uncompressed size of the data received
+     */
+    public long uncompressedBytesReceived();
+
     /**
      * Adds the specified connection listener to receive connection events from
      * connection.
@@ -0,0 +1,241 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Server side implementation of the <code>Connection</code> on top of a
+ * non-blocking <code>SocketChannel</code>. It uses the same length-prefixed
+ * framing as {@link DataStreamConnection}, so clients can't tell the
+ * difference, but it doesn't need a thread of its own: reads and writes are
+ * done by a {@link SelectorConnectionPool} I/O thread, and received packets
+ * are processed on the pool's dispatch thread.
+ * <p>
+ * {@link #update()} and {@link #flush()} never block, so there is no need to
+ * poll them.
+ */
+class NioConnection extends AbstractConnection {
+
+    /** compression type, marshalling type and data length */
+    private static final int HEADER_SIZE = 1 + 4 + 4;
+
+    /** Upper bound of the buffers handed to a single gathering write */
+    private static final int MAX_GATHER = 64;
+
+    private final SocketChannel channel;
+
+    private final SelectorConnectionPool pool;
+
+    private SelectorConnectionPool.SelectorThread selectorThread;
+
+    /** Packets that have been read completely but not processed yet */
+    private final ConcurrentLinkedQueue<INetworkPacket> received = new ConcurrentLinkedQueue<>();
+
+    /** Frames waiting to be written; guarded by itself */
+    private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+
+    // Receiving state, only touched by the I/O thread
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private int compression;
+    private int encoding;
+    private byte[] body;
+    private int bodyPosition;
+
+    /**
+     * Creates new server connection
+     *
+     * @param channel the accepted channel
+     * @param id the connection ID
+     * @param pool the pool serving this connection
+     * @throws IOException if the channel can't be made non-blocking
+     */
+    NioConnection(SocketChannel channel, int id, SelectorConnectionPool pool) throws IOException {
+        super(channel.socket(), id);
+        this.channel = channel;
+        this.pool = pool;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    void setSelectorThread(SelectorConnectionPool.SelectorThread selectorThread) {
+        this.selectorThread = selectorThread;
+    }
+
+    @Override
+    public synchronized boolean open() {
+        boolean result = super.open();
+        pool.register(this);
+        return result;
+    }
+
+    @Override
+    protected INetworkPacket readNetworkPacket() throws Exception {
+        return received.poll();
+    }
+
+    @Override
+    protected void sendNetworkPacket(byte[] data, int compression, int type)
+            throws Exception {
+        ByteBuffer frameHeader = ByteBuffer.allocate(HEADER_SIZE);
+        frameHeader.put((byte) compression);
+        frameHeader.putInt(type);
+        frameHeader.putInt(data.length);
+        frameHeader.flip();
+        synchronized (pendingWrites) {
+            pendingWrites.add(frameHeader);
+            pendingWrites.add(ByteBuffer.wrap(data));
+        }
+        if (selectorThread != null) {
+            selectorThread.enqueue(this);
+        }
+    }
+
+    @Override
+    public boolean hasPending() {
+        return super.hasPending() || hasPendingWrites();
+    }
+
+    boolean hasPendingWrites() {
+        synchronized (pendingWrites) {
+            return !pendingWrites.isEmpty();
+        }
+    }
+
+    /**
+     * Reads what is available from the channel. Called on the I/O thread.
+     *
+     * @param buffer the I/O thread's read buffer
+     * @return <code>true</code> if at least one packet has been completed
+     * @throws IOException if the channel is broken or closed by the peer
+     */
+    boolean read(ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        if (channel.read(buffer) < 0) {
+            throw new EOFException();
+        }
+        buffer.flip();
+        boolean completed = false;
+        while (buffer.hasRemaining()) {
+            if (body == null) {
+                while (buffer.hasRemaining() && header.hasRemaining()) {
+                    header.put(buffer.get());
+                }
+                if (header.hasRemaining()) {
+                    break;
+                }
+                header.flip();
+                compression = header.get() & 0xFF;
+                encoding = header.getInt();
+                int length = header.getInt();
+                header.clear();
+                if (length < 0) {
+                    throw new IOException("Invalid packet length " + length);
+                }
+                body = new byte[length];
+                bodyPosition = 0;
+            }
+            int count = Math.min(buffer.remaining(), body.length - bodyPosition);
+            buffer.get(body, bodyPosition, count);
+            bodyPosition += count;
+            if (bodyPosition == body.length) {
+                received.add(new NetworkPacket(compression, encoding, body));
+                body = null;
+                completed = true;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Writes as much of the pending frames as the channel accepts, with a
+     * single gathering write. Called on the I/O thread.
+     *
+     * @return <code>true</code> if there is still data waiting to be written
+     * @throws IOException if the channel is broken
+     */
+    boolean write() throws IOException {
+        synchronized (pendingWrites) {
+            while (!pendingWrites.isEmpty()) {
+                ByteBuffer[] buffers = new ByteBuffer[Math.min(pendingWrites.size(), MAX_GATHER)];
+                int i = 0;
+                for (ByteBuffer b : pendingWrites) {
+                    if (i == buffers.length) {
+                        break;
+                    }
+                    buffers[i++] = b;
+                }
+                long written = channel.write(buffers);
+                while (!pendingWrites.isEmpty() && !pendingWrites.peek().hasRemaining()) {
+                    pendingWrites.poll();
+                }
+                if (written == 0) {
+                    // socket buffer is full; wait for the next OP_WRITE
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        synchronized (pendingWrites) {
+            pendingWrites.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NioConnection Id " + getId();
+    }
+
+    private static class NetworkPacket implements INetworkPacket {
+
+        private final int compression;
+
+        private final int marshallingType;
+
+        private final byte[] data;
+
+        NetworkPacket(int compression, int marshallingType, byte[] data) {
+            this.compression = compression;
+            this.marshallingType = marshallingType;
+            this.data = data;
+        }
+
+        public int getMarshallingType() {
+            return marshallingType;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public int getCompression() {
+            return compression;
+        }
+    }
+}
@@ -41,6 +41,8 @@ public class Packet {
     public static final int COMMAND_ENTITY_ATTACK = 130;
     public static final int COMMAND_ENTITY_GTA_HEX_SELECT = 135;
     public static final int COMMAND_ENTITY_UPDATE = 140;
+    public static final int COMMAND_ENTITY_DELTA_UPDATE = 141;
+    public static final int COMMAND_ENTITY_DELTA_RESYNC = 142;
     public static final int COMMAND_ENTITY_WORDER_UPDATE = 145;
     public static final int COMMAND_ENTITY_MODECHANGE = 150;
     public static final int COMMAND_ENTITY_AMMOCHANGE = 160;
@@ -74,6 +76,8 @@ public class Packet {
     public static final int COMMAND_SENDING_REPORTS_SPECIAL = 320;
     public static final int COMMAND_SENDING_REPORTS_TACTICAL_GENIUS = 330;
     public static final int COMMAND_SENDING_REPORTS_ALL = 340;
+    public static final int COMMAND_SENDING_REPORTS_PAGE = 341;
+    public static final int COMMAND_REQUEST_REPORTS = 342;
 
     public static final int COMMAND_SENDING_GAME_SETTINGS = 350;
     public static final int COMMAND_SENDING_MAP_DIMENSIONS = 360;
@@ -0,0 +1,168 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small pool of I/O threads, each multiplexing any number of
+ * {@link NioConnection}s over one <code>Selector</code>. The I/O threads only
+ * move bytes; complete packets are unmarshalled and handed to the connection
+ * listeners on a single dispatch thread, so that a listener that blocks (for
+ * instance on the server lock) never stalls the sockets, and packets are
+ * still handled in the order they arrived.
+ */
+class SelectorConnectionPool {
+
+    /** Size of the direct buffer each I/O thread reads into */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final SelectorThread[] threads;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Connection Dispatcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Creates and starts the pool.
+     *
+     * @param ioThreads the number of I/O threads, at least one
+     * @throws IOException if a selector can't be opened
+     */
+    SelectorConnectionPool(int ioThreads) throws IOException {
+        threads = new SelectorThread[Math.max(1, ioThreads)];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new SelectorThread();
+            Thread t = new Thread(threads[i], "Connection I/O " + i);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+     * Hands a connection to one of the I/O threads.
+     */
+    void register(NioConnection connection) {
+        int index = Math.floorMod(next.getAndIncrement(), threads.length);
+        connection.setSelectorThread(threads[index]);
+        threads[index].enqueue(connection);
+    }
+
+    /**
+     * Runs the given task on the dispatch thread.
+     */
+    void dispatch(Runnable task) {
+        dispatcher.execute(task);
+    }
+
+    /**
+     * One I/O thread and its selector.
+     */
+    class SelectorThread implements Runnable {
+
+        private final Selector selector;
+
+        /**
+         * Connections that were registered or have new data to write since
+         * the last select; their interest ops are updated on this thread.
+         */
+        private final ConcurrentLinkedQueue<NioConnection> changes = new ConcurrentLinkedQueue<>();
+
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+        SelectorThread() throws IOException {
+            selector = Selector.open();
+        }
+
+        /**
+         * Asks this thread to (re)evaluate the interest ops of a connection.
+         */
+        void enqueue(NioConnection connection) {
+            changes.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    applyChanges();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void applyChanges() {
+            NioConnection connection;
+            while ((connection = changes.poll()) != null) {
+                try {
+                    SelectionKey key = connection.getChannel().keyFor(selector);
+                    if (key == null) {
+                        key = connection.getChannel().register(selector,
+                                SelectionKey.OP_READ, connection);
+                    }
+                    int ops = SelectionKey.OP_READ;
+                    if (connection.hasPendingWrites()) {
+                        ops |= SelectionKey.OP_WRITE;
+                    }
+                    key.interestOps(ops);
+                } catch (ClosedChannelException | CancelledKeyException e) {
+                    // closed while queued, nothing left to do
+                }
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            NioConnection connection = (NioConnection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    if (connection.read(readBuffer)) {
+                        dispatch(connection::update);
+                    }
+                }
+                if (key.isValid() && key.isWritable()) {
+                    if (!connection.write()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                }
+            } catch (IOException | CancelledKeyException e) {
+                key.cancel();
+                dispatch(connection::close);
+            }
+        }
+    }
+}
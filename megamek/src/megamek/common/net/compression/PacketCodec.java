@@ -0,0 +1,85 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.compression;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses the marshalled packet data. Every frame sent
+ * carries the type of the codec it was compressed with, so the receiver can
+ * always pick the matching codec.
+ * <p>
+ * Stateless codecs compress every packet on its own and may be shared. A
+ * stateful codec compresses each packet against the data it compressed
+ * before, so there must be one instance per connection and direction, and the
+ * packets must be decoded in the order they were encoded.
+ */
+public abstract class PacketCodec {
+
+    /**
+     * Uncompressed data
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Each packet is a GZIP stream of its own
+     */
+    public static final int GZIP = 1;
+
+    /**
+     * All packets are part of a single deflate stream, see
+     * <code>StreamingDeflateCodec</code>
+     */
+    public static final int DEFLATE_STREAM = 2;
+
+    /**
+     * Returns the type of this codec, which is sent along with every frame
+     *
+     * @return the type of this codec
+     */
+    public abstract int getType();
+
+    /**
+     * Returns <code>true</code> if this codec keeps no state between packets
+     *
+     * @return <code>true</code> if this codec keeps no state between packets
+     */
+    public abstract boolean isStateless();
+
+    /**
+     * Compresses the data of one packet
+     *
+     * @param data the marshalled packet
+     * @return the compressed data
+     * @throws IOException if the data can't be compressed
+     */
+    public abstract byte[] encode(byte[] data) throws IOException;
+
+    /**
+     * Decompresses the data of one packet
+     *
+     * @param data the compressed data
+     * @return the marshalled packet
+     * @throws IOException if the data is corrupt
+     */
+    public abstract byte[] decode(byte[] data) throws IOException;
+
+    /**
+     * Releases the resources held by this codec. The default implementation
+     * does nothing.
+     */
+    public void close() {
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.compression;
+
+public class PacketCodecFactory {
+
+    private static PacketCodecFactory instance = new PacketCodecFactory();
+
+    /**
+     * The codec types this factory can create, most preferred first
+     */
+    private static final int[] SUPPORTED_COMPRESSION_TYPES = {
+            PacketCodec.DEFLATE_STREAM, PacketCodec.GZIP, PacketCodec.NONE };
+
+    /**
+     * Packets smaller than this many bytes aren't compressed by default; the
+     * compression headers would outweigh the savings
+     */
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    private GZipCodec gzipCodec;
+
+    private PacketCodecFactory() {
+    }
+
+    public static PacketCodecFactory getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns a codec of the given type. Stateless codecs are shared, stateful
+     * ones are created anew on every call.
+     *
+     * @param compressionType the codec type
+     * @return the codec, or <code>null</code> for <code>NONE</code> and
+     *         unknown types
+     */
+    public synchronized PacketCodec getCodec(int compressionType) {
+        switch (compressionType) {
+            case PacketCodec.GZIP:
+                if (gzipCodec == null) {
+                    gzipCodec = new GZipCodec();
+                }
+                return gzipCodec;
+            case PacketCodec.DEFLATE_STREAM:
+                return new StreamingDeflateCodec();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the codec types that can be used by this side of a connection,
+     * most preferred first. Sent to the server as part of the
+     * <code>COMMAND_CLIENT_VERSIONS</code> packet.
+     *
+     * @return the supported codec types
+     */
+    public int[] getSupportedCompressionTypes() {
+        return SUPPORTED_COMPRESSION_TYPES.clone();
+    }
+
+    /**
+     * Picks the most preferred codec type that is supported by both this side
+     * and the peer.
+     *
+     * @param peerTypes the codec types supported by the peer, may be
+     *            <code>null</code> for peers that don't report them
+     * @return the codec type to use for packets sent to the peer
+     */
+    public int negotiateCompressionType(int[] peerTypes) {
+        if (peerTypes != null) {
+            for (int type : SUPPORTED_COMPRESSION_TYPES) {
+                for (int peerType : peerTypes) {
+                    if (type == peerType) {
+                        return type;
+                    }
+                }
+            }
+        }
+        // Every version understands GZIP
+        return PacketCodec.GZIP;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Treats all packets sent over a connection as one deflate stream, flushed
+ * at the end of every packet. The compressor keeps its window across packets,
+ * so the class descriptors and the entity structures that make up most of
+ * the traffic compress against the previous packets instead of starting from
+ * scratch every time.
+ * <p>
+ * An instance holds the state of one direction of one connection: the
+ * sending side only calls {@link #encode(byte[])}, the receiving side only
+ * {@link #decode(byte[])}.
+ */
+class StreamingDeflateCodec extends PacketCodec {
+
+    private Deflater deflater;
+
+    private Inflater inflater;
+
+    private final byte[] buffer = new byte[8192];
+
+    @Override
+    public int getType() {
+        return DEFLATE_STREAM;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return false;
+    }
+
+    @Override
+    public synchronized byte[] encode(byte[] data) throws IOException {
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        deflater.setInput(data);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 2 + 32);
+        int count;
+        do {
+            count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            bos.write(buffer, 0, count);
+        } while (count == buffer.length);
+        return bos.toByteArray();
+    }
+
+    @Override
+    public synchronized byte[] decode(byte[] data) throws IOException {
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        inflater.setInput(data);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length * 4);
+        try {
+            while (true) {
+                int count = inflater.inflate(buffer);
+                if (count > 0) {
+                    bos.write(buffer, 0, count);
+                } else if (inflater.needsDictionary()) {
+                    throw new IOException("Unexpected preset dictionary");
+                } else {
+                    // all input consumed
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.marshall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import megamek.common.Coords;
+import megamek.common.Hex;
+import megamek.common.ITerrain;
+import megamek.common.Report;
+import megamek.common.Terrains;
+import megamek.common.UnitLocation;
+import megamek.common.net.Packet;
+
+/**
+ * Marshaller that uses a compact, versioned binary layout for the commands
+ * that dominate the traffic of a running game (entity updates and removals,
+ * hex changes, reports and turn changes). The data of these commands is
+ * written as a sequence of tagged values: ints, strings, coords, reports, hexes
+ * and the collections holding them get a dedicated encoding, strings are
+ * written only once per packet and referenced afterwards. Values without a
+ * dedicated encoding are embedded using Java serialization.
+ * <p>
+ * That includes the <code>Entity</code> of an entity update, which is most
+ * of its size: a mech is around 40 kB either way, as its state spans too many
+ * classes and fields for a schema of its own. Clients that accept
+ * <code>COMMAND_ENTITY_DELTA_UPDATE</code> get only the bytes that changed
+ * since the last update instead, about 1 kB for a mech that moved.
+ * <p>
+ * All other commands are rare enough that the whole data array is simply
+ * embedded using Java serialization, so that object identity between the
+ * elements is preserved.
+ */
+class BinaryMarshaller extends PacketMarshaller {
+
+    /**
+     * Version of the layout. Increase whenever the encoding of any value
+     * changes.
+     */
+    static final int VERSION = 2;
+
+    // Body layouts
+    private static final int BODY_SERIALIZED = 0;
+    private static final int BODY_TAGGED = 1;
+
+    // Value tags
+    private static final int TAG_NULL = 0;
+    private static final int TAG_INTEGER = 1;
+    private static final int TAG_BOOLEAN_FALSE = 2;
+    private static final int TAG_BOOLEAN_TRUE = 3;
+    private static final int TAG_STRING = 4;
+    private static final int TAG_STRING_REF = 5;
+    private static final int TAG_COORDS = 6;
+    private static final int TAG_UNIT_LOCATION = 7;
+    private static final int TAG_REPORT = 8;
+    private static final int TAG_HEX = 9;
+    private static final int TAG_VECTOR = 10;
+    private static final int TAG_ARRAY_LIST = 11;
+    private static final int TAG_HASH_SET = 12;
+    private static final int TAG_LINKED_HASH_SET = 13;
+    private static final int TAG_SERIALIZED = 14;
+    private static final int TAG_BYTES = 15;
+
+    @Override
+    public void marshall(Packet packet, OutputStream stream) throws Exception {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeByte(VERSION);
+        writeVarInt(out, packet.getCommand());
+        Object[] data = packet.getData();
+        if (isTaggedCommand(packet.getCommand())) {
+            out.writeByte(BODY_TAGGED);
+            Writer writer = new Writer(out);
+            if (data == null) {
+                writeVarInt(out, -1);
+            } else {
+                writeVarInt(out, data.length);
+                for (Object o : data) {
+                    writer.writeValue(o);
+                }
+            }
+        } else {
+            out.writeByte(BODY_SERIALIZED);
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(data);
+            oos.flush();
+        }
+        out.flush();
+    }
+
+    @Override
+    public Packet unmarshall(InputStream stream) throws Exception {
+        DataInputStream in = new DataInputStream(stream);
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary packet version: " + version);
+        }
+        int command = readVarInt(in);
+        int body = in.readUnsignedByte();
+        Object[] data;
+        if (body == BODY_TAGGED) {
+            Reader reader = new Reader(in);
+            int length = readVarInt(in);
+            if (length < 0) {
+                data = null;
+            } else {
+                data = new Object[length];
+                for (int i = 0; i < length; i++) {
+                    data[i] = reader.readValue();
+                }
+            }
+        } else if (body == BODY_SERIALIZED) {
+            ObjectInputStream ois = new ObjectInputStream(in);
+            data = (Object[]) ois.readObject();
+        } else {
+            throw new IOException("Unknown binary packet body: " + body);
+        }
+        return new Packet(command, data);
+    }
+
+    /**
+     * Returns <code>true</code> if the data of the given command is written
+     * as a sequence of tagged values.
+     */
+    static boolean isTaggedCommand(int command) {
+        switch (command) {
+            case Packet.COMMAND_ENTITY_UPDATE:
+            case Packet.COMMAND_ENTITY_DELTA_UPDATE:
+            case Packet.COMMAND_ENTITY_REMOVE:
+            case Packet.COMMAND_CHANGE_HEX:
+            case Packet.COMMAND_CHANGE_HEXES:
+            case Packet.COMMAND_SENDING_REPORTS:
+            case Packet.COMMAND_SENDING_REPORTS_SPECIAL:
+            case Packet.COMMAND_SENDING_REPORTS_TACTICAL_GENIUS:
+            case Packet.COMMAND_TURN:
+            case Packet.COMMAND_PLAYER_READY:
+            case Packet.COMMAND_CHAT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes an int using 1-5 bytes, small non-negative values being the
+     * shortest.
+     */
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        // zig-zag so that small negative values (-1 is common) stay short
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IOException("Malformed variable length int");
+    }
+
+    /**
+     * Per-packet writer state; keeps track of the strings already written.
+     */
+    private static class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeValue(Object o) throws IOException {
+            if (o == null) {
+                out.writeByte(TAG_NULL);
+            } else if (o instanceof Integer) {
+                out.writeByte(TAG_INTEGER);
+                writeVarInt(out, (Integer) o);
+            } else if (o instanceof Boolean) {
+                out.writeByte((Boolean) o ? TAG_BOOLEAN_TRUE : TAG_BOOLEAN_FALSE);
+            } else if (o instanceof String) {
+                writeString((String) o);
+            } else if (o instanceof byte[]) {
+                byte[] bytes = (byte[]) o;
+                out.writeByte(TAG_BYTES);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            } else if (o instanceof Coords) {
+                out.writeByte(TAG_COORDS);
+                writeCoords((Coords) o);
+            } else if (o instanceof UnitLocation) {
+                UnitLocation loc = (UnitLocation) o;
+                out.writeByte(TAG_UNIT_LOCATION);
+                writeVarInt(out, loc.getId());
+                writeCoords(loc.getCoords());
+                writeVarInt(out, loc.getFacing());
+                writeVarInt(out, loc.getElevation());
+            } else if ((o.getClass() == Report.class)) {
+                out.writeByte(TAG_REPORT);
+                writeReport((Report) o);
+            } else if ((o.getClass() == Hex.class)) {
+                out.writeByte(TAG_HEX);
+                writeHex((Hex) o);
+            } else if (o.getClass() == Vector.class) {
+                writeCollection(TAG_VECTOR, (Collection<?>) o);
+            } else if (o.getClass() == ArrayList.class) {
+                writeCollection(TAG_ARRAY_LIST, (Collection<?>) o);
+            } else if (o.getClass() == HashSet.class) {
+                writeCollection(TAG_HASH_SET, (Collection<?>) o);
+            } else if (o.getClass() == LinkedHashSet.class) {
+                writeCollection(TAG_LINKED_HASH_SET, (Collection<?>) o);
+            } else {
+                out.writeByte(TAG_SERIALIZED);
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                ObjectOutputStream oos = new ObjectOutputStream(bos);
+                oos.writeObject(o);
+                oos.close();
+                writeVarInt(out, bos.size());
+                bos.writeTo(out);
+            }
+        }
+
+        private void writeCollection(int tag, Collection<?> c) throws IOException {
+            out.writeByte(tag);
+            // Vector.size() and iteration are synchronized per call; copy
+            // first so a concurrent change can't desync the count
+            Object[] elements = c.toArray();
+            writeVarInt(out, elements.length);
+            for (Object e : elements) {
+                writeValue(e);
+            }
+        }
+
+        private void writeString(String s) throws IOException {
+            Integer ref = strings.get(s);
+            if (ref != null) {
+                out.writeByte(TAG_STRING_REF);
+                writeVarInt(out, ref);
+            } else {
+                strings.put(s, strings.size());
+                out.writeByte(TAG_STRING);
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        private void writeNullableString(String s) throws IOException {
+            if (s == null) {
+                out.writeByte(TAG_NULL);
+            } else {
+                writeString(s);
+            }
+        }
+
+        private void writeCoords(Coords c) throws IOException {
+            if (c == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                writeVarInt(out, c.getX());
+                writeVarInt(out, c.getY());
+            }
+        }
+
+        private void writeReport(Report r) throws IOException {
+            writeVarInt(out, r.messageId);
+            writeVarInt(out, r.getIndentation());
+            writeVarInt(out, r.newlines);
+            writeNullableString(r.getTagTranslate());
+            int count = r.dataCount();
+            writeVarInt(out, count);
+            for (int i = 0; i < count; i++) {
+                out.writeBoolean(r.isValueObscured(i));
+                writeNullableString(r.getTagData(i));
+            }
+            List<String> recipients = r.getObscuredRecipients();
+            writeVarInt(out, recipients.size());
+            for (String name : recipients) {
+                writeNullableString(name);
+            }
+        }
+
+        private void writeHex(Hex hex) throws IOException {
+            writeVarInt(out, hex.getLevel());
+            writeNullableString(hex.getOriginalTheme());
+            writeNullableString(hex.getTheme());
+            writeVarInt(out, hex.getFireTurn());
+            writeCoords(hex.getCoords());
+            int[] types = hex.getTerrainTypes();
+            writeVarInt(out, types.length);
+            for (int type : types) {
+                ITerrain terrain = hex.getTerrain(type);
+                writeVarInt(out, terrain.getType());
+                writeVarInt(out, terrain.getLevel());
+                out.writeBoolean(terrain.hasExitsSpecified());
+                writeVarInt(out, terrain.getExits());
+                writeVarInt(out, terrain.getTerrainFactor());
+            }
+        }
+    }
+
+    /**
+     * Per-packet reader state; mirrors {@link Writer}.
+     */
+    private static class Reader {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        Object readValue() throws IOException, ClassNotFoundException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_INTEGER:
+                    return readVarInt(in);
+                case TAG_BOOLEAN_FALSE:
+                    return Boolean.FALSE;
+                case TAG_BOOLEAN_TRUE:
+                    return Boolean.TRUE;
+                case TAG_STRING:
+                case TAG_STRING_REF:
+                    return readString(tag);
+                case TAG_BYTES:
+                    byte[] data = new byte[readVarInt(in)];
+                    in.readFully(data);
+                    return data;
+                case TAG_COORDS:
+                    return readCoords();
+                case TAG_UNIT_LOCATION:
+                    int id = readVarInt(in);
+                    Coords coords = readCoords();
+                    int facing = readVarInt(in);
+                    int elevation = readVarInt(in);
+                    return new UnitLocation(id, coords, facing, elevation);
+                case TAG_REPORT:
+                    return readReport();
+                case TAG_HEX:
+                    return readHex();
+                case TAG_VECTOR:
+                    return readCollection(new Vector<>());
+                case TAG_ARRAY_LIST:
+                    return readCollection(new ArrayList<>());
+                case TAG_HASH_SET:
+                    return readCollection(new HashSet<>());
+                case TAG_LINKED_HASH_SET:
+                    return readCollection(new LinkedHashSet<>());
+                case TAG_SERIALIZED:
+                    byte[] bytes = new byte[readVarInt(in)];
+                    in.readFully(bytes);
+                    try (ObjectInputStream ois = new ObjectInputStream(
+                            new ByteArrayInputStream(bytes))) {
+                        return ois.readObject();
+                    }
+                default:
+                    throw new IOException("Unknown value tag: " + tag);
+            }
+        }
+
+        private Collection<Object> readCollection(Collection<Object> c)
+                throws IOException, ClassNotFoundException {
+            int size = readVarInt(in);
+            for (int i = 0; i < size; i++) {
+                c.add(readValue());
+            }
+            return c;
+        }
+
+        private String readString(int tag) throws IOException {
+            if (tag == TAG_STRING_REF) {
+                return strings.get(readVarInt(in));
+            }
+            byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(s);
+            return s;
+        }
+
+        private String readNullableString() throws IOException {
+            int tag = in.readUnsignedByte();
+            return (tag == TAG_NULL) ? null : readString(tag);
+        }
+
+        private Coords readCoords() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            int x = readVarInt(in);
+            int y = readVarInt(in);
+            return new Coords(x, y);
+        }
+
+        private Report readReport() throws IOException {
+            Report r = new Report(readVarInt(in));
+            r.setIndentation(readVarInt(in));
+            r.newlines = readVarInt(in);
+            r.setTagTranslate(readNullableString());
+            int count = readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                boolean obscured = in.readBoolean();
+                r.add(readNullableString(), obscured);
+            }
+            int recipients = readVarInt(in);
+            for (int i = 0; i < recipients; i++) {
+                r.addObscuredRecipient(readNullableString());
+            }
+            return r;
+        }
+
+        private Hex readHex() throws IOException {
+            int level = readVarInt(in);
+            String originalTheme = readNullableString();
+            String theme = readNullableString();
+            int fireTurn = readVarInt(in);
+            Coords coords = readCoords();
+            Hex hex = new Hex(level, new ITerrain[0], originalTheme, coords);
+            hex.setTheme(theme);
+            hex.setFireTurn(fireTurn);
+            int count = readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                int type = readVarInt(in);
+                int terrainLevel = readVarInt(in);
+                boolean exitsSpecified = in.readBoolean();
+                int exits = readVarInt(in);
+                int terrainFactor = readVarInt(in);
+                ITerrain terrain = Terrains.getTerrainFactory().createTerrain(
+                        type, terrainLevel, exitsSpecified, exits);
+                terrain.setTerrainFactor(terrainFactor);
+                hex.addTerrain(terrain);
+            }
+            return hex;
+        }
+    }
+}
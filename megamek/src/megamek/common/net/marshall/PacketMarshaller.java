@@ -31,6 +31,11 @@ public abstract class PacketMarshaller {
      */
     public static final int NATIVE_SERIALIZATION_MARSHALING = 0;
 
+    /**
+     * Compact binary marshalling, see <code>BinaryMarshaller</code>
+     */
+    public static final int BINARY_MARSHALING = 1;
+
     /**
      * Marshalls the packet data into the <code>byte[]</code>
      *
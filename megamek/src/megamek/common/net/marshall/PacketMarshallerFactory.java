@@ -18,8 +18,17 @@ public class PacketMarshallerFactory {
 
     private static PacketMarshallerFactory instance = new PacketMarshallerFactory();
 
+    /**
+     * The marshalling types this factory can create, most preferred first
+     */
+    private static final int[] SUPPORTED_MARSHALLING_TYPES = {
+            PacketMarshaller.BINARY_MARSHALING,
+            PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING };
+
     private NativeSerializationMarshaller nativeSerializationMarshaller;
 
+    private BinaryMarshaller binaryMarshaller;
+
     private PacketMarshallerFactory() {
     }
 
@@ -27,16 +36,53 @@ public class PacketMarshallerFactory {
         return instance;
     }
 
-    public PacketMarshaller getMarshaller(int marshallingType) {
+    public synchronized PacketMarshaller getMarshaller(int marshallingType) {
         switch (marshallingType) {
             case PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING:
                 if (nativeSerializationMarshaller == null) {
                     nativeSerializationMarshaller = new NativeSerializationMarshaller();
                 }
                 return nativeSerializationMarshaller;
+            case PacketMarshaller.BINARY_MARSHALING:
+                if (binaryMarshaller == null) {
+                    binaryMarshaller = new BinaryMarshaller();
+                }
+                return binaryMarshaller;
             default:
                 return null;
         }
     }
 
+    /**
+     * Returns the marshalling types that can be used by this side of a
+     * connection, most preferred first. Sent to the server as part of the
+     * <code>COMMAND_CLIENT_VERSIONS</code> packet.
+     *
+     * @return the supported marshalling types
+     */
+    public int[] getSupportedMarshallingTypes() {
+        return SUPPORTED_MARSHALLING_TYPES.clone();
+    }
+
+    /**
+     * Picks the most preferred marshalling type that is supported by both
+     * this side and the peer.
+     *
+     * @param peerTypes the marshalling types supported by the peer, may be
+     *            <code>null</code> for peers that don't report them
+     * @return the marshalling type to use for packets sent to the peer
+     */
+    public int negotiateMarshallingType(int[] peerTypes) {
+        if (peerTypes != null) {
+            for (int type : SUPPORTED_MARSHALLING_TYPES) {
+                for (int peerType : peerTypes) {
+                    if (type == peerType) {
+                        return type;
+                    }
+                }
+            }
+        }
+        return PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING;
+    }
+
 }
@@ -58,6 +58,7 @@ public class GameOptions extends AbstractOptions {
         addOption(base, OptionsConstants.BASE_TEAM_INITIATIVE, true); //$NON-NLS-1$
         addOption(base, OptionsConstants.BASE_AUTOSAVE_MSG, true); //$NON-NLS-1$
         addOption(base, OptionsConstants.BASE_PARANOID_AUTOSAVE, false); //$NON-NLS-1$
+        addOption(base, OptionsConstants.BASE_JOURNAL_AUTOSAVE, false); //$NON-NLS-1$
         addOption(base, OptionsConstants.BASE_EXCLUSIVE_DB_DEPLOYMENT, true); //$NON-NLS-1$
         addOption(base, OptionsConstants.BASE_DEEP_DEPLOYMENT, false); //$NON-NLS-1$
         addOption(base, OptionsConstants.BASE_BLIND_DROP, false); //$NON-NLS-1$
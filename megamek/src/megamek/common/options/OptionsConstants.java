@@ -282,6 +282,7 @@ public class OptionsConstants {
     public static final String BASE_TEAM_INITIATIVE= "team_initiative";  //$NON-NLS$
     public static final String BASE_AUTOSAVE_MSG= "autosave_msg";  //$NON-NLS$
     public static final String BASE_PARANOID_AUTOSAVE= "paranoid_autosave";  //$NON-NLS$
+    public static final String BASE_JOURNAL_AUTOSAVE= "journal_autosave";  //$NON-NLS$
     public static final String BASE_EXCLUSIVE_DB_DEPLOYMENT= "exclusive_db_deployment";  //$NON-NLS$
     public static final String BASE_DEEP_DEPLOYMENT= "deep_deployment";  //$NON-NLS$
     public static final String BASE_BLIND_DROP= "blind_drop";  //$NON-NLS$
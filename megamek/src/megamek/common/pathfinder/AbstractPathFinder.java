@@ -76,6 +76,32 @@ public class AbstractPathFinder<N, C, E> {
         public N getDestination(E e);
     }
 
+    /**
+     * A destination map that also numbers the nodes. Path finders with such a
+     * map keep their costs and candidates keyed by the numbers instead of
+     * hashing node objects.
+     *
+     * @param <N> the type of nodes in the graph
+     * @param <E> the type of directed edges used by the graph
+     */
+    public interface NodeIdMap<N, E> extends DestinationMap<N, E> {
+        /**
+         * @param e a directed edge
+         * @return the number of the destination node of the given edge
+         */
+        public int getDestinationId(E e);
+
+        /**
+         * @return the number of the node
+         */
+        public int getId(N node);
+
+        /**
+         * @return the node with the given number
+         */
+        public N getNode(int id);
+    }
+
     /**
      * Represents a function that relaxes an edge.
      * 
@@ -98,6 +124,22 @@ public class AbstractPathFinder<N, C, E> {
         public C doRelax(C v, E e, Comparator<E> comparator);
     }
 
+    /**
+     * An edge relaxer that keeps the best edge as the cost of a node and
+     * relaxes by an order of the edges: doRelax(v, e) returns e iff v is null
+     * or e comes before v. Knowing the order lets the path finder drop or
+     * replace queued edges that could never relax their node.
+     *
+     * @param <E> the type of directed edges used by the graph
+     */
+    public interface OrderedEdgeRelaxer<E> extends EdgeRelaxer<E, E> {
+        /**
+         * @return a negative number iff first would relax a node whose cost
+         *         is second
+         */
+        public int compareEdges(E first, E second, Comparator<E> comparator);
+    }
+
     /**
      * Represents a function that allows removing unwanted objects from a
      * collection.
@@ -217,6 +259,10 @@ public class AbstractPathFinder<N, C, E> {
 
     private Map<N, C> pathsCosts = new HashMap<>();
 
+    // used instead of candidates and pathsCosts when the destination map is a NodeIdMap
+    private CandidateHeap<E> indexedCandidates;
+    private NodeCostTable<C> nodeCosts;
+
     private StopConditionsAlternation<E> stopCondition = new StopConditionsAlternation<>();
 
     private MMLogger logger;
@@ -285,6 +331,11 @@ public class AbstractPathFinder<N, C, E> {
         final String METHOD_NAME = "run";
         
         try {
+            NodeIdMap<N, E> nodeIdMap = getNodeIdMap();
+            if (nodeIdMap != null) {
+                runIndexed(startingEdges, nodeIdMap);
+                return;
+            }
             if (candidates.size() > 0) {
                 candidates.clear();
                 pathsCosts.clear();
@@ -322,6 +373,85 @@ public class AbstractPathFinder<N, C, E> {
         }
     }
 
+    /**
+     * The loop of {@link #run(Collection)} for numbered nodes. It pops the
+     * same edges in the same order as the loop over a PriorityQueue, except
+     * with an {@link OrderedEdgeRelaxer} and no stop conditions. Then each
+     * node has at most one indexed candidate: an edge that would be popped
+     * after a better one to the same node is dropped, and one that would be
+     * popped first replaces it. That leaves the costs as they would be, but
+     * not the edges a stop condition would be shown.
+     */
+    private void runIndexed(Collection<E> startingEdges, NodeIdMap<N, E> nodeIdMap) {
+        if (indexedCandidates == null) {
+            indexedCandidates = new CandidateHeap<>(comparator);
+        }
+        if (nodeCosts == null) {
+            nodeCosts = new NodeCostTable<>();
+        }
+        if (!indexedCandidates.isEmpty()) {
+            indexedCandidates.clear();
+            nodeCosts.clear();
+        }
+        @SuppressWarnings("unchecked")
+        OrderedEdgeRelaxer<E> orderedRelaxer = ((edgeRelaxer instanceof OrderedEdgeRelaxer)
+                && stopCondition.conditions.isEmpty()) ? (OrderedEdgeRelaxer<E>) edgeRelaxer : null;
+        for (E e : startingEdges) {
+            offer(e, nodeIdMap, orderedRelaxer);
+        }
+        while (!indexedCandidates.isEmpty()) {
+            int node = indexedCandidates.firstNode();
+            E e = indexedCandidates.poll();
+            C cost = nodeCosts.get(node);
+            C newCost = edgeRelaxer.doRelax(cost, e, comparator);
+            if (newCost != null) {
+                nodeCosts.put(node, newCost);
+                Collection<E> filteredNeighbours = adjacencyMap.getAdjacent(e);
+                for (Filter<E> f : filters) {
+                    filteredNeighbours = f.doFilter(filteredNeighbours);
+                }
+                for (E neighbour : filteredNeighbours) {
+                    offer(neighbour, nodeIdMap, orderedRelaxer);
+                }
+            }
+            if (stopCondition.shouldStop(e))
+                break;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void offer(E e, NodeIdMap<N, E> nodeIdMap, OrderedEdgeRelaxer<E> orderedRelaxer) {
+        int node = nodeIdMap.getDestinationId(e);
+        if (orderedRelaxer == null) {
+            indexedCandidates.add(e, node, false);
+            return;
+        }
+        C cost = nodeCosts.get(node);
+        if ((cost != null) && (orderedRelaxer.compareEdges(e, (E) cost, comparator) >= 0)) {
+            return;
+        }
+        int position = indexedCandidates.indexOf(node);
+        if (position < 0) {
+            indexedCandidates.add(e, node, true);
+            return;
+        }
+        E queued = indexedCandidates.get(position);
+        int order = comparator.compare(queued, e);
+        if ((order <= 0) && (orderedRelaxer.compareEdges(e, queued, comparator) >= 0)) {
+            return;
+        }
+        if ((order >= 0) && (orderedRelaxer.compareEdges(queued, e, comparator) >= 0)) {
+            indexedCandidates.replace(position, e);
+            return;
+        }
+        indexedCandidates.add(e, node, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NodeIdMap<N, E> getNodeIdMap() {
+        return (destinationMap instanceof NodeIdMap) ? (NodeIdMap<N, E>) destinationMap : null;
+    }
+
     /**
      * Computes shortest paths to nodes in the graph.
      * 
@@ -344,16 +474,25 @@ public class AbstractPathFinder<N, C, E> {
      *         reached.
      */
     protected C getCostOf(N node) {
+        NodeIdMap<N, E> nodeIdMap = getNodeIdMap();
+        if (nodeIdMap != null) {
+            return (nodeCosts == null) ? null : nodeCosts.get(nodeIdMap.getId(node));
+        }
         return pathsCosts.get(node);
     }
 
     /**
      * Returns the cost map. <b>Important:</b> Neither the returned map, nor its
-     * elements, should be modified.
+     * elements, should be modified. For numbered nodes the map is a view of
+     * the costs, which makes its nodes as they are read.
      * 
      * @return map Node -> LowestCost
      */
     protected Map<N, C> getPathCostMap() {
+        NodeIdMap<N, E> nodeIdMap = getNodeIdMap();
+        if (nodeIdMap != null) {
+            return (nodeCosts == null) ? Collections.emptyMap() : nodeCosts.asMap(nodeIdMap);
+        }
         return pathsCosts;
     }
 
@@ -382,6 +521,7 @@ public class AbstractPathFinder<N, C, E> {
             throw new NullPointerException();
         this.comparator = comparator;
         this.candidates = new PriorityQueue<E>(100, comparator);
+        this.indexedCandidates = null;
     }
 
     /**
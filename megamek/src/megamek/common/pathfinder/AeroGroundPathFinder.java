@@ -17,6 +17,7 @@ package megamek.common.pathfinder;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -413,7 +414,8 @@ public class AeroGroundPathFinder {
         boolean newHexVisited = false;
 
         if(!mp.fliesOffBoard()) {
-            for(MoveStep step : mp.getStepVector()) {
+            for(Enumeration<MoveStep> steps = mp.getSteps(); steps.hasMoreElements();) {
+                MoveStep step = steps.nextElement();
                 if(!visitedCoords.containsKey(step.getPosition())) {
                     visitedCoords.put(step.getPosition(), mp);
                     newHexVisited = true;
@@ -30,6 +30,7 @@ import megamek.common.Entity;
 import megamek.common.IBoard;
 import megamek.common.IHex;
 import megamek.common.MiscType;
+import megamek.common.PackedBoard;
 import megamek.common.Terrains;
 import megamek.common.util.BoardUtilities;
 
@@ -254,6 +255,7 @@ public class BoardClusterTracker {
         }
         
         IBoard board = entity.getGame().getBoard();
+        PackedBoard packedBoard = board.getPackedBoard();
         int clusterID = 0;
         
         MovementType movementType = MovementType.getMovementType(entity);
@@ -276,11 +278,13 @@ public class BoardClusterTracker {
                 
                 int myElevation = 0; 
                         
-                if (useBridgeTop && board.getHex(c).containsTerrain(Terrains.BRIDGE) &&
+                int hex = packedBoard.index(x, y);
+                if (useBridgeTop && packedBoard.containsTerrain(hex, Terrains.BRIDGE) &&
                         canUseBridge && (entity.getWeight() <= board.getBuildingAt(c).getCurrentCF(c))) {
-                    myElevation = board.getHex(c).ceiling();
+                    myElevation = packedBoard.ceiling(hex);
                 } else {
-                    myElevation = BoardEdgePathFinder.calculateUnitElevationInHex(board.getHex(c), entity, isHovercraft, isAmphibious);
+                    myElevation = BoardEdgePathFinder.calculateUnitElevationInHex(packedBoard, hex, entity, isHovercraft,
+                            isAmphibious, false);
                 }
                 
                 List<Coords> neighborsToJoin = new ArrayList<>();
@@ -293,11 +297,13 @@ public class BoardClusterTracker {
                     if(clusters.containsKey(neighbor)) {
                         int neighborElevation = 0;
                         
-                        if (useBridgeTop && board.getHex(neighbor).containsTerrain(Terrains.BRIDGE) &&
+                        int neighborHex = packedBoard.index(neighbor);
+                        if (useBridgeTop && packedBoard.containsTerrain(neighborHex, Terrains.BRIDGE) &&
                                 canUseBridge && (entity.getWeight() <= board.getBuildingAt(neighbor).getCurrentCF(neighbor))) {
-                            neighborElevation = board.getHex(neighbor).ceiling();
+                            neighborElevation = packedBoard.ceiling(neighborHex);
                         } else {
-                            neighborElevation = BoardEdgePathFinder.calculateUnitElevationInHex(board.getHex(neighbor), entity, isHovercraft, isAmphibious);
+                            neighborElevation = BoardEdgePathFinder.calculateUnitElevationInHex(packedBoard, neighborHex,
+                                    entity, isHovercraft, isAmphibious, false);
                         }
                         
                         // if we can't reach from here to the neighbor due to elevation differences, move on
@@ -33,6 +33,7 @@ import megamek.common.IHex;
 import megamek.common.Mech;
 import megamek.common.MiscType;
 import megamek.common.MovePath;
+import megamek.common.PackedBoard;
 import megamek.common.Terrains;
 import megamek.common.MovePath.MoveStepType;
 import megamek.common.annotations.Nullable;
@@ -513,10 +514,9 @@ public class BoardEdgePathFinder {
     protected MoveLegalityIndicator isLegalMove(MovePath movePath) {
         Coords dest = movePath.getFinalCoords();
         IBoard board = movePath.getGame().getBoard();
-        IHex destHex = board.getHex(dest);
         Building destinationBuilding = board.getBuildingAt(dest);
         
-        return isLegalMove(movePath, destHex, destinationBuilding);
+        return isLegalMove(movePath, board.getPackedBoard(), destinationBuilding);
     }
 
     /**
@@ -524,20 +524,19 @@ public class BoardEdgePathFinder {
      * 
      *
      * @param movePath The move path to process
-     * @param destHex the hex at the end of the path
+     * @param board the packed board the path is on
      * @param destinationBuilding the building at the end of the path, can be null
      * @return Whether or not the given move path is "legal" in the context of this pathfinder.
      */
-    private MoveLegalityIndicator isLegalMove(MovePath movePath, IHex destHex, Building destinationBuilding) {        
+    private MoveLegalityIndicator isLegalMove(MovePath movePath, PackedBoard board, Building destinationBuilding) {        
         Coords dest = movePath.getFinalCoords();
-        IBoard board = movePath.getGame().getBoard();
-        Coords src = movePath.getSecondLastStep().getPosition();
-        IHex srcHex = board.getHex(src);
+        int destHex = board.index(dest);
+        int srcHex = board.index(movePath.getSecondLastStep().getPosition());
         Entity entity = movePath.getEntity();
 
         MoveLegalityIndicator mli = new MoveLegalityIndicator();
         
-        boolean destinationInBounds = board.contains(dest);
+        boolean destinationInBounds = destHex >= 0;
         if(!destinationInBounds) {
             mli.outOfBounds = true;
             return mli;
@@ -552,29 +551,30 @@ public class BoardEdgePathFinder {
         boolean isAmphibious = movePath.getCachedEntityState().hasWorkingMisc(MiscType.F_AMPHIBIOUS) ||
                             movePath.getCachedEntityState().hasWorkingMisc(MiscType.F_FULLY_AMPHIBIOUS) ||
                             movePath.getCachedEntityState().hasWorkingMisc(MiscType.F_LIMITED_AMPHIBIOUS);
-        boolean destHexHasRoad = destHex.containsTerrain(Terrains.ROAD);
+        boolean destHexHasRoad = board.containsTerrain(destHex, Terrains.ROAD);
         
         // this indicates that we are stepping off a bridge
-        boolean sourceIsBridge = srcHex.containsTerrain(Terrains.BRIDGE_CF) &&
-                movePath.getSecondLastStep().getElevation() == srcHex.maxTerrainFeatureElevation(false);
+        boolean sourceIsBridge = board.containsTerrain(srcHex, Terrains.BRIDGE_CF) &&
+                movePath.getSecondLastStep().getElevation() == board.ceiling(srcHex) - board.getLevel(srcHex);
         
         // this indicates that we are stepping onto a bridge
-        boolean destinationIsBridge = destHex.containsTerrain(Terrains.BRIDGE_CF) && 
-                movePath.getFinalElevation() == destHex.maxTerrainFeatureElevation(false);
+        boolean destinationIsBridge = board.containsTerrain(destHex, Terrains.BRIDGE_CF) && 
+                movePath.getFinalElevation() == board.ceiling(destHex) - board.getLevel(destHex);
         
         // jumpers can clear higher objects than walkers and crawlers
         int maxUpwardElevationChange = movePath.isJumping() ? movePath.getCachedEntityState().getJumpMP() : entity.getMaxElevationChange();
         // jumpers can just hop down wherever they want
         int maxDownwardElevationChange = movePath.isJumping() ? Entity.UNLIMITED_JUMP_DOWN : entity.getMaxElevationDown();
-        mli.destHexElevation = calculateUnitElevationInHex(destHex, entity, isHovercraft, isAmphibious, destinationIsBridge);
-        mli.srcHexElevation = calculateUnitElevationInHex(srcHex, entity, isHovercraft, isAmphibious, sourceIsBridge);     
+        mli.destHexElevation = calculateUnitElevationInHex(board, destHex, entity, isHovercraft, isAmphibious, destinationIsBridge);
+        mli.srcHexElevation = calculateUnitElevationInHex(board, srcHex, entity, isHovercraft, isAmphibious, sourceIsBridge);     
         
         mli.elevationChange = mli.destHexElevation - mli.srcHexElevation;
         mli.steppingOntoBridge = destinationIsBridge;
         
-        mli.destinationImpassable = destHex.containsTerrain(Terrains.IMPASSABLE);
+        mli.destinationImpassable = board.containsTerrain(destHex, Terrains.IMPASSABLE);
         
-        boolean destinationHasBuilding = destHex.containsTerrain(Terrains.BLDG_CF) || destHex.containsTerrain(Terrains.FUEL_TANK_CF);
+        boolean destinationHasBuilding = board.containsTerrain(destHex, Terrains.BLDG_CF)
+                || board.containsTerrain(destHex, Terrains.FUEL_TANK_CF);
         
         // if we're going to step onto a bridge that will collapse, let's not consider going there
         mli.destinationHasWeakBridge =  destinationIsBridge && destinationBuilding.getCurrentCF(dest) < entity.getWeight();
@@ -590,27 +590,27 @@ public class BoardEdgePathFinder {
 
         // tanks cannot go into jungles or heavy woods unless there is a road
         mli.tankIntoHeavyWoods = isTracked &&
-                (destHex.terrainLevel(Terrains.JUNGLE) > 0 || destHex.terrainLevel(Terrains.WOODS) > 1) && !destHexHasRoad;
+                (board.terrainLevel(destHex, Terrains.JUNGLE) > 0 || board.terrainLevel(destHex, Terrains.WOODS) > 1) && !destHexHasRoad;
 
         // hovercraft and wheeled units cannot go into jungles or woods unless there is a road
         mli.weakTankIntoWoods = (isHovercraft || isWheeled) &&
-                (destHex.terrainLevel(Terrains.JUNGLE) > 0 || destHex.terrainLevel(Terrains.WOODS) > 0) && !destHexHasRoad;
+                (board.terrainLevel(destHex, Terrains.JUNGLE) > 0 || board.terrainLevel(destHex, Terrains.WOODS) > 0) && !destHexHasRoad;
 
         // wheeled tanks cannot go into rough terrain or rubble of any kind, or buildings for that matter
         // even if you level them they still turn to rubble. Additionally, they cannot go into deep snow.
         mli.wheeledTankRestriction = isWheeled && !destHexHasRoad &&
-                (destHex.containsTerrain(Terrains.ROUGH) || destHex.containsTerrain(Terrains.RUBBLE)
+                (board.containsTerrain(destHex, Terrains.ROUGH) || board.containsTerrain(destHex, Terrains.RUBBLE)
                 || destinationHasBuilding
-                || (destHex.containsTerrain(Terrains.SNOW) && (destHex.terrainLevel(Terrains.SNOW) > 1)));
+                || (board.terrainLevel(destHex, Terrains.SNOW) > 1));
 
         // tracked and wheeled tanks cannot go into water without a bridge, unless amphibious
         mli.groundTankIntoWater = (isTracked || isWheeled) && 
-                destHex.containsTerrain(Terrains.WATER) && (destHex.depth() > 0) && 
-                !isAmphibious && !destHex.containsTerrain(Terrains.BRIDGE);
+                board.containsTerrain(destHex, Terrains.WATER) && (board.getLevel(destHex) > board.floor(destHex)) && 
+                !isAmphibious && !board.containsTerrain(destHex, Terrains.BRIDGE);
 
         // naval units cannot go out of water
         mli.shipOutofWater = entity.isNaval() &&
-                (!destHex.containsTerrain(Terrains.WATER) || destHex.depth() < 1);
+                (!board.containsTerrain(destHex, Terrains.WATER) || board.getLevel(destHex) <= board.floor(destHex));
 
         // for future expansion of this functionality, we may consider the possibility that a building or bridge
         // will be destroyed intentionally by the bot to make way for a unit to cross
@@ -664,6 +664,36 @@ public class BoardEdgePathFinder {
         return hexElevation;
     }
 
+    /**
+     * Calculates the effective elevation for a unit standing in a hex, like
+     * {@link #calculateUnitElevationInHex(IHex, Entity, boolean, boolean, boolean)}, from the packed board.
+     * @param board The packed board
+     * @param hex The index of the hex to check
+     * @param entity The entity to check
+     * @param bridgeTop Whether we're going on top of a bridge or under it
+     * @return The effective elevation
+     */
+    public static int calculateUnitElevationInHex(PackedBoard board, int hex, Entity entity, boolean isHovercraft,
+            boolean isAmphibious, boolean useBridgeTop) {
+        if(useBridgeTop && !entity.isSurfaceNaval() && board.containsTerrain(hex, Terrains.BRIDGE_CF)) {
+            return board.ceiling(hex);
+        }
+        
+        int hexElevation = board.getLevel(hex);
+        
+        if (entity.hasETypeFlag(Entity.ETYPE_MECH) && 
+                (board.containsTerrain(hex, Terrains.BLDG_CF) || board.containsTerrain(hex, Terrains.FUEL_TANK_CF))) {
+            hexElevation = board.ceiling(hex);
+        } else if(entity.isNaval() && board.containsTerrain(hex, Terrains.BRIDGE)) {
+            hexElevation = board.getLevel(hex);
+        } else if(!entity.isSurfaceNaval() && !isHovercraft && !isAmphibious &&
+                board.containsTerrain(hex, Terrains.WATER) && !board.containsTerrain(hex, Terrains.BRIDGE)) {
+            hexElevation = board.floor(hex);
+        }
+
+        return hexElevation;
+    }
+
     /**
      * Determines if the given move path ends on the given board edge
      * @param movePath The move path to check.
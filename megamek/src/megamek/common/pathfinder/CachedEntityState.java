@@ -1,10 +1,10 @@
 package megamek.common.pathfinder;
 
-import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
 
 import megamek.common.Entity;
+import megamek.common.EquipmentBitSet;
 import megamek.common.Mech;
 import megamek.common.MiscType;
 
@@ -22,7 +22,7 @@ public class CachedEntityState {
     private Integer sprintMPWithoutMasc;
     private Integer jumpMP;
     private Integer jumpMPWithTerrain;
-    private Map<BigInteger, Boolean> hasWorkingMisc;
+    private Map<EquipmentBitSet, Boolean> hasWorkingMisc;
     private Integer torsoJumpJets;
     
     public CachedEntityState(Entity entity) {
@@ -86,7 +86,7 @@ public class CachedEntityState {
         return jumpMPWithTerrain;
     }
     
-    public boolean hasWorkingMisc(BigInteger flag) {
+    public boolean hasWorkingMisc(EquipmentBitSet flag) {
         if(!hasWorkingMisc.containsKey(flag)) {
             hasWorkingMisc.put(flag, backingEntity.hasWorkingMisc(flag));
         }
@@ -0,0 +1,224 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The candidate edges of a path finder: a binary heap ordered by the path
+ * finder's comparator, which also knows the node every edge leads to. One
+ * edge per node can be indexed, so that it can be found and replaced by a
+ * better one (decrease-key) instead of queueing both.
+ *
+ * @param <E> the type of the edges
+ */
+final class CandidateHeap<E> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Position + 1 of the indexed edge of a node, or NOT_QUEUED once it left */
+    private static final int NOT_QUEUED = -1;
+
+    private final Comparator<E> comparator;
+
+    private Object[] edges = new Object[INITIAL_CAPACITY];
+    private int[] edgeNodes = new int[INITIAL_CAPACITY];
+    private boolean[] indexed = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    // open addressing table of node -> position + 1; 0 marks an empty slot
+    private int[] indexNodes = new int[INITIAL_CAPACITY];
+    private int[] indexPositions = new int[INITIAL_CAPACITY];
+    private int indexSize;
+
+    CandidateHeap(Comparator<E> comparator) {
+        this.comparator = comparator;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(edges, 0, size, null);
+        size = 0;
+        Arrays.fill(indexPositions, 0);
+        indexSize = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int position) {
+        return (E) edges[position];
+    }
+
+    /**
+     * Returns the position of the indexed edge leading to the node, or -1 if
+     * there is none.
+     */
+    int indexOf(int node) {
+        int mask = indexNodes.length - 1;
+        for (int i = NodeCostTable.slot(node, mask); indexPositions[i] != 0; i = (i + 1) & mask) {
+            if (indexNodes[i] == node) {
+                return indexPositions[i] > 0 ? indexPositions[i] - 1 : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the node the first edge leads to.
+     */
+    int firstNode() {
+        return edgeNodes[0];
+    }
+
+    /**
+     * Queues the edge.
+     *
+     * @param edge the edge
+     * @param node the node it leads to
+     * @param index whether the edge is the one for {@link #indexOf(int)} to
+     *            find; the node must not have a queued indexed edge
+     */
+    void add(E edge, int node, boolean index) {
+        if (size == edges.length) {
+            edges = Arrays.copyOf(edges, size * 2);
+            edgeNodes = Arrays.copyOf(edgeNodes, size * 2);
+            indexed = Arrays.copyOf(indexed, size * 2);
+        }
+        edges[size] = edge;
+        edgeNodes[size] = node;
+        indexed[size] = index;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Replaces the edge at the position with one that leads to the same node.
+     */
+    void replace(int position, E edge) {
+        edges[position] = edge;
+        siftDown(siftUp(position));
+    }
+
+    /**
+     * Removes and returns the first edge.
+     */
+    E poll() {
+        E first = get(0);
+        if (indexed[0]) {
+            setPosition(edgeNodes[0], NOT_QUEUED);
+        }
+        size--;
+        if (size > 0) {
+            move(size, 0);
+            siftDown(0);
+        }
+        edges[size] = null;
+        return first;
+    }
+
+    private int siftUp(int position) {
+        Object edge = edges[position];
+        int node = edgeNodes[position];
+        boolean isIndexed = indexed[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (compare(edge, edges[parent]) >= 0) {
+                break;
+            }
+            move(parent, position);
+            position = parent;
+        }
+        place(edge, node, isIndexed, position);
+        return position;
+    }
+
+    private void siftDown(int position) {
+        Object edge = edges[position];
+        int node = edgeNodes[position];
+        boolean isIndexed = indexed[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if ((right < size) && (compare(edges[right], edges[child]) < 0)) {
+                child = right;
+            }
+            if (compare(edge, edges[child]) <= 0) {
+                break;
+            }
+            move(child, position);
+            position = child;
+        }
+        place(edge, node, isIndexed, position);
+    }
+
+    private void move(int from, int to) {
+        place(edges[from], edgeNodes[from], indexed[from], to);
+    }
+
+    private void place(Object edge, int node, boolean isIndexed, int position) {
+        edges[position] = edge;
+        edgeNodes[position] = node;
+        indexed[position] = isIndexed;
+        if (isIndexed) {
+            setPosition(node, position + 1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object first, Object second) {
+        return comparator.compare((E) first, (E) second);
+    }
+
+    private void setPosition(int node, int value) {
+        int mask = indexNodes.length - 1;
+        int i = NodeCostTable.slot(node, mask);
+        for (; indexPositions[i] != 0; i = (i + 1) & mask) {
+            if (indexNodes[i] == node) {
+                indexPositions[i] = value;
+                return;
+            }
+        }
+        indexNodes[i] = node;
+        indexPositions[i] = value;
+        if (++indexSize * 2 > indexNodes.length) {
+            growIndex();
+        }
+    }
+
+    private void growIndex() {
+        int[] oldNodes = indexNodes;
+        int[] oldPositions = indexPositions;
+        indexNodes = new int[oldNodes.length * 2];
+        indexPositions = new int[oldPositions.length * 2];
+        int mask = indexNodes.length - 1;
+        for (int j = 0; j < oldNodes.length; j++) {
+            if (oldPositions[j] != 0) {
+                int i = NodeCostTable.slot(oldNodes[j], mask);
+                while (indexPositions[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                indexNodes[i] = oldNodes[j];
+                indexPositions[i] = oldPositions[j];
+            }
+        }
+    }
+}
@@ -34,6 +34,7 @@ import megamek.common.MiscType;
 import megamek.common.MovePath;
 import megamek.common.MovePath.MoveStepType;
 import megamek.common.MoveStep;
+import megamek.common.PackedBoard;
 import megamek.common.PlanetaryConditions;
 import megamek.common.Terrains;
 
@@ -220,8 +221,10 @@ public class DestructionAwareDestinationPathfinder extends BoardEdgePathFinder {
                 (child.isJumping() && (Math.abs(mli.elevationChange) > child.getCachedEntityState().getJumpMP())) ||
                 (child.getEntity().getMaxElevationDown() == Entity.UNLIMITED_JUMP_DOWN) && (Math.abs(mli.elevationChange) > child.getEntity().getMaxElevationChange());
         
-        boolean destinationUseBridge = child.getGame().getBoard().getHex(destinationCoords).getTerrain(Terrains.BRIDGE) != null;
-        int destHexElevation = calculateUnitElevationInHex(child.getGame().getBoard().getHex(destinationCoords), 
+        PackedBoard board = child.getGame().getBoard().getPackedBoard();
+        int destinationHex = board.index(destinationCoords);
+        boolean destinationUseBridge = board.containsTerrain(destinationHex, Terrains.BRIDGE);
+        int destHexElevation = calculateUnitElevationInHex(board, destinationHex, 
                 child.getEntity(), child.getEntity().getMovementMode() == EntityMovementMode.HOVER, child.getCachedEntityState().isAmphibious(),
                 destinationUseBridge);
         
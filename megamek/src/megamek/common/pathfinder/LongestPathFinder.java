@@ -104,7 +104,8 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
             if (s != 0) {
                 return s;
             } else {
-                return second.getHexesMoved() - first.getHexesMoved();
+                return StepState.getHexesMoved(second.getFinalState())
+                        - StepState.getHexesMoved(first.getFinalState());
             }
         }
     }
@@ -128,9 +129,10 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
             }
             while (!v.isEmpty()) { //we could get rid of this loop, since we require a proper comparator
                 MovePath topMP = v.getLast();
+                long topState = topMP.getFinalState(), candidateState = mpCandidate.getFinalState();
 
                 //standing up is always reasonable for mechs
-                boolean vprone = topMP.getFinalProne(), eprone = mpCandidate.getFinalProne();
+                boolean vprone = StepState.isProne(topState), eprone = StepState.isProne(candidateState);
                 if (vprone != eprone) {
                     if (vprone) {
                         break;
@@ -139,7 +141,7 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
                     }
                 }
                 if (!(topMP.getEntity() instanceof Tank)) {
-                    boolean vhdown = topMP.getFinalHullDown(), ehdown = mpCandidate.getFinalHullDown();
+                    boolean vhdown = StepState.isHullDown(topState), ehdown = StepState.isHullDown(candidateState);
                     if (vhdown != ehdown) {
                         if (vhdown) {
                             break;
@@ -152,7 +154,9 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
                  * We require that the priority queue v of MovePath is sorted
                  * lexicographically using product MPUsed x (-HexesMoved).
                  */
-                int topMpUsed = topMP.getMpUsed(), mpCMpUsed = mpCandidate.getMpUsed();
+                int topMpUsed = StepState.getMpUsed(topState), mpCMpUsed = StepState.getMpUsed(candidateState);
+                int topHexesMoved = StepState.getHexesMoved(topState);
+                int mpCHexesMoved = StepState.getHexesMoved(candidateState);
 
                 if (topMpUsed > mpCMpUsed) {
                     /*
@@ -166,10 +170,10 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
                             "Top Move Path uses more MPs than Move Path Candidate."));
                     return null;
                 } else {
-                    if (topMP.getHexesMoved() > mpCandidate.getHexesMoved()) {
+                    if (topHexesMoved > mpCHexesMoved) {
                         return null; //topMP path is longer and uses less or same mp.
                     }
-                    if (topMP.getHexesMoved() == mpCandidate.getHexesMoved()) {
+                    if (topHexesMoved == mpCHexesMoved) {
                         //we want to preserve both forward and backward movements
                         //that end in the same spot with the same cost.
                         MoveStep topStep = topMP.getLastStep();
@@ -217,13 +221,14 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
             if (!mp1.getEntity().isAero()) {
                 throw new IllegalArgumentException("wanted aero got:" + mp1.getClass().toString());
             }
+            long state1 = mp1.getFinalState(), state2 = mp2.getFinalState();
             //we want to process shorter paths first
-            int dHT = mp1.getHexesMoved() - mp2.getHexesMoved();
+            int dHT = StepState.getHexesMoved(state1) - StepState.getHexesMoved(state2);
             if (dHT != 0) {
                 return dHT;
             }
             //then those which used less thrust
-            int dMP = mp1.getMpUsed() - mp2.getMpUsed();
+            int dMP = StepState.getMpUsed(state1) - StepState.getMpUsed(state2);
             if (dMP != 0) {
                 return dMP;
             }
@@ -261,12 +266,13 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
                 return new ArrayDeque<>(Collections.singleton(mpCandidate));
             }
             MovePath topMP = v.getLast();
+            long topState = topMP.getFinalState(), candidateState = mpCandidate.getFinalState();
 
             /*
              * consider hexes travelled. If we enter the hex with different
              * hexes travelled then totally different paths will emerge
              */
-            int dHT = topMP.getHexesMoved() - mpCandidate.getHexesMoved();
+            int dHT = StepState.getHexesMoved(topState) - StepState.getHexesMoved(candidateState);
             if (dHT > 0) {
                 /*
                  * Current implementation of doRelax() assumes that v is sorted
@@ -280,7 +286,7 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
             }
 
             // assert( topMP.getHexesMoved() == mpCandidate.getHexesMoved() );
-            int dMP = topMP.getMpUsed() - mpCandidate.getMpUsed();
+            int dMP = StepState.getMpUsed(topState) - StepState.getMpUsed(candidateState);
             if (dMP > 0) {
                 /*
                  * Current implementation of doRelax() assumes that v is sorted
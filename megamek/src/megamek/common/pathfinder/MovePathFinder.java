@@ -28,7 +28,6 @@ import java.util.Set;
 
 import megamek.common.Coords;
 import megamek.common.Entity;
-import megamek.common.EntityMovementType;
 import megamek.common.Facing;
 import megamek.common.IGame;
 import megamek.common.MovePath;
@@ -133,7 +132,42 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
      * Returns the final CoordsWithFacing for a given MovePath.
      */
     public static class MovePathDestinationMap
-            implements AbstractPathFinder.DestinationMap<CoordsWithFacing, MovePath> {
+            implements AbstractPathFinder.NodeIdMap<CoordsWithFacing, MovePath> {
+        private static final int COORD_MASK = 0x1FFF;
+        private static final int COORD_OFFSET = 4096;
+        private static final int Y_SHIFT = 13;
+        private static final int FACING_SHIFT = 26;
+
+        @Override
+        public int getDestinationId(MovePath e) {
+            long state = e.getFinalState();
+            if (!StepState.isOnMap(state)) {
+                throw new NullPointerException();
+            }
+            int facing = StepState.getFacing(state);
+            MoveStep lastStep = e.getLastStep();
+            if (lastStep != null && lastStep.isThisStepBackwards()) {
+                facing = Facing.valueOfInt(facing).getOpposite().getIntValue();
+            }
+            return id(StepState.getX(state), StepState.getY(state), facing);
+        }
+
+        @Override
+        public int getId(CoordsWithFacing node) {
+            return id(node.getCoords().getX(), node.getCoords().getY(), node.getFacing());
+        }
+
+        @Override
+        public CoordsWithFacing getNode(int id) {
+            return new CoordsWithFacing(new Coords((id & COORD_MASK) - COORD_OFFSET,
+                    ((id >>> Y_SHIFT) & COORD_MASK) - COORD_OFFSET), id >>> FACING_SHIFT);
+        }
+
+        private static int id(int x, int y, int facing) {
+            return ((x + COORD_OFFSET) & COORD_MASK) | (((y + COORD_OFFSET) & COORD_MASK) << Y_SHIFT)
+                    | (facing << FACING_SHIFT);
+        }
+
         @Override
         public CoordsWithFacing getDestination(MovePath e) {
             MoveStep lastStep = e.getLastStep();
@@ -175,12 +209,7 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
                  * isMovemementPossible is currently not working for aero units,
                  * so we have to use a substitute.
                  */
-                if (edge.length() == 0) {
-                    return true;
-                } else {
-                    MoveStep lastStep = edge.getLastStep();
-                    return (lastStep == null) || lastStep.getMovementType(true) != EntityMovementType.MOVE_ILLEGAL;
-                }
+                return (edge.length() == 0) || StepState.isLegal(edge.getFinalState());
             }
             Coords previousPosition;
             int previousElevation;
@@ -211,7 +240,7 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
 
         @Override
         public boolean shouldStay(MovePath mp) {
-            return (mp.getMpUsed() <= maxMP);
+            return (StepState.getMpUsed(mp.getFinalState()) <= maxMP);
 
         }
     }
@@ -224,8 +253,8 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
     public static class MovePathMPCostComparator implements Comparator<MovePath> {
         @Override
         public int compare(final MovePath first, final MovePath second) {
-            final int firstDist = first.getMpUsed();
-            final int secondDist = second.getMpUsed();
+            final int firstDist = StepState.getMpUsed(first.getFinalState());
+            final int secondDist = StepState.getMpUsed(second.getFinalState());
             return firstDist - secondDist;
         }
     }
@@ -242,8 +271,8 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
             Comparator<MovePath> {
         @Override
         public int compare(final MovePath first, final MovePath second) {
-            final int firstSteps = first.getStepVector().size();
-            final int secondSteps = second.getStepVector().size();
+            final int firstSteps = first.length();
+            final int secondSteps = second.length();
             return firstSteps - secondSteps;
         }
     }
@@ -295,7 +324,8 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
              * such units can only turn or get up. (unless it's a tank; tanks
              * can just drive out of hull-down and they cannot be prone)
              */
-            if (mp.getFinalProne() || (mp.getFinalHullDown() && !(entity instanceof Tank))) {
+            final long state = mp.getFinalState();
+            if (StepState.isProne(state) || (StepState.isHullDown(state) && !(entity instanceof Tank))) {
                 if (entity.isCarefulStand()) {
                     result.add(mp.clone().addStep(MoveStepType.CAREFUL_STAND));
                 } else {
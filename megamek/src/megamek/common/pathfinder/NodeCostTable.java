@@ -0,0 +1,200 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The lowest costs of the nodes a path finder reached, keyed by node number.
+ * An open addressing hash table with linear probing; costs are never null
+ * and never removed, so an empty slot is one without a cost.
+ *
+ * @param <C> the type of the costs
+ */
+final class NodeCostTable<C> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private Object[] costs = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the cost of the node, or null if it has none.
+     */
+    @SuppressWarnings("unchecked")
+    C get(int node) {
+        int mask = nodes.length - 1;
+        for (int i = slot(node, mask); costs[i] != null; i = (i + 1) & mask) {
+            if (nodes[i] == node) {
+                return (C) costs[i];
+            }
+        }
+        return null;
+    }
+
+    void put(int node, C cost) {
+        if (cost == null) {
+            throw new NullPointerException();
+        }
+        int mask = nodes.length - 1;
+        int i = slot(node, mask);
+        for (; costs[i] != null; i = (i + 1) & mask) {
+            if (nodes[i] == node) {
+                costs[i] = cost;
+                return;
+            }
+        }
+        nodes[i] = node;
+        costs[i] = cost;
+        if (++size * 2 > nodes.length) {
+            grow();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(costs, null);
+        size = 0;
+    }
+
+    /**
+     * Returns a read-only view of the costs keyed by the nodes the numbers
+     * stand for. Reading the values makes no nodes.
+     */
+    <N> Map<N, C> asMap(AbstractPathFinder.NodeIdMap<N, ?> nodeIds) {
+        return new AbstractMap<N, C>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public C get(Object key) {
+                return (key == null) ? null : NodeCostTable.this.get(nodeIds.getId((N) key));
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public Collection<C> values() {
+                return new AbstractCollection<C>() {
+                    @Override
+                    public Iterator<C> iterator() {
+                        return new SlotIterator<C>() {
+                            @Override
+                            @SuppressWarnings("unchecked")
+                            C at(int slot) {
+                                return (C) costs[slot];
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+
+            @Override
+            public Set<Entry<N, C>> entrySet() {
+                return new AbstractSet<Entry<N, C>>() {
+                    @Override
+                    public Iterator<Entry<N, C>> iterator() {
+                        return new SlotIterator<Entry<N, C>>() {
+                            @Override
+                            @SuppressWarnings("unchecked")
+                            Entry<N, C> at(int slot) {
+                                return new SimpleImmutableEntry<>(nodeIds.getNode(nodes[slot]), (C) costs[slot]);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+        };
+    }
+
+    /** Goes through the slots that have a cost */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int next = advance(0);
+
+        abstract T at(int slot);
+
+        private int advance(int slot) {
+            while ((slot < costs.length) && (costs[slot] == null)) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < costs.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T value = at(next);
+            next = advance(next + 1);
+            return value;
+        }
+    }
+
+    private void grow() {
+        int[] oldNodes = nodes;
+        Object[] oldCosts = costs;
+        nodes = new int[oldNodes.length * 2];
+        costs = new Object[oldCosts.length * 2];
+        int mask = nodes.length - 1;
+        for (int j = 0; j < oldCosts.length; j++) {
+            if (oldCosts[j] != null) {
+                int i = slot(oldNodes[j], mask);
+                while (costs[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                nodes[i] = oldNodes[j];
+                costs[i] = oldCosts[j];
+            }
+        }
+    }
+
+    static int slot(int node, int mask) {
+        int h = node * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
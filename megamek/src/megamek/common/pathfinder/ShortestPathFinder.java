@@ -116,25 +116,30 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
      * 
      */
     public static class MovePathRelaxer
-            implements AbstractPathFinder.EdgeRelaxer<MovePath, MovePath> {
+            implements AbstractPathFinder.OrderedEdgeRelaxer<MovePath> {
         @Override
         public MovePath doRelax(MovePath v, MovePath e, Comparator<MovePath> comparator) {
             if (v == null)
                 return e;
+            return compareEdges(e, v, comparator) < 0 ? e : null;
+        }
 
+        @Override
+        public int compareEdges(MovePath first, MovePath second, Comparator<MovePath> comparator) {
             // We have to be standing to be able to move
             // Maybe I should replace this extra condition with a flag in node(?)
-            boolean vprone = v.getFinalProne(), eprone = e.getFinalProne();
-            if (vprone != eprone)
-                return vprone ? e : null;
-            if (!(v.getEntity() instanceof Tank)) {
-                boolean vhdown = v.getFinalHullDown(), ehdown = e
-                        .getFinalHullDown();
-                if (vhdown != ehdown)
-                    return vhdown ? e : null;
+            long fstate = first.getFinalState(), sstate = second.getFinalState();
+            boolean fprone = StepState.isProne(fstate), sprone = StepState.isProne(sstate);
+            if (fprone != sprone)
+                return fprone ? 1 : -1;
+            if (!(second.getEntity() instanceof Tank)) {
+                boolean fhdown = StepState.isHullDown(fstate), shdown = StepState
+                        .isHullDown(sstate);
+                if (fhdown != shdown)
+                    return fhdown ? 1 : -1;
             }
 
-            return comparator.compare(e, v) < 0 ? e : null;
+            return comparator.compare(first, second);
         }
     }
     
@@ -145,13 +150,18 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
      * 
      */
     public static class AeroMovePathRelaxer
-            implements AbstractPathFinder.EdgeRelaxer<MovePath, MovePath> {
+            implements AbstractPathFinder.OrderedEdgeRelaxer<MovePath> {
         @Override
         public MovePath doRelax(MovePath v, MovePath e, Comparator<MovePath> comparator) {
             if (v == null)
                 return e;
             
-            return comparator.compare(e, v) < 0 ? e : null;
+            return compareEdges(e, v, comparator) < 0 ? e : null;
+        }
+
+        @Override
+        public int compareEdges(MovePath first, MovePath second, Comparator<MovePath> comparator) {
+            return comparator.compare(first, second);
         }
     }    
 
@@ -180,6 +190,8 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
 
         @Override
         public int compare(MovePath first, MovePath second) {
+            final long firstState = first.getFinalState();
+            final long secondState = second.getFinalState();
 
             int h1 = 0, h2 = 0;
             // We cannot estimate the needed cost for aeros
@@ -189,13 +201,13 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
                 // We want to pick paths that use fewer MP, and are also shorter
                 // unlike ground units which could benefit from better target
                 // movement modifiers for longer paths
-                int dd = (first.getMpUsed() + h1) - (second.getMpUsed() + h2);
+                int dd = (StepState.getMpUsed(firstState) + h1) - (StepState.getMpUsed(secondState) + h2);
                 if (dd != 0) {
                     return dd;
                 } else {
                     // Pick the shortest path
-                    int hexesMovedDiff = first.getHexesMoved()
-                            - second.getHexesMoved();
+                    int hexesMovedDiff = StepState.getHexesMoved(firstState)
+                            - StepState.getHexesMoved(secondState);
                     if (hexesMovedDiff != 0) {
                         return hexesMovedDiff;
                     }
@@ -209,22 +221,22 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
                 boolean backwards = stepType == MoveStepType.BACKWARDS;
                 h1 = first.getFinalCoords().distance(destination)
                         + getFacingDiff(first, destination, backwards)
-                        + getLevelDiff(first, destination, board, first.isJumping())
+                        + getLevelDiff(first, destination, board, StepState.isJumping(firstState))
                         + getElevationDiff(first, destination, board,
                                 first.getEntity());
                 h2 = second.getFinalCoords().distance(destination)
                         + getFacingDiff(second, destination, backwards)
-                        + getLevelDiff(second, destination, board, second.isJumping())
+                        + getLevelDiff(second, destination, board, StepState.isJumping(secondState))
                         + getElevationDiff(second, destination, board,
                                 second.getEntity());
             }
 
-            int dd = (first.getMpUsed() + h1) - (second.getMpUsed() + h2);
+            int dd = (StepState.getMpUsed(firstState) + h1) - (StepState.getMpUsed(secondState) + h2);
 
             if (dd != 0) {
                 return dd;
             } else {
-                return first.getHexesMoved() - second.getHexesMoved();
+                return StepState.getHexesMoved(firstState) - StepState.getHexesMoved(secondState);
             }
         }
     }
@@ -112,7 +112,7 @@ public class SpheroidPathFinder {
             
             // add "flee" option if we haven't done anything else
             if(startingEdge.getFinalCoords().isOnBoardEdge(game.getBoard()) &&
-                    startingEdge.getStepVector().size() == 0) {
+                    startingEdge.length() == 0) {
                 MovePath fleePath = startingEdge.clone();
                 fleePath.addStep(MoveStepType.FLEE);
                 spheroidPaths.add(fleePath);
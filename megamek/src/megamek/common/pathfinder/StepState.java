@@ -0,0 +1,152 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import megamek.common.Coords;
+import megamek.common.EntityMovementType;
+import megamek.common.MovePath;
+import megamek.common.MoveStep;
+
+/**
+ * The state at the end of a move path packed into a <code>long</code>: the
+ * position, facing, elevation, movement points used and hexes moved, and
+ * whether the unit is prone, hull-down or jumping, in danger and moving
+ * legally. Path finders compare and prune paths by these many times, so
+ * <code>MovePath.getFinalState()</code> packs them once per path.
+ * <p>
+ * Coordinates are kept between -4096 and 4095, elevations between -1024 and
+ * 1023; movement points and hexes moved are capped at 511.
+ */
+public final class StepState {
+
+    private static final int X_SHIFT = 0;
+    private static final int Y_SHIFT = 13;
+    private static final int FACING_SHIFT = 26;
+    private static final int ELEVATION_SHIFT = 29;
+    private static final int MP_SHIFT = 40;
+    private static final int HEXES_SHIFT = 49;
+    private static final int FLAGS_SHIFT = 58;
+
+    private static final int COORD_MASK = 0x1FFF;
+    private static final int COORD_OFFSET = 4096;
+    private static final int ELEVATION_MASK = 0x7FF;
+    private static final int ELEVATION_OFFSET = 1024;
+    private static final int COUNT_MASK = 0x1FF;
+
+    private static final long PRONE = 1L << FLAGS_SHIFT;
+    private static final long HULL_DOWN = 1L << (FLAGS_SHIFT + 1);
+    private static final long JUMPING = 1L << (FLAGS_SHIFT + 2);
+    private static final long DANGER = 1L << (FLAGS_SHIFT + 3);
+    private static final long LEGAL = 1L << (FLAGS_SHIFT + 4);
+    private static final long ON_MAP = 1L << (FLAGS_SHIFT + 5);
+
+    private StepState() {
+    }
+
+    /**
+     * Packs the state at the end of the path. Danger and legality are those
+     * of the last step at the time of the call.
+     */
+    public static long of(MovePath path) {
+        long state = 0;
+        Coords coords = path.getFinalCoords();
+        if (coords != null) {
+            state |= ON_MAP
+                    | ((long) ((coords.getX() + COORD_OFFSET) & COORD_MASK) << X_SHIFT)
+                    | ((long) ((coords.getY() + COORD_OFFSET) & COORD_MASK) << Y_SHIFT);
+        }
+        state |= (long) (path.getFinalFacing() & 7) << FACING_SHIFT;
+        int elevation = Math.max(-ELEVATION_OFFSET, Math.min(ELEVATION_MASK - ELEVATION_OFFSET,
+                path.getFinalElevation()));
+        state |= (long) (elevation + ELEVATION_OFFSET) << ELEVATION_SHIFT;
+        state |= (long) Math.max(0, Math.min(COUNT_MASK, path.getMpUsed())) << MP_SHIFT;
+        state |= (long) Math.max(0, Math.min(COUNT_MASK, path.getHexesMoved())) << HEXES_SHIFT;
+        if (path.getFinalProne()) {
+            state |= PRONE;
+        }
+        if (path.getFinalHullDown()) {
+            state |= HULL_DOWN;
+        }
+        if (path.isJumping()) {
+            state |= JUMPING;
+        }
+        MoveStep last = path.getLastStep();
+        if ((last == null) || (last.getMovementType(true) != EntityMovementType.MOVE_ILLEGAL)) {
+            state |= LEGAL;
+        }
+        if ((last != null) && last.isDanger()) {
+            state |= DANGER;
+        }
+        return state;
+    }
+
+    /**
+     * Returns false if the path ends without a position.
+     */
+    public static boolean isOnMap(long state) {
+        return (state & ON_MAP) != 0;
+    }
+
+    public static int getX(long state) {
+        return (int) ((state >>> X_SHIFT) & COORD_MASK) - COORD_OFFSET;
+    }
+
+    public static int getY(long state) {
+        return (int) ((state >>> Y_SHIFT) & COORD_MASK) - COORD_OFFSET;
+    }
+
+    public static int getFacing(long state) {
+        return (int) ((state >>> FACING_SHIFT) & 7);
+    }
+
+    public static int getElevation(long state) {
+        return (int) ((state >>> ELEVATION_SHIFT) & ELEVATION_MASK) - ELEVATION_OFFSET;
+    }
+
+    public static int getMpUsed(long state) {
+        return (int) ((state >>> MP_SHIFT) & COUNT_MASK);
+    }
+
+    public static int getHexesMoved(long state) {
+        return (int) ((state >>> HEXES_SHIFT) & COUNT_MASK);
+    }
+
+    public static boolean isProne(long state) {
+        return (state & PRONE) != 0;
+    }
+
+    public static boolean isHullDown(long state) {
+        return (state & HULL_DOWN) != 0;
+    }
+
+    public static boolean isJumping(long state) {
+        return (state & JUMPING) != 0;
+    }
+
+    public static boolean isDanger(long state) {
+        return (state & DANGER) != 0;
+    }
+
+    public static boolean isLegal(long state) {
+        return (state & LEGAL) != 0;
+    }
+
+    /**
+     * Returns the distance from the end of the path to the coordinates, like
+     * <code>getFinalCoords().distance(coords)</code>.
+     */
+    public static int distance(long state, Coords coords) {
+        return Coords.distance(getX(state), getY(state), coords.getX(), coords.getY());
+    }
+}
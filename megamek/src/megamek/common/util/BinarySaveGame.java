@@ -0,0 +1,531 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+import com.thoughtworks.xstream.XStream;
+
+import megamek.MegaMek;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.Mounted;
+
+/**
+ * Reads and writes save games in a binary format, as an alternative to the
+ * XStream XML save games that are much slower to load.
+ * <p>
+ * The file starts with a header that lists its sections with their offsets,
+ * followed by the sections themselves. The first section is the metadata
+ * (players, round, phase and board size), which is stored uncompressed so
+ * that a lobby can read it without loading the game. The other sections hold
+ * the options, board, players, entities, reports and the rest of the game,
+ * each as a compressed serialized object graph. Objects that belong to an
+ * earlier section are written as references to it, so each object is stored
+ * once and shared objects stay shared after loading. The equipment of the
+ * entities, which attacks and other later state refer to, is written as a
+ * reference to the entity and its equipment number.
+ */
+public final class BinarySaveGame {
+
+    /** The extension of binary save games */
+    public static final String EXTENSION = ".mmsav";
+
+    private static final int MAGIC = 0x4D4D5356; // "MMSV"
+    private static final int FORMAT_VERSION = 1;
+
+    /** The sections, in the order they are written and loaded */
+    enum Section {
+        META, OPTIONS, BOARD, PLAYERS, ENTITIES, REPORTS, GAME
+    }
+
+    private BinarySaveGame() {
+    }
+
+    /**
+     * The part of a save game that can be read without loading it.
+     */
+    public static class Metadata {
+        private String version;
+        private long savedAt;
+        private int round;
+        private IGame.Phase phase;
+        private int boardWidth;
+        private int boardHeight;
+        private int entityCount;
+        private final List<String> playerNames = new ArrayList<>();
+        private final List<Integer> playerTeams = new ArrayList<>();
+
+        /** @return the MegaMek version that wrote the save */
+        public String getVersion() {
+            return version;
+        }
+
+        /** @return the time of the save, in milliseconds since the epoch */
+        public long getSavedAt() {
+            return savedAt;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public IGame.Phase getPhase() {
+            return phase;
+        }
+
+        public int getBoardWidth() {
+            return boardWidth;
+        }
+
+        public int getBoardHeight() {
+            return boardHeight;
+        }
+
+        /** @return the number of entities in the game */
+        public int getEntityCount() {
+            return entityCount;
+        }
+
+        public List<String> getPlayerNames() {
+            return Collections.unmodifiableList(playerNames);
+        }
+
+        /** @return the team of each player, in the order of the names */
+        public List<Integer> getPlayerTeams() {
+            return Collections.unmodifiableList(playerTeams);
+        }
+
+        @Override
+        public String toString() {
+            return "round " + round + ", " + phase + ", " + boardWidth + "x" + boardHeight + ", "
+                    + entityCount + " units, players " + playerNames;
+        }
+    }
+
+    /**
+     * @return true if the file starts like a binary save game
+     */
+    public static boolean isBinarySave(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a game. The file is written to a temporary file that is renamed
+     * once complete.
+     */
+    public static void write(IGame game, File file) throws IOException {
+        byte[] data = toBytes(game);
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the game as the contents of a binary save game
+     */
+    public static byte[] toBytes(IGame game) throws IOException {
+        List<Object> roots = new ArrayList<>();
+        Map<Object, Ref> written = new IdentityHashMap<>();
+        byte[][] sections = new byte[Section.values().length][];
+        int[] rawLengths = new int[sections.length];
+
+        for (Section section : Section.values()) {
+            byte[] raw;
+            if (section == Section.META) {
+                raw = writeMetadata(game);
+            } else {
+                Object root = rootOf(game, section);
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(1 << 16);
+                try (ObjectOutputStream out = new SectionOutputStream(bos, written)) {
+                    out.writeObject(root);
+                }
+                raw = bos.toByteArray();
+                // later sections refer to the objects of this one, by their
+                // position in the order the reader will see them
+                for (Object member : membersOf(root, section)) {
+                    written.putIfAbsent(member, new Ref(roots.size()));
+                    roots.add(member);
+                }
+            }
+            rawLengths[section.ordinal()] = raw.length;
+            sections[section.ordinal()] = (section == Section.META) ? raw : deflate(raw);
+        }
+
+        int total = 12 + (sections.length * 20);
+        for (byte[] section : sections) {
+            total += section.length;
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(total);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(sections.length);
+            long offset = 12 + (sections.length * 20L);
+            for (int i = 0; i < sections.length; i++) {
+                out.writeInt(i);
+                out.writeLong(offset);
+                out.writeInt(sections[i].length);
+                out.writeInt(rawLengths[i]);
+                offset += sections[i].length;
+            }
+            for (byte[] section : sections) {
+                out.write(section);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Reads a whole game. Like a game read from XML, its transient state such
+     * as the game listeners still has to be restored.
+     */
+    public static IGame read(File file) throws IOException {
+        return fromBytes(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Reads a whole game from the contents of a binary save game.
+     */
+    public static IGame fromBytes(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        long[][] index = readIndex(in);
+        List<Object> roots = new ArrayList<>();
+        Object game = null;
+        for (Section section : Section.values()) {
+            if (section == Section.META) {
+                continue;
+            }
+            long[] entry = index[section.ordinal()];
+            byte[] raw = inflate(data, (int) entry[0], (int) entry[1], (int) entry[2]);
+            Object root;
+            try (ObjectInputStream sin = new SectionInputStream(new ByteArrayInputStream(raw), roots)) {
+                root = sin.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unknown class in section " + section, e);
+            }
+            roots.addAll(membersOf(root, section));
+            game = root;
+        }
+        if (!(game instanceof IGame)) {
+            throw new IOException("No game in save");
+        }
+        return (IGame) game;
+    }
+
+    /**
+     * Reads only the header and metadata of a save game.
+     */
+    public static Metadata readMetadata(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long[][] index = readIndex(raf);
+            long[] meta = index[Section.META.ordinal()];
+            byte[] raw = new byte[(int) meta[1]];
+            raf.seek(meta[0]);
+            raf.readFully(raw);
+            return readMetadata(new DataInputStream(new ByteArrayInputStream(raw)));
+        }
+    }
+
+    /**
+     * Converts an XStream save game, compressed or not, to a binary one.
+     */
+    public static void fromXml(File xmlFile, File binaryFile) throws IOException {
+        IGame game;
+        try (InputStream is = new FileInputStream(xmlFile);
+             InputStream in = xmlFile.getName().endsWith(".gz") ? new GZIPInputStream(is) : is) {
+            game = (IGame) SerializationHelper.getXStream().fromXML(in);
+        }
+        write(game, binaryFile);
+    }
+
+    /**
+     * Converts a binary save game to a compressed XStream one.
+     */
+    public static void toXml(File binaryFile, File xmlFile) throws IOException {
+        IGame game = read(binaryFile);
+        XStream xstream = new XStream();
+        xstream.setMode(XStream.ID_REFERENCES);
+        try (OutputStream os = new FileOutputStream(xmlFile);
+             OutputStream gzo = new GZIPOutputStream(os);
+             Writer writer = new OutputStreamWriter(gzo, StandardCharsets.UTF_8)) {
+            xstream.toXML(game, writer);
+        }
+    }
+
+    private static Object rootOf(IGame game, Section section) {
+        switch (section) {
+            case OPTIONS:
+                return game.getOptions();
+            case BOARD:
+                return game.getBoard();
+            case PLAYERS:
+                return new ArrayList<>(game.getPlayersVector());
+            case ENTITIES:
+                List<Entity> entities = new ArrayList<>(game.getEntitiesVector());
+                entities.addAll(game.getOutOfGameEntitiesVector());
+                return entities;
+            case REPORTS:
+                return game.getAllReports();
+            default:
+                return game;
+        }
+    }
+
+    /**
+     * @return the objects of a section that later sections may refer to
+     */
+    private static List<?> membersOf(Object root, Section section) {
+        if ((section == Section.PLAYERS) || (section == Section.ENTITIES)) {
+            return (List<?>) root;
+        }
+        return (root == null) ? Collections.emptyList() : Collections.singletonList(root);
+    }
+
+    private static byte[] writeMetadata(IGame game) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeUTF(MegaMek.VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(game.getRoundCount());
+            out.writeUTF(game.getPhase().name());
+            out.writeInt(game.getBoard().getWidth());
+            out.writeInt(game.getBoard().getHeight());
+            out.writeInt(game.getEntitiesVector().size());
+            List<IPlayer> players = game.getPlayersVector();
+            out.writeInt(players.size());
+            for (IPlayer player : players) {
+                out.writeUTF(player.getName());
+                out.writeInt(player.getTeam());
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static Metadata readMetadata(DataInputStream in) throws IOException {
+        Metadata meta = new Metadata();
+        meta.version = in.readUTF();
+        meta.savedAt = in.readLong();
+        meta.round = in.readInt();
+        try {
+            meta.phase = IGame.Phase.valueOf(in.readUTF());
+        } catch (IllegalArgumentException e) {
+            meta.phase = IGame.Phase.PHASE_UNKNOWN;
+        }
+        meta.boardWidth = in.readInt();
+        meta.boardHeight = in.readInt();
+        meta.entityCount = in.readInt();
+        int players = in.readInt();
+        for (int i = 0; i < players; i++) {
+            meta.playerNames.add(in.readUTF());
+            meta.playerTeams.add(in.readInt());
+        }
+        return meta;
+    }
+
+    /**
+     * @return offset, stored length and raw length of each section
+     */
+    private static long[][] readIndex(DataInput in) throws IOException {
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary save game");
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported save game format " + version);
+            }
+            int count = in.readInt();
+            long[][] index = new long[Section.values().length][];
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                long[] entry = { in.readLong(), in.readInt(), in.readInt() };
+                if ((id >= 0) && (id < index.length)) {
+                    index[id] = entry;
+                }
+            }
+            for (Section section : Section.values()) {
+                if (index[section.ordinal()] == null) {
+                    throw new IOException("Save game has no " + section + " section");
+                }
+            }
+            return index;
+        } catch (EOFException e) {
+            throw new IOException("Truncated save game", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(raw.length / 4);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bos, new Deflater(Deflater.BEST_SPEED))) {
+            out.write(raw);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while ((read < rawLength) && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if ((n == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Truncated save game section");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt save game section", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Stands for an object of an earlier section.
+     */
+    private static final class Ref implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final int index;
+
+        Ref(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * Stands for the equipment of an entity of an earlier section.
+     */
+    private static final class MountedRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final int index;
+        final int equipmentNum;
+
+        MountedRef(int index, int equipmentNum) {
+            this.index = index;
+            this.equipmentNum = equipmentNum;
+        }
+    }
+
+    private static final class SectionOutputStream extends ObjectOutputStream {
+        private final Map<Object, Ref> written;
+
+        SectionOutputStream(OutputStream out, Map<Object, Ref> written) throws IOException {
+            super(out);
+            this.written = written;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            Ref ref = written.get(obj);
+            if ((ref == null) && (obj instanceof Mounted)) {
+                // the entity was written with its equipment in an earlier
+                // section
+                Entity entity = ((Mounted) obj).getEntity();
+                Ref entityRef = (entity == null) ? null : written.get(entity);
+                int number = (entityRef == null) ? -1 : entity.getEquipmentNum((Mounted) obj);
+                if (number != -1) {
+                    return new MountedRef(entityRef.index, number);
+                }
+            }
+            return (ref == null) ? obj : ref;
+        }
+    }
+
+    private static final class SectionInputStream extends ObjectInputStream {
+        private final List<Object> roots;
+
+        SectionInputStream(InputStream in, List<Object> roots) throws IOException {
+            super(in);
+            this.roots = roots;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (obj instanceof Ref) {
+                int index = ((Ref) obj).index;
+                if ((index < 0) || (index >= roots.size())) {
+                    throw new IOException("Bad reference in save game: " + index);
+                }
+                return roots.get(index);
+            } else if (obj instanceof MountedRef) {
+                MountedRef ref = (MountedRef) obj;
+                Object entity = ((ref.index >= 0) && (ref.index < roots.size())) ? roots.get(ref.index) : null;
+                Mounted mounted = (entity instanceof Entity) ? ((Entity) entity).getEquipment(ref.equipmentNum)
+                        : null;
+                if (mounted == null) {
+                    throw new IOException("Bad equipment reference in save game: " + ref.index + "/"
+                            + ref.equipmentNum);
+                }
+                return mounted;
+            }
+            return obj;
+        }
+    }
+}
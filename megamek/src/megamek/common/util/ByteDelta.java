@@ -0,0 +1,231 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Computes and applies binary deltas between two versions of a byte array,
+ * such as two serialized states of the same object. The delta is a sequence
+ * of "copy a range of the base" and "insert these literal bytes" operations,
+ * found by matching fixed size blocks of the base with a rolling hash, so
+ * changes that shift the rest of the data (a longer string, an extra element)
+ * cost little more than the changed bytes themselves.
+ */
+public class ByteDelta {
+
+    /** Size of the blocks of the base that are indexed for matching */
+    private static final int BLOCK = 16;
+
+    /** Multiplier of the polynomial rolling hash */
+    private static final int PRIME = 31;
+
+    /** PRIME^(BLOCK - 1), to remove the outgoing byte from the hash */
+    private static final int OUT_FACTOR;
+
+    static {
+        int f = 1;
+        for (int i = 1; i < BLOCK; i++) {
+            f *= PRIME;
+        }
+        OUT_FACTOR = f;
+    }
+
+    private ByteDelta() {
+    }
+
+    /**
+     * Computes the delta that transforms <code>base</code> into
+     * <code>target</code>.
+     *
+     * @param base the data the receiver already has; may be empty
+     * @param target the new data
+     * @return the encoded delta
+     */
+    public static byte[] diff(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        writeVarInt(out, target.length);
+
+        // Index the start offset of every full block of the base. Open
+        // addressing over int arrays, since this runs for every update.
+        int blocks = base.length / BLOCK;
+        int capacity = Integer.highestOneBit(Math.max(blocks, 1) * 2) * 2;
+        int[] keys = new int[capacity];
+        int[] offsets = new int[capacity];
+        Arrays.fill(offsets, -1);
+        for (int b = 0; b < blocks; b++) {
+            int off = b * BLOCK;
+            int h = hash(base, off);
+            int slot = h & (capacity - 1);
+            while ((offsets[slot] != -1) && (keys[slot] != h)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (offsets[slot] == -1) {
+                keys[slot] = h;
+                offsets[slot] = off;
+            }
+        }
+
+        int literalStart = 0;
+        int pos = 0;
+        int h = (target.length >= BLOCK) ? hash(target, 0) : 0;
+        while ((blocks > 0) && (pos + BLOCK <= target.length)) {
+            int match = lookup(keys, offsets, h);
+            if ((match >= 0) && regionMatches(base, match, target, pos, BLOCK)) {
+                // Extend the match backwards into the pending literal and
+                // forwards as far as the data agrees
+                int start = pos;
+                int baseStart = match;
+                while ((start > literalStart) && (baseStart > 0)
+                        && (target[start - 1] == base[baseStart - 1])) {
+                    start--;
+                    baseStart--;
+                }
+                int end = pos + BLOCK;
+                int baseEnd = match + BLOCK;
+                while ((end < target.length) && (baseEnd < base.length)
+                        && (target[end] == base[baseEnd])) {
+                    end++;
+                    baseEnd++;
+                }
+                writeLiteral(out, target, literalStart, start);
+                writeVarInt(out, ((end - start) << 1) | 1);
+                writeVarInt(out, baseStart);
+                pos = end;
+                literalStart = end;
+                if (pos + BLOCK <= target.length) {
+                    h = hash(target, pos);
+                }
+            } else {
+                if (pos + BLOCK < target.length) {
+                    h = (h - (target[pos] * OUT_FACTOR)) * PRIME + target[pos + BLOCK];
+                }
+                pos++;
+            }
+        }
+        writeLiteral(out, target, literalStart, target.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Applies a delta created by {@link #diff(byte[], byte[])}.
+     *
+     * @param base the same base the delta was computed against
+     * @param delta the encoded delta
+     * @return the target data
+     * @throws IllegalArgumentException if the delta doesn't fit the base
+     */
+    public static byte[] patch(byte[] base, byte[] delta) {
+        int[] pos = new int[1];
+        byte[] target = new byte[readVarInt(delta, pos)];
+        int written = 0;
+        while (pos[0] < delta.length) {
+            int op = readVarInt(delta, pos);
+            int length = op >>> 1;
+            if (written + length > target.length) {
+                throw new IllegalArgumentException("Delta overflows target");
+            }
+            if ((op & 1) == 1) {
+                int offset = readVarInt(delta, pos);
+                if (offset + length > base.length) {
+                    throw new IllegalArgumentException("Delta doesn't match base");
+                }
+                System.arraycopy(base, offset, target, written, length);
+            } else {
+                if (pos[0] + length > delta.length) {
+                    throw new IllegalArgumentException("Truncated delta");
+                }
+                System.arraycopy(delta, pos[0], target, written, length);
+                pos[0] += length;
+            }
+            written += length;
+        }
+        if (written != target.length) {
+            throw new IllegalArgumentException("Truncated delta");
+        }
+        return target;
+    }
+
+    /**
+     * Returns a checksum of the given data, used by both sides of a delta
+     * exchange to detect that they no longer agree on the base.
+     */
+    public static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+
+    private static int hash(byte[] data, int off) {
+        int h = 0;
+        for (int i = 0; i < BLOCK; i++) {
+            h = h * PRIME + data[off + i];
+        }
+        return h;
+    }
+
+    private static int lookup(int[] keys, int[] offsets, int h) {
+        int mask = keys.length - 1;
+        int slot = h & mask;
+        while (offsets[slot] != -1) {
+            if (keys[slot] == h) {
+                return offsets[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(byte[] a, int aOff, byte[] b, int bOff, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOff + i] != b[bOff + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeLiteral(ByteArrayOutputStream out, byte[] data, int from, int to) {
+        if (to > from) {
+            writeVarInt(out, (to - from) << 1);
+            out.write(data, from, to - from);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (pos[0] >= data.length) {
+                break;
+            }
+            int b = data[pos[0]++] & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed delta");
+    }
+}
@@ -14,7 +14,6 @@
  */
 package megamek.common.verifier;
 
-import java.math.BigInteger;
 import java.util.*;
 
 import megamek.common.*;
@@ -827,7 +826,7 @@ public class TestAdvancedAerospace extends TestAero {
         Map<EquipmentType,Integer> rightBroad = new HashMap<>();
         Map<Integer,Integer> massDriversPerArc = new HashMap<>();
         
-        BigInteger typeFlag = MiscType.F_JS_EQUIPMENT;
+        EquipmentBitSet typeFlag = MiscType.F_JS_EQUIPMENT;
         if (vessel.hasETypeFlag(Entity.ETYPE_WARSHIP)) {
             typeFlag = MiscType.F_WS_EQUIPMENT;
         } else if (vessel.hasETypeFlag(Entity.ETYPE_SPACE_STATION)) {
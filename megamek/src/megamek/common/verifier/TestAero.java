@@ -20,7 +20,6 @@
 package megamek.common.verifier;
 
 import java.io.Serializable;
-import java.math.BigInteger;
 import java.util.*;
 import java.util.function.Function;
 
@@ -14,7 +14,6 @@
  */
 package megamek.common.verifier;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +24,7 @@ import megamek.common.AmmoType;
 import megamek.common.Bay;
 import megamek.common.CriticalSlot;
 import megamek.common.Entity;
+import megamek.common.EquipmentBitSet;
 import megamek.common.EquipmentType;
 import megamek.common.ITechManager;
 import megamek.common.MiscType;
@@ -659,7 +659,7 @@ public class TestSmallCraft extends TestAero {
         Map<EquipmentType,Integer> leftAft = new HashMap<>();
         Map<EquipmentType,Integer> rightFwd = new HashMap<>();
         Map<EquipmentType,Integer> rightAft = new HashMap<>();
-        BigInteger typeFlag = smallCraft.hasETypeFlag(Entity.ETYPE_DROPSHIP)?
+        EquipmentBitSet typeFlag = smallCraft.hasETypeFlag(Entity.ETYPE_DROPSHIP)?
                 MiscType.F_DS_EQUIPMENT : MiscType.F_SC_EQUIPMENT;
         for (Mounted m : smallCraft.getEquipment()) {
             if (m.getType() instanceof MiscType) {
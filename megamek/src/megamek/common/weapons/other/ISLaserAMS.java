@@ -53,7 +53,7 @@ public class ISLaserAMS extends LaserWeapon {
         // we need to remove the direct fire flag again, so TC weight is not
         // affected
         flags = flags.or(F_MECH_WEAPON).or(F_TANK_WEAPON).or(F_AERO_WEAPON)
-                .or(F_AUTO_TARGET).or(F_AMS).or(F_ENERGY).and(F_DIRECT_FIRE.not());
+                .or(F_AUTO_TARGET).or(F_AMS).or(F_ENERGY).andNot(F_DIRECT_FIRE);
         setModes(new String[] { "On", "Off" });
         setInstantModeSwitch(false);
         cost = 225000;
@@ -17,13 +17,14 @@ import java.io.File;
 import java.io.IOException;
 
 import megamek.MegaMek;
+import megamek.common.net.ConnectionFactory;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.AbstractCommandLineParser;
 
 public class DedicatedServer {
     private static final String INCORRECT_ARGUMENTS_MESSAGE = "Incorrect arguments:";
     private static final String ARGUMENTS_DESCRIPTION_MESSAGE = "Arguments syntax:\n\t "
-            + "[-password <pass>] [-port <port>] [<saved game>]";
+            + "[-password <pass>] [-port <port>] [-nio] [<saved game>]";
 
     public static void start(String[] args) {
         CommandLineParser cp = new CommandLineParser(args);
@@ -39,6 +40,10 @@ public class DedicatedServer {
             String announceUrl = cp.getAnnounceUrl();
             String password = cp.getPassword();
 
+            if (cp.isNonBlocking()) {
+                ConnectionFactory.getInstance().setNonBlockingServer(true, 1);
+            }
+
             // kick off a RNG check
             megamek.common.Compute.d6();
             // start server
@@ -73,11 +78,13 @@ public class DedicatedServer {
         private int port;
         private String password;
         private String announceUrl = "";
+        private boolean nonBlocking = false;
 
         // Options
         private static final String OPTION_PORT = "port";
         private static final String OPTION_PASSWORD = "password";
         private static final String OPTION_ANNOUNCE = "announce";
+        private static final String OPTION_NIO = "nio";
 
         public CommandLineParser(String[] args) {
             super(args);
@@ -99,6 +106,14 @@ public class DedicatedServer {
             return password;
         }
 
+        /**
+         *
+         * @return <code>true</code> if the server should use non-blocking connections
+         */
+        public boolean isNonBlocking() {
+            return nonBlocking;
+        }
+
         public String getAnnounceUrl() {
             return announceUrl;
         }
@@ -130,6 +145,9 @@ public class DedicatedServer {
                             nextToken();
                             parsePassword();
                             break;
+                        case OPTION_NIO:
+                            nonBlocking = true;
+                            break;
                     }
                     break;
                 case TOK_LITERAL:
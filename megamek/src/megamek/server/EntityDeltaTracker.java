@@ -0,0 +1,149 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Vector;
+
+import megamek.common.Entity;
+import megamek.common.UnitLocation;
+import megamek.common.net.Packet;
+import megamek.common.util.ByteDelta;
+
+/**
+ * Keeps track of the serialized entity states last sent to each connection
+ * that supports delta updates, and creates the
+ * <code>COMMAND_ENTITY_DELTA_UPDATE</code> packets that carry only the
+ * difference to that state.
+ * <p>
+ * The connection is TCP, so the last state sent is the last state the client
+ * will have received. Both sides checksum the base and the result, and the
+ * client asks for a full state whenever they don't match, so a lost base only
+ * costs one extra round trip.
+ *
+ * @see megamek.common.util.ByteDelta
+ */
+class EntityDeltaTracker {
+
+    /** The base of a full state: the delta is the whole entity */
+    private static final byte[] NO_STATE = new byte[0];
+
+    /** Connection id -> entity id -> serialized state last sent */
+    private final Map<Integer, Map<Integer, byte[]>> sentStates = new HashMap<>();
+
+    // The last delta created; an update sent to several connections that
+    // share the same base is only diffed once
+    private byte[] lastBase;
+    private byte[] lastTarget;
+    private byte[] lastDelta;
+
+    /**
+     * Starts tracking a connection whose client understands delta updates.
+     */
+    synchronized void register(int connId) {
+        sentStates.put(connId, new HashMap<>());
+    }
+
+    /**
+     * Stops tracking a connection, for instance after a disconnect. A client
+     * reconnecting on the same id starts with full states again.
+     */
+    synchronized void unregister(int connId) {
+        sentStates.remove(connId);
+    }
+
+    synchronized boolean isRegistered(int connId) {
+        return sentStates.containsKey(connId);
+    }
+
+    /**
+     * Forgets the state sent for the given entity, so that the next update
+     * sent to the connection contains the full state.
+     *
+     * @return whether a state had been sent for the entity
+     */
+    synchronized boolean forget(int connId, int entityId) {
+        Map<Integer, byte[]> states = sentStates.get(connId);
+        return (states != null) && (states.remove(entityId) != null);
+    }
+
+    /**
+     * Must be called for every packet sent to a connection; entity removals
+     * make the client drop its state, so the server has to do the same.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void packetSent(int connId, Packet packet) {
+        if (packet.getCommand() == Packet.COMMAND_ENTITY_REMOVE) {
+            Map<Integer, byte[]> states = sentStates.get(connId);
+            if (states != null) {
+                states.keySet().removeAll((Collection<Integer>) packet.getObject(0));
+            }
+        }
+    }
+
+    /**
+     * Creates the update packet for the given connection, and remembers the
+     * state as sent.
+     *
+     * @param connId the connection the packet will be sent to; must be
+     *            registered
+     * @param entityId the id of the entity
+     * @param state the serialized entity, see {@link #serialize(Entity)}
+     * @param movePath the path the entity moved along, may be
+     *            <code>null</code>
+     * @return the packet to send
+     */
+    synchronized Packet createUpdatePacket(int connId, int entityId, byte[] state,
+            Vector<UnitLocation> movePath) {
+        Map<Integer, byte[]> states = sentStates.get(connId);
+        byte[] base = states.get(entityId);
+        if (base == null) {
+            base = NO_STATE;
+        }
+        byte[] delta;
+        if ((base == lastBase) && (state == lastTarget)) {
+            delta = lastDelta;
+        } else {
+            delta = ByteDelta.diff(base, state);
+            lastBase = base;
+            lastTarget = state;
+            lastDelta = delta;
+        }
+        states.put(entityId, state);
+
+        final Object[] data = new Object[5];
+        data[0] = entityId;
+        data[1] = ByteDelta.checksum(base);
+        data[2] = delta;
+        data[3] = ByteDelta.checksum(state);
+        data[4] = movePath;
+        return new Packet(Packet.COMMAND_ENTITY_DELTA_UPDATE, data);
+    }
+
+    /**
+     * Serializes an entity in the form the client will deserialize it from.
+     */
+    static byte[] serialize(Entity entity) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(entity);
+        }
+        return bos.toByteArray();
+    }
+}
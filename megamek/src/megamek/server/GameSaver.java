@@ -0,0 +1,277 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.thoughtworks.xstream.XStream;
+
+import megamek.common.IGame;
+import megamek.common.logging.DefaultMmLogger;
+import megamek.common.util.BinarySaveGame;
+
+/**
+ * Writes save games off the game thread. The caller takes a snapshot of the
+ * game while it holds the server lock, which is a plain serialization to
+ * memory; the XML encoding, compression and writing happen on a background
+ * thread from that copy, so the game may go on meanwhile.
+ * <p>
+ * A file is written to a temporary file next to it that is then renamed, so a
+ * crash during a save never leaves a truncated save game behind. When a save
+ * to the same file is still waiting for the writer, the newer snapshot takes
+ * its place.
+ * <p>
+ * Whoever wants to tell that a game was saved passes a callback, which the
+ * writer runs once the file is in place; a save that fails never runs it.
+ */
+class GameSaver {
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Game Saver");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    /** Snapshots not yet taken up by the writer, by file; guarded by itself */
+    private final Map<File, PendingSave> pending = new HashMap<>();
+
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong snapshotNanos = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private volatile long lastSnapshotNanos;
+    private volatile long lastEncodeNanos;
+
+    /**
+     * Takes a snapshot of the game and queues it to be written. Must be called
+     * while no other thread changes the game.
+     *
+     * @param game the game to save
+     * @param file the file to write, which is compressed
+     * @return the pending write
+     * @throws IOException if the game could not be serialized
+     */
+    Future<?> save(IGame game, File file) throws IOException {
+        return save(game, file, null);
+    }
+
+    /**
+     * Takes a snapshot of the game and queues it to be written. Must be called
+     * while no other thread changes the game.
+     *
+     * @param game    the game to save
+     * @param file    the file to write, which is compressed
+     * @param onSaved run by the writer once the file is written, may be
+     *                <code>null</code>
+     * @return the pending write
+     * @throws IOException if the game could not be serialized
+     */
+    Future<?> save(IGame game, File file, Runnable onSaved) throws IOException {
+        long start = System.nanoTime();
+        PendingSave save = new PendingSave(snapshot(game));
+        long elapsed = System.nanoTime() - start;
+        lastSnapshotNanos = elapsed;
+        snapshotNanos.addAndGet(elapsed);
+        if (onSaved != null) {
+            save.onSaved.add(onSaved);
+        }
+
+        synchronized (pending) {
+            PendingSave replaced = pending.put(file, save);
+            if (replaced != null) {
+                // the queued write will pick up this snapshot instead
+                save.onSaved.addAll(0, replaced.onSaved);
+                skipped.incrementAndGet();
+            }
+        }
+        return writer.submit(() -> write(file));
+    }
+
+    private void write(File file) {
+        PendingSave save;
+        synchronized (pending) {
+            save = pending.remove(file);
+        }
+        if (save == null) {
+            // written by an earlier task
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            encode(restore(save.snapshot), file);
+            saves.incrementAndGet();
+        } catch (Exception e) {
+            DefaultMmLogger.getInstance().error(getClass(), "write(File)", "Unable to save file: " + file, e);
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        lastEncodeNanos = elapsed;
+        encodeNanos.addAndGet(elapsed);
+        DefaultMmLogger.getInstance().info(getClass(), "write(File)",
+                "Saved " + file + ": snapshot " + TimeUnit.NANOSECONDS.toMillis(lastSnapshotNanos)
+                        + " ms, encode " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+        for (Runnable onSaved : save.onSaved) {
+            onSaved.run();
+        }
+    }
+
+    /**
+     * Runs a task on the writer, after the saves queued before it.
+     */
+    Future<?> submit(Runnable task) {
+        return writer.submit(task);
+    }
+
+    /**
+     * Waits for the queued saves to be written.
+     */
+    void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (Exception e) {
+            DefaultMmLogger.getInstance().error(getClass(), "flush()", e);
+        }
+    }
+
+    /**
+     * Writes the queued saves and stops the writer.
+     */
+    void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static byte[] snapshot(IGame game) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(1 << 16);
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(game);
+        }
+        return bos.toByteArray();
+    }
+
+    static IGame restore(byte[] snapshot) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(snapshot))) {
+            return (IGame) in.readObject();
+        }
+    }
+
+    /**
+     * Writes the game as compressed XML through a temporary file, or in the
+     * binary format when the file has its extension.
+     */
+    static void encode(IGame game, File file) throws IOException {
+        if (file.getName().endsWith(BinarySaveGame.EXTENSION)) {
+            BinarySaveGame.write(game, file);
+            return;
+        }
+        XStream xstream = new XStream();
+
+        // This will make save games much smaller
+        // by using a more efficient means of referencing
+        // objects in the XML graph
+        xstream.setMode(XStream.ID_REFERENCES);
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream os = new FileOutputStream(temp);
+             OutputStream gzo = new GZIPOutputStream(os);
+             Writer writer = new OutputStreamWriter(gzo, StandardCharsets.UTF_8)) {
+            xstream.toXML(game, writer);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return the number of saves written
+     */
+    long getSaves() {
+        return saves.get();
+    }
+
+    /**
+     * @return the number of snapshots replaced by a newer one before they were
+     *         written
+     */
+    long getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * @return the total time spent taking snapshots on the game thread, in
+     *         nanoseconds
+     */
+    long getSnapshotNanos() {
+        return snapshotNanos.get();
+    }
+
+    /**
+     * @return the total time spent encoding and writing on the background
+     *         thread, in nanoseconds
+     */
+    long getEncodeNanos() {
+        return encodeNanos.get();
+    }
+
+    long getLastSnapshotNanos() {
+        return lastSnapshotNanos;
+    }
+
+    long getLastEncodeNanos() {
+        return lastEncodeNanos;
+    }
+
+    private static final class PendingSave {
+        final byte[] snapshot;
+        final List<Runnable> onSaved = new ArrayList<>(1);
+
+        PendingSave(byte[] snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Vector;
+import java.util.function.UnaryOperator;
+
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.Report;
+
+/**
+ * Serves the report history of a game a few rounds at a time, so a client
+ * that connects to a game in progress does not have to receive every round at
+ * once.
+ * <p>
+ * In double-blind games each player gets the reports of a round as they were
+ * filtered for them. The filtered rounds are kept per player, and are made
+ * again only when the round has had reports added since.
+ */
+class ReportPager {
+
+    /** The most rounds sent in one page */
+    static final int MAX_PAGE_ROUNDS = 10;
+
+    private final UnaryOperator<Report> obscurer;
+
+    /** The filtered rounds by player name and round; guarded by this */
+    private final Map<String, Map<Integer, FilteredRound>> filtered = new HashMap<>();
+
+    /**
+     * @param obscurer makes the obscured copy of a report for the players it
+     *                 was obscured for, or <code>null</code> if they should
+     *                 not see it at all
+     */
+    ReportPager(UnaryOperator<Report> obscurer) {
+        this.obscurer = obscurer;
+    }
+
+    /**
+     * Returns the reports of the given rounds, or of as many of them as fit in
+     * a page.
+     *
+     * @param game       the game
+     * @param p          the player to filter for
+     * @param firstRound the first round wanted, counting from one
+     * @param lastRound  the last round wanted
+     * @param blind      whether the reports are filtered for double-blind
+     * @return the reports of each round from <code>firstRound</code> on, up
+     *         to the last round the game has reports for
+     */
+    synchronized Vector<Vector<Report>> getPage(IGame game, IPlayer p, int firstRound, int lastRound,
+            boolean blind) {
+        Vector<Vector<Report>> all = game.getAllReports();
+        int first = Math.max(1, firstRound);
+        int last = Math.min(Math.min(lastRound, all.size()), (first + MAX_PAGE_ROUNDS) - 1);
+        Vector<Vector<Report>> page = new Vector<>();
+        for (int round = first; round <= last; round++) {
+            Vector<Report> reports = all.elementAt(round - 1);
+            page.addElement(blind ? filter(reports, round, p) : reports);
+        }
+        return page;
+    }
+
+    private Vector<Report> filter(Vector<Report> reports, int round, IPlayer p) {
+        Map<Integer, FilteredRound> rounds = filtered.computeIfAbsent(p.getName(), k -> new HashMap<>());
+        FilteredRound cached = rounds.get(round);
+        if ((cached != null) && (cached.source == reports) && (cached.size == reports.size())) {
+            return cached.reports;
+        }
+        Vector<Report> filteredReports = new Vector<>(reports.size());
+        for (Report r : reports) {
+            if (r.isObscuredRecipient(p.getName())) {
+                r = obscurer.apply(r);
+            }
+            if (r != null) {
+                filteredReports.addElement(r);
+            }
+        }
+        FilteredRound filteredRound = new FilteredRound();
+        filteredRound.source = reports;
+        filteredRound.size = reports.size();
+        filteredRound.reports = filteredReports;
+        rounds.put(round, filteredRound);
+        return filteredReports;
+    }
+
+    private static final class FilteredRound {
+        Vector<Report> source;
+        int size;
+        Vector<Report> reports;
+    }
+}
@@ -0,0 +1,574 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.Mounted;
+import megamek.common.Report;
+import megamek.common.logging.DefaultMmLogger;
+import megamek.common.util.BinarySaveGame;
+
+/**
+ * A save game kept as a journal: a full checkpoint in the binary save format,
+ * followed by one record per autosave that holds only what changed since the
+ * record before it. Every few rounds the journal starts over with a new
+ * checkpoint, so it never grows long.
+ * <p>
+ * A delta record is the game serialized with the entities, hexes and reports
+ * that did not change replaced by references to the state the previous record
+ * left, so replaying a record only reads what changed. An entity counts as
+ * changed when its serialized state differs, or when it refers to an entity
+ * that changed. Hexes count as changed when the server sent them to the
+ * clients as changed, and reports are only ever appended.
+ * <p>
+ * The game thread only takes a snapshot, as for a full save; comparing it to
+ * the previous record and writing happen on the {@link GameSaver} thread.
+ * Each record carries a checksum, so a record cut short by a crash ends the
+ * replay without spoiling the records before it.
+ */
+public class SaveJournal {
+
+    /** The extension of save game journals */
+    public static final String EXTENSION = ".mmj";
+
+    /** The rounds between checkpoints when not given */
+    public static final int DEFAULT_CHECKPOINT_ROUNDS = 5;
+
+    private static final int MAGIC = 0x4D4D4A4C; // "MMJL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int CHECKPOINT = 0;
+    private static final int DELTA = 1;
+
+    private final File file;
+    private final int checkpointRounds;
+
+    // What the game thread knows about the last record
+    private IGame game;
+    private IBoard board;
+    private int checkpointRound;
+    private Set<Coords> changedHexes = new HashSet<>();
+
+    // The state the last record left, kept by the writer
+    private Map<Integer, EntityState> entityStates = new HashMap<>();
+    private int[] reportCounts = new int[0];
+    private int boardWidth;
+    private int boardHeight;
+    /** Whether the last record could not be written */
+    private boolean broken = true;
+
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong deltas = new AtomicLong();
+    private final AtomicLong deltaBytes = new AtomicLong();
+
+    SaveJournal(File file, int checkpointRounds) {
+        this.file = file;
+        this.checkpointRounds = Math.max(1, checkpointRounds);
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Notes hexes that changed since the last record.
+     */
+    synchronized void hexesChanged(Collection<Coords> coords) {
+        changedHexes.addAll(coords);
+    }
+
+    /**
+     * Records the state of the game: a new checkpoint when one is due, a
+     * delta record otherwise. Must be called while no other thread changes
+     * the game.
+     *
+     * @param game  the game to record
+     * @param saver the writer to write the record with
+     * @throws IOException if the game could not be serialized
+     */
+    void record(IGame game, GameSaver saver) throws IOException {
+        record(game, saver, null);
+    }
+
+    /**
+     * Records the state of the game, see {@link #record(IGame, GameSaver)}.
+     *
+     * @param game    the game to record
+     * @param saver   the writer to write the record with
+     * @param onSaved run by the writer once the record is written, may be
+     *                <code>null</code>
+     * @throws IOException if the game could not be serialized
+     */
+    synchronized void record(IGame game, GameSaver saver, Runnable onSaved) throws IOException {
+        long start = System.nanoTime();
+        byte[] snapshot = GameSaver.snapshot(game);
+        long snapshotNanos = System.nanoTime() - start;
+        boolean checkpoint = needsCheckpoint(game);
+        if (checkpoint) {
+            this.game = game;
+            board = game.getBoard();
+            checkpointRound = game.getRoundCount();
+        }
+        Set<Coords> hexes = changedHexes;
+        changedHexes = new HashSet<>();
+        saver.submit(() -> {
+            if (write(snapshot, checkpoint, hexes, snapshotNanos) && (onSaved != null)) {
+                onSaved.run();
+            }
+        });
+    }
+
+    private boolean needsCheckpoint(IGame game) {
+        int round = game.getRoundCount();
+        return (this.game != game) || (board != game.getBoard()) || (round < checkpointRound)
+                || (round >= (checkpointRound + checkpointRounds));
+    }
+
+    /**
+     * @return the ids of the entities in the same state as at the last
+     *         record that refer only to such entities
+     */
+    private Set<Integer> unchangedEntities(Map<Integer, EntityState> states) {
+        Set<Integer> unchanged = new HashSet<>();
+        for (Map.Entry<Integer, EntityState> entry : states.entrySet()) {
+            EntityState old = entityStates.get(entry.getKey());
+            EntityState current = entry.getValue();
+            if ((old != null) && Arrays.equals(old.bytes, current.bytes)) {
+                unchanged.add(entry.getKey());
+            }
+        }
+        // an entity referring to a changed one is written again, so that on
+        // replay it refers to the new one
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (Integer id : new HashSet<>(unchanged)) {
+                for (int ref : states.get(id).refs) {
+                    if (!unchanged.contains(ref)) {
+                        unchanged.remove(id);
+                        shrunk = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return unchanged;
+    }
+
+    private byte[] encodeDelta(IGame game, Map<Integer, Entity> live, Set<Integer> unchanged,
+            Set<Coords> changedHexes) throws IOException {
+        Map<Report, Long> reports = unchangedReports(game);
+        IBoard currentBoard = game.getBoard();
+        int width = currentBoard.getWidth();
+        Map<IHex, Integer> hexPositions = new IdentityHashMap<>();
+        for (int y = 0; y < currentBoard.getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                if (!changedHexes.contains(new Coords(x, y))) {
+                    hexPositions.put(currentBoard.getHex(x, y), (y * width) + x);
+                }
+            }
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(1 << 16);
+        try (ObjectOutputStream out = new ObjectOutputStream(bos) {
+            {
+                enableReplaceObject(true);
+            }
+
+            @Override
+            protected Object replaceObject(Object obj) {
+                if (obj instanceof Entity) {
+                    Entity entity = (Entity) obj;
+                    if (unchanged.contains(entity.getId()) && (live.get(entity.getId()) == entity)) {
+                        return new Ref(Ref.ENTITY, entity.getId(), 0);
+                    }
+                } else if (obj instanceof Mounted) {
+                    Entity entity = ((Mounted) obj).getEntity();
+                    if ((entity != null) && unchanged.contains(entity.getId())
+                            && (live.get(entity.getId()) == entity)) {
+                        int index = entity.getEquipmentNum((Mounted) obj);
+                        if (index >= 0) {
+                            return new Ref(Ref.MOUNTED, entity.getId(), index);
+                        }
+                    }
+                } else if (obj instanceof IHex) {
+                    Integer position = hexPositions.get(obj);
+                    if (position != null) {
+                        return new Ref(Ref.HEX, position, 0);
+                    }
+                } else if (obj instanceof Report) {
+                    Long position = reports.get(obj);
+                    if (position != null) {
+                        return new Ref(Ref.REPORT, (int) (position >> 32), (int) (long) position);
+                    }
+                }
+                return obj;
+            }
+        }) {
+            out.writeObject(game);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Serializes an entity on its own, with the other entities it refers to
+     * as references, to tell whether it changed.
+     */
+    private static EntityState fingerprint(Entity entity, Map<Integer, Entity> live) throws IOException {
+        Set<Integer> refs = new HashSet<>();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(4096);
+        try (ObjectOutputStream out = new ObjectOutputStream(bos) {
+            {
+                enableReplaceObject(true);
+            }
+
+            @Override
+            protected Object replaceObject(Object obj) {
+                Entity other = null;
+                if (obj instanceof Entity) {
+                    other = (Entity) obj;
+                } else if (obj instanceof Mounted) {
+                    other = ((Mounted) obj).getEntity();
+                }
+                if ((other != null) && (other != entity) && (live.get(other.getId()) == other)) {
+                    refs.add(other.getId());
+                    return (obj instanceof Entity) ? new Ref(Ref.ENTITY, other.getId(), 0)
+                            : new Ref(Ref.MOUNTED, other.getId(), other.getEquipmentNum((Mounted) obj));
+                }
+                return obj;
+            }
+        }) {
+            out.writeObject(entity);
+        }
+        EntityState state = new EntityState();
+        state.bytes = bos.toByteArray();
+        state.refs = refs.stream().mapToInt(Integer::intValue).toArray();
+        return state;
+    }
+
+    /**
+     * @return the entities in and out of the game by id, preferring those in
+     */
+    private static Map<Integer, Entity> entitiesOf(IGame game) {
+        Map<Integer, Entity> entities = new HashMap<>();
+        for (Entity entity : game.getEntitiesVector()) {
+            entities.put(entity.getId(), entity);
+        }
+        for (Entity entity : game.getOutOfGameEntitiesVector()) {
+            entities.putIfAbsent(entity.getId(), entity);
+        }
+        return entities;
+    }
+
+    /**
+     * @return the position of each report that was there at the last record,
+     *         as round index and index in the round, packed
+     */
+    private Map<Report, Long> unchangedReports(IGame game) {
+        Map<Report, Long> positions = new IdentityHashMap<>();
+        Vector<Vector<Report>> rounds = game.getAllReports();
+        if (rounds.size() < reportCounts.length) {
+            // cleared or replaced since
+            return positions;
+        }
+        for (int round = 0; round < reportCounts.length; round++) {
+            List<Report> reports = rounds.get(round);
+            if (reports.size() < reportCounts[round]) {
+                return new IdentityHashMap<>();
+            }
+            for (int i = 0; i < reportCounts[round]; i++) {
+                positions.putIfAbsent(reports.get(i), ((long) round << 32) | i);
+            }
+        }
+        return positions;
+    }
+
+    private static int[] countReports(IGame game) {
+        Vector<Vector<Report>> rounds = game.getAllReports();
+        int[] counts = new int[rounds.size()];
+        for (int round = 0; round < counts.length; round++) {
+            counts[round] = rounds.get(round).size();
+        }
+        return counts;
+    }
+
+    // on the writer thread
+
+    private boolean write(byte[] snapshot, boolean checkpoint, Set<Coords> changedHexes, long snapshotNanos) {
+        long start = System.nanoTime();
+        try {
+            IGame copy = GameSaver.restore(snapshot);
+            Map<Integer, Entity> live = entitiesOf(copy);
+            Map<Integer, EntityState> states = new HashMap<>();
+            for (Map.Entry<Integer, Entity> entry : live.entrySet()) {
+                states.put(entry.getKey(), fingerprint(entry.getValue(), live));
+            }
+            IBoard copyBoard = copy.getBoard();
+            int length;
+            if (checkpoint || broken || (copyBoard.getWidth() != boardWidth)
+                    || (copyBoard.getHeight() != boardHeight)) {
+                checkpoint = true;
+                length = writeCheckpoint(copy);
+            } else {
+                length = appendDelta(encodeDelta(copy, live, unchangedEntities(states), changedHexes));
+            }
+            entityStates = states;
+            reportCounts = countReports(copy);
+            boardWidth = copyBoard.getWidth();
+            boardHeight = copyBoard.getHeight();
+            broken = false;
+            DefaultMmLogger.getInstance().info(getClass(), "write(byte[],boolean,Set,long)",
+                    "Saved " + (checkpoint ? "checkpoint" : "changes") + " to " + file + ": " + length
+                            + " bytes, snapshot " + TimeUnit.NANOSECONDS.toMillis(snapshotNanos)
+                            + " ms, encode " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            return true;
+        } catch (Exception e) {
+            // the next record starts a new checkpoint
+            broken = true;
+            DefaultMmLogger.getInstance().error(getClass(), "write(byte[],boolean,Set,long)",
+                    "Unable to save file: " + file, e);
+            return false;
+        }
+    }
+
+    private int writeCheckpoint(IGame game) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        byte[] data = BinarySaveGame.toBytes(game);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeRecord(out, CHECKPOINT, data);
+        } catch (IOException | RuntimeException e) {
+            temp.delete();
+            throw e;
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        checkpoints.incrementAndGet();
+        return data.length;
+    }
+
+    private int appendDelta(byte[] delta) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(delta.length / 4);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bos, new Deflater(Deflater.BEST_SPEED))) {
+            out.write(delta);
+        }
+        byte[] data = bos.toByteArray();
+        try (FileOutputStream fos = new FileOutputStream(file, true);
+             DataOutputStream out = new DataOutputStream(fos)) {
+            writeRecord(out, DELTA, data);
+            out.flush();
+            fos.getFD().sync();
+        }
+        deltas.incrementAndGet();
+        deltaBytes.addAndGet(data.length);
+        return data.length;
+    }
+
+    private static void writeRecord(DataOutputStream out, int type, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        out.writeInt(type);
+        out.writeInt(data.length);
+        out.writeInt((int) crc.getValue());
+        out.write(data);
+    }
+
+    /**
+     * @return true if the file starts like a save game journal
+     */
+    public static boolean isJournal(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the checkpoint of a journal and replays the records after it. A
+     * record that was cut short ends the replay.
+     */
+    public static IGame replay(File file) throws IOException {
+        byte[] data = Files.readAllBytes(file.toPath());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if ((data.length < 8) || (in.readInt() != MAGIC)) {
+            throw new IOException("Not a save game journal: " + file);
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported journal format " + version);
+        }
+        IGame game = null;
+        int records = 0;
+        while (in.available() >= 12) {
+            int type = in.readInt();
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if ((length < 0) || (length > in.available())) {
+                break;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            if (type == CHECKPOINT) {
+                game = BinarySaveGame.fromBytes(record);
+            } else if ((type == DELTA) && (game != null)) {
+                game = applyDelta(game, record);
+            }
+            records++;
+        }
+        if (game == null) {
+            throw new IOException("No checkpoint in " + file);
+        }
+        if (in.available() > 0) {
+            DefaultMmLogger.getInstance().warning(SaveJournal.class, "replay(File)",
+                    "Ignored a damaged record at the end of " + file + " after " + records + " records");
+        }
+        return game;
+    }
+
+    private static IGame applyDelta(IGame previous, byte[] record) throws IOException {
+        Map<Integer, Entity> entities = entitiesOf(previous);
+        IBoard previousBoard = previous.getBoard();
+        Vector<Vector<Report>> reports = previous.getAllReports();
+        try (InputStream inflated = new InflaterInputStream(new ByteArrayInputStream(record));
+             ObjectInputStream in = new ObjectInputStream(inflated) {
+                 {
+                     enableResolveObject(true);
+                 }
+
+                 @Override
+                 protected Object resolveObject(Object obj) throws IOException {
+                     if (!(obj instanceof Ref)) {
+                         return obj;
+                     }
+                     Ref ref = (Ref) obj;
+                     Object resolved = null;
+                     try {
+                         switch (ref.kind) {
+                             case Ref.ENTITY:
+                                 resolved = entities.get(ref.a);
+                                 break;
+                             case Ref.MOUNTED:
+                                 resolved = entities.get(ref.a).getEquipment(ref.b);
+                                 break;
+                             case Ref.HEX:
+                                 resolved = previousBoard.getHex(ref.a % previousBoard.getWidth(),
+                                         ref.a / previousBoard.getWidth());
+                                 break;
+                             case Ref.REPORT:
+                                 resolved = reports.get(ref.a).get(ref.b);
+                                 break;
+                             default:
+                                 break;
+                         }
+                     } catch (RuntimeException e) {
+                         resolved = null;
+                     }
+                     if (resolved == null) {
+                         throw new IOException("Bad reference in journal: " + ref.kind + " " + ref.a + " " + ref.b);
+                     }
+                     return resolved;
+                 }
+             }) {
+            return (IGame) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown class in journal", e);
+        }
+    }
+
+    long getCheckpoints() {
+        return checkpoints.get();
+    }
+
+    long getDeltas() {
+        return deltas.get();
+    }
+
+    /**
+     * @return the compressed bytes written for delta records
+     */
+    long getDeltaBytes() {
+        return deltaBytes.get();
+    }
+
+    private static final class EntityState {
+        byte[] bytes;
+        int[] refs;
+    }
+
+    /**
+     * Stands for an object the previous record left.
+     */
+    private static final class Ref implements Serializable {
+        private static final long serialVersionUID = 1L;
+        static final int ENTITY = 0;
+        static final int MOUNTED = 1;
+        static final int HEX = 2;
+        static final int REPORT = 3;
+
+        final int kind;
+        final int a;
+        final int b;
+
+        Ref(int kind, int a, int b) {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+    }
+}
@@ -24,7 +24,6 @@ import java.net.Socket;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
-import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,7 +50,6 @@ import java.util.Vector;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import com.thoughtworks.xstream.XStream;
 
@@ -106,14 +104,18 @@ import megamek.common.logging.MMLogger;
 import megamek.common.net.ConnectionFactory;
 import megamek.common.net.ConnectionListenerAdapter;
 import megamek.common.net.DisconnectedEvent;
+import megamek.common.net.EncodedPacket;
 import megamek.common.net.IConnection;
 import megamek.common.net.Packet;
 import megamek.common.net.PacketReceivedEvent;
+import megamek.common.net.compression.PacketCodecFactory;
+import megamek.common.net.marshall.PacketMarshallerFactory;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
 import megamek.common.options.IOption;
 import megamek.common.options.OptionsConstants;
 import megamek.common.preference.PreferenceManager;
+import megamek.common.util.BinarySaveGame;
 import megamek.common.util.BoardUtilities;
 import megamek.common.util.fileUtils.MegaMekFile;
 import megamek.common.util.SerializationHelper;
@@ -288,6 +290,16 @@ public class Server implements Runnable {
 
     private Hashtable<Integer, IConnection> connectionIds = new Hashtable<>();
 
+    /**
+     * Entity states last sent to the connections that accept delta updates
+     */
+    private final EntityDeltaTracker entityDeltas = new EntityDeltaTracker();
+
+    /**
+     * Lines of sight between entities, kept across double-blind updates
+     */
+    private final VisibilityIndex visibility = new VisibilityIndex();
+
     private int connectionCounter;
 
     private IGame game = new Game();
@@ -371,6 +383,7 @@ public class Server implements Runnable {
                 connections.removeElement(conn);
                 connectionsPending.removeElement(conn);
                 connectionIds.remove(conn.getId());
+                entityDeltas.unregister(conn.getId());
                 ConnectionHandler ch = connectionHandlers.get(conn.getId());
                 if (ch != null) {
                     ch.signalStop();
@@ -418,6 +431,16 @@ public class Server implements Runnable {
      */
     private final Object serverLock = new Object();
 
+    /** Writes save games off the game thread */
+    private final GameSaver gameSaver = new GameSaver();
+
+    /** Keeps journaled autosaves */
+    private final SaveJournal saveJournal = new SaveJournal(
+            new File("savegames", "autosave" + SaveJournal.EXTENSION), SaveJournal.DEFAULT_CHECKPOINT_ROUNDS);
+
+    /** Serves the report history to clients a few rounds at a time */
+    private final ReportPager reportPager = new ReportPager(r -> filterReport(r, null, true));
+
     public Server(String password, int port) throws IOException {
         this(password, port, false, "");
     }
@@ -437,7 +460,7 @@ public class Server implements Runnable {
         this.metaServerUrl = metaServerUrl;
         this.password = password.length() > 0 ? password : null;
         // initialize server socket
-        serverSocket = new ServerSocket(port);
+        serverSocket = ConnectionFactory.getInstance().createServerSocket(port);
 
         motd = createMotd();
 
@@ -608,6 +631,13 @@ public class Server implements Runnable {
         return game;
     }
 
+    /**
+     * Returns the lines of sight kept for double-blind, for testing
+     */
+    VisibilityIndex getVisibilityIndex() {
+        return visibility;
+    }
+
     /**
      * Make a default message o' the day containing the version string, and if
      * it was found, the build timestamp
@@ -695,6 +725,8 @@ public class Server implements Runnable {
 
         connections.removeAllElements();
         connectionIds.clear();
+        // let the last autosave reach the disk
+        gameSaver.shutdown();
         if (serverBrowserUpdateTimer != null) {
             serverBrowserUpdateTimer.cancel();
         }
@@ -852,6 +884,33 @@ public class Server implements Runnable {
         } else {
             getLogger().info(getClass(), METHOD_NAME, "SUCCESS: Client/Server Version (" + version + ") and Checksum (" + clientChecksum + ") matched");
         }
+
+        // Older clients don't report their marshalling types and stay on
+        // native serialization
+        int[] clientMarshallingTypes = null;
+        if (packet.getData().length > 2) {
+            clientMarshallingTypes = (int[]) packet.getObject(2);
+        }
+        IConnection conn = getConnection(connId);
+        if (conn == null) {
+            conn = getPendingConnection(connId);
+        }
+        // The same goes for compression: older clients only know GZIP
+        int[] clientCompressionTypes = null;
+        if (packet.getData().length > 4) {
+            clientCompressionTypes = (int[]) packet.getObject(4);
+        }
+        if (conn != null) {
+            conn.setMarshallingType(PacketMarshallerFactory.getInstance()
+                    .negotiateMarshallingType(clientMarshallingTypes));
+            conn.setCompressionType(PacketCodecFactory.getInstance()
+                    .negotiateCompressionType(clientCompressionTypes));
+        }
+        if ((packet.getData().length > 3) && Boolean.TRUE.equals(packet.getObject(3))) {
+            entityDeltas.register(connId);
+        } else {
+            entityDeltas.unregister(connId);
+        }
     }
 
     /**
@@ -976,7 +1035,10 @@ public class Server implements Runnable {
             } else {
                 send(connId, new Packet(Packet.COMMAND_ROUND_UPDATE, game.getRoundCount()));
                 send(connId, createBoardPacket());
-                send(connId, createAllReportsPacket(player));
+                // only the latest round; the client asks for the others
+                // as they are looked at
+                int lastRound = game.getAllReports().size();
+                send(connId, createReportsPagePacket(player, lastRound, lastRound));
 
                 // Send entities *before* other phase changes.
                 if (doBlind()) {
@@ -1199,6 +1261,18 @@ public class Server implements Runnable {
      * automatically save the game
      */
     public void autoSave() {
+        if (game.getOptions().booleanOption(OptionsConstants.BASE_JOURNAL_AUTOSAVE)) {
+            try {
+                // announced by the writer, once the record is on disk
+                File file = saveJournal.getFile();
+                saveJournal.record(game, gameSaver,
+                        game.getOptions().booleanOption(OptionsConstants.BASE_AUTOSAVE_MSG)
+                                ? () -> sendChat("MegaMek", "Game saved to " + file) : null);
+                return;
+            } catch (Exception e) {
+                getLogger().error(getClass(), "autoSave()", "Unable to record the game, saving it in full", e);
+            }
+        }
         String fileName = "autosave";
         if (PreferenceManager.getClientPreferences().stampFilenames()) {
             fileName = StringUtil.addDateTimeStamp(fileName);
@@ -1216,6 +1290,7 @@ public class Server implements Runnable {
      */
     public void sendSaveGame(int connId, String sFile, String sLocalPath) {
         saveGame(sFile, false);
+        gameSaver.flush();
         String sFinalFile = sFile;
         if (!sFinalFile.endsWith(".sav.gz")) {
             if (sFinalFile.endsWith(".sav")) {
@@ -1254,15 +1329,10 @@ public class Server implements Runnable {
         if (sFile.endsWith(".gz")) {
             sFile = sFile.replace(".gz", "");
         }
-        XStream xstream = new XStream();
-
-        // This will make save games much smaller
-        // by using a more efficient means of referencing
-        // objects in the XML graph
-        xstream.setMode(XStream.ID_REFERENCES);
-
+        // binary saves keep their name
+        boolean binary = sFile.endsWith(BinarySaveGame.EXTENSION);
         String sFinalFile = sFile;
-        if (!sFinalFile.endsWith(".sav")) {
+        if (!binary && !sFinalFile.endsWith(".sav")) {
             sFinalFile = sFile + ".sav";
         }
         File sDir = new File("savegames");
@@ -1272,19 +1342,16 @@ public class Server implements Runnable {
 
         sFinalFile = sDir + File.separator + sFinalFile;
 
-        try (OutputStream os = new FileOutputStream(sFinalFile + ".gz");
-             OutputStream gzo = new GZIPOutputStream(os);
-             Writer writer = new OutputStreamWriter(gzo, StandardCharsets.UTF_8)) {
-
-            xstream.toXML(game, writer);
+        // only the snapshot is taken here; the file is written in the
+        // background, and announced once it is
+        final String savedFile = sFinalFile;
+        try {
+            gameSaver.save(game, new File(binary ? sFinalFile : sFinalFile + ".gz"),
+                    sendChat ? () -> sendChat("MegaMek", "Game saved to " + savedFile) : null);
         } catch (Exception e) {
             getLogger().error(getClass(), "saveGame(String,boolean)",
                     "Unable to save file: " + sFinalFile, e);
         }
-
-        if (sendChat) {
-            sendChat("MegaMek", "Game saved to " + sFinalFile);
-        }
     }
 
     /**
@@ -1339,9 +1406,17 @@ public class Server implements Runnable {
         getLogger().info(getClass(), METHOD_NAME, "s: loading saved game file '" + f + "'"); //$NON-NLS-1$
 
         IGame newGame;
-        try (InputStream is = new FileInputStream(f); InputStream gzi = new GZIPInputStream(is)) {
-            XStream xstream = SerializationHelper.getXStream();
-            newGame = (IGame) xstream.fromXML(gzi);
+        try {
+            if (BinarySaveGame.isBinarySave(f)) {
+                newGame = BinarySaveGame.read(f);
+            } else if (SaveJournal.isJournal(f)) {
+                newGame = SaveJournal.replay(f);
+            } else {
+                try (InputStream is = new FileInputStream(f); InputStream gzi = new GZIPInputStream(is)) {
+                    XStream xstream = SerializationHelper.getXStream();
+                    newGame = (IGame) xstream.fromXML(gzi);
+                }
+            }
         } catch (Exception e) {
             getLogger().error(getClass(), METHOD_NAME, "Unable to load file: " + f, e); //$NON-NLS-1$
             return false;
@@ -3064,9 +3139,10 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        EncodedPacket packet = new EncodedPacket(createTagInfoUpdatesPacket());
         for (IConnection connection : connections) {
             if (connection != null) {
-                connection.send(createTagInfoUpdatesPacket());
+                connection.send(packet);
             }
         }
     }
@@ -6868,7 +6944,7 @@ public class Server implements Runnable {
                         // If not set, BV icons could have wrong facing
                         entity.setSecondaryFacing(step.getFacing());
                         // Update entity position on client
-                        send(e.getOwnerId(), createEntityPacket(entity.getId(), null));
+                        sendEntityUpdate(Collections.singletonList(e.getOwnerId()), entity.getId(), null);
                         boolean tookPBS = processPointblankShotCFR(e, entity);
                         // Movement should be interrupted
                         if (tookPBS) {
@@ -29693,13 +29769,13 @@ public class Server implements Runnable {
             }
 
             // send an entity update to everyone who can see
-            Packet pack = createEntityPacket(nEntityID, movePath);
-            for (int x = 0; x < vCanSee.size(); x++) {
-                IPlayer p = vCanSee.elementAt(x);
-                send(p.getId(), pack);
+            List<Integer> connIds = new ArrayList<>(vCanSee.size());
+            for (IPlayer p : vCanSee) {
+                connIds.add(p.getId());
             }
+            sendEntityUpdate(connIds, nEntityID, movePath);
             // send an entity delete to everyone else
-            pack = createRemoveEntityPacket(nEntityID,
+            Packet pack = createRemoveEntityPacket(nEntityID,
                                             eTarget.getRemovalCondition());
             for (int x = 0; x < playersVector.size(); x++) {
                 if (!vCanSee.contains(playersVector.elementAt(x))) {
@@ -29711,7 +29787,45 @@ public class Server implements Runnable {
             entityUpdateLoadedUnits(eTarget, vCanSee, playersVector);
         } else {
             // But if we're not, then everyone can see.
-            send(createEntityPacket(nEntityID, movePath));
+            List<Integer> connIds = new ArrayList<>(connections.size());
+            for (IConnection conn : connections) {
+                connIds.add(conn.getId());
+            }
+            sendEntityUpdate(connIds, nEntityID, movePath);
+        }
+    }
+
+    /**
+     * Sends the current state of an entity to the given connections. Clients
+     * that accept delta updates only get the difference to the state they
+     * were sent last, everyone else gets the whole entity.
+     *
+     * @param connIds  the connections to update
+     * @param entityId the id of the entity
+     * @param movePath the path the entity moved along, may be <code>null</code>
+     */
+    private void sendEntityUpdate(List<Integer> connIds, int entityId,
+                                  Vector<UnitLocation> movePath) {
+        final String METHOD_NAME = "sendEntityUpdate(List<Integer>,int,Vector<UnitLocation>)";
+        EncodedPacket fullPacket = null;
+        byte[] state = null;
+        for (int connId : connIds) {
+            if (entityDeltas.isRegistered(connId)) {
+                if (state == null) {
+                    try {
+                        state = EntityDeltaTracker.serialize(game.getEntity(entityId));
+                    } catch (IOException e) {
+                        getLogger().error(getClass(), METHOD_NAME, e);
+                        return;
+                    }
+                }
+                send(connId, entityDeltas.createUpdatePacket(connId, entityId, state, movePath));
+            } else {
+                if (fullPacket == null) {
+                    fullPacket = new EncodedPacket(createEntityPacket(entityId, movePath));
+                }
+                send(connId, fullPacket);
+            }
         }
     }
 
@@ -29730,13 +29844,13 @@ public class Server implements Runnable {
 
         // In double-blind, the client may not know about the loaded units,
         // so we need to send them.
+        List<Integer> connIds = new ArrayList<>(vCanSee.size());
+        for (IPlayer p : vCanSee) {
+            connIds.add(p.getId());
+        }
         for (Entity eLoaded : loader.getLoadedUnits()) {
             // send an entity update to everyone who can see
-            pack = createEntityPacket(eLoaded.getId(), null);
-            for (int x = 0; x < vCanSee.size(); x++) {
-                IPlayer p = vCanSee.elementAt(x);
-                send(p.getId(), pack);
-            }
+            sendEntityUpdate(connIds, eLoaded.getId(), null);
             // send an entity delete to everyone else
             pack = createRemoveEntityPacket(eLoaded.getId(),
                                             eLoaded.getRemovalCondition());
@@ -29804,6 +29918,7 @@ public class Server implements Runnable {
         if (entity.isHidden()) {
             return vCanSee;
         }
+        visibility.validate(game);
         for (Entity spotter : vEntities) {
             // Certain conditions make the spotter ineligible
             if (!spotter.isActive() || spotter.isOffBoard()
@@ -29814,7 +29929,7 @@ public class Server implements Runnable {
             EntityTargetPair etp = new EntityTargetPair(spotter, entity);
             LosEffects los = losCache.get(etp);
             if (los == null) {
-                los = LosEffects.calculateLos(game, spotter.getId(), entity);
+                los = visibility.getLos(spotter, entity);
                 losCache.put(etp, los);
             }
             if (Compute.canSee(game, spotter, entity, useSensors, los,
@@ -29859,6 +29974,7 @@ public class Server implements Runnable {
             return vCanDetect;
         }
 
+        visibility.validate(game);
         for (Entity spotter : vEntities) {
             if (!spotter.isActive() || spotter.isOffBoard()
                     || vCanDetect.contains(spotter.getOwner())) {
@@ -29868,7 +29984,7 @@ public class Server implements Runnable {
             EntityTargetPair etp = new EntityTargetPair(spotter, entity);
             LosEffects los = losCache.get(etp);
             if (los == null) {
-                los = LosEffects.calculateLos(game, spotter.getId(), entity);
+                los = visibility.getLos(spotter, entity);
                 losCache.put(etp, los);
             }
             if (Compute.inSensorRange(game, los, spotter, entity, allECMInfo)) {
@@ -29979,6 +30095,7 @@ public class Server implements Runnable {
 
         // Then, break down the list by whether they're friendly,
         // or whether or not any friendly unit can see them.
+        visibility.validate(game);
         for (Entity e : vEntities) {
             // If it's their own unit, obviously, they can see it.
             if (vMyEntities.contains(e)) {
@@ -30001,7 +30118,7 @@ public class Server implements Runnable {
                 EntityTargetPair etp = new EntityTargetPair(spotter, e);
                 LosEffects los = losCache.get(etp);
                 if (los == null) {
-                    los = LosEffects.calculateLos(game, spotter.getId(), e);
+                    los = visibility.getLos(spotter, e);
                     losCache.put(etp, los);
                 }
                 // Otherwise, if they can see the entity in question
@@ -30151,36 +30268,6 @@ public class Server implements Runnable {
         return copy;
     }
 
-    /**
-     *
-     * @return a vector which has as its keys the round number and as its
-     *         elements vectors that contain all the reports for the specified player
-     *         that round. The reports returned this way are properly filtered for
-     *         double blind.
-     */
-    private Vector<Vector<Report>> filterPastReports(
-            Vector<Vector<Report>> pastReports, IPlayer p) {
-        // Only actually bother with the filtering if double-blind is in effect.
-        if (!doBlind()) {
-            return pastReports;
-        }
-        // Perform filtering
-        Vector<Vector<Report>> filteredReports = new Vector<>();
-        for (Vector<Report> roundReports : pastReports) {
-            Vector<Report> filteredRoundReports = new Vector<>();
-            for (Report r : roundReports) {
-                if (r.isObscuredRecipient(p.getName())) {
-                    r = filterReport(r, null, true);
-                }
-                if (r != null) {
-                    filteredRoundReports.addElement(r);
-                }
-            }
-            filteredReports.addElement(filteredRoundReports);
-        }
-        return filteredReports;
-    }
-
     /**
      * Updates entities graphical "visibility indications" which are used in
      * double-blind games.
@@ -31165,11 +31252,14 @@ public class Server implements Runnable {
     }
 
     /**
-     * Creates a packet containing all the round reports
+     * Creates a packet containing the reports of the given rounds, or as many
+     * of them as fit in a page, and the number of rounds there are reports
+     * for
      */
-    private Packet createAllReportsPacket(IPlayer p) {
-        return new Packet(Packet.COMMAND_SENDING_REPORTS_ALL,
-                filterPastReports(game.getAllReports(), p));
+    private Packet createReportsPagePacket(IPlayer p, int firstRound, int lastRound) {
+        int first = Math.max(1, firstRound);
+        return new Packet(Packet.COMMAND_SENDING_REPORTS_PAGE, new Object[] { first,
+                reportPager.getPage(game, p, first, lastRound, doBlind()), game.getAllReports().size() });
     }
 
     /**
@@ -31345,6 +31435,8 @@ public class Server implements Runnable {
      * Sends notification to clients that the specified hex has changed.
      */
     public void sendChangedHex(Coords coords) {
+        visibility.hexChanged(coords);
+        saveJournal.hexesChanged(Collections.singleton(coords));
         send(createHexChangePacket(coords, game.getBoard().getHex(coords)));
     }
 
@@ -31364,8 +31456,10 @@ public class Server implements Runnable {
     public void sendChangedHexes(Set<Coords> coords) {
         Set<IHex> hexes = new LinkedHashSet<>();
         for (Coords coord : coords) {
+            visibility.hexChanged(coord);
             hexes.add(game.getBoard().getHex(coord));
         }
+        saveJournal.hexesChanged(coords);
         send(createHexesChangePacket(coords, hexes));
     }
 
@@ -31486,9 +31580,11 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        EncodedPacket encoded = new EncodedPacket(packet);
         for (Enumeration<IConnection> connEnum = connections.elements(); connEnum.hasMoreElements(); ) {
             IConnection conn = connEnum.nextElement();
-            conn.send(packet);
+            entityDeltas.packetSent(conn.getId(), packet);
+            conn.send(encoded);
         }
     }
 
@@ -31511,16 +31607,20 @@ public class Server implements Runnable {
             return;
         }
 
+        if (tacticalGeniusReport) {
+            // the same for everyone
+            send(createTacticalGeniusReportPacket());
+            return;
+        }
+        if (!doBlind()) {
+            // nothing to filter, so everyone gets the same report
+            send(createReportPacket(null));
+            return;
+        }
         for (Enumeration<IConnection> connEnum = connections.elements(); connEnum.hasMoreElements(); ) {
             IConnection conn = connEnum.nextElement();
             IPlayer p = game.getPlayer(conn.getId());
-            Packet packet;
-            if (tacticalGeniusReport) {
-                packet = createTacticalGeniusReportPacket();
-            } else {
-                packet = createReportPacket(p);
-            }
-            conn.send(packet);
+            conn.send(createReportPacket(p));
         }
     }
 
@@ -31529,12 +31629,23 @@ public class Server implements Runnable {
      */
     public void send(int connId, Packet packet) {
         if (getClient(connId) != null) {
+            entityDeltas.packetSent(connId, packet);
             getClient(connId).send(packet);
         }
         // What should we do if we've lost this client?
         // For now, nothing.
     }
 
+    /**
+     * Send a packet shared with other connections to a specific connection.
+     */
+    private void send(int connId, EncodedPacket packet) {
+        if (getClient(connId) != null) {
+            entityDeltas.packetSent(connId, packet.getPacket());
+            getClient(connId).send(packet);
+        }
+    }
+
     /**
      * Send a packet to a pending connection
      */
@@ -31703,6 +31814,14 @@ public class Server implements Runnable {
                 receiveEntityUpdate(packet, connId);
                 resetPlayersDone();
                 break;
+            case Packet.COMMAND_ENTITY_DELTA_RESYNC:
+                // The client lost track of the entity; resend it in full, but
+                // only to that client and only if it was sent the entity
+                if (entityDeltas.forget(connId, packet.getIntValue(0))
+                        && (game.getEntity(packet.getIntValue(0)) != null)) {
+                    sendEntityUpdate(Collections.singletonList(connId), packet.getIntValue(0), null);
+                }
+                break;
             case Packet.COMMAND_ENTITY_LOAD:
                 receiveEntityLoad(packet, connId);
                 resetPlayersDone();
@@ -31814,6 +31933,7 @@ public class Server implements Runnable {
                     PlanetaryConditions conditions = (PlanetaryConditions) packet.getObject(0);
                     sendServerChat("Player " + player.getName() + " changed planetary conditions");
                     game.setPlanetaryConditions(conditions);
+                    visibility.clear();
                     resetPlayersDone();
                     transmitAllPlayerDones();
                     send(createPlanetaryConditionsPacket());
@@ -31859,6 +31979,11 @@ public class Server implements Runnable {
                         (SpecialHexDisplay) packet.getObject(1));
                 sendSpecialHexDisplayPackets();
                 break;
+            case Packet.COMMAND_REQUEST_REPORTS:
+                if (player != null) {
+                    send(connId, createReportsPagePacket(player, packet.getIntValue(0), packet.getIntValue(1)));
+                }
+                break;
         }
     }
 
@@ -31880,10 +32005,12 @@ public class Server implements Runnable {
                     c.addConnectionListener(connectionListener);
                     c.open();
                     connectionsPending.addElement(c);
-                    ConnectionHandler ch = new ConnectionHandler(c);
-                    Thread newConnThread = new Thread(ch, "Connection " + id);
-                    newConnThread.start();
-                    connectionHandlers.put(id, ch);
+                    if (ConnectionFactory.getInstance().needsPollingThread(c)) {
+                        ConnectionHandler ch = new ConnectionHandler(c);
+                        Thread newConnThread = new Thread(ch, "Connection " + id);
+                        newConnThread.start();
+                        connectionHandlers.put(id, ch);
+                    }
 
                     greeting(id);
                     ConnectionWatchdog w = new ConnectionWatchdog(this, id);
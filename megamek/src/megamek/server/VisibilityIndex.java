@@ -0,0 +1,312 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import megamek.common.Coords;
+import megamek.common.Dropship;
+import megamek.common.Entity;
+import megamek.common.GunEmplacement;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.LosEffects;
+import megamek.common.PlanetaryConditions;
+import megamek.common.event.BoardEvent;
+import megamek.common.event.BoardListenerAdapter;
+import megamek.common.options.GameOptions;
+import megamek.common.options.OptionsConstants;
+
+/**
+ * Keeps the line of sight between pairs of entities across calls, so that
+ * double-blind filtering only recalculates the pairs that could have
+ * changed.
+ * <p>
+ * A cached <code>LosEffects</code> is reused as long as
+ * <ul>
+ * <li>neither entity moved or changed its height, elevation or
+ * altitude,</li>
+ * <li>no hex that could lie on the line between them changed, and</li>
+ * <li>nothing that affects every line changed: the board itself, the LOS
+ * related game options, the planetary conditions or the grounded DropShips
+ * and gun emplacements, which block or raise lines like buildings do.</li>
+ * </ul>
+ * Hex changes are picked up from the board's events and from the server
+ * announcing changed hexes, since the server also changes hexes in place.
+ * <p>
+ * Only the LOS is indexed. Whether a spotter actually sees the target also
+ * depends on light, ECM, sensors and the like, which are cheap to check but
+ * change with far too many things to be cached safely.
+ */
+class VisibilityIndex {
+
+    /** The number of hex changes remembered; older entries are recalculated */
+    private static final int MAX_HEX_CHANGES = 1024;
+
+    private IGame game;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /** Changed hexes, the one at index i has the version hexBase + i + 1 */
+    private final List<Coords> hexChanges = new ArrayList<>();
+    private int hexBase = 0;
+
+    private IBoard board;
+
+    private final BoardListenerAdapter boardListener = new BoardListenerAdapter() {
+        @Override
+        public void boardChangedHex(BoardEvent b) {
+            hexChanged(b.getCoords());
+        }
+
+        @Override
+        public void boardNewBoard(BoardEvent b) {
+            clear();
+        }
+
+        @Override
+        public void boardChangedAllHexes(BoardEvent b) {
+            clear();
+        }
+    };
+
+    /** State of the things that affect every line, see validate() */
+    private List<Object> globalState;
+
+    private int hits;
+    private int misses;
+
+    /**
+     * Returns the line of sight from the spotter to the target, calculating
+     * it only if it might have changed since it was last asked for. Call
+     * {@link #validate(IGame)} before a batch of queries.
+     *
+     * @param spotter the spotting entity
+     * @param target the entity to be seen
+     * @return the <code>LosEffects</code>, which must not be modified
+     */
+    synchronized LosEffects getLos(Entity spotter, Entity target) {
+        long key = ((long) spotter.getId() << 32) | (target.getId() & 0xFFFFFFFFL);
+        Entry entry = entries.get(key);
+        EntityState spotterState = new EntityState(spotter);
+        EntityState targetState = new EntityState(target);
+        if ((entry != null) && entry.spotterState.equals(spotterState)
+                && entry.targetState.equals(targetState) && !lineChanged(entry)) {
+            hits++;
+            return entry.los;
+        }
+        misses++;
+        LosEffects los = LosEffects.calculateLos(game, spotter.getId(), target);
+        entries.put(key, new Entry(los, spotterState, targetState, currentHexVersion()));
+        return los;
+    }
+
+    /**
+     * Notes that a hex changed; only the lines that might pass through it are
+     * recalculated.
+     */
+    synchronized void hexChanged(Coords coords) {
+        if (coords == null) {
+            return;
+        }
+        hexChanges.add(coords);
+        if (hexChanges.size() > MAX_HEX_CHANGES) {
+            int drop = hexChanges.size() / 2;
+            hexChanges.subList(0, drop).clear();
+            hexBase += drop;
+        }
+    }
+
+    /**
+     * Forgets everything, for instance when the planetary conditions change.
+     */
+    synchronized void clear() {
+        entries.clear();
+        hexBase += hexChanges.size();
+        hexChanges.clear();
+    }
+
+    /**
+     * Returns the number of lines reused and recalculated, for debugging.
+     */
+    synchronized String getStatistics() {
+        return "VisibilityIndex: " + entries.size() + " lines, " + hits + " hits, "
+                + misses + " misses";
+    }
+
+    private int currentHexVersion() {
+        return hexBase + hexChanges.size();
+    }
+
+    /**
+     * Returns true if a hex on or next to the line of the entry changed since
+     * the entry was calculated.
+     */
+    private boolean lineChanged(Entry entry) {
+        if (entry.hexVersion == currentHexVersion()) {
+            return false;
+        }
+        if (entry.hexVersion < hexBase) {
+            // the changes are not known anymore
+            return true;
+        }
+        Coords from = entry.spotterState.position;
+        Coords to = entry.targetState.position;
+        if ((from == null) || (to == null)) {
+            return false;
+        }
+        // secondary positions are next to the main one
+        int slack = 1;
+        if (entry.spotterState.secondaryPositions != null) {
+            slack += 2;
+        }
+        if (entry.targetState.secondaryPositions != null) {
+            slack += 2;
+        }
+        int length = from.distance(to);
+        for (int i = entry.hexVersion - hexBase; i < hexChanges.size(); i++) {
+            Coords c = hexChanges.get(i);
+            // the hexes of a line have distance sums equal to its length
+            if ((from.distance(c) + c.distance(to)) <= (length + slack)) {
+                return true;
+            }
+        }
+        // none of the changes matter to this line; don't check them again
+        entry.hexVersion = currentHexVersion();
+        return false;
+    }
+
+    /**
+     * Clears the index if anything changed that affects all lines. This scans
+     * all entities, so it's done once before a batch of queries rather than
+     * for every line.
+     *
+     * @param game the game the following queries are about
+     */
+    synchronized void validate(IGame game) {
+        if (game != this.game) {
+            this.game = game;
+            clear();
+        }
+        IBoard current = game.getBoard();
+        if (current != board) {
+            if (board != null) {
+                board.removeBoardListener(boardListener);
+            }
+            board = current;
+            if (board != null) {
+                board.addBoardListener(boardListener);
+            }
+            clear();
+        }
+
+        List<Object> state = new ArrayList<>();
+        GameOptions options = game.getOptions();
+        state.add(options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1));
+        state.add(options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER));
+        state.add(options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_DEAD_ZONES));
+        // the conditions are changed in place, so their values are kept
+        PlanetaryConditions conditions = game.getPlanetaryConditions();
+        state.add(Arrays.asList(conditions.getLight(), conditions.getWeather(), conditions.getWindStrength(),
+                conditions.getWindDirection(), conditions.getFog(), conditions.getAtmosphere(),
+                conditions.isSandBlowing()));
+        for (Entity e : game.getEntitiesVector()) {
+            if (((e instanceof Dropship) && !e.isAirborne() && !e.isSpaceborne())
+                    || (e instanceof GunEmplacement)) {
+                state.add(e);
+                state.add(new EntityState(e));
+            }
+        }
+        if (!state.equals(globalState)) {
+            clear();
+            globalState = state;
+        }
+
+        // Drop lines between entities that are long gone
+        int count = game.getEntitiesVector().size();
+        if (entries.size() > (2 * count * count) + 1000) {
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+        final LosEffects los;
+        final EntityState spotterState;
+        final EntityState targetState;
+        int hexVersion;
+
+        Entry(LosEffects los, EntityState spotterState, EntityState targetState, int hexVersion) {
+            this.los = los;
+            this.spotterState = spotterState;
+            this.targetState = targetState;
+            this.hexVersion = hexVersion;
+        }
+    }
+
+    /**
+     * Everything about an entity that the LOS calculation looks at.
+     */
+    private static class EntityState {
+        final Entity entity;
+        final Coords position;
+        final Map<Integer, Coords> secondaryPositions;
+        final int height;
+        final int relHeight;
+        final int elevation;
+        final int altitude;
+        final boolean offBoard;
+        final boolean airborne;
+
+        EntityState(Entity entity) {
+            this.entity = entity;
+            position = entity.getPosition();
+            Map<Integer, Coords> secondary = entity.getSecondaryPositions();
+            secondaryPositions = ((secondary == null) || secondary.isEmpty()) ? null
+                    : new HashMap<>(secondary);
+            height = entity.getHeight();
+            relHeight = entity.relHeight();
+            elevation = entity.getElevation();
+            altitude = entity.getAltitude();
+            offBoard = entity.isOffBoard();
+            airborne = entity.isAirborne();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntityState)) {
+                return false;
+            }
+            EntityState other = (EntityState) o;
+            // a different object with the same id is a different entity
+            return (entity == other.entity) && Objects.equals(position, other.position)
+                    && Objects.equals(secondaryPositions, other.secondaryPositions)
+                    && (height == other.height) && (relHeight == other.relHeight)
+                    && (elevation == other.elevation) && (altitude == other.altitude)
+                    && (offBoard == other.offBoard) && (airborne == other.airborne);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entity.getId(), position, height, relHeight, elevation, altitude);
+        }
+    }
+}
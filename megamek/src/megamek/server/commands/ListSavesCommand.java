@@ -21,7 +21,10 @@
 package megamek.server.commands;
 
 import java.io.File;
+import java.io.IOException;
 
+import megamek.common.util.BinarySaveGame;
+import megamek.server.SaveJournal;
 import megamek.server.Server;
 
 /**
@@ -51,9 +54,19 @@ public class ListSavesCommand extends ServerCommand {
             if (saveGames[i].isFile()) {
                 File save = saveGames[i];
                 if (save.getName().endsWith(".sav")
-                        || save.getName().endsWith(".sav.gz")) {
+                        || save.getName().endsWith(".sav.gz")
+                        || save.getName().endsWith(SaveJournal.EXTENSION)) {
                     server.sendServerChat("  " + save.getName());
                     listedAFile = true;
+                } else if (save.getName().endsWith(BinarySaveGame.EXTENSION)) {
+                    // binary saves tell what they hold without being loaded
+                    try {
+                        server.sendServerChat("  " + save.getName() + " ("
+                                + BinarySaveGame.readMetadata(save) + ")");
+                    } catch (IOException e) {
+                        server.sendServerChat("  " + save.getName() + " (unreadable)");
+                    }
+                    listedAFile = true;
                 }
             }
         }
@@ -27,6 +27,8 @@ import java.util.Map;
 
 import megamek.common.IPlayer;
 import megamek.common.net.IConnection;
+import megamek.common.util.BinarySaveGame;
+import megamek.server.SaveJournal;
 import megamek.server.Server;
 
 /**
@@ -55,12 +57,15 @@ public class LoadGameCommand extends ServerCommand {
         }
         if (args.length > 1) {
             String sFinalFile = args[1];
-            if (!sFinalFile.endsWith(".sav") 
-                    && !sFinalFile.endsWith(".sav.gz")) {
-                sFinalFile = sFinalFile + ".sav";
-            }
-            if (!sFinalFile.endsWith(".gz")) {
-                sFinalFile = sFinalFile + ".gz";
+            if (!sFinalFile.endsWith(BinarySaveGame.EXTENSION)
+                    && !sFinalFile.endsWith(SaveJournal.EXTENSION)) {
+                if (!sFinalFile.endsWith(".sav")
+                        && !sFinalFile.endsWith(".sav.gz")) {
+                    sFinalFile = sFinalFile + ".sav";
+                }
+                if (!sFinalFile.endsWith(".gz")) {
+                    sFinalFile = sFinalFile + ".gz";
+                }
             }
             load(new File("savegames", sFinalFile), connId);
         } else {
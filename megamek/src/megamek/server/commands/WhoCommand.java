@@ -44,7 +44,7 @@ public class WhoCommand extends ServerCommand {
         server.sendServerChat(connId, "Listing all connections...");
         server
                 .sendServerChat(connId,
-                        "[id#] : [name], [address], [pending], [bytes sent], [bytes received]");
+                        "[id#] : [name], [address], [pending], [bytes sent], [bytes received], [bytes saved by compression]");
         for (Enumeration<IConnection> i = server.getConnections(); i.hasMoreElements();) {
             IConnection conn = i.nextElement();
             StringBuffer cb = new StringBuffer();
@@ -54,6 +54,8 @@ public class WhoCommand extends ServerCommand {
             cb.append(", ").append(conn.hasPending()).append(", ");
             cb.append(conn.bytesSent());
             cb.append(", ").append(conn.bytesReceived());
+            cb.append(", ").append((conn.uncompressedBytesSent() - conn.bytesSent())
+                    + (conn.uncompressedBytesReceived() - conn.bytesReceived()));
             server.sendServerChat(connId, cb.toString());
         }
         server.sendServerChat(connId, "end list");
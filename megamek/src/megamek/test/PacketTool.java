@@ -378,6 +378,12 @@ public class PacketTool extends Frame implements Runnable {
                 case Packet.COMMAND_ENTITY_UPDATE:
                     System.out.print("COMMAND_ENTITY_UPDATE");
                     break;
+                case Packet.COMMAND_ENTITY_DELTA_UPDATE:
+                    System.out.print("COMMAND_ENTITY_DELTA_UPDATE");
+                    break;
+                case Packet.COMMAND_ENTITY_DELTA_RESYNC:
+                    System.out.print("COMMAND_ENTITY_DELTA_RESYNC");
+                    break;
                 case Packet.COMMAND_ENTITY_MODECHANGE:
                     System.out.print("COMMAND_ENTITY_MODECHANGE");
                     break;
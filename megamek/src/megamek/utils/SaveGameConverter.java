@@ -0,0 +1,73 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.utils;
+
+import java.io.File;
+import java.io.IOException;
+
+import megamek.common.EquipmentType;
+import megamek.common.util.BinarySaveGame;
+
+/**
+ * Converts save games between the XML (<code>.sav.gz</code>) and the binary
+ * (<code>.mmsav</code>) format. Each argument is converted to the other
+ * format next to it; binary saves given with <code>-info</code> only have
+ * their metadata printed.
+ */
+public class SaveGameConverter {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: SaveGameConverter [-info] file...");
+            return;
+        }
+        boolean infoOnly = false;
+        for (String arg : args) {
+            if (arg.equals("-info")) {
+                infoOnly = true;
+                continue;
+            }
+            File file = new File(arg);
+            try {
+                if (BinarySaveGame.isBinarySave(file)) {
+                    System.out.println(file + ": " + BinarySaveGame.readMetadata(file));
+                    if (!infoOnly) {
+                        initialize();
+                        File target = new File(stripExtension(file.getPath(), BinarySaveGame.EXTENSION)
+                                + ".sav.gz");
+                        BinarySaveGame.toXml(file, target);
+                        System.out.println("Wrote " + target);
+                    }
+                } else if (!infoOnly) {
+                    initialize();
+                    String name = stripExtension(stripExtension(file.getPath(), ".gz"), ".sav");
+                    File target = new File(name + BinarySaveGame.EXTENSION);
+                    BinarySaveGame.fromXml(file, target);
+                    System.out.println("Wrote " + target);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Could not convert " + file + ": " + e);
+            }
+        }
+    }
+
+    private static void initialize() {
+        // equipment is looked up by name while units are read
+        EquipmentType.initializeTypes();
+    }
+
+    private static String stripExtension(String name, String extension) {
+        return name.endsWith(extension) ? name.substring(0, name.length() - extension.length()) : name;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import megamek.common.Entity;
+import megamek.common.MechFileParser;
+import megamek.common.net.Packet;
+import megamek.common.util.ByteDelta;
+
+public class ClientTest {
+
+    private static final int ENTITY_ID = 7;
+
+    private List<Packet> sent;
+    private Client client;
+    private Entity mech;
+
+    @Before
+    public void setUp() throws Exception {
+        sent = new ArrayList<>();
+        client = new Client("Test", "localhost", 0) {
+            @Override
+            protected void send(Packet packet) {
+                sent.add(packet);
+            }
+        };
+        mech = new MechFileParser(new File("data/mechfiles/mechs/ISP3/Arana MilitiaMech ARA-S-1.mtf"))
+                .getEntity();
+        mech.setId(ENTITY_ID);
+    }
+
+    private static byte[] serialize(Entity entity) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(entity);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Creates the packet the server sends for an entity last sent as base.
+     */
+    private static Packet createDelta(byte[] base, byte[] state) {
+        final Object[] data = new Object[5];
+        data[0] = ENTITY_ID;
+        data[1] = ByteDelta.checksum(base);
+        data[2] = ByteDelta.diff(base, state);
+        data[3] = ByteDelta.checksum(state);
+        data[4] = null;
+        return new Packet(Packet.COMMAND_ENTITY_DELTA_UPDATE, data);
+    }
+
+    private static void assertUpdate(Packet packet, int heat) {
+        assertNotNull(packet);
+        assertEquals(Packet.COMMAND_ENTITY_UPDATE, packet.getCommand());
+        assertEquals(ENTITY_ID, packet.getIntValue(0));
+        assertEquals(heat, ((Entity) packet.getObject(1)).heat);
+    }
+
+    private void assertResyncRequested() {
+        assertEquals(1, sent.size());
+        assertEquals(Packet.COMMAND_ENTITY_DELTA_RESYNC, sent.get(0).getCommand());
+        assertEquals(ENTITY_ID, sent.get(0).getIntValue(0));
+        sent.clear();
+    }
+
+    @Test
+    public void testDeltasAreApplied() throws IOException {
+        Packet other = new Packet(Packet.COMMAND_ROUND_UPDATE, 1);
+        assertSame(other, client.resolveEntityStates(other));
+
+        byte[] first = serialize(mech);
+        assertUpdate(client.resolveEntityStates(createDelta(new byte[0], first)), 0);
+        mech.heat = 5;
+        byte[] second = serialize(mech);
+        assertUpdate(client.resolveEntityStates(createDelta(first, second)), 5);
+        assertEquals(0, sent.size());
+    }
+
+    @Test
+    public void testChecksumMismatchResyncs() throws IOException {
+        byte[] first = serialize(mech);
+        mech.heat = 5;
+        byte[] second = serialize(mech);
+
+        // a delta on a base the client never got
+        assertNull(client.resolveEntityStates(createDelta(first, second)));
+        assertResyncRequested();
+
+        // a base that doesn't patch into the announced state
+        assertUpdate(client.resolveEntityStates(createDelta(new byte[0], first)), 0);
+        Packet corrupt = createDelta(first, second);
+        corrupt.getData()[3] = ByteDelta.checksum(first);
+        assertNull(client.resolveEntityStates(corrupt));
+        assertResyncRequested();
+
+        // the server then sends the whole entity
+        assertUpdate(client.resolveEntityStates(createDelta(new byte[0], second)), 5);
+        assertEquals(0, sent.size());
+    }
+
+    @Test
+    public void testRemovalDropsTheBase() throws IOException {
+        byte[] first = serialize(mech);
+        assertUpdate(client.resolveEntityStates(createDelta(new byte[0], first)), 0);
+        client.resolveEntityStates(new Packet(Packet.COMMAND_ENTITY_REMOVE,
+                new Object[] { Collections.singletonList(ENTITY_ID), Collections.singletonList(0) }));
+        mech.heat = 5;
+        assertNull(client.resolveEntityStates(createDelta(first, serialize(mech))));
+        assertResyncRequested();
+    }
+}
@@ -33,6 +33,7 @@ import megamek.common.Infantry;
 import megamek.common.Mech;
 import megamek.common.MovePath;
 import megamek.common.MoveStep;
+import megamek.common.PackedBoard;
 import megamek.common.Protomech;
 import megamek.common.Tank;
 import megamek.common.TargetRoll;
@@ -53,6 +54,7 @@ import org.mockito.Mockito;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -1249,6 +1251,10 @@ public class BasicPathRankerTest {
         Mockito.when(mockBoard.getHex(Mockito.any(Coords.class))).thenReturn(mockHex);
         Mockito.when(mockBoard.contains(Mockito.any(Coords.class))).thenReturn(true);
         Mockito.when(mockBoard.inSpace()).thenReturn(false);
+        final IHex[] hexes = new IHex[20 * 20];
+        Arrays.fill(hexes, mockHex);
+        final PackedBoard packedBoard = new PackedBoard(new Board(20, 20, hexes));
+        Mockito.when(mockBoard.getPackedBoard()).thenReturn(packedBoard);
         
         return mockBoard;
     }
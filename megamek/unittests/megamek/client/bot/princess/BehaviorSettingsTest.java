@@ -216,6 +216,9 @@ public class BehaviorSettingsTest {
         Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_HERD_MENTALITY_INDEX,
                 behaviorSettings.getHerdMentalityIndex());
         Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_BRAVERY_INDEX, behaviorSettings.getBraveryIndex());
+        Assert.assertEquals(BehaviorSettingsTestConstants.GOOD_PARALLEL_PATH_RANKING,
+                behaviorSettings.isParallelPathRanking());
+        Assert.assertEquals(behaviorSettings, behaviorSettings.getCopy());
         Assert.assertEquals(expectedTargets, behaviorSettings.getStrategicBuildingTargets());
         Assert.assertEquals(expectedUnits, behaviorSettings.getPriorityUnitTargets());
 
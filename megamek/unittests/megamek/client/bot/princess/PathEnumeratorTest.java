@@ -0,0 +1,142 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.MechFileParser;
+import megamek.common.Player;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.logging.LogLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@RunWith(JUnit4.class)
+public class PathEnumeratorTest {
+
+    private Princess princess;
+    private IGame game;
+    private List<Entity> mechs;
+
+    @Before
+    public void setUp() throws PrincessException, EntityLoadingException {
+        princess = Mockito.spy(new Princess("Princess", "test", 1, LogLevel.ERROR));
+        final UnitBehavior behaviorTracker = Mockito.mock(UnitBehavior.class);
+        Mockito.when(behaviorTracker.getBehaviorType(Mockito.any(Entity.class), Mockito.any(Princess.class)))
+               .thenReturn(UnitBehavior.BehaviorType.MoveToContact);
+        Mockito.doReturn(behaviorTracker).when(princess).getUnitBehaviorTracker();
+
+        game = new Game();
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(16, 17, hexes));
+        Player player = new Player(0, "Princess");
+        game.addPlayer(0, player);
+        mechs = new ArrayList<>();
+        for (String name : Arrays.asList("Arana MilitiaMech ARA-S-1.mtf", "Reptar MilitiaMech EPT-C-1.mtf")) {
+            Entity mech = new MechFileParser(new File("data/mechfiles/mechs/ISP3", name)).getEntity();
+            mech.setOwner(player);
+            mech.setPosition(new Coords(4 + (8 * mechs.size()), 8));
+            game.addEntity(mech);
+            mechs.add(mech);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        princess.die();
+    }
+
+    @Test
+    public void testBatchMatchesSingleUnits() {
+        PathEnumerator single = new PathEnumerator(princess, game);
+        for (Entity mech : mechs) {
+            single.recalculateMovesFor(mech);
+        }
+
+        PathEnumerator batch = new PathEnumerator(princess, game);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Assert.assertEquals(mechs, batch.recalculateMovesFor(mechs, executor, () -> false));
+        } finally {
+            executor.shutdown();
+        }
+        for (Entity mech : mechs) {
+            Assert.assertFalse(single.getUnitPaths().get(mech.getId()).isEmpty());
+            Assert.assertEquals(single.getUnitPaths().get(mech.getId()).size(),
+                                batch.getUnitPaths().get(mech.getId()).size());
+            Assert.assertEquals(single.getUnitPotentialLocations().get(mech.getId()),
+                                batch.getUnitPotentialLocations().get(mech.getId()));
+            Assert.assertNotNull(batch.getUnitMovableAreas().get(mech.getId()));
+        }
+    }
+
+    @Test
+    public void testCancelWaitsForStartedUnits() throws InterruptedException {
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final AtomicBoolean returned = new AtomicBoolean();
+        final AtomicBoolean ranAfterReturn = new AtomicBoolean();
+        // cancel once path finding is under way, and slow down the second unit
+        // so it is still running when the first one is done
+        Mockito.doAnswer(invocation -> {
+            cancelled.set(true);
+            if (returned.get()) {
+                ranAfterReturn.set(true);
+            }
+            if (Thread.currentThread().getName().equals("unit-1")) {
+                Thread.sleep(2);
+            }
+            return null;
+        }).when(princess).log(Mockito.any(), Mockito.eq("Path "), Mockito.any(LogLevel.class), Mockito.anyString());
+
+        final List<Thread> threads = new ArrayList<>();
+        final Executor executor = task -> {
+            Thread thread = new Thread(task, "unit-" + threads.size());
+            threads.add(thread);
+            thread.start();
+        };
+        PathEnumerator enumerator = new PathEnumerator(princess, game);
+        List<Entity> finished = enumerator.recalculateMovesFor(mechs, executor, cancelled::get);
+        returned.set(true);
+
+        Assert.assertTrue(finished.isEmpty());
+        Assert.assertTrue(enumerator.getUnitPaths().isEmpty());
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        Assert.assertFalse(ranAfterReturn.get());
+    }
+}
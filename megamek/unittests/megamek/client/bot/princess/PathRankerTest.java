@@ -0,0 +1,202 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.MechFileParser;
+import megamek.common.MovePath;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.Player;
+import megamek.common.TargetRoll;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.logging.LogLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RunWith(JUnit4.class)
+public class PathRankerTest {
+
+    private static final MoveStepType[] STEPS = { MoveStepType.FORWARDS, MoveStepType.TURN_LEFT,
+                                                  MoveStepType.TURN_RIGHT };
+
+    private Princess princess;
+    private IGame game;
+    private Entity mech;
+
+    @Before
+    public void setUp() throws PrincessException, EntityLoadingException {
+        princess = Mockito.spy(new Princess("Princess", "test", 1, LogLevel.ERROR));
+        Mockito.doReturn(Collections.emptyList()).when(princess).getEnemyEntities();
+        Mockito.doReturn(Collections.emptyList()).when(princess).getFriendEntities();
+        Mockito.doNothing().when(princess).sendChat(Mockito.anyString(), Mockito.any(LogLevel.class));
+        // the test paths do no damage, which makes engaged units look for more paths
+        final UnitBehavior behaviorTracker = Mockito.mock(UnitBehavior.class);
+        Mockito.when(behaviorTracker.getBehaviorType(Mockito.any(Entity.class), Mockito.any(Princess.class)))
+               .thenReturn(UnitBehavior.BehaviorType.MoveToContact);
+        Mockito.doReturn(behaviorTracker).when(princess).getUnitBehaviorTracker();
+        princess.setBehaviorSettings(princess.getBehaviorSettings().getCopy());
+
+        game = new Game();
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(16, 17, hexes));
+        Player player = new Player(0, "Princess");
+        game.addPlayer(0, player);
+        mech = new MechFileParser(new File("data/mechfiles/mechs/ISP3/Arana MilitiaMech ARA-S-1.mtf"))
+                .getEntity();
+        mech.setOwner(player);
+        mech.setPosition(new Coords(8, 8));
+        game.addEntity(mech);
+    }
+
+    @After
+    public void tearDown() {
+        princess.die();
+    }
+
+    /**
+     * All walks of up to four steps
+     */
+    private List<MovePath> createPaths() {
+        List<MovePath> paths = new ArrayList<>();
+        List<MovePath> shorter = Collections.singletonList(new MovePath(game, mech));
+        for (int length = 1; length <= 4; length++) {
+            List<MovePath> longer = new ArrayList<>();
+            for (MovePath path : shorter) {
+                for (MoveStepType step : STEPS) {
+                    longer.add(path.clone().addStep(step));
+                }
+            }
+            paths.addAll(longer);
+            shorter = longer;
+        }
+        return paths;
+    }
+
+    @Test
+    public void testParallelRankingMatchesSequential() {
+        final List<MovePath> paths = createPaths();
+        Assert.assertTrue(paths.size() >= PathRanker.PARALLEL_RANKING_THRESHOLD);
+        final TestRanker ranker = new TestRanker(princess);
+
+        princess.getBehaviorSettings().setParallelPathRanking(false);
+        final List<RankedPath> sequential = ranker.rankPaths(paths, game, 0, 0, 0, Collections.emptyList(),
+                                                             Collections.emptyList());
+        Assert.assertTrue(ranker.threadStates.isEmpty());
+        final int cachedDamage = princess.getPathRankerState().getIncomingFriendlyArtilleryDamage().size();
+
+        princess.getPathRankerState().clearState();
+        princess.getBehaviorSettings().setParallelPathRanking(true);
+        final List<RankedPath> parallel = ranker.rankPaths(paths, game, 0, 0, 0, Collections.emptyList(),
+                                                           Collections.emptyList());
+
+        Assert.assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            Assert.assertSame(sequential.get(i).getPath(), parallel.get(i).getPath());
+            Assert.assertEquals(sequential.get(i).getRank(), parallel.get(i).getRank(), 0);
+        }
+        Assert.assertSame(ranker.getBestPath(sequential).getPath(), ranker.getBestPath(parallel).getPath());
+
+        // the ranking threads only worked on their own states, and what they
+        // found out was kept
+        Assert.assertFalse(ranker.threadStates.isEmpty());
+        Assert.assertFalse(ranker.threadStates.contains(princess.getPathRankerState()));
+        Assert.assertEquals(cachedDamage, princess.getPathRankerState().getIncomingFriendlyArtilleryDamage().size());
+    }
+
+    @Test
+    public void testThreadStateMergesOnlyAddedEntries() {
+        final PathRankerState botState = new PathRankerState();
+        for (int x = 0; x < 100; x++) {
+            for (int facing = 0; facing < 6; facing++) {
+                botState.getPathSuccessProbabilities().put(new MovePath.Key(new Coords(x, 0), facing, 2), 0.5);
+            }
+        }
+        final int known = botState.getPathSuccessProbabilities().size();
+
+        final PathRankerState threadState = new PathRankerState(botState);
+        final Map<MovePath.Key, Double> threadProbabilities = threadState.getPathSuccessProbabilities();
+        Assert.assertEquals(0.5, threadProbabilities.get(new MovePath.Key(new Coords(7, 0), 3, 2)), 0);
+        Assert.assertEquals(known, threadProbabilities.size());
+        threadProbabilities.put(new MovePath.Key(new Coords(0, 1), 0, 2), 0.25);
+        threadProbabilities.put(new MovePath.Key(new Coords(0, 1), 1, 2), 0.75);
+        threadState.getIncomingFriendlyArtilleryDamage().put(new Coords(1, 1), 5.0);
+
+        // the bot's state is left alone until the thread's is merged, which only adds the new entries
+        Assert.assertEquals(known, botState.getPathSuccessProbabilities().size());
+        Assert.assertEquals(known + 2, threadProbabilities.size());
+        Assert.assertEquals(3, botState.merge(threadState));
+        Assert.assertEquals(known + 2, botState.getPathSuccessProbabilities().size());
+        Assert.assertEquals(0.75, botState.getPathSuccessProbabilities()
+                                          .get(new MovePath.Key(new Coords(0, 1), 1, 2)), 0);
+        Assert.assertEquals(5.0, botState.getIncomingFriendlyArtilleryDamage().get(new Coords(1, 1)), 0);
+        Assert.assertEquals(0, botState.merge(threadState));
+    }
+
+    /**
+     * Ranks paths by where they end, caching the rank by hex like the artillery damage is.
+     */
+    private static class TestRanker extends PathRanker {
+        private final Thread testThread = Thread.currentThread();
+        private final Set<PathRankerState> threadStates = ConcurrentHashMap.newKeySet();
+
+        TestRanker(Princess princess) {
+            super(princess);
+        }
+
+        @Override
+        RankedPath rankPath(MovePath path, IGame game, int maxRange, double fallTolerance, int distanceHome,
+                            List<Entity> enemies, Coords friendsCoords) {
+            final PathRankerState state = getPathRankerState();
+            if (Thread.currentThread() != testThread) {
+                threadStates.add(state);
+            }
+            final Map<Coords, Double> cache = state.getIncomingFriendlyArtilleryDamage();
+            final Coords end = path.getFinalCoords();
+            final double rank = cache.computeIfAbsent(end, c -> (c.getX() * 0.5) + c.getY());
+            return new RankedPath(rank + path.getFinalFacing() - path.getMpUsed(), path, "test");
+        }
+
+        @Override
+        public double distanceToClosestEnemy(Entity me, Coords position, IGame game) {
+            return 0;
+        }
+
+        @Override
+        protected List<TargetRoll> getPSRList(MovePath path) {
+            return Collections.emptyList();
+        }
+    }
+}
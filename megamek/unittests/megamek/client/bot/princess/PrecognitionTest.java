@@ -0,0 +1,137 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.MechFileParser;
+import megamek.common.Player;
+import megamek.common.event.GamePhaseChangeEvent;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.logging.LogLevel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@RunWith(JUnit4.class)
+public class PrecognitionTest {
+
+    private Princess princess;
+    private Precognition precognition;
+    private List<Entity> mechs;
+
+    @Before
+    public void setUp() throws PrincessException, EntityLoadingException {
+        princess = Mockito.spy(new Princess("Princess", "test", 1, LogLevel.ERROR));
+        final UnitBehavior behaviorTracker = Mockito.mock(UnitBehavior.class);
+        Mockito.when(behaviorTracker.getBehaviorType(Mockito.any(Entity.class), Mockito.any(Princess.class)))
+               .thenReturn(UnitBehavior.BehaviorType.MoveToContact);
+        Mockito.doReturn(behaviorTracker).when(princess).getUnitBehaviorTracker();
+
+        precognition = new Precognition(princess);
+        IGame game = precognition.getGame();
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(16, 17, hexes));
+        Player player = new Player(0, "Princess");
+        game.addPlayer(0, player);
+        mechs = new ArrayList<>();
+        for (String name : Arrays.asList("Arana MilitiaMech ARA-S-1.mtf", "Reptar MilitiaMech EPT-C-1.mtf")) {
+            Entity mech = new MechFileParser(new File("data/mechfiles/mechs/ISP3", name)).getEntity();
+            mech.setOwner(player);
+            mech.setPosition(new Coords(4 + (8 * mechs.size()), 8));
+            mech.setDeployed(true);
+            game.addEntity(mech);
+            mechs.add(mech);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        princess.die();
+    }
+
+    @Test
+    public void testGameEventInterruptsBatch() {
+        for (Entity mech : mechs) {
+            precognition.dirtifyUnit(mech.getId());
+        }
+        Assert.assertFalse(precognition.isBatchInterrupted());
+
+        // the game changes while the first unit's paths are calculated
+        final List<Runnable> started = new ArrayList<>();
+        final Executor executor = task -> {
+            started.add(task);
+            task.run();
+            precognition.getGame().processGameEvent(new GamePhaseChangeEvent(this, IGame.Phase.PHASE_MOVEMENT,
+                                                                              IGame.Phase.PHASE_FIRING));
+        };
+        precognition.recalculateDirtyUnits(executor, precognition::isBatchInterrupted);
+
+        Assert.assertTrue(precognition.isBatchInterrupted());
+        Assert.assertEquals(1, started.size());
+        for (Entity mech : mechs) {
+            Assert.assertTrue(precognition.getDirtyUnits().contains(mech.getId()));
+        }
+        Assert.assertTrue(precognition.getPathEnumerator().getUnitPaths().isEmpty());
+    }
+
+    @Test
+    public void testShutDownExecutorLeavesUnitsDirty() {
+        for (Entity mech : mechs) {
+            precognition.dirtifyUnit(mech.getId());
+        }
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        precognition.recalculateDirtyUnits(executor, () -> false);
+
+        for (Entity mech : mechs) {
+            Assert.assertTrue(precognition.getDirtyUnits().contains(mech.getId()));
+        }
+        Assert.assertTrue(precognition.getPathEnumerator().getUnitPaths().isEmpty());
+    }
+
+    @Test
+    public void testUnitsOffTheMapAreDropped() {
+        final Entity undeployed = mechs.get(0);
+        undeployed.setDeployed(false);
+        for (Entity mech : mechs) {
+            precognition.dirtifyUnit(mech.getId());
+        }
+        precognition.recalculateDirtyUnits(Runnable::run, () -> false);
+
+        // the unit off the map gets no paths and isn't dirty anymore; it will be once it deploys
+        Assert.assertTrue(precognition.getDirtyUnits().isEmpty());
+        Assert.assertFalse(precognition.getPathEnumerator().getUnitPaths().containsKey(undeployed.getId()));
+        Assert.assertTrue(precognition.getPathEnumerator().getUnitPaths().containsKey(mechs.get(1).getId()));
+    }
+}
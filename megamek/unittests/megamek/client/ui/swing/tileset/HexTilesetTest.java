@@ -0,0 +1,107 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.ui.swing.tileset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import megamek.common.Coords;
+import megamek.common.Hex;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.Terrains;
+
+public class HexTilesetTest {
+
+    private static HexTileset tileset;
+
+    @BeforeClass
+    public static void loadTileset() throws IOException {
+        IGame game = Mockito.mock(IGame.class);
+        Mockito.when(game.getBoard()).thenReturn(Mockito.mock(IBoard.class));
+        tileset = new HexTileset(game);
+        // relative to the hexes directory
+        tileset.loadFromFile("../../../testresources/megamek/client/ui/swing/tileset/test.tileset");
+    }
+
+    @Test
+    public void testSignature() {
+        IHex woods = new Hex(1, "woods:1;foliage_elev:2", null, new Coords(1, 1));
+        IHex sameWoods = new Hex(1, "foliage_elev:2;woods:1", null, new Coords(5, 7));
+        assertEquals(HexTileset.signature(woods), HexTileset.signature(sameWoods));
+        assertNotEquals(HexTileset.signature(woods), HexTileset.signature(new Hex(2, "woods:1;foliage_elev:2", null)));
+        assertNotEquals(HexTileset.signature(woods), HexTileset.signature(new Hex(1, "woods:2;foliage_elev:2", null)));
+        assertNotEquals(HexTileset.signature(woods),
+                HexTileset.signature(new Hex(1, "woods:1;foliage_elev:2", "snow")));
+        assertEquals(HexTileset.signature(new Hex(0, "", "Snow")), HexTileset.signature(new Hex(0, "", "snow")));
+    }
+
+    @Test
+    public void testMatchIsShared() {
+        HexTileset.HexMatch match = tileset.matchFor(new Hex(0, "woods:1", null, new Coords(1, 1)));
+        assertSame(match, tileset.matchFor(new Hex(0, "woods:1", null, new Coords(3, 4))));
+        assertNotSame(match, tileset.matchFor(new Hex(0, "woods:2", null, new Coords(3, 4))));
+
+        // the woods are superimposed on a plain base
+        assertEquals(1, match.supers.size());
+        assertTrue(match.supers.get(0).getHex().containsTerrain(Terrains.WOODS));
+        assertEquals(0, match.base.getHex().terrainsPresent());
+        assertEquals(0, match.base.getHex().getLevel());
+        assertTrue(match.orthos.isEmpty());
+    }
+
+    @Test
+    public void testBaseMatch() {
+        // the closest level, not the first entry
+        assertEquals(1, tileset.matchFor(new Hex(3, "", null, new Coords(1, 1))).base.getHex().getLevel());
+        assertEquals("snow", tileset.matchFor(new Hex(0, "", "snow", new Coords(1, 1))).base.getHex().getTheme());
+
+        // the terrain left after the supers
+        HexTileset.HexMatch match = tileset.matchFor(new Hex(0, "water:2;fire:1", null, new Coords(1, 1)));
+        assertEquals(1, match.supers.size());
+        assertEquals(2, match.base.getHex().getTerrain(Terrains.WATER).getLevel());
+
+        // metal deposits are not shown
+        match = tileset.matchFor(new Hex(1, "metal_deposit:3", null, new Coords(1, 1)));
+        assertEquals(1, match.base.getHex().getLevel());
+        assertEquals(0, match.base.getHex().terrainsPresent());
+
+        // the building is drawn orthographically
+        match = tileset.matchFor(new Hex(1, "building:1", null, new Coords(1, 1)));
+        assertEquals(1, match.orthos.size());
+        assertEquals(1, match.base.getHex().getLevel());
+
+        // no entry shares a terrain, so the first wins
+        match = tileset.matchFor(new Hex(1, "swamp:1", null, new Coords(1, 1)));
+        assertEquals(0, match.base.getHex().getLevel());
+        assertEquals(0, match.base.getHex().terrainsPresent());
+    }
+
+    @Test
+    public void testThemedMatch() {
+        HexTileset.HexMatch match = tileset.matchFor(new Hex(0, "woods:1", "tropical", new Coords(1, 1)));
+        assertEquals(1, match.supers.size());
+        assertEquals("tropical", match.supers.get(0).getHex().getTheme());
+    }
+}
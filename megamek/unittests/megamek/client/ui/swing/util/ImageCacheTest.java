@@ -0,0 +1,107 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.ui.swing.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class ImageCacheTest {
+
+    @Test
+    public void testEstimate() {
+        BufferedImage image = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+        assertEquals(800, ImageCache.estimateBytes(image));
+        assertEquals(1600, ImageCache.estimateBytes(Arrays.asList(image, image)));
+        assertEquals(0, ImageCache.estimateBytes("not an image"));
+    }
+
+    @Test
+    public void testEviction() {
+        // room for about three values
+        ImageCache<Integer, String> cache = new ImageCache<>(3500, value -> 1000);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertEquals(3, cache.size());
+
+        // 1 was read, so 2 goes first
+        assertNotNull(cache.get(1));
+        cache.put(4, "d");
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getBytes() <= cache.getBudget());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // replacing and removing keep the byte count
+        cache.put(4, "e");
+        assertEquals("e", cache.get(4));
+        cache.remove(3);
+        assertEquals(2, cache.size());
+        assertEquals(2 * 1064, cache.getBytes());
+
+        cache.setBudget(1500);
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.getBytes());
+        assertNull(cache.get(4));
+    }
+
+    @Test
+    public void testExplicitSize() {
+        ImageCache<Integer, String> cache = new ImageCache<>(3500, value -> 0);
+        cache.put(1, "a", 1000);
+        cache.put(2, "b", 1000);
+        cache.put(3, "c", 1000);
+        cache.put(4, "d", 1000);
+        assertEquals(3, cache.size());
+        assertEquals(3 * 1064, cache.getBytes());
+    }
+
+    @Test
+    public void testConcurrentGet() throws InterruptedException {
+        // a hit never gives a value that was dropped while it was read
+        ImageCache<Integer, String> cache = new ImageCache<>(2200, value -> 1000);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicBoolean sawNull = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                long hits = cache.getHits();
+                String value = cache.get(1);
+                if ((value == null) && (cache.getHits() > hits)) {
+                    sawNull.set(true);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 100000; i++) {
+            cache.put(1, "a");
+            cache.remove(1);
+        }
+        stop.set(true);
+        reader.join();
+        assertFalse(sawNull.get());
+    }
+}
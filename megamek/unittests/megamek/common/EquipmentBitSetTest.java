@@ -0,0 +1,61 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class EquipmentBitSetTest {
+
+    @Test
+    public void testFlags() {
+        EquipmentBitSet low = EquipmentBitSet.of(3);
+        EquipmentBitSet high = EquipmentBitSet.of(200);
+        EquipmentBitSet both = low.or(high);
+        assertTrue(both.hasAny(low));
+        assertTrue(both.hasAny(high));
+        assertTrue(both.hasAll(low.or(high)));
+        assertFalse(low.hasAny(high));
+        assertFalse(low.hasAll(both));
+        assertTrue(both.get(200));
+        assertFalse(both.get(199));
+
+        // removing the high bit gives back a set equal to the low one
+        assertEquals(low, both.andNot(high));
+        assertEquals(low.hashCode(), both.andNot(high).hashCode());
+        assertEquals(high, both.and(high));
+        assertTrue(low.and(high).isEmpty());
+        assertEquals(EquipmentBitSet.EMPTY, low.and(high));
+    }
+
+    @Test
+    public void testBigIntegerBridge() {
+        BigInteger old = BigInteger.valueOf(1).shiftLeft(63).or(BigInteger.valueOf(1).shiftLeft(221))
+                .or(BigInteger.valueOf(5));
+        EquipmentBitSet flags = EquipmentBitSet.valueOf(old);
+        assertTrue(flags.get(0));
+        assertTrue(flags.get(2));
+        assertTrue(flags.get(63));
+        assertTrue(flags.get(221));
+        assertEquals(EquipmentBitSet.of(0).or(EquipmentBitSet.of(2)).or(EquipmentBitSet.of(63))
+                .or(EquipmentBitSet.of(221)), flags);
+        assertEquals(old, flags.toBigInteger());
+        assertEquals(BigInteger.ZERO, EquipmentBitSet.EMPTY.toBigInteger());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class EquipmentIndexTest {
+
+    @BeforeClass
+    public static void initializeTypes() {
+        EquipmentType.initializeTypes();
+    }
+
+    @Test
+    public void testMiscQueries() throws LocationFullException {
+        Mech mech = new BipedMech();
+        assertFalse(mech.hasWorkingMisc(MiscType.F_ECM));
+
+        Mounted ecm = mech.addEquipment(EquipmentType.get("ISGuardianECMSuite"), Mech.LOC_LT);
+        mech.addCritical(Mech.LOC_LT, new CriticalSlot(ecm));
+        mech.addCritical(Mech.LOC_LT, new CriticalSlot(ecm));
+        assertTrue(mech.hasWorkingMisc(MiscType.F_ECM));
+        assertTrue(mech.hasWorkingMisc(MiscType.F_ECM, -1, Mech.LOC_LT));
+        assertFalse(mech.hasWorkingMisc(MiscType.F_ECM, -1, Mech.LOC_RT));
+        assertFalse(mech.hasWorkingMisc(MiscType.F_C3S));
+
+        // the state of the mount is read on every query
+        ecm.setDestroyed(true);
+        assertFalse(mech.hasWorkingMisc(MiscType.F_ECM));
+        assertFalse(mech.hasWorkingMisc(MiscType.F_ECM, -1, Mech.LOC_LT));
+        assertEquals(0, mech.countWorkingMisc(MiscType.F_ECM));
+        ecm.setDestroyed(false);
+        assertEquals(1, mech.countWorkingMisc(MiscType.F_ECM));
+
+        // slots and equipment changed after the first queries
+        mech.removeCriticals(Mech.LOC_LT, new CriticalSlot(ecm));
+        assertFalse(mech.hasWorkingMisc(MiscType.F_ECM, -1, Mech.LOC_LT));
+        Mounted c3 = mech.addEquipment(EquipmentType.get("ISC3SlaveUnit"), Mech.LOC_HEAD);
+        assertTrue(mech.hasWorkingMisc(MiscType.F_C3S));
+        mech.getMisc().remove(c3);
+        assertFalse(mech.hasWorkingMisc(MiscType.F_C3S));
+    }
+
+    @Test
+    public void testUnknownTypeIsNotKept() {
+        Mech mech = new BipedMech();
+        Mounted pending = Mockito.mock(Mounted.class);
+        Mockito.when(pending.getType()).thenReturn(null, EquipmentType.get("ISGuardianECMSuite"));
+        mech.getMisc().add(pending);
+        mech.invalidateEquipmentIndex();
+
+        assertEquals(0, mech.getEquipmentIndex().getMisc(MiscType.F_ECM).length);
+        assertEquals(1, mech.getEquipmentIndex().getMisc(MiscType.F_ECM).length);
+    }
+}
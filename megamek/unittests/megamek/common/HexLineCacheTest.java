@@ -0,0 +1,93 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HexLineCacheTest {
+
+    /**
+     * The line tracing Coords.intervening did before lines were cached
+     */
+    private static List<Coords> trace(Coords src, Coords dest, boolean split) {
+        IdealHex iSrc = new IdealHex(src);
+        IdealHex iDest = new IdealHex(dest);
+        int[] directions = new int[3];
+        int centerDirection = src.direction(dest);
+        if (split) {
+            centerDirection = (int) Math.round(src.radian(dest) + 0.0001
+                    / Coords.HEXSIDE) % 6;
+        }
+        directions[2] = centerDirection;
+        directions[1] = (centerDirection + 5) % 6;
+        directions[0] = (centerDirection + 1) % 6;
+        List<Coords> hexes = new ArrayList<>();
+        Coords current = src;
+        hexes.add(current);
+        while (!dest.equals(current)) {
+            current = Coords.nextHex(current, iSrc, iDest, directions);
+            hexes.add(current);
+        }
+        return hexes;
+    }
+
+    @Test
+    public void testSameAsTracing() {
+        HexLineCache.ensureCacheSize(40, 40);
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            // also lines that are too long to be cached
+            int range = (i % 10 == 0) ? 300 : 40;
+            Coords src = new Coords(random.nextInt(range), random.nextInt(range));
+            Coords dest = new Coords(random.nextInt(range), random.nextInt(range));
+            boolean split = random.nextBoolean();
+            assertEquals(src + " -> " + dest, trace(src, dest, split),
+                    Coords.intervening(src, dest, split));
+        }
+    }
+
+    @Test
+    public void testLinesAreShared() {
+        HexLineCache.ensureCacheSize(20, 20);
+        int[] line = HexLineCache.getOffsets(new Coords(2, 3), new Coords(7, 12), false);
+        assertSame(line, HexLineCache.getOffsets(new Coords(4, 0), new Coords(9, 9), false));
+        assertEquals(0, line[0]);
+        assertEquals(0, line[1]);
+        assertEquals(5, line[line.length - 2]);
+        assertEquals(9, line[line.length - 1]);
+    }
+
+    @Test
+    public void testBoardCoords() {
+        IHex[] hexes = new IHex[10 * 10];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        Board board = new Board(10, 10, hexes);
+        board.setHex(new Coords(3, 4), new Hex());
+        Coords src = new Coords(3, 0);
+        int[] line = HexLineCache.getOffsets(src, new Coords(3, 9), false);
+        for (int i = 0; i < HexLineCache.length(line); i++) {
+            assertEquals(new Coords(3, i), HexLineCache.getCoords(board, src, line, i));
+        }
+        assertSame(board.getHex(3, 4).getCoords(), HexLineCache.getCoords(board, src, line, 4));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Vector;
+
+import org.junit.Test;
+
+public class MechSearchIndexTest {
+
+    private static final String[] EQUIPMENT = { "ISMediumLaser", "ISLRM10", "ISAC20", "ISCASE" };
+
+    private static MechSummary[] createUnits(int count) {
+        Random random = new Random(42);
+        MechSummary[] units = new MechSummary[count];
+        for (int i = 0; i < count; i++) {
+            MechSummary ms = new MechSummary();
+            ms.setName("Unit " + i);
+            ms.setTons(20 + (5 * random.nextInt(17)));
+            ms.setBV(random.nextInt(3000));
+            ms.setYear(2400 + random.nextInt(700));
+            ms.setWalkMp(random.nextInt(9));
+            ms.setJumpMp(random.nextInt(7));
+            ms.setTotalInternal(20 + random.nextInt(80));
+            ms.setTotalArmor(random.nextInt(200));
+            ms.setInternalsType(random.nextInt(3));
+            ms.setCockpitType(random.nextInt(3));
+            ms.setArmorType(new int[] { random.nextInt(3), random.nextInt(3) });
+            Vector<String> names = new Vector<>();
+            Vector<Integer> quantities = new Vector<>();
+            for (String name : EQUIPMENT) {
+                if (random.nextBoolean()) {
+                    names.add(name);
+                    quantities.add(1 + random.nextInt(4));
+                }
+            }
+            ms.setEquipment(names, quantities);
+            units[i] = ms;
+        }
+        return units;
+    }
+
+    private static void assertSameAsFilter(MechSummary[] units, MechSearchIndex index, MechSearchFilter f) {
+        BitSet expected = new BitSet();
+        for (int i = 0; i < units.length; i++) {
+            if (MechSearchFilter.isMatch(units[i], f)) {
+                expected.set(i);
+            }
+        }
+        assertEquals(expected, index.search(f));
+    }
+
+    @Test
+    public void testSearchMatchesFilter() {
+        MechSummary[] units = createUnits(500);
+        MechSearchIndex index = new MechSearchIndex(units);
+        assertEquals(500, index.size());
+
+        MechSearchFilter f = new MechSearchFilter();
+        assertEquals(index.all(), index.search(f));
+        assertEquals(index.all(), index.search(null));
+
+        f.isDisabled = false;
+        for (int comparison = 0; comparison < 3; comparison++) {
+            f.sWalk = "4";
+            f.iWalk = comparison;
+            f.sJump = "2";
+            f.iJump = 2 - comparison;
+            assertSameAsFilter(units, index, f);
+        }
+
+        f.sStartYear = "2750";
+        f.sEndYear = "3050";
+        f.iArmor = 2;
+        f.checkArmorType = true;
+        f.armorType = 1;
+        f.checkCockpitType = true;
+        f.cockpitType = 0;
+        assertSameAsFilter(units, index, f);
+
+        f.sEndYear = "not a year";
+        f.checkInternalsType = true;
+        f.internalsType = 2;
+        assertSameAsFilter(units, index, f);
+    }
+
+    @Test
+    public void testEquipmentExpression() {
+        MechSummary[] units = createUnits(500);
+        MechSearchIndex index = new MechSearchIndex(units);
+        MechSearchFilter f = new MechSearchFilter();
+        f.isDisabled = false;
+        f.checkEquipment = true;
+
+        f.equipmentCriteria = f.new ExpressionTree("ISLRM10", 2);
+        assertSameAsFilter(units, index, f);
+
+        // (2 ISMediumLasers AND ISCASE) OR 3 ISAC20s
+        MechSearchFilter.ExpNode and = f.new ExpNode();
+        and.operation = MechSearchFilter.BoolOp.AND;
+        and.children.add(f.new ExpNode("ISMediumLaser", 2));
+        and.children.add(f.new ExpNode("ISCASE", 1));
+        f.equipmentCriteria = f.new ExpressionTree();
+        MechSearchFilter.ExpNode root = f.equipmentCriteria.getRoot();
+        root.operation = MechSearchFilter.BoolOp.OR;
+        root.children.add(and);
+        root.children.add(f.new ExpNode("ISAC20", 3));
+        assertSameAsFilter(units, index, f);
+
+        f.equipmentCriteria = f.new ExpressionTree("NoSuchEquipment", 1);
+        assertEquals(0, index.search(f).cardinality());
+    }
+
+    @Test
+    public void testRange() {
+        MechSummary[] units = createUnits(200);
+        MechSearchIndex index = new MechSearchIndex(units);
+        BitSet heavy = index.range(MechSearchIndex.Column.TONNAGE, 60, 75);
+        for (int i = 0; i < units.length; i++) {
+            assertEquals((units[i].getTons() >= 60) && (units[i].getTons() <= 75), heavy.get(i));
+        }
+    }
+
+    @Test
+    public void testIndexOf() {
+        MechSummary[] units = createUnits(20);
+        MechSearchIndex index = new MechSearchIndex(units);
+        assertTrue(index.isIndexOf(units));
+        // a reloaded cache has a new array, even for the same units
+        assertFalse(index.isIndexOf(units.clone()));
+    }
+}
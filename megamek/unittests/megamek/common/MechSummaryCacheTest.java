@@ -0,0 +1,133 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MechSummaryCacheTest {
+
+    private static final String[] UNITS = { "Arana MilitiaMech ARA-S-1.mtf",
+            "Reptar MilitiaMech EPT-C-1.mtf" };
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private File unitsDir;
+
+    @Before
+    public void setUp() throws IOException {
+        unitsDir = tmpFolder.newFolder("mechfiles");
+        File first = new File(unitsDir, "first");
+        File second = new File(unitsDir, "second");
+        assertTrue(first.mkdir() && second.mkdir());
+        File source = new File("data/mechfiles/mechs/ISP3");
+        for (String unit : UNITS) {
+            Files.copy(new File(source, unit).toPath(), new File(first, unit).toPath());
+        }
+        Files.copy(new File(source, UNITS[0]).toPath(), new File(second, "copy.mtf").toPath());
+        Files.write(new File(second, "broken.mtf").toPath(), "not a unit".getBytes(StandardCharsets.UTF_8));
+        // older than any cache written by the test
+        long past = System.currentTimeMillis() - 86400000L;
+        for (File dir : new File[] { first, second }) {
+            for (File f : dir.listFiles()) {
+                assertTrue(f.setLastModified(past));
+            }
+        }
+        Configuration.setUnitsDir(unitsDir);
+    }
+
+    @After
+    public void tearDown() {
+        Configuration.setUnitsDir(null);
+    }
+
+    private static MechSummaryCache load() {
+        MechSummaryCache cache = new MechSummaryCache();
+        cache.loadMechData();
+        return cache;
+    }
+
+    private static String[] getNames(MechSummaryCache cache) {
+        MechSummary[] all = cache.getAllMechs();
+        String[] names = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            names[i] = all[i].getSourceFile().getName() + ":" + all[i].getName();
+        }
+        return names;
+    }
+
+    @Test
+    public void testMergeOrderAndHashSkip() throws IOException {
+        MechSummaryCache cache = load();
+        String[] names = getNames(cache);
+        assertEquals(3, names.length);
+        assertEquals(3, cache.getFileCount());
+        assertEquals(1, cache.getFailedFiles().size());
+        String report = cache.getLoadReport();
+        assertTrue(report.contains("...loaded 2 files."));
+        assertTrue(report.contains("...loaded 1 files."));
+
+        // loading again in parallel and reading the cache give the same order
+        File cacheFile = new File(unitsDir, "units.cache");
+        assertTrue(cacheFile.delete());
+        assertArrayEquals(names, getNames(load()));
+        cache = load();
+        assertEquals(3, cache.getCacheCount());
+        assertEquals(0, cache.getFileCount());
+        assertArrayEquals(names, getNames(cache));
+
+        // a file touched without being changed is checked, but not parsed
+        long cacheTime = cacheFile.lastModified();
+        File unit = new File(unitsDir, "first/" + UNITS[0]);
+        assertTrue(unit.setLastModified(cacheTime + 60000));
+        cache = load();
+        assertEquals(3, cache.getCacheCount());
+        assertEquals(0, cache.getFileCount());
+        assertTrue(cache.getLoadReport().contains("Checked 2 files"));
+        assertArrayEquals(names, getNames(cache));
+
+        // a changed file is parsed again, and keeps its place
+        Files.write(unit.toPath(), "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertTrue(unit.setLastModified(System.currentTimeMillis() + 120000));
+        cache = load();
+        assertEquals(2, cache.getCacheCount());
+        assertEquals(1, cache.getFileCount());
+        assertArrayEquals(names, getNames(cache));
+
+        // the cache was rewritten while the old one was mapped, so under the
+        // other name, and is read from there
+        File alternate = new File(unitsDir, "units.cache.1");
+        assertTrue(alternate.exists());
+        assertEquals(alternate, UnitCacheFile.getCurrent(cacheFile));
+        cache = load();
+        assertEquals(3, cache.getCacheCount());
+        assertEquals(0, cache.getFileCount());
+        assertEquals(1, cache.getFailedFiles().size());
+        assertArrayEquals(names, getNames(cache));
+    }
+}
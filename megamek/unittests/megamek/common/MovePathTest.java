@@ -16,6 +16,8 @@ package megamek.common;
 
 import java.util.Vector;
 
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.options.GameOptions;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -50,11 +52,49 @@ public class MovePathTest {
         stepVector.add(mockStep4);
 
         MovePath testPath = Mockito.spy(new MovePath(mockGame, mockMech));
-        Mockito.doReturn(stepVector).when(testPath).getStepVector();
+        Mockito.doAnswer(inv -> stepVector.size()).when(testPath).length();
+        Mockito.doAnswer(inv -> stepVector.get((Integer) inv.getArguments()[0]))
+                .when(testPath).getStep(Mockito.anyInt());
 
         Assert.assertEquals(mockStep4, testPath.getLastStep());
 
         stepVector.add(null);
         Assert.assertEquals(mockStep4, testPath.getLastStep());
     }
+
+    @Test
+    public void testClonesShareSteps() {
+        IGame mockGame = Mockito.mock(IGame.class);
+        IBoard mockBoard = Mockito.mock(IBoard.class);
+        Mockito.when(mockGame.getBoard()).thenReturn(mockBoard);
+        Mockito.when(mockGame.getOptions()).thenReturn(new GameOptions());
+        Entity mockMech = Mockito.mock(BipedMech.class);
+
+        MovePath path = new MovePath(mockGame, mockMech);
+        MoveStep first = new MoveStep(path, MoveStepType.FORWARDS);
+        path.addStep(first, false);
+
+        MovePath left = path.clone();
+        MovePath right = path.clone();
+        MoveStep leftStep = new MoveStep(left, MoveStepType.TURN_LEFT);
+        MoveStep rightStep = new MoveStep(right, MoveStepType.TURN_RIGHT);
+        left.addStep(leftStep, false);
+        right.addStep(rightStep, false);
+
+        Assert.assertEquals(1, path.length());
+        Assert.assertFalse(path.contains(MoveStepType.TURN_LEFT));
+        Assert.assertEquals(2, left.length());
+        Assert.assertSame(first, left.getStep(0));
+        Assert.assertSame(leftStep, left.getLastStep());
+        Assert.assertFalse(left.contains(MoveStepType.TURN_RIGHT));
+        Assert.assertEquals(2, right.length());
+        Assert.assertSame(first, right.getStep(0));
+        Assert.assertSame(rightStep, right.getLastStep());
+        Assert.assertTrue(right.contains(MoveStepType.TURN_RIGHT));
+
+        MovePath again = path.clone();
+        again.addStep(rightStep, false);
+        Assert.assertSame(leftStep, left.getLastStep());
+        Assert.assertEquals(right.getStepVector(), again.getStepVector());
+    }
 }
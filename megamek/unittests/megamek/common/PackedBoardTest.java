@@ -0,0 +1,131 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PackedBoardTest {
+
+    private static final int[] TYPES = { Terrains.WOODS, Terrains.WATER, Terrains.BLDG_ELEV,
+            Terrains.SMOKE, Terrains.JUNGLE, Terrains.FIELDS, Terrains.ROAD };
+
+    private static void assertSameAsHexes(IBoard board) {
+        PackedBoard packed = board.getPackedBoard();
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                IHex hex = board.getHex(x, y);
+                int i = packed.index(x, y);
+                String at = x + "," + y;
+                assertEquals(at, hex.getLevel(), packed.getLevel(i));
+                assertEquals(at, hex.floor(), packed.floor(i));
+                assertEquals(at, hex.ceiling(), packed.ceiling(i));
+                for (int type = 1; type < Terrains.SIZE; type++) {
+                    assertEquals(at, hex.containsTerrain(type), packed.containsTerrain(i, type));
+                    assertEquals(at, hex.terrainLevel(type), packed.terrainLevel(i, type));
+                }
+            }
+        }
+    }
+
+    private static IBoard createBoard() {
+        IHex[] hexes = new IHex[8 * 6];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex(i % 3);
+            for (int t = 0; t < TYPES.length; t++) {
+                if (((i + t) % 4) == 0) {
+                    hexes[i].addTerrain(Terrains.getTerrainFactory().createTerrain(TYPES[t],
+                            1 + (i % 2)));
+                }
+            }
+        }
+        return new Board(8, 6, hexes);
+    }
+
+    @Test
+    public void testPacking() {
+        assertSameAsHexes(createBoard());
+    }
+
+    @Test
+    public void testSetHex() {
+        IBoard board = createBoard();
+        board.getPackedBoard();
+        board.setHex(3, 2, new Hex(4, "water:2;smoke:1", null));
+        assertSameAsHexes(board);
+    }
+
+    @Test
+    public void testChangedInPlace() {
+        IBoard board = createBoard();
+        board.getPackedBoard();
+        IHex hex = board.getHex(5, 4);
+        hex.setLevel(7);
+        hex.removeAllTerrains();
+        hex.addTerrain(Terrains.getTerrainFactory().createTerrain(Terrains.WOODS, 3));
+        board.getHex(1, 1).removeTerrain(Terrains.WOODS);
+        assertSameAsHexes(board);
+        assertEquals(ITerrain.LEVEL_NONE,
+                board.getPackedBoard().terrainLevel(board.getPackedBoard().index(5, 4),
+                        Terrains.WATER));
+    }
+
+    @Test
+    public void testChangesArePerBoard() {
+        IBoard board = createBoard();
+        IBoard other = createBoard();
+        PackedBoard packed = board.getPackedBoard();
+        PackedBoard otherPacked = other.getPackedBoard();
+        board.getHex(2, 2).setLevel(5);
+        assertFalse(packed.isSynchronized());
+        assertTrue(otherPacked.isSynchronized());
+        assertSame(packed, board.getPackedBoard());
+        assertTrue(packed.isSynchronized());
+        assertEquals(5, packed.getLevel(packed.index(2, 2)));
+    }
+
+    @Test
+    public void testReplacedHexIsNotTracked() {
+        IBoard board = createBoard();
+        PackedBoard packed = board.getPackedBoard();
+        IHex replaced = board.getHex(3, 2);
+        board.setHex(3, 2, new Hex(4));
+        board.getPackedBoard();
+        replaced.setLevel(6);
+        assertTrue(packed.isSynchronized());
+        assertEquals(4, packed.getLevel(packed.index(3, 2)));
+
+        board.getHex(3, 2).setLevel(2);
+        assertSameAsHexes(board);
+    }
+
+    @Test
+    public void testHexOnTwoBoards() {
+        IHex[] hexes = new IHex[8 * 6];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        IBoard board = new Board(8, 6, hexes);
+        IBoard other = new Board(8, 6, hexes);
+        board.getPackedBoard();
+        other.getPackedBoard();
+        hexes[20].addTerrain(Terrains.getTerrainFactory().createTerrain(Terrains.WOODS, 2));
+        assertSameAsHexes(board);
+        assertSameAsHexes(other);
+    }
+}
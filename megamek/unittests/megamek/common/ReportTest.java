@@ -0,0 +1,76 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ReportTest {
+
+    @Test
+    public void testCompile() {
+        ReportTemplate template = ReportTemplate
+                .compile("<B><data></B> hits <msg:1022,1023><newline>  <list> <  >");
+        assertArrayEquals(new int[] { ReportTemplate.TEXT, ReportTemplate.DATA, ReportTemplate.TEXT,
+                ReportTemplate.MSG, ReportTemplate.TEXT, ReportTemplate.LIST, ReportTemplate.TEXT },
+                template.getKinds());
+    }
+
+    @Test
+    public void testGetText() {
+        // 1240=<data> (<data>) needs to roll <data> or greater to avoid Blue
+        // Shield Failure, rolls <data>: <msg:1241,1242>
+        Report r = new Report(1240);
+        r.add("Atlas");
+        r.add("Bob");
+        r.add(8);
+        r.add(9, false);
+        r.choose(true);
+        r.indent(1);
+        r.hideData(2);
+        String expected = "&nbsp;&nbsp;&nbsp;&nbsp;Atlas (Bob) needs to roll " + Report.OBSCURED_STRING
+                + " or greater to avoid Blue Shield Failure, rolls 9: "
+                + ReportMessages.getString("1241") + "\n";
+        assertEquals(expected, r.getText());
+
+        // 1020=<newline>The turn order for movement is:<newline>  <list>
+        Report list = new Report(1020);
+        list.add("A");
+        list.add("B");
+        assertEquals("\nThe turn order for movement is:\n  A, B\n", list.getText());
+
+        assertEquals("[Reporting Error for message ID -1]", new Report().getText());
+    }
+
+    @Test
+    public void testCachedText() {
+        Report r = new Report(1020);
+        r.add("A");
+        String text = r.getText();
+        assertSame(text, r.getText());
+
+        r.newlines++;
+        assertEquals(text + "\n", r.getText());
+        r.add("B");
+        assertEquals("\nThe turn order for movement is:\n  A, B\n\n", r.getText());
+
+        Report copy = new Report(r);
+        assertEquals(r.getText(), copy.getText());
+        assertNotSame(r.getText(), copy.getText());
+    }
+}
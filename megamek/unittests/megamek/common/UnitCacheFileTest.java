@@ -0,0 +1,133 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Vector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UnitCacheFileTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static MechSummary createSummary(String name, String entryName) {
+        MechSummary ms = new MechSummary();
+        ms.setName(name);
+        ms.setChassis("Atlas");
+        ms.setModel(name.substring(6));
+        ms.setUnitType("Mek");
+        ms.setUnitSubType("BattleMech");
+        ms.setSourceFile(new File("data/mechfiles/mechs/3039u.zip"));
+        ms.setEntryName(entryName);
+        ms.setSourceHash("00ff");
+        ms.setLevel("1");
+        ms.setYear(2755);
+        ms.setBV(1897);
+        ms.setCost(9626000L);
+        ms.setTons(100.0);
+        ms.setClan(false);
+        ms.setCanon(true);
+        ms.setWalkMp(3);
+        ms.setArmorType(new int[] { 0, 0, 1 });
+        ms.setArmorTypes(new int[] { 0, 0, 1 });
+        ms.setEquipment(new Vector<>(Arrays.asList("ISAC20", "ISLRM20")), new Vector<>(Arrays.asList(1, 2)));
+        return ms;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = tmpFolder.newFile("units.cache");
+        MechSummary atlas = createSummary("Atlas AS7-D", "AS7-D.mtf");
+        MechSummary other = createSummary("Atlas AS7-K", null);
+        other.setSourceHash(null);
+        other.setArmorTechTypes(null);
+        File written = UnitCacheFile.write(file, "key", new MechSummary[] { atlas, other });
+        assertEquals(written, UnitCacheFile.getCurrent(file));
+
+        UnitCacheFile cache = UnitCacheFile.open(written);
+        assertEquals("key", cache.getKey());
+        assertEquals(2, cache.size());
+        assertEquals("Atlas AS7-K", cache.getName(1));
+        assertEquals("AS7-D.mtf", cache.getEntryName(0));
+        assertNull(cache.getEntryName(1));
+        assertNull(cache.getSourceHash(1));
+
+        MechSummary read = cache.get(0);
+        assertEquals(atlas, read);
+        assertEquals("Atlas AS7-D", read.getName());
+        assertEquals(atlas.getSourceFile(), read.getSourceFile());
+        assertEquals("00ff", read.getSourceHash());
+        assertEquals(2755, read.getYear());
+        assertEquals(1897, read.getBV());
+        assertEquals(9626000L, read.getCost());
+        assertEquals(100.0, read.getTons(), 0);
+        assertTrue(read.isCanon());
+        assertFalse(read.isClan());
+        assertArrayEquals(atlas.getAltTypes(), read.getAltTypes());
+        assertArrayEquals(new int[] { 0, 0, 1 }, read.getArmorTypes());
+        assertEquals(atlas.getArmorType(), read.getArmorType());
+        assertEquals(atlas.getEquipmentNames(), read.getEquipmentNames());
+        assertEquals(atlas.getEquipmentQuantities(), read.getEquipmentQuantities());
+        assertNull(cache.get(1).getArmorTechTypes());
+    }
+
+    @Test
+    public void testRewriteWhileMapped() throws IOException {
+        File file = new File(tmpFolder.getRoot(), "units.cache");
+        MechSummary atlas = createSummary("Atlas AS7-D", "AS7-D.mtf");
+        MechSummary other = createSummary("Atlas AS7-K", null);
+        assertEquals(file, UnitCacheFile.write(file, "key", new MechSummary[] { atlas }));
+        UnitCacheFile first = UnitCacheFile.open(UnitCacheFile.getCurrent(file));
+
+        // the new cache does not replace the mapped one
+        File alternate = UnitCacheFile.getAlternate(file);
+        assertEquals(alternate, UnitCacheFile.write(file, "key", new MechSummary[] { atlas, other }));
+        assertEquals(alternate, UnitCacheFile.getCurrent(file));
+        assertEquals(2, UnitCacheFile.open(alternate).size());
+        assertEquals(1, first.size());
+        assertEquals("Atlas AS7-D", first.getName(0));
+
+        // when the other name can't be written either, the current cache is
+        // replaced
+        assertTrue(file.mkdir() && new File(file, "in use").createNewFile() && file.setLastModified(1000));
+        assertEquals(alternate, UnitCacheFile.write(file, "key", new MechSummary[] { other }));
+        assertEquals(alternate, UnitCacheFile.getCurrent(file));
+        assertEquals("Atlas AS7-K", UnitCacheFile.open(alternate).getName(0));
+    }
+
+    @Test
+    public void testOtherFormat() throws IOException {
+        // the serialized caches of earlier versions are not read
+        File file = tmpFolder.newFile("units.cache");
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(1);
+            out.writeObject(createSummary("Atlas AS7-D", null));
+        }
+        assertNull(UnitCacheFile.open(file));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import megamek.common.net.compression.PacketCodec;
+import megamek.common.net.marshall.PacketMarshaller;
+import megamek.common.net.marshall.PacketMarshallerFactory;
+
+public class EncodedPacketTest {
+
+    @Test
+    public void testFramesAreShared() throws Exception {
+        EncodedPacket packet = new EncodedPacket(new Packet(Packet.COMMAND_CHAT, "hello"));
+        int binary = PacketMarshaller.BINARY_MARSHALING;
+        int nativ = PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING;
+        int gzip = PacketCodec.GZIP;
+        assertSame(packet.getFrame(binary, gzip), packet.getFrame(binary, gzip));
+        assertNotSame(packet.getFrame(binary, gzip), packet.getFrame(binary, PacketCodec.NONE));
+        assertNotSame(packet.getFrame(binary, gzip), packet.getFrame(nativ, gzip));
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        EncodedPacket packet = new EncodedPacket(new Packet(Packet.COMMAND_CHAT, "hello"));
+        EncodedPacket.Frame frame = packet.getFrame(PacketMarshaller.BINARY_MARSHALING,
+                PacketCodec.GZIP);
+        assertEquals(PacketCodec.GZIP, frame.getCompression());
+        PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+                .getMarshaller(frame.getMarshallingType());
+        Packet decoded = marshaller.unmarshall(
+                new GZIPInputStream(new ByteArrayInputStream(frame.getData())));
+        assertEquals(Packet.COMMAND_CHAT, decoded.getCommand());
+        assertEquals("hello", decoded.getObject(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStatefulCodecIsNotShared() throws Exception {
+        EncodedPacket packet = new EncodedPacket(new Packet(Packet.COMMAND_CHAT, "hello"));
+        packet.getFrame(PacketMarshaller.BINARY_MARSHALING, PacketCodec.DEFLATE_STREAM);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import megamek.common.net.marshall.PacketMarshaller;
+import megamek.common.net.marshall.PacketMarshallerFactory;
+
+public class NioConnectionTest {
+
+    /**
+     * A blocking client and a non-blocking server connection must understand
+     * each other, in both directions.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+            Socket clientSocket = new Socket("127.0.0.1", serverChannel.socket().getLocalPort());
+            SocketChannel accepted = serverChannel.accept();
+
+            final LinkedBlockingQueue<Packet> received = new LinkedBlockingQueue<>();
+            NioConnection server = new NioConnection(accepted, 1, new SelectorConnectionPool(1));
+            server.addConnectionListener(new ConnectionListenerAdapter() {
+                @Override
+                public void packetReceived(PacketReceivedEvent e) {
+                    received.add(e.getPacket());
+                }
+            });
+            server.open();
+
+            DataStreamConnection client = new DataStreamConnection(clientSocket, 1);
+            client.open();
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                text.append(i);
+            }
+            client.send(new Packet(Packet.COMMAND_CHAT, "hello"));
+            client.send(new Packet(Packet.COMMAND_CHAT, text.toString()));
+
+            Packet packet = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(packet);
+            assertEquals("hello", packet.getObject(0));
+            packet = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(packet);
+            assertEquals(text.toString(), packet.getObject(0));
+
+            server.send(new Packet(Packet.COMMAND_CHAT, "world"));
+            DataInputStream in = new DataInputStream(clientSocket.getInputStream());
+            boolean zipped = in.readBoolean();
+            int type = in.readInt();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            PacketMarshaller marshaller = PacketMarshallerFactory.getInstance().getMarshaller(type);
+            InputStream stream = new ByteArrayInputStream(data);
+            if (zipped) {
+                stream = new GZIPInputStream(stream);
+            }
+            assertEquals("world", marshaller.unmarshall(stream).getObject(0));
+
+            client.close();
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net.compression;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PacketCodecTest {
+
+    private static byte[] packet(Random random, int length) {
+        // mostly repeated structure with a few random values, like an entity
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ((i % 97 == 0) ? random.nextInt() : i % 31);
+        }
+        return data;
+    }
+
+    @Test
+    public void testGZipRoundTrip() throws Exception {
+        PacketCodec codec = PacketCodecFactory.getInstance().getCodec(PacketCodec.GZIP);
+        byte[] data = packet(new Random(1), 5000);
+        assertArrayEquals(data, codec.decode(codec.encode(data)));
+    }
+
+    @Test
+    public void testStreamRoundTrip() throws Exception {
+        PacketCodecFactory factory = PacketCodecFactory.getInstance();
+        PacketCodec sender = factory.getCodec(PacketCodec.DEFLATE_STREAM);
+        PacketCodec receiver = factory.getCodec(PacketCodec.DEFLATE_STREAM);
+        PacketCodec gzip = factory.getCodec(PacketCodec.GZIP);
+        Random random = new Random(2);
+        for (int i = 0; i < 20; i++) {
+            byte[] data = packet(random, 3000 + random.nextInt(30000));
+            byte[] encoded = sender.encode(data);
+            assertArrayEquals(data, receiver.decode(encoded));
+            if (i > 0) {
+                // later packets compress against the earlier ones
+                assertTrue(encoded.length < gzip.encode(data).length);
+            }
+        }
+        sender.close();
+        receiver.close();
+    }
+
+    @Test
+    public void testNegotiation() {
+        PacketCodecFactory factory = PacketCodecFactory.getInstance();
+        assertEquals(PacketCodec.GZIP, factory.negotiateCompressionType(null));
+        assertEquals(PacketCodec.GZIP, factory.negotiateCompressionType(
+                new int[] { PacketCodec.NONE, PacketCodec.GZIP }));
+        assertEquals(PacketCodec.DEFLATE_STREAM, factory.negotiateCompressionType(
+                factory.getSupportedCompressionTypes()));
+    }
+}
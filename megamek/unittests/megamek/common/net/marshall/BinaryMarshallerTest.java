@@ -0,0 +1,201 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net.marshall;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Hex;
+import megamek.common.IHex;
+import megamek.common.ITerrain;
+import megamek.common.MechFileParser;
+import megamek.common.Report;
+import megamek.common.Terrains;
+import megamek.common.UnitLocation;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.net.Packet;
+
+@RunWith(JUnit4.class)
+public class BinaryMarshallerTest {
+
+    private final PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+            .getMarshaller(PacketMarshaller.BINARY_MARSHALING);
+
+    private Packet roundTrip(Packet packet) {
+        byte[] data = marshaller.marshall(packet);
+        return marshaller.unmarshall(data);
+    }
+
+    @Test
+    public void testTurnPacket() {
+        Object[] data = new Object[3];
+        data[0] = 7;
+        data[1] = -1;
+        Packet result = roundTrip(new Packet(Packet.COMMAND_TURN, data));
+        assertEquals(Packet.COMMAND_TURN, result.getCommand());
+        assertEquals(3, result.getData().length);
+        assertEquals(7, result.getIntValue(0));
+        assertEquals(-1, result.getIntValue(1));
+        assertNull(result.getObject(2));
+    }
+
+    @Test
+    public void testRemoveEntityPacket() {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(3);
+        ids.add(300000);
+        Object[] data = new Object[2];
+        data[0] = ids;
+        data[1] = 2;
+        Packet result = roundTrip(new Packet(Packet.COMMAND_ENTITY_REMOVE, data));
+        assertTrue(result.getObject(0) instanceof ArrayList);
+        assertEquals(ids, result.getObject(0));
+        assertEquals(2, result.getIntValue(1));
+    }
+
+    @Test
+    public void testReportPacket() {
+        Vector<Report> reports = new Vector<>();
+        Report r = new Report(3455);
+        r.indent(2);
+        r.add("Crusader", true);
+        r.add("Bob", false);
+        r.choose(true);
+        r.hideData(0);
+        r.addObscuredRecipient("Alice");
+        reports.add(r);
+        Report r2 = new Report(1000);
+        r2.add("Bob", "Messages");
+        r2.newlines = 3;
+        reports.add(r2);
+
+        Packet result = roundTrip(new Packet(Packet.COMMAND_SENDING_REPORTS, reports));
+        @SuppressWarnings("unchecked")
+        Vector<Report> received = (Vector<Report>) result.getObject(0);
+        assertEquals(2, received.size());
+        Report c = received.get(0);
+        assertEquals(3455, c.messageId);
+        assertEquals(8, c.getIndentation());
+        assertEquals(3, c.dataCount());
+        assertNull(c.getTagData(0));
+        assertEquals("Bob", c.getTagData(1));
+        assertEquals("true", c.getTagData(2));
+        assertTrue(c.isValueObscured(0));
+        assertFalse(c.isValueObscured(1));
+        assertTrue(c.isObscuredRecipient("Alice"));
+        assertNull(c.getTagTranslate());
+        Report c2 = received.get(1);
+        assertEquals("Bob", c2.getTagData(0));
+        assertEquals("Messages", c2.getTagTranslate());
+        assertEquals(3, c2.newlines);
+    }
+
+    @Test
+    public void testChangeHexesPacket() {
+        Set<Coords> coords = new LinkedHashSet<>();
+        coords.add(new Coords(4, 5));
+        Set<IHex> hexes = new LinkedHashSet<>();
+        Hex hex = new Hex(2, new ITerrain[0], "snow", new Coords(4, 5));
+        hex.addTerrain(Terrains.getTerrainFactory().createTerrain(Terrains.WOODS, 2));
+        hex.addTerrain(Terrains.getTerrainFactory().createTerrain(Terrains.ROAD, 1, true, 9));
+        hex.setTheme("lunar");
+        hex.incrementFireTurn();
+        hexes.add(hex);
+        Object[] data = new Object[2];
+        data[0] = coords;
+        data[1] = hexes;
+
+        Packet result = roundTrip(new Packet(Packet.COMMAND_CHANGE_HEXES, data));
+        assertEquals(coords, result.getObject(0));
+        @SuppressWarnings("unchecked")
+        Set<IHex> received = (Set<IHex>) result.getObject(1);
+        Hex copy = (Hex) received.iterator().next();
+        assertEquals(2, copy.getLevel());
+        assertEquals("lunar", copy.getTheme());
+        assertEquals("snow", copy.getOriginalTheme());
+        assertEquals(1, copy.getFireTurn());
+        assertEquals(new Coords(4, 5), copy.getCoords());
+        assertEquals(2, copy.terrainLevel(Terrains.WOODS));
+        assertEquals(9, copy.getTerrain(Terrains.ROAD).getExits());
+        assertTrue(copy.getTerrain(Terrains.ROAD).hasExitsSpecified());
+        assertEquals(hex.getTerrain(Terrains.WOODS).getTerrainFactor(),
+                copy.getTerrain(Terrains.WOODS).getTerrainFactor());
+    }
+
+    @Test
+    public void testSerializedFallback() {
+        Object[] data = new Object[2];
+        data[0] = "test";
+        data[1] = new StringBuilder("builder");
+        Packet result = roundTrip(new Packet(Packet.COMMAND_ENTITY_UPDATE, data));
+        assertEquals("test", result.getObject(0));
+        assertEquals("builder", result.getObject(1).toString());
+
+        // untagged commands keep the whole array in one serialized body
+        Packet untagged = roundTrip(new Packet(Packet.COMMAND_SENDING_GAME_SETTINGS, data));
+        assertEquals("builder", untagged.getObject(1).toString());
+    }
+
+    @Test
+    public void testEntityUpdatePacket() throws EntityLoadingException {
+        Entity mech = new MechFileParser(new File("data/mechfiles/mechs/ISP3/Arana MilitiaMech ARA-S-1.mtf"))
+                .getEntity();
+        mech.setId(3);
+        mech.setPosition(new Coords(4, 5));
+        mech.heat = 7;
+        Vector<UnitLocation> movePath = new Vector<>();
+        movePath.add(new UnitLocation(3, new Coords(4, 5), 2, 0));
+        Object[] data = new Object[3];
+        data[0] = 3;
+        data[1] = mech;
+        data[2] = movePath;
+
+        Packet result = roundTrip(new Packet(Packet.COMMAND_ENTITY_UPDATE, data));
+        assertEquals(3, result.getIntValue(0));
+        Entity copy = (Entity) result.getObject(1);
+        assertEquals(mech.getShortName(), copy.getShortName());
+        assertEquals(3, copy.getId());
+        assertEquals(new Coords(4, 5), copy.getPosition());
+        assertEquals(7, copy.heat);
+        @SuppressWarnings("unchecked")
+        Vector<UnitLocation> path = (Vector<UnitLocation>) result.getObject(2);
+        assertEquals(2, path.get(0).getFacing());
+    }
+
+    @Test
+    public void testNegotiation() {
+        PacketMarshallerFactory factory = PacketMarshallerFactory.getInstance();
+        assertEquals(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING,
+                factory.negotiateMarshallingType(null));
+        assertEquals(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING,
+                factory.negotiateMarshallingType(new int[] { 0 }));
+        assertEquals(PacketMarshaller.BINARY_MARSHALING,
+                factory.negotiateMarshallingType(factory.getSupportedMarshallingTypes()));
+    }
+}
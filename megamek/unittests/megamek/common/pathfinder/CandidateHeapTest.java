@@ -0,0 +1,95 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CandidateHeapTest {
+
+    @Test
+    public void testOrderAndDecreaseKey() {
+        CandidateHeap<Integer> heap = new CandidateHeap<>(Comparator.<Integer> naturalOrder());
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int value = 1000 + random.nextInt(1000);
+            heap.add(value, i, true);
+            assertEquals(value, (int) heap.get(heap.indexOf(i)));
+        }
+        // move node 7 to the front
+        heap.replace(heap.indexOf(7), 5);
+        assertEquals(7, heap.firstNode());
+        assertEquals(5, (int) heap.poll());
+        assertEquals(-1, heap.indexOf(7));
+        int last = Integer.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            int value = heap.poll();
+            assertTrue(value >= last);
+            last = value;
+        }
+        assertEquals(-1, heap.indexOf(3));
+    }
+
+    @Test
+    public void testCostTable() {
+        NodeCostTable<String> table = new NodeCostTable<>();
+        for (int node = -300; node < 300; node++) {
+            table.put(node * 8191, "c" + node);
+        }
+        table.put(8191, "again");
+        assertEquals(600, table.size());
+        assertEquals("c-300", table.get(-300 * 8191));
+        assertEquals("again", table.get(8191));
+        assertNull(table.get(5));
+        Map<Integer, String> map = table.asMap(new AbstractPathFinder.NodeIdMap<Integer, Integer>() {
+            @Override
+            public Integer getDestination(Integer e) {
+                return e;
+            }
+
+            @Override
+            public int getDestinationId(Integer e) {
+                return e * 8191;
+            }
+
+            @Override
+            public int getId(Integer node) {
+                return node * 8191;
+            }
+
+            @Override
+            public Integer getNode(int id) {
+                return id / 8191;
+            }
+        });
+        assertEquals("c299", map.get(299));
+        assertEquals(600, map.size());
+        assertEquals(600, map.values().size());
+        assertEquals(600, map.keySet().size());
+        assertTrue(map.containsKey(-300));
+        table.put(300 * 8191, "later");
+        assertEquals("later", map.get(300));
+        assertEquals(601, map.entrySet().size());
+        table.clear();
+        assertNull(table.get(8191));
+        assertEquals(0, table.size());
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.IGame;
+import megamek.common.MechFileParser;
+import megamek.common.MovePath;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.MoveStep;
+import megamek.common.Player;
+import megamek.common.loaders.EntityLoadingException;
+
+/**
+ * Runs the path finders with numbered nodes against the same finders made to
+ * use the plain engine, which hashes the nodes.
+ */
+public class PathFinderEquivalenceTest {
+
+    private static final String[] BOARDS = { "data/boards/MapSet2/16x17 Desert Hills.board",
+            "data/boards/MapSet2/16x17 Scattered Woods.board", "data/boards/MapSet2/16x17 City Ruins.board" };
+
+    private List<IGame> games;
+    private List<Entity> mechs;
+
+    @Before
+    public void setUp() throws EntityLoadingException {
+        games = new ArrayList<>();
+        mechs = new ArrayList<>();
+        for (String boardFile : BOARDS) {
+            IGame game = new Game();
+            Board board = new Board();
+            board.load(new File(boardFile));
+            game.setBoard(board);
+            Player player = new Player(0, "Test");
+            game.addPlayer(0, player);
+            Entity mech = new MechFileParser(new File("data/mechfiles/mechs/ISP3/Arana MilitiaMech ARA-S-1.mtf"))
+                    .getEntity();
+            mech.setOwner(player);
+            mech.setPosition(new Coords(7, 8));
+            mech.setFacing(1);
+            game.addEntity(mech);
+            games.add(game);
+            mechs.add(mech);
+        }
+    }
+
+    /**
+     * Makes the finder use the plain engine.
+     */
+    private static <C> void usePlainEngine(MovePathFinder<C> finder) {
+        final AbstractPathFinder.DestinationMap<MovePathFinder.CoordsWithFacing, MovePath> nodeIds
+                = finder.getDestinationMap();
+        finder.setDestinationMap(nodeIds::getDestination);
+    }
+
+    private static String describe(MovePath path) {
+        StringBuilder sb = new StringBuilder();
+        for (Enumeration<MoveStep> steps = path.getSteps(); steps.hasMoreElements(); ) {
+            sb.append(steps.nextElement().getType()).append(' ');
+        }
+        return sb.append(path.getFinalCoords()).append(' ').append(path.getFinalFacing()).toString();
+    }
+
+    private static Map<MovePathFinder.CoordsWithFacing, String> describeAll(Map<MovePathFinder.CoordsWithFacing,
+            MovePath> costs) {
+        Map<MovePathFinder.CoordsWithFacing, String> described = new HashMap<>();
+        for (Map.Entry<MovePathFinder.CoordsWithFacing, MovePath> entry : costs.entrySet()) {
+            described.put(entry.getKey(), describe(entry.getValue()));
+        }
+        return described;
+    }
+
+    private static List<String> describeAll(Collection<MovePath> paths) {
+        List<String> described = new ArrayList<>();
+        for (MovePath path : paths) {
+            described.add(describe(path));
+        }
+        Collections.sort(described);
+        return described;
+    }
+
+    @Test
+    public void testOneToAll() {
+        for (int i = 0; i < games.size(); i++) {
+            for (MoveStepType stepType : new MoveStepType[] { MoveStepType.FORWARDS, MoveStepType.BACKWARDS }) {
+                Entity mech = mechs.get(i);
+                ShortestPathFinder indexed = ShortestPathFinder.newInstanceOfOneToAll(mech.getRunMP(), stepType,
+                        games.get(i));
+                ShortestPathFinder plain = ShortestPathFinder.newInstanceOfOneToAll(mech.getRunMP(), stepType,
+                        games.get(i));
+                usePlainEngine(plain);
+                indexed.run(new MovePath(games.get(i), mech));
+                plain.run(new MovePath(games.get(i), mech));
+
+                // the same nodes at the same costs; paths of equal cost may
+                // differ, as candidates that can't win are not queued
+                Map<MovePathFinder.CoordsWithFacing, MovePath> expected = plain.getPathCostMap();
+                Map<MovePathFinder.CoordsWithFacing, MovePath> actual = indexed.getPathCostMap();
+                assertFalse(expected.isEmpty());
+                assertEquals(expected.keySet(), actual.keySet());
+                assertEquals(expected.size(), actual.values().size());
+                for (Map.Entry<MovePathFinder.CoordsWithFacing, MovePath> entry : expected.entrySet()) {
+                    MovePath path = actual.get(entry.getKey());
+                    assertEquals(0, indexed.getComparator().compare(entry.getValue(), path));
+                    assertEquals(entry.getValue().getMpUsed(), path.getMpUsed());
+                }
+                assertEquals(plain.getAllComputedPaths().keySet(), indexed.getAllComputedPaths().keySet());
+            }
+        }
+    }
+
+    @Test
+    public void testStopConditionsSeeTheSameEdges() {
+        for (int i = 0; i < games.size(); i++) {
+            Entity mech = mechs.get(i);
+            List<String> expected = new ArrayList<>();
+            List<String> actual = new ArrayList<>();
+            ShortestPathFinder indexed = ShortestPathFinder.newInstanceOfOneToAll(mech.getRunMP(),
+                    MoveStepType.FORWARDS, games.get(i));
+            indexed.addStopCondition(e -> !actual.add(describe(e)));
+            ShortestPathFinder plain = ShortestPathFinder.newInstanceOfOneToAll(mech.getRunMP(),
+                    MoveStepType.FORWARDS, games.get(i));
+            plain.addStopCondition(e -> !expected.add(describe(e)));
+            usePlainEngine(plain);
+            indexed.run(new MovePath(games.get(i), mech));
+            plain.run(new MovePath(games.get(i), mech));
+
+            assertEquals(expected, actual);
+            assertEquals(describeAll(plain.getPathCostMap()), describeAll(indexed.getPathCostMap()));
+        }
+    }
+
+    @Test
+    public void testAStar() {
+        for (int i = 0; i < games.size(); i++) {
+            Entity mech = mechs.get(i);
+            Coords destination = new Coords(2, 14);
+            ShortestPathFinder indexed = ShortestPathFinder.newInstanceOfAStar(destination, MoveStepType.FORWARDS,
+                    games.get(i));
+            ShortestPathFinder plain = ShortestPathFinder.newInstanceOfAStar(destination, MoveStepType.FORWARDS,
+                    games.get(i));
+            usePlainEngine(plain);
+            indexed.run(new MovePath(games.get(i), mech));
+            plain.run(new MovePath(games.get(i), mech));
+
+            assertNotNull(plain.getComputedPath(destination));
+            assertEquals(describe(plain.getComputedPath(destination)),
+                    describe(indexed.getComputedPath(destination)));
+            assertEquals(describeAll(plain.getPathCostMap()), describeAll(indexed.getPathCostMap()));
+        }
+    }
+
+    @Test
+    public void testLongestPaths() {
+        for (int i = 0; i < games.size(); i++) {
+            for (MoveStepType stepType : new MoveStepType[] { MoveStepType.FORWARDS, MoveStepType.BACKWARDS }) {
+                Entity mech = mechs.get(i);
+                LongestPathFinder indexed = LongestPathFinder.newInstanceOfLongestPath(mech.getRunMP(), stepType,
+                        games.get(i));
+                LongestPathFinder plain = LongestPathFinder.newInstanceOfLongestPath(mech.getRunMP(), stepType,
+                        games.get(i));
+                usePlainEngine(plain);
+                indexed.run(new MovePath(games.get(i), mech));
+                plain.run(new MovePath(games.get(i), mech));
+
+                assertFalse(plain.getLongestComputedPaths().isEmpty());
+                assertEquals(describeAll(plain.getLongestComputedPaths()),
+                        describeAll(indexed.getLongestComputedPaths()));
+                assertEquals(describeAll(plain.getAllComputedPathsUnordered()),
+                        describeAll(indexed.getAllComputedPathsUnordered()));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import megamek.common.Coords;
+import megamek.common.EntityMovementType;
+import megamek.common.MovePath;
+import megamek.common.MoveStep;
+
+public class StepStateTest {
+
+    private static MovePath mockPath(Coords coords, int facing, int elevation, int mp, int hexes,
+                                     boolean prone, boolean legal, boolean danger) {
+        MoveStep step = Mockito.mock(MoveStep.class);
+        Mockito.when(step.getMovementType(true)).thenReturn(legal ? EntityMovementType.MOVE_RUN
+                : EntityMovementType.MOVE_ILLEGAL);
+        Mockito.when(step.isDanger()).thenReturn(danger);
+        MovePath path = Mockito.mock(MovePath.class);
+        Mockito.when(path.getFinalCoords()).thenReturn(coords);
+        Mockito.when(path.getFinalFacing()).thenReturn(facing);
+        Mockito.when(path.getFinalElevation()).thenReturn(elevation);
+        Mockito.when(path.getMpUsed()).thenReturn(mp);
+        Mockito.when(path.getHexesMoved()).thenReturn(hexes);
+        Mockito.when(path.getFinalProne()).thenReturn(prone);
+        Mockito.when(path.getLastStep()).thenReturn(step);
+        return path;
+    }
+
+    @Test
+    public void testPacking() {
+        long state = StepState.of(mockPath(new Coords(17, 250), 5, -3, 14, 9, true, false, true));
+        assertTrue(StepState.isOnMap(state));
+        assertEquals(17, StepState.getX(state));
+        assertEquals(250, StepState.getY(state));
+        assertEquals(5, StepState.getFacing(state));
+        assertEquals(-3, StepState.getElevation(state));
+        assertEquals(14, StepState.getMpUsed(state));
+        assertEquals(9, StepState.getHexesMoved(state));
+        assertTrue(StepState.isProne(state));
+        assertFalse(StepState.isHullDown(state));
+        assertFalse(StepState.isJumping(state));
+        assertFalse(StepState.isLegal(state));
+        assertTrue(StepState.isDanger(state));
+
+        // off the board and flying high
+        state = StepState.of(mockPath(new Coords(-1, -2), 0, 999, 600, 0, false, true, false));
+        assertEquals(-1, StepState.getX(state));
+        assertEquals(-2, StepState.getY(state));
+        assertEquals(999, StepState.getElevation(state));
+        assertEquals(511, StepState.getMpUsed(state));
+        assertTrue(StepState.isLegal(state));
+        assertFalse(StepState.isDanger(state));
+    }
+
+    @Test
+    public void testDistance() {
+        Coords destination = new Coords(7, 4);
+        for (int x = 0; x < 15; x++) {
+            for (int y = 0; y < 10; y++) {
+                Coords c = new Coords(x, y);
+                long state = StepState.of(mockPath(c, 0, 0, 0, 0, false, true, false));
+                assertEquals(c.distance(destination), StepState.distance(state, destination));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Vector;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import megamek.common.BipedMech;
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.Game;
+import megamek.common.IGame;
+import megamek.common.Mech;
+import megamek.common.Mounted;
+import megamek.common.Player;
+import megamek.common.Report;
+import megamek.common.ToHitData;
+import megamek.common.actions.WeaponAttackAction;
+import megamek.common.weapons.AttackHandler;
+import megamek.common.weapons.WeaponHandler;
+
+public class BinarySaveGameTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initializeTypes() {
+        EquipmentType.initializeTypes();
+    }
+
+    private static Game createGame() {
+        Game game = new Game();
+        game.setBoard(new Board(16, 17));
+        Player player = new Player(0, "Tester");
+        player.setTeam(1);
+        game.addPlayer(0, player);
+        game.setRoundCount(3);
+        game.setPhase(IGame.Phase.PHASE_FIRING);
+        Entity mech = new BipedMech();
+        mech.setChassis("Atlas");
+        mech.setModel("AS7-D");
+        mech.setOwner(player);
+        game.addEntity(mech);
+        Report report = new Report(1000);
+        report.add("test");
+        game.addReports(new Vector<>(Arrays.asList(report)));
+        return game;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        File file = tmpFolder.newFile("test" + BinarySaveGame.EXTENSION);
+        BinarySaveGame.write(createGame(), file);
+        assertTrue(BinarySaveGame.isBinarySave(file));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        BinarySaveGame.Metadata meta = BinarySaveGame.readMetadata(file);
+        assertEquals(3, meta.getRound());
+        assertEquals(IGame.Phase.PHASE_FIRING, meta.getPhase());
+        assertEquals(16, meta.getBoardWidth());
+        assertEquals(17, meta.getBoardHeight());
+        assertEquals(1, meta.getEntityCount());
+        assertEquals(Arrays.asList("Tester"), meta.getPlayerNames());
+        assertEquals(Arrays.asList(1), meta.getPlayerTeams());
+
+        IGame game = BinarySaveGame.read(file);
+        assertEquals(3, game.getRoundCount());
+        assertEquals(16, game.getBoard().getWidth());
+        assertEquals("Tester", game.getPlayer(0).getName());
+        assertEquals(1, game.getAllReports().size());
+        Entity mech = game.getEntitiesVector().get(0);
+        assertEquals("Atlas", mech.getChassis());
+        // objects of earlier sections are shared, not copied
+        assertSame(mech, game.getEntity(mech.getId()));
+        assertSame(game.getPlayer(0), game.getPlayersVector().get(0));
+    }
+
+    @Test
+    public void testPendingAttackKeepsWeapon() throws Exception {
+        Game game = createGame();
+        Entity mech = game.getEntitiesVector().get(0);
+        Mounted laser = mech.addEquipment(EquipmentType.get("Medium Laser"), Mech.LOC_RARM);
+        mech.setPosition(new Coords(2, 2));
+        Entity target = new BipedMech();
+        target.setChassis("Locust");
+        target.setOwner(game.getPlayer(0));
+        target.setPosition(new Coords(4, 4));
+        game.addEntity(target);
+        WeaponAttackAction waa = new WeaponAttackAction(mech.getId(), target.getId(),
+                mech.getEquipmentNum(laser));
+        game.addAttack(new WeaponHandler(new ToHitData(), waa, game, null));
+
+        IGame loaded = BinarySaveGame.fromBytes(BinarySaveGame.toBytes(game));
+        Enumeration<AttackHandler> attacks = loaded.getAttacks();
+        WeaponHandler handler = (WeaponHandler) attacks.nextElement();
+        assertFalse(attacks.hasMoreElements());
+        Mounted weapon = loaded.getEntity(mech.getId()).getEquipment(mech.getEquipmentNum(laser));
+        assertNotNull(weapon);
+        // the handler fires the weapon of the loaded entity, not a copy
+        Field field = WeaponHandler.class.getDeclaredField("weapon");
+        field.setAccessible(true);
+        assertSame(weapon, field.get(handler));
+    }
+
+    @Test
+    public void testXmlConversion() throws Exception {
+        File binary = tmpFolder.newFile("a" + BinarySaveGame.EXTENSION);
+        File xml = new File(tmpFolder.getRoot(), "a.sav.gz");
+        File again = new File(tmpFolder.getRoot(), "b" + BinarySaveGame.EXTENSION);
+        BinarySaveGame.write(createGame(), binary);
+        BinarySaveGame.toXml(binary, xml);
+        assertFalse(BinarySaveGame.isBinarySave(xml));
+        BinarySaveGame.fromXml(xml, again);
+
+        IGame game = BinarySaveGame.read(again);
+        assertEquals(3, game.getRoundCount());
+        assertEquals("AS7-D", game.getEntitiesVector().get(0).getModel());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ByteDeltaTest {
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] data = new byte[length];
+        random.nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void testFullState() {
+        byte[] target = randomBytes(new Random(1), 1000);
+        byte[] delta = ByteDelta.diff(new byte[0], target);
+        assertArrayEquals(target, ByteDelta.patch(new byte[0], delta));
+    }
+
+    @Test
+    public void testScatteredChanges() {
+        Random random = new Random(2);
+        byte[] base = randomBytes(random, 20000);
+        byte[] target = base.clone();
+        for (int i = 0; i < 10; i++) {
+            target[random.nextInt(target.length)]++;
+        }
+        byte[] delta = ByteDelta.diff(base, target);
+        assertArrayEquals(target, ByteDelta.patch(base, delta));
+        assertTrue("Delta too large: " + delta.length, delta.length < 500);
+    }
+
+    @Test
+    public void testInsertionAndRemoval() {
+        Random random = new Random(3);
+        byte[] base = randomBytes(random, 5000);
+        byte[] target = new byte[base.length + 7 - 100];
+        // 7 new bytes at the start, and 100 bytes dropped in the middle
+        System.arraycopy(randomBytes(random, 7), 0, target, 0, 7);
+        System.arraycopy(base, 0, target, 7, 2000);
+        System.arraycopy(base, 2100, target, 2007, base.length - 2100);
+        byte[] delta = ByteDelta.diff(base, target);
+        assertArrayEquals(target, ByteDelta.patch(base, delta));
+        assertTrue("Delta too large: " + delta.length, delta.length < 100);
+    }
+
+    @Test
+    public void testSmallData() {
+        byte[] base = { 1, 2, 3 };
+        byte[] target = { 1, 2, 4, 5 };
+        assertArrayEquals(target, ByteDelta.patch(base, ByteDelta.diff(base, target)));
+        assertArrayEquals(new byte[0], ByteDelta.patch(base, ByteDelta.diff(base, new byte[0])));
+    }
+
+    @Test
+    public void testChecksum() {
+        assertNotEquals(ByteDelta.checksum(new byte[] { 1, 2 }),
+                ByteDelta.checksum(new byte[] { 2, 1 }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongBase() {
+        byte[] base = randomBytes(new Random(4), 1000);
+        byte[] target = base.clone();
+        target[500]++;
+        byte[] delta = ByteDelta.diff(base, target);
+        ByteDelta.patch(new byte[10], delta);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import megamek.common.net.Packet;
+import megamek.common.util.ByteDelta;
+
+public class EntityDeltaTrackerTest {
+
+    private static final byte[] NO_STATE = new byte[0];
+
+    /**
+     * Applies an update the way the client does, checking both checksums.
+     */
+    private static byte[] apply(byte[] base, Packet packet) {
+        assertEquals(Packet.COMMAND_ENTITY_DELTA_UPDATE, packet.getCommand());
+        assertEquals(ByteDelta.checksum(base), packet.getIntValue(1));
+        byte[] state = ByteDelta.patch(base, (byte[]) packet.getObject(2));
+        assertEquals(ByteDelta.checksum(state), packet.getIntValue(3));
+        return state;
+    }
+
+    private static byte[] createState(int length, int changed) {
+        byte[] state = new byte[length];
+        for (int i = 0; i < length; i++) {
+            state[i] = (byte) (i * 31);
+        }
+        state[changed]++;
+        return state;
+    }
+
+    @Test
+    public void testUpdatesAreDeltas() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        tracker.register(1);
+        assertTrue(tracker.isRegistered(1));
+        assertFalse(tracker.isRegistered(2));
+
+        byte[] first = createState(5000, 10);
+        byte[] received = apply(NO_STATE, tracker.createUpdatePacket(1, 7, first, null));
+        assertArrayEquals(first, received);
+
+        byte[] second = createState(5000, 4000);
+        Packet update = tracker.createUpdatePacket(1, 7, second, null);
+        assertArrayEquals(second, apply(received, update));
+        assertTrue(((byte[]) update.getObject(2)).length < 500);
+    }
+
+    @Test
+    public void testConnectionsSharingABase() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        tracker.register(1);
+        tracker.register(2);
+        byte[] state = createState(1000, 0);
+        Packet one = tracker.createUpdatePacket(1, 7, state, null);
+        Packet two = tracker.createUpdatePacket(2, 7, state, null);
+        assertSame(one.getObject(2), two.getObject(2));
+    }
+
+    @Test
+    public void testForgetSendsFullState() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        tracker.register(1);
+        assertFalse(tracker.forget(1, 7));
+        tracker.createUpdatePacket(1, 7, createState(1000, 0), null);
+
+        // the client lost its base and asks for the entity again
+        assertTrue(tracker.forget(1, 7));
+        byte[] state = createState(1000, 1);
+        assertArrayEquals(state, apply(NO_STATE, tracker.createUpdatePacket(1, 7, state, null)));
+        assertFalse(tracker.forget(2, 7));
+    }
+
+    @Test
+    public void testRemovalDropsState() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        tracker.register(1);
+        tracker.createUpdatePacket(1, 7, createState(1000, 0), null);
+        tracker.createUpdatePacket(1, 8, createState(1000, 0), null);
+        tracker.packetSent(1, new Packet(Packet.COMMAND_ENTITY_REMOVE,
+                new Object[] { Collections.singletonList(7), Collections.singletonList(0) }));
+        assertFalse(tracker.forget(1, 7));
+        assertTrue(tracker.forget(1, 8));
+
+        tracker.unregister(1);
+        assertFalse(tracker.isRegistered(1));
+    }
+}
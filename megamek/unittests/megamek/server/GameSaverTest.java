@@ -0,0 +1,106 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import megamek.common.Game;
+import megamek.common.IGame;
+import megamek.common.Player;
+import megamek.common.util.SerializationHelper;
+
+public class GameSaverTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void testSaveInBackground() throws Exception {
+        Game game = new Game();
+        game.addPlayer(0, new Player(0, "Tester"));
+        game.setRoundCount(7);
+        File file = new File(tmpFolder.getRoot(), "test.sav.gz");
+
+        GameSaver saver = new GameSaver();
+        saver.save(game, file);
+        // changes after the snapshot are not saved
+        game.setRoundCount(8);
+        saver.flush();
+        assertTrue(file.exists());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        IGame loaded = load(file);
+        assertEquals(7, loaded.getRoundCount());
+        assertEquals("Tester", loaded.getPlayer(0).getName());
+
+        saver.save(game, file);
+        saver.shutdown();
+        assertEquals(8, load(file).getRoundCount());
+        assertEquals(2, saver.getSaves());
+        assertTrue(saver.getSnapshotNanos() > 0);
+        assertTrue(saver.getEncodeNanos() > 0);
+    }
+
+    @Test
+    public void testOnSavedRunsAfterTheWrite() throws Exception {
+        Game game = new Game();
+        File file = new File(tmpFolder.getRoot(), "test.sav.gz");
+        List<Boolean> saved = new ArrayList<>();
+        GameSaver saver = new GameSaver();
+
+        // hold the writer, so the second save takes the place of the first
+        CountDownLatch release = new CountDownLatch(1);
+        saver.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        saver.save(game, file, () -> saved.add(file.exists()));
+        saver.save(game, file, () -> saved.add(file.exists()));
+        assertTrue(saved.isEmpty());
+        release.countDown();
+        saver.flush();
+        assertEquals(Arrays.asList(true, true), saved);
+        assertEquals(1, saver.getSaves());
+
+        // a failed save is not announced
+        saved.clear();
+        saver.save(game, new File(new File(tmpFolder.getRoot(), "missing"), "test.sav.gz"),
+                () -> saved.add(true));
+        saver.shutdown();
+        assertTrue(saved.isEmpty());
+    }
+
+    private static IGame load(File file) throws Exception {
+        try (InputStream is = new FileInputStream(file); InputStream gzi = new GZIPInputStream(is)) {
+            return (IGame) SerializationHelper.getXStream().fromXML(gzi);
+        }
+    }
+}
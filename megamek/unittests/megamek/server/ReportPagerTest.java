@@ -0,0 +1,103 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import megamek.common.Game;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.Player;
+import megamek.common.Report;
+
+public class ReportPagerTest {
+
+    private static IGame createGame(int rounds) {
+        IGame game = new Game();
+        for (int round = 1; round <= rounds; round++) {
+            game.setRoundCount(round);
+            Vector<Report> reports = new Vector<>();
+            for (int i = 0; i < 3; i++) {
+                Report r = new Report(1000 + i);
+                r.add(round);
+                if (i == 0) {
+                    r.addObscuredRecipient("Bob");
+                }
+                reports.addElement(r);
+            }
+            game.addReports(reports);
+        }
+        return game;
+    }
+
+    @Test
+    public void testPages() {
+        IGame game = createGame(25);
+        IPlayer bob = new Player(1, "Bob");
+        ReportPager pager = new ReportPager(r -> null);
+
+        Vector<Vector<Report>> page = pager.getPage(game, bob, 3, 30, false);
+        assertEquals(ReportPager.MAX_PAGE_ROUNDS, page.size());
+        assertSame(game.getReports(3), page.get(0));
+
+        page = pager.getPage(game, bob, 24, 30, false);
+        assertEquals(2, page.size());
+        assertEquals(0, pager.getPage(game, bob, 26, 30, false).size());
+
+        // a client that joined late knows of the rounds it has not asked for
+        Game client = new Game();
+        client.setReportsPage(24, page, 25);
+        assertFalse(client.hasReports(23));
+        assertTrue(client.hasReports(24));
+        assertTrue(client.hasReports(25));
+        client.setReportsPage(3, pager.getPage(game, bob, 3, 3, false), 25);
+        assertTrue(client.hasReports(3));
+        assertFalse(client.hasReports(4));
+        assertEquals(25, client.getAllReports().size());
+    }
+
+    @Test
+    public void testFilteredRoundsAreKept() {
+        IGame game = createGame(5);
+        IPlayer bob = new Player(1, "Bob");
+        IPlayer alice = new Player(2, "Alice");
+        AtomicInteger obscured = new AtomicInteger();
+        ReportPager pager = new ReportPager(r -> {
+            obscured.incrementAndGet();
+            return null;
+        });
+
+        Vector<Report> bobs = pager.getPage(game, bob, 2, 2, true).get(0);
+        assertEquals(2, bobs.size());
+        assertEquals(3, pager.getPage(game, alice, 2, 2, true).get(0).size());
+        assertSame(bobs, pager.getPage(game, bob, 2, 2, true).get(0));
+        assertEquals(1, obscured.get());
+
+        // reports added to the round are filtered again
+        game.getReports(2).addElement(new Report(1000));
+        Vector<Report> again = pager.getPage(game, bob, 2, 2, true).get(0);
+        assertNotSame(bobs, again);
+        assertEquals(3, again.size());
+        assertEquals(2, obscured.get());
+    }
+}
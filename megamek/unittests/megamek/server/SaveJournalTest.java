@@ -0,0 +1,122 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Vector;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import megamek.common.BipedMech;
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.Mech;
+import megamek.common.Player;
+import megamek.common.Report;
+import megamek.common.Terrains;
+
+public class SaveJournalTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initializeTypes() {
+        EquipmentType.initializeTypes();
+    }
+
+    private static Entity addMech(Game game, String model) {
+        Entity mech = new BipedMech();
+        mech.setChassis("Atlas");
+        mech.setModel(model);
+        mech.setOwner(game.getPlayer(0));
+        game.addEntity(mech);
+        return mech;
+    }
+
+    private static void addReport(Game game, String text) {
+        Report report = new Report(1000);
+        report.add(text);
+        game.addReports(new Vector<>(Arrays.asList(report)));
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        Game game = new Game();
+        game.setBoard(new Board(8, 8));
+        game.addPlayer(0, new Player(0, "Tester"));
+        game.setRoundCount(1);
+        Entity first = addMech(game, "AS7-D");
+        Entity second = addMech(game, "AS7-K");
+        addReport(game, "first");
+
+        File file = new File(tmpFolder.getRoot(), "autosave" + SaveJournal.EXTENSION);
+        SaveJournal journal = new SaveJournal(file, 3);
+        GameSaver saver = new GameSaver();
+        journal.record(game, saver);
+
+        // a phase later: one unit was hit, a hex caught fire, a report was added
+        first.setArmor(5, Mech.LOC_CT);
+        Coords coords = new Coords(2, 3);
+        game.getBoard().setHex(coords, new Hex(0, "fire:1", ""));
+        journal.hexesChanged(Collections.singleton(coords));
+        addReport(game, "second");
+        journal.record(game, saver);
+
+        // and then a unit joined
+        addMech(game, "AS7-S");
+        long[] saved = new long[1];
+        journal.record(game, saver, () -> saved[0] = file.length());
+        saver.flush();
+        assertEquals(file.length(), saved[0]);
+        assertEquals(1, journal.getCheckpoints());
+        assertEquals(2, journal.getDeltas());
+        assertTrue(journal.getDeltaBytes() > 0);
+
+        // a record cut short by a crash is ignored
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] { 0, 0, 0, 1, 0, 0, 1, 0, 1, 2 });
+        }
+
+        IGame loaded = SaveJournal.replay(file);
+        assertEquals(3, loaded.getEntitiesVector().size());
+        assertEquals(5, loaded.getEntity(first.getId()).getArmor(Mech.LOC_CT));
+        assertEquals(second.getArmor(Mech.LOC_CT), loaded.getEntity(second.getId()).getArmor(Mech.LOC_CT));
+        assertEquals("AS7-S", loaded.getEntitiesVector().get(2).getModel());
+        assertTrue(loaded.getBoard().getHex(coords).containsTerrain(Terrains.FIRE));
+        assertEquals(2, loaded.getReports(1).size());
+        assertEquals("Tester", loaded.getPlayer(0).getName());
+
+        // a new checkpoint is due after three rounds
+        game.setRoundCount(4);
+        journal.record(game, saver);
+        saver.shutdown();
+        assertEquals(2, journal.getCheckpoints());
+        assertEquals(3, SaveJournal.replay(file).getEntitiesVector().size());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * MegaMek - Copyright (C) 2020 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.LosEffects;
+import megamek.common.MechFileParser;
+import megamek.common.PlanetaryConditions;
+import megamek.common.Player;
+import megamek.common.Terrains;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.options.OptionsConstants;
+
+public class VisibilityIndexTest {
+
+    /** A hex on the line between the two mechs */
+    private static final Coords ON_LINE = new Coords(5, 7);
+
+    private Entity spotter;
+    private Entity target;
+
+    /**
+     * Puts two mechs on an open board, looking at each other down a column.
+     */
+    private void setUpGame(IGame game) throws EntityLoadingException {
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(16, 17, hexes));
+        Player player = new Player(0, "Test");
+        game.addPlayer(0, player);
+        File dir = new File("data/mechfiles/mechs/ISP3");
+        spotter = new MechFileParser(new File(dir, "Arana MilitiaMech ARA-S-1.mtf")).getEntity();
+        target = new MechFileParser(new File(dir, "Reptar MilitiaMech EPT-C-1.mtf")).getEntity();
+        spotter.setOwner(player);
+        target.setOwner(player);
+        spotter.setPosition(new Coords(5, 2));
+        target.setPosition(new Coords(5, 12));
+        game.addEntity(spotter);
+        game.addEntity(target);
+    }
+
+    private static IHex createWoods() {
+        IHex hex = new Hex();
+        hex.addTerrain(Terrains.getTerrainFactory().createTerrain(Terrains.WOODS, 2));
+        return hex;
+    }
+
+    @Test
+    public void testMoverInvalidates() throws EntityLoadingException {
+        IGame game = new Game();
+        setUpGame(game);
+        VisibilityIndex index = new VisibilityIndex();
+        index.validate(game);
+        LosEffects los = index.getLos(spotter, target);
+        assertSame(los, index.getLos(spotter, target));
+
+        target.setPosition(new Coords(6, 12));
+        LosEffects moved = index.getLos(spotter, target);
+        assertNotSame(los, moved);
+        assertSame(moved, index.getLos(spotter, target));
+
+        target.setElevation(1);
+        assertNotSame(moved, index.getLos(spotter, target));
+    }
+
+    @Test
+    public void testBoardEventInvalidates() throws EntityLoadingException {
+        IGame game = new Game();
+        setUpGame(game);
+        VisibilityIndex index = new VisibilityIndex();
+        index.validate(game);
+        LosEffects los = index.getLos(spotter, target);
+
+        // a hex well off the line doesn't matter
+        game.getBoard().setHex(new Coords(13, 7), createWoods());
+        assertSame(los, index.getLos(spotter, target));
+
+        game.getBoard().setHex(ON_LINE, createWoods());
+        LosEffects changed = index.getLos(spotter, target);
+        assertNotSame(los, changed);
+        assertEquals(1, changed.getHeavyWoods());
+    }
+
+    @Test
+    public void testSendChangedHexInvalidates() throws IOException, EntityLoadingException {
+        Server server = new Server("", 0);
+        try {
+            IGame game = server.getGame();
+            setUpGame(game);
+            VisibilityIndex index = server.getVisibilityIndex();
+            index.validate(game);
+            LosEffects los = index.getLos(spotter, target);
+
+            // the server changes hexes in place, which the board doesn't tell
+            IHex hex = game.getBoard().getHex(ON_LINE);
+            hex.addTerrain(Terrains.getTerrainFactory().createTerrain(Terrains.WOODS, 2));
+
+            assertSame(los, index.getLos(spotter, target));
+            server.sendChangedHex(ON_LINE);
+            LosEffects changed = index.getLos(spotter, target);
+            assertNotSame(los, changed);
+            assertEquals(1, changed.getHeavyWoods());
+        } finally {
+            server.die();
+        }
+    }
+
+    @Test
+    public void testGlobalChangesInvalidate() throws EntityLoadingException {
+        IGame game = new Game();
+        setUpGame(game);
+        VisibilityIndex index = new VisibilityIndex();
+        index.validate(game);
+        LosEffects los = index.getLos(spotter, target);
+        index.validate(game);
+        assertSame(los, index.getLos(spotter, target));
+
+        game.getOptions().getOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1).setValue(true);
+        index.validate(game);
+        LosEffects option = index.getLos(spotter, target);
+        assertNotSame(los, option);
+
+        // the conditions are changed in place
+        game.getPlanetaryConditions().setFog(PlanetaryConditions.FOG_HEAVY);
+        index.validate(game);
+        assertNotSame(option, index.getLos(spotter, target));
+    }
+}